@@ -0,0 +1,110 @@
+package com.eomcs.advanced.collection.exam03;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// ArrayList vs LinkedList - JMH 성능 비교
+//
+// App2 는 System.nanoTime() 으로 직접 시간을 잰다.
+// - 워밍업(JIT 컴파일) 전의 시간이 섞이고,
+// - 결과를 사용하지 않는 코드는 JIT 가 제거(dead-code elimination)할 수 있고,
+// - 한 JVM 에서 측정하기 때문에 앞선 측정이 뒤 측정에 영향을 준다.
+//
+// JMH 는 워밍업, 포크(fork), Blackhole 을 이용해 이런 문제를 막는다.
+//
+// 실행:
+//   ./gradlew jmh -Pjmh.includes=ListBenchmark
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(2)
+public class ListBenchmark {
+
+  static final int SAMPLE_COUNT = 1_000;
+
+  @Param({"1000", "100000"})
+  int size;
+
+  @Param({"ArrayList", "LinkedList"})
+  String listType;
+
+  @Param({"Integer", "String"})
+  String elementType;
+
+  Object[] elements;
+  int[] sampleIndexes;
+  List<Object> list;
+
+  @Setup(Level.Trial)
+  public void prepareElements() {
+    elements = new Object[size];
+    for (int i = 0; i < size; i++) {
+      elements[i] = elementType.equals("Integer") ? Integer.valueOf(i) : "item-" + i;
+    }
+
+    // get(index) 는 리스트 전체를 훑는 대신, 고르게 흩어진 인덱스를 골라 조회한다.
+    // - LinkedList 에서 모든 인덱스를 조회하면 O(n²) 이라 한 번의 호출이 너무 길어진다.
+    sampleIndexes = new int[SAMPLE_COUNT];
+    for (int i = 0; i < SAMPLE_COUNT; i++) {
+      sampleIndexes[i] = (int) ((long) i * size / SAMPLE_COUNT);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void prepareList() {
+    list = newList();
+    for (Object e : elements) {
+      list.add(e);
+    }
+  }
+
+  List<Object> newList() {
+    return listType.equals("ArrayList") ? new ArrayList<>() : new LinkedList<>();
+  }
+
+  // 1. 끝에 추가
+  @Benchmark
+  public List<Object> addLast() {
+    List<Object> target = newList();
+    for (Object e : elements) {
+      target.add(e);
+    }
+    return target;
+  }
+
+  // 2. 인덱스 접근 (한 번의 get() 에 걸리는 평균 시간)
+  @Benchmark
+  @OperationsPerInvocation(SAMPLE_COUNT)
+  public void getByIndex(Blackhole bh) {
+    for (int index : sampleIndexes) {
+      bh.consume(list.get(index));
+    }
+  }
+
+  // 3. 맨 앞 삽입 + 삭제
+  // - 삽입 후 바로 삭제해서 반복하는 동안 리스트 크기를 일정하게 유지한다.
+  @Benchmark
+  public Object addFirstRemoveFirst() {
+    list.add(0, elements[0]);
+    return list.remove(0);
+  }
+}
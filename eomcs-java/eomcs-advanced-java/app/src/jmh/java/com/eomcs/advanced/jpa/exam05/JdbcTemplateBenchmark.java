@@ -0,0 +1,196 @@
+package com.eomcs.advanced.jpa.exam05;
+
+import com.eomcs.advanced.jpa.exam05.App.SimpleJdbcTemplate;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// SimpleJdbcTemplate - JMH 성능 비교 (H2 메모리 DB)
+//
+// 1) INSERT 1,000,000 행
+//    - insertEachRow : update() 를 행 마다 호출한다. (행 마다 커밋)
+//    - batchInsert   : batchUpdate() 로 batchSize 개씩 묶어서 한 트랜잭션으로 INSERT 한다.
+// 2) SELECT 1,000,000 행
+//    - queryList     : query() 로 모든 행을 List 에 담은 후 합계를 구한다.
+//    - queryStream   : queryForStream() 으로 한 행씩 읽으며 합계를 구한다.
+//    => 메모리 사용량 차이는 -prof gc 로 확인한다.
+// 3) 단건 조회 10,000 번
+//    - pointQuery    : queryForObject() 를 반복한다. statementCacheSize 가 0 이면 매번 prepare 한다.
+//
+// 한 번 실행하는 데 시간이 걸리는 작업이므로 SingleShotTime 으로 측정한다.
+// 메모리 DB 이므로 네트워크 왕복 비용은 없다. 실제 DB 서버에서는 배치와 캐시의 효과가 더 크다.
+//
+// 실행:
+//   ./gradlew jmh -Pjmh.includes=JdbcTemplateBenchmark
+//   ./gradlew jmh -Pjmh.includes=JdbcTemplateBenchmark.query  (조회만)
+//
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JdbcTemplateBenchmark {
+
+  static final int ROWS = 1_000_000;
+  static final int POINT_QUERIES = 10_000;
+
+  static final String INSERT_SQL =
+      "INSERT INTO bench_customer (id, name, email, city) VALUES (?, ?, ?, ?)";
+  static final String SELECT_SQL = "SELECT id, name, email, city FROM bench_customer";
+
+  static final App.RowMapper<App.Customer> MAPPER = App.CUSTOMER_MAPPER;
+
+  @State(Scope.Benchmark)
+  public static class Database {
+
+    @Param({"0", "64"})
+    int statementCacheSize;
+
+    HikariDataSource dataSource;
+    SimpleJdbcTemplate jdbc;
+    List<App.Customer> customers;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+      HikariConfig config = new HikariConfig();
+      // DB_CLOSE_DELAY=-1 : 연결이 모두 닫혀도 메모리 DB 를 유지한다.
+      config.setJdbcUrl("jdbc:h2:mem:bench" + statementCacheSize + ";DB_CLOSE_DELAY=-1");
+      config.setUsername("sa");
+      config.setPassword("");
+      config.setMaximumPoolSize(2);
+      dataSource = new HikariDataSource(config);
+      jdbc = new SimpleJdbcTemplate(dataSource, statementCacheSize);
+
+      customers = new ArrayList<>(ROWS);
+      for (int i = 1; i <= ROWS; i++) {
+        App.Customer c = new App.Customer();
+        c.id = i;
+        c.name = "name-" + i;
+        c.email = "user" + i + "@test.com";
+        c.city = "city-" + (i % 100);
+        customers.add(c);
+      }
+    }
+
+    // INSERT 측정 전에는 빈 테이블, SELECT 측정 전에는 ROWS 행이 들어 있는 테이블을 준비한다.
+    void recreateTable(boolean fill) throws Exception {
+      try (Connection conn = dataSource.getConnection();
+          Statement stmt = conn.createStatement()) {
+        stmt.execute("DROP TABLE IF EXISTS bench_customer");
+        stmt.execute("CREATE TABLE bench_customer ("
+            + "id BIGINT PRIMARY KEY, name VARCHAR(50), email VARCHAR(100), city VARCHAR(50))");
+      }
+      if (fill) {
+        jdbc.batchUpdate(INSERT_SQL, customers, 10_000, JdbcTemplateBenchmark::bind);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+      jdbc.close();
+      dataSource.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class EmptyTable {
+    @Setup(Level.Iteration)
+    public void prepare(Database db) throws Exception {
+      db.recreateTable(false);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class FilledTable {
+    @Setup(Level.Trial)
+    public void prepare(Database db) throws Exception {
+      db.recreateTable(true);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Batch {
+    @Param({"100", "1000", "10000"})
+    int batchSize;
+  }
+
+  static void bind(PreparedStatement pstmt, App.Customer c) throws SQLException {
+    pstmt.setLong(1, c.id);
+    pstmt.setString(2, c.name);
+    pstmt.setString(3, c.email);
+    pstmt.setString(4, c.city);
+  }
+
+  // ── 1) INSERT ─────────────────────────────────────────────────────────────
+
+  @Benchmark
+  public int insertEachRow(Database db, EmptyTable table) throws Exception {
+    int count = 0;
+    for (App.Customer c : db.customers) {
+      count += db.jdbc.update(INSERT_SQL, pstmt -> bind(pstmt, c));
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int[] batchInsert(Database db, EmptyTable table, Batch batch) throws Exception {
+    return db.jdbc.batchUpdate(INSERT_SQL, db.customers, batch.batchSize,
+        JdbcTemplateBenchmark::bind);
+  }
+
+  // ── 2) SELECT 전체 ───────────────────────────────────────────────────────
+
+  @Benchmark
+  public long queryList(Database db, FilledTable table) throws Exception {
+    long sum = 0;
+    for (App.Customer c : db.jdbc.query(SELECT_SQL, pstmt -> {}, MAPPER)) {
+      sum += c.id;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long queryStream(Database db, FilledTable table) throws Exception {
+    try (Stream<App.Customer> rows = db.jdbc.queryForStream(SELECT_SQL, pstmt -> {}, MAPPER)) {
+      return rows.mapToLong(c -> c.id).sum();
+    }
+  }
+
+  // ── 3) 단건 조회 ──────────────────────────────────────────────────────────
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 3, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  @OperationsPerInvocation(POINT_QUERIES)
+  public void pointQuery(Database db, FilledTable table, Blackhole bh) throws Exception {
+    for (int i = 0; i < POINT_QUERIES; i++) {
+      long id = 1 + (i * 7919L) % ROWS;
+      bh.consume(db.jdbc.queryForObject(SELECT_SQL + " WHERE id = ?",
+          pstmt -> pstmt.setLong(1, id), MAPPER));
+    }
+  }
+}
@@ -18,6 +18,10 @@ import java.util.List;
 // - 리스트의 맨 앞/중간에 삽입/삭제가 매우 빈번할 때
 // - Queue 또는 Deque(양방향 큐)로 사용할 때
 //
+// 주의!
+// - System.nanoTime() 으로 직접 잰 시간은 워밍업과 JIT 최적화의 영향을 받아 정확하지 않다.
+// - 신뢰할 수 있는 측정은 JMH 벤치마크(src/jmh/java/.../ListBenchmark)를 참고하라.
+//
 
 public class App2 {
 
@@ -0,0 +1,63 @@
+package com.eomcs.advanced.jpa;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Properties;
+import javax.sql.DataSource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+// JPA 예제(exam26 ~ exam30)의 실행 환경(profile)
+//
+// 기본: Oracle
+//   - DB_HOSTNAME, DB_PORT, DB_SERVICE_NAME, DB_USERNAME, DB_PASSWORD 환경 변수로 접속한다.
+//   - 테이블은 ddl-oracle.sql 로 미리 만들어 둔다. (hibernate.hbm2ddl.auto = none)
+//
+// h2: H2 메모리 DB
+//   - Oracle 없이 로컬이나 CI 에서 실행할 때 사용한다.
+//   - 엔티티 정의로 테이블을 만들고(create-drop), 애플리케이션을 종료하면 삭제한다.
+//   - 통계 수집(hibernate.generate_statistics)을 항상 켠다.
+//   - 활성화 방법
+//       SPRING_PROFILES_ACTIVE=h2 ./gradlew -q run -PmainClass=...App
+//       또는 java -Dspring.profiles.active=h2 ...App
+//       (./gradlew 에 붙인 -D 옵션은 run 태스크가 실행하는 JVM 에 전달되지 않는다.)
+//       또는 ctx.getEnvironment().setActiveProfiles(JpaProfiles.H2)
+//   - SQL 출력 끄기: -Djpa.show-sql=false (테스트에서 사용)
+//
+public final class JpaProfiles {
+
+  public static final String H2 = "h2";
+
+  private JpaProfiles() {}
+
+  public static boolean isH2(Environment env) {
+    return env.acceptsProfiles(Profiles.of(H2));
+  }
+
+  // name: 메모리 DB 이름. 예제 마다 다른 이름을 사용해야 테이블 정의가 섞이지 않는다.
+  public static DataSource h2DataSource(String name, int maximumPoolSize) {
+    HikariConfig config = new HikariConfig();
+    // DEFAULT_NULL_ORDERING=HIGH: NULL 정렬 순서를 Oracle 과 같게 한다.
+    // DB_CLOSE_DELAY=-1        : 연결이 모두 닫혀도 DB 를 유지한다. (풀이 연결을 다시 만들 때)
+    // MODE=Oracle 은 쓰지 않는다.
+    // => Oracle 모드에서는 '' 가 NULL 이 되어, H2Dialect 가 LIKE 에 붙이는 ESCAPE '' 때문에
+    //    LIKE 조건이 항상 NULL(거짓)이 된다. (exam29 의 이메일 패턴 조회/삭제)
+    config.setJdbcUrl("jdbc:h2:mem:" + name
+        + ";DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+    config.setUsername("sa");
+    config.setPassword("");
+    config.setMaximumPoolSize(maximumPoolSize);
+    return new HikariDataSource(config);
+  }
+
+  // h2 profile 이면 Oracle 용 설정을 H2 용으로 바꾼다.
+  public static void applyJpaProperties(Environment env, Properties props) {
+    if (!isH2(env)) {
+      return;
+    }
+    props.setProperty("hibernate.dialect",             "org.hibernate.dialect.H2Dialect");
+    props.setProperty("hibernate.hbm2ddl.auto",        "create-drop");
+    props.setProperty("hibernate.generate_statistics", "true");
+    props.setProperty("hibernate.show_sql",            env.getProperty("jpa.show-sql", "true"));
+  }
+}
@@ -0,0 +1,90 @@
+package com.eomcs.advanced.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// 코드 블록이 실행한 SQL 문 수 세기 / 제한하기
+//
+// Hibernate 는 SQL 문을 준비(prepare)하기 전에 StatementInspector.inspect() 를 호출한다.
+// 이 클래스는 그 때마다 현재 스레드에서 실행 중인 블록에 SQL 을 기록한다.
+//
+// 등록 (JpaConfig):
+//   props.setProperty("hibernate.session_factory.statement_inspector",
+//       QueryCountGuard.class.getName());
+//
+// 사용:
+//   int count = QueryCountGuard.count(() -> ...);
+//   QueryCountGuard.expectAtMost(1, () -> ...); // SQL 을 2번 이상 실행하면 AssertionError
+//   => 테스트에서 N+1 문제가 다시 생기면 바로 실패한다.
+//
+// 주의:
+//   - 블록을 실행한 스레드의 SQL 만 센다.
+//   - 블록을 중첩하면 바깥 블록도 안쪽 블록의 SQL 을 함께 센다.
+//   - 같은 PreparedStatement 를 JDBC 배치로 여러 번 실행해도 한 번으로 센다.
+//
+public class QueryCountGuard implements StatementInspector {
+
+  private static final long serialVersionUID = 1L;
+
+  // 실패 메시지에 출력할 SQL 개수
+  static final int MAX_REPORTED = 5;
+
+  private static final ThreadLocal<Block> CURRENT = new ThreadLocal<>();
+
+  static final class Block {
+    final Block parent;
+    final List<String> statements = new ArrayList<>();
+
+    Block(Block parent) {
+      this.parent = parent;
+    }
+  }
+
+  @Override
+  public String inspect(String sql) {
+    for (Block block = CURRENT.get(); block != null; block = block.parent) {
+      block.statements.add(sql);
+    }
+    return sql;
+  }
+
+  // task 를 실행하는 동안 준비한 SQL 문 목록을 리턴한다.
+  public static List<String> record(Runnable task) {
+    Block block = new Block(CURRENT.get());
+    CURRENT.set(block);
+    try {
+      task.run();
+    } finally {
+      if (block.parent == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(block.parent);
+      }
+    }
+    return block.statements;
+  }
+
+  public static int count(Runnable task) {
+    return record(task).size();
+  }
+
+  // task 가 SQL 문을 max 번보다 많이 실행하면 AssertionError 를 던진다.
+  // 리턴 값: 실행한 SQL 문 수
+  public static int expectAtMost(int max, Runnable task) {
+    List<String> statements = record(task);
+    if (statements.size() > max) {
+      StringBuilder message = new StringBuilder()
+          .append("SQL 문을 ").append(statements.size()).append("번 실행했습니다. (허용: ")
+          .append(max).append("번)");
+      for (int i = 0; i < Math.min(statements.size(), MAX_REPORTED); i++) {
+        message.append("\n  ").append(i + 1).append(": ").append(statements.get(i));
+      }
+      if (statements.size() > MAX_REPORTED) {
+        message.append("\n  ...");
+      }
+      throw new AssertionError(message.toString());
+    }
+    return statements.size();
+  }
+}
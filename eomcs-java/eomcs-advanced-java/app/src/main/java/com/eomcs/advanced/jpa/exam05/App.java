@@ -7,8 +7,20 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // exam05 - JDBC Template 패턴 직접 구현
 //
@@ -21,13 +33,20 @@ import java.util.Optional;
 // 이 예제에서 구현하는 클래스:
 //   SimpleJdbcTemplate  → 공통 로직(템플릿)을 담당
 //   StatementSetter     → PreparedStatement에 파라미터를 바인딩하는 콜백
+//   ParameterizedSetter → 목록의 항목 하나를 PreparedStatement에 바인딩하는 콜백 (배치용)
 //   RowMapper<T>        → ResultSet 한 행을 T로 변환하는 콜백
 //
 // Spring JdbcTemplate 대응:
-//   SimpleJdbcTemplate.query()  → JdbcTemplate.query()
-//   SimpleJdbcTemplate.update() → JdbcTemplate.update()
-//   StatementSetter             → PreparedStatementSetter
-//   RowMapper<T>                → RowMapper<T>
+//   SimpleJdbcTemplate.query()          → JdbcTemplate.query()
+//   SimpleJdbcTemplate.queryForStream() → JdbcTemplate.queryForStream()
+//   SimpleJdbcTemplate.update()         → JdbcTemplate.update()
+//   SimpleJdbcTemplate.batchUpdate()    → JdbcTemplate.batchUpdate(sql, args, batchSize, pss)
+//   StatementSetter                     → PreparedStatementSetter
+//   ParameterizedSetter<T>              → ParameterizedPreparedStatementSetter<T>
+//   RowMapper<T>                        → RowMapper<T>
+//
+// 성능 측정 (H2 메모리 DB, 1,000,000 행):
+//   ./gradlew jmh -Pjmh.includes=JdbcTemplateBenchmark
 //
 // 실행 방법:
 //   ./gradlew run -PmainClass=com.eomcs.advanced.jpa.exam05.App
@@ -42,38 +61,132 @@ public class App {
     void setValues(PreparedStatement pstmt) throws SQLException;
   }
 
+  // 목록의 항목 하나를 PreparedStatement에 바인딩하는 콜백 (batchUpdate 용)
+  @FunctionalInterface
+  interface ParameterizedSetter<T> {
+    void setValues(PreparedStatement pstmt, T item) throws SQLException;
+  }
+
   // ResultSet 현재 행을 T로 변환하는 콜백
   @FunctionalInterface
   interface RowMapper<T> {
     T mapRow(ResultSet rs) throws SQLException;
   }
 
+  // 스트림에서는 검사 예외(SQLException)를 던질 수 없으므로 이 예외로 감싸서 던진다.
+  static class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    UncheckedSQLException(SQLException cause) {
+      super(cause);
+    }
+  }
+
   // ── 템플릿 클래스 ──────────────────────────────────────────────────────────
 
   // SimpleJdbcTemplate: JDBC 공통 로직을 캡슐화한 템플릿
-  static class SimpleJdbcTemplate {
+  static class SimpleJdbcTemplate implements AutoCloseable {
+
+    static final int DEFAULT_BATCH_SIZE = 1_000;
+    static final int DEFAULT_FETCH_SIZE = 1_000;
 
     private final HikariDataSource dataSource;
 
+    // 연결(물리 연결) 마다 PreparedStatement 를 캐시한다. 0 이면 캐시하지 않는다.
+    // - 캐시는 PreparedStatement 를 통해 연결을 참조하므로 약한 참조(WeakHashMap)로는 지워지지 않는다.
+    //   닫힌 연결의 캐시는 evictClosedConnections() 와 close() 로 직접 지운다.
+    private final int statementCacheSize;
+    private final Map<Connection, StatementCache> statementCaches = new IdentityHashMap<>();
+
+    // queryForStream() 이 DB 에서 한 번에 가져올 행의 개수
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
     SimpleJdbcTemplate(HikariDataSource dataSource) {
+      this(dataSource, 0);
+    }
+
+    SimpleJdbcTemplate(HikariDataSource dataSource, int statementCacheSize) {
       this.dataSource = dataSource;
+      this.statementCacheSize = statementCacheSize;
+    }
+
+    void setFetchSize(int fetchSize) {
+      this.fetchSize = fetchSize;
     }
 
     // SELECT → 다건 조회
     <T> List<T> query(String sql, StatementSetter setter, RowMapper<T> mapper) throws Exception {
       List<T> list = new ArrayList<>();
-      try (Connection conn         = dataSource.getConnection();
-           PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        setter.setValues(pstmt);                 // 콜백: 파라미터 바인딩
-        try (ResultSet rs = pstmt.executeQuery()) {
-          while (rs.next()) {
-            list.add(mapper.mapRow(rs));          // 콜백: 행 변환
+      try (Connection conn = dataSource.getConnection()) {
+        PreparedStatement pstmt = prepare(conn, sql);
+        try {
+          setter.setValues(pstmt);               // 콜백: 파라미터 바인딩
+          try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+              list.add(mapper.mapRow(rs));        // 콜백: 행 변환
+            }
           }
+        } finally {
+          release(pstmt);
         }
       }
       return list;
     }
 
+    // SELECT → 다건 조회 (Stream 으로 한 행씩 변환)
+    // - query() 는 모든 행을 List 에 담은 후 리턴한다. 행이 많으면 메모리가 부족해진다.
+    // - 이 메서드는 스트림에서 값을 꺼낼 때마다 ResultSet 의 다음 행을 읽는다.
+    //   DB 에서는 fetchSize 개씩 나눠서 가져온다.
+    // - 스트림을 닫을 때까지 Connection 을 사용하므로 반드시 try-with-resources 로 닫아야 한다.
+    //     try (Stream<Customer> s = jdbc.queryForStream(...)) { ... }
+    <T> Stream<T> queryForStream(String sql, StatementSetter setter, RowMapper<T> mapper)
+        throws Exception {
+      Connection conn = dataSource.getConnection();
+      PreparedStatement pstmt = null;
+      int previousFetchSize = 0;
+      ResultSet rs;
+      try {
+        pstmt = prepare(conn, sql);
+        // 캐시한 PreparedStatement 는 다른 query() 에서도 사용하므로 닫을 때 원래 값으로 되돌린다.
+        previousFetchSize = pstmt.getFetchSize();
+        pstmt.setFetchSize(fetchSize);
+        setter.setValues(pstmt);                 // 콜백: 파라미터 바인딩
+        rs = pstmt.executeQuery();
+      } catch (Exception e) {
+        restoreFetchSize(pstmt, previousFetchSize);
+        closeQuietly(pstmt, conn);
+        throw e;
+      }
+
+      PreparedStatement stmt = pstmt;
+      int originalFetchSize = previousFetchSize;
+      Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(
+          Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+          try {
+            if (!rs.next()) {
+              return false;
+            }
+            action.accept(mapper.mapRow(rs));    // 콜백: 행 변환
+            return true;
+          } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+          }
+        }
+      };
+
+      return StreamSupport.stream(rows, false).onClose(() -> {
+        try {
+          rs.close();
+        } catch (SQLException e) {
+          // 닫는 중 예외는 무시한다.
+        }
+        restoreFetchSize(stmt, originalFetchSize);
+        closeQuietly(stmt, conn);
+      });
+    }
+
     // SELECT → 단건 조회 (결과가 없으면 Optional.empty())
     <T> Optional<T> queryForObject(String sql, StatementSetter setter, RowMapper<T> mapper) throws Exception {
       List<T> result = query(sql, setter, mapper);
@@ -82,10 +195,198 @@ public class App {
 
     // INSERT / UPDATE / DELETE
     int update(String sql, StatementSetter setter) throws Exception {
-      try (Connection conn         = dataSource.getConnection();
-           PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        setter.setValues(pstmt);                 // 콜백: 파라미터 바인딩
-        return pstmt.executeUpdate();
+      try (Connection conn = dataSource.getConnection()) {
+        PreparedStatement pstmt = prepare(conn, sql);
+        try {
+          setter.setValues(pstmt);               // 콜백: 파라미터 바인딩
+          return pstmt.executeUpdate();
+        } finally {
+          release(pstmt);
+        }
+      }
+    }
+
+    // 여러 행 INSERT / UPDATE / DELETE (배치)
+    <T> int[] batchUpdate(String sql, List<T> items, ParameterizedSetter<T> setter)
+        throws Exception {
+      return batchUpdate(sql, items, DEFAULT_BATCH_SIZE, setter);
+    }
+
+    // - batchSize 개씩 addBatch() 로 모았다가 executeBatch() 로 한 번에 DB 에 보낸다.
+    //   => update() 를 여러 번 호출하면 행 마다 DB 와 한 번씩 통신하고 커밋한다.
+    // - 모든 묶음을 한 트랜잭션으로 실행한다. 하나라도 실패하면 전부 롤백한다.
+    // - 리턴 값: 항목 별로 영향 받은 행 수 (JDBC 드라이버가 모르면 Statement.SUCCESS_NO_INFO)
+    <T> int[] batchUpdate(String sql, List<T> items, int batchSize,
+        ParameterizedSetter<T> setter) throws Exception {
+      if (batchSize <= 0) {
+        throw new IllegalArgumentException("batchSize 는 0 보다 커야 합니다: " + batchSize);
+      }
+
+      int[] counts = new int[items.size()];
+      try (Connection conn = dataSource.getConnection()) {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        PreparedStatement pstmt = prepare(conn, sql);
+        try {
+          int done = 0;
+          for (int i = 0; i < items.size(); i++) {
+            setter.setValues(pstmt, items.get(i)); // 콜백: 항목 바인딩
+            pstmt.addBatch();
+            if ((i + 1) % batchSize == 0 || i == items.size() - 1) {
+              int[] result = pstmt.executeBatch();
+              System.arraycopy(result, 0, counts, done, result.length);
+              done += result.length;
+            }
+          }
+          conn.commit();
+        } catch (Exception e) {
+          conn.rollback();
+          throw e;
+        } finally {
+          pstmt.clearBatch();
+          release(pstmt);
+          conn.setAutoCommit(autoCommit);
+        }
+      }
+      return counts;
+    }
+
+    // ── PreparedStatement 캐시 ─────────────────────────────────────────────
+
+    // 같은 SQL 은 파싱한 PreparedStatement 를 다시 사용한다.
+    // - HikariCP 가 빌려주는 Connection 은 프록시(proxy)이고,
+    //   프록시를 닫으면 그 프록시로 만든 PreparedStatement 도 모두 닫힌다.
+    //   그래서 실제 연결(unwrap)로 PreparedStatement 를 만들고 실제 연결 별로 보관한다.
+    // - 실제 연결은 한 번에 한 스레드만 빌려 가므로 연결 별 캐시는 잠글 필요가 없다.
+    //   연결 => 캐시 맵만 잠근다.
+    // - 풀은 오래된 연결을 닫고(maxLifetime, 오류 등) 새 연결을 만든다.
+    //   처음 보는 연결의 캐시를 만들 때 닫힌 연결의 캐시를 지운다.
+    //   => 맵에는 살아 있는 연결과, 지난 번 정리 이후 닫힌 연결의 캐시만 남는다.
+    private PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+      if (statementCacheSize == 0) {
+        return conn.prepareStatement(sql);
+      }
+      Connection physical = conn.unwrap(Connection.class);
+      StatementCache cache;
+      synchronized (statementCaches) {
+        cache = statementCaches.get(physical);
+        if (cache == null) {
+          evictClosedConnections();
+          cache = new StatementCache(statementCacheSize);
+          statementCaches.put(physical, cache);
+        }
+      }
+      PreparedStatement pstmt = cache.get(sql);
+      if (pstmt == null || pstmt.isClosed()) {
+        pstmt = physical.prepareStatement(sql);
+        cache.put(sql, pstmt);
+      }
+      return pstmt;
+    }
+
+    // 닫힌 연결의 PreparedStatement 를 닫고 캐시를 지운다. (statementCaches 를 잠근 상태에서 호출)
+    private void evictClosedConnections() {
+      Iterator<Map.Entry<Connection, StatementCache>> i = statementCaches.entrySet().iterator();
+      while (i.hasNext()) {
+        Map.Entry<Connection, StatementCache> entry = i.next();
+        boolean closed;
+        try {
+          closed = entry.getKey().isClosed();
+        } catch (SQLException e) {
+          closed = true;
+        }
+        if (closed) {
+          entry.getValue().closeAll();
+          i.remove();
+        }
+      }
+    }
+
+    // 캐시한 PreparedStatement 를 모두 닫는다. 연결은 풀이 관리하므로 닫지 않는다.
+    @Override
+    public void close() {
+      synchronized (statementCaches) {
+        for (StatementCache cache : statementCaches.values()) {
+          cache.closeAll();
+        }
+        statementCaches.clear();
+      }
+    }
+
+    int getCachedConnectionCount() {
+      synchronized (statementCaches) {
+        return statementCaches.size();
+      }
+    }
+
+    // 캐시한 PreparedStatement 는 닫지 않고 파라미터만 지운다.
+    private void release(PreparedStatement pstmt) throws SQLException {
+      if (statementCacheSize == 0) {
+        pstmt.close();
+      } else {
+        pstmt.clearParameters();
+      }
+    }
+
+    private void restoreFetchSize(PreparedStatement pstmt, int fetchSize) {
+      if (pstmt == null || statementCacheSize == 0) {
+        return;
+      }
+      try {
+        pstmt.setFetchSize(fetchSize);
+      } catch (SQLException e) {
+        // 닫힌 PreparedStatement 는 다음에 prepare() 에서 새로 만든다.
+      }
+    }
+
+    private void closeQuietly(PreparedStatement pstmt, Connection conn) {
+      try {
+        if (pstmt != null) {
+          release(pstmt);
+        }
+      } catch (SQLException e) {
+        // 닫는 중 예외는 무시한다.
+      }
+      try {
+        conn.close();
+      } catch (SQLException e) {
+        // 닫는 중 예외는 무시한다.
+      }
+    }
+
+    // SQL 별 PreparedStatement. 가장 오래 사용하지 않은 것부터 닫는다. (LRU)
+    static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+      private static final long serialVersionUID = 1L;
+
+      final int maxSize;
+
+      StatementCache(int maxSize) {
+        super(16, 0.75f, true);
+        this.maxSize = maxSize;
+      }
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+        if (size() <= maxSize) {
+          return false;
+        }
+        closeQuietly(eldest.getValue());
+        return true;
+      }
+
+      void closeAll() {
+        for (PreparedStatement pstmt : values()) {
+          closeQuietly(pstmt);
+        }
+        clear();
+      }
+
+      static void closeQuietly(PreparedStatement pstmt) {
+        try {
+          pstmt.close();
+        } catch (SQLException e) {
+          // 닫는 중 예외는 무시한다.
+        }
       }
     }
   }
@@ -148,8 +449,8 @@ public class App {
     config.setPassword(System.getenv("DB_PASSWORD"));
     config.setMaximumPoolSize(3);
 
-    try (HikariDataSource ds = new HikariDataSource(config)) {
-      SimpleJdbcTemplate jdbc = new SimpleJdbcTemplate(ds);
+    try (HikariDataSource ds = new HikariDataSource(config);
+        SimpleJdbcTemplate jdbc = new SimpleJdbcTemplate(ds)) {
 
       // 1. 전체 고객 조회
       System.out.println("=== 전체 고객 ===");
@@ -193,9 +494,36 @@ public class App {
           PRODUCT_MAPPER);
       updated.ifPresent(p -> System.out.println("  업데이트 후: " + p));
 
+      // 5. 여러 행을 배치로 UPDATE (한 트랜잭션)
+      System.out.println("\n=== 재고 복구 (batchUpdate) ===");
+      List<long[]> restocks = List.of(new long[] {1L, 1}); // {product id, 수량}
+      int[] counts = jdbc.batchUpdate(
+          "UPDATE shop_product SET stock = stock + ? WHERE id = ?",
+          restocks,
+          100, // 배치 크기
+          (pstmt, item) -> {
+            pstmt.setLong(1, item[1]);
+            pstmt.setLong(2, item[0]);
+          });
+      System.out.println("  항목 별 영향 행 수: " + Arrays.toString(counts));
+
+      // 6. Stream 으로 한 행씩 조회 (전체를 List 에 담지 않는다)
+      System.out.println("\n=== 도시별 고객 수 (queryForStream) ===");
+      try (Stream<Customer> customers = jdbc.queryForStream(
+          "SELECT id, name, email, city FROM shop_customer",
+          pstmt -> { /* 파라미터 없음 */ },
+          CUSTOMER_MAPPER)) {
+        customers
+            .collect(Collectors.groupingBy(c -> c.city,
+                TreeMap::new, Collectors.counting()))
+            .forEach((city, count) -> System.out.printf("  %s: %d%n", city, count));
+      }
+
       System.out.println("\n[정리]");
-      System.out.println("  SimpleJdbcTemplate.query()  ≈ Spring JdbcTemplate.query()");
-      System.out.println("  SimpleJdbcTemplate.update() ≈ Spring JdbcTemplate.update()");
+      System.out.println("  SimpleJdbcTemplate.query()          ≈ Spring JdbcTemplate.query()");
+      System.out.println("  SimpleJdbcTemplate.queryForStream() ≈ Spring JdbcTemplate.queryForStream()");
+      System.out.println("  SimpleJdbcTemplate.update()         ≈ Spring JdbcTemplate.update()");
+      System.out.println("  SimpleJdbcTemplate.batchUpdate()    ≈ Spring JdbcTemplate.batchUpdate()");
       System.out.println("  → 공통 로직(템플릿)은 변하지 않고, SQL·바인딩·매핑(콜백)만 교체된다.");
     }
   }
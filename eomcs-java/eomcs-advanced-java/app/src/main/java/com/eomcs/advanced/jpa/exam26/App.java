@@ -69,6 +69,7 @@ public class App {
         System.out.println("[해결법]");
         System.out.println("  JOIN FETCH  : App2 참고 - findAllWithOrders()");
         System.out.println("  @EntityGraph: App2 참고 - findAllWithOrdersGraph()");
+        System.out.println("  Batch Fetch : App3 참고 - default_batch_fetch_size / @BatchSize");
       });
     }
   }
@@ -0,0 +1,141 @@
+package com.eomcs.advanced.jpa.exam26;
+
+import com.eomcs.advanced.jpa.JpaProfiles;
+import com.eomcs.advanced.jpa.QueryCountGuard;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// exam26 - N+1 문제 해결: Batch Fetch (default_batch_fetch_size / @BatchSize)
+//
+// 해결법 3. Batch Fetch
+//   hibernate.default_batch_fetch_size = 100
+//   → 한 고객의 orders 를 처음 접근할 때, 영속성 컨텍스트에 있는 다른 고객의 orders 도
+//     최대 100개까지 한꺼번에 로드한다.
+//       SELECT ... FROM shop_orders WHERE customer_id IN (?, ?, ..., ?)
+//   → 쿼리 수: 1 + ceil(N / 100)  (고객 10,000명이면 101번)
+//   → 조회 쿼리(findAll)를 고칠 필요가 없다. LAZY 로딩 코드를 그대로 둔 채 설정만 바꾼다.
+//   → JOIN FETCH 와 달리 고객 행이 주문 수만큼 중복되지 않고, 페이징과 함께 쓸 수 있다.
+//
+//   연관 필드 하나에만 적용하려면 엔티티에 @BatchSize 를 붙인다.
+//     @BatchSize(size = 100)
+//     @OneToMany(mappedBy = "customer", fetch = FetchType.LAZY)
+//     private List<Order> orders;
+//   이 예제는 App(N+1 재현)의 동작을 바꾸지 않도록 설정(jpa.batch-fetch-size)으로 적용한다.
+//
+// QueryCountGuard 로 각 해결법이 실행한 SQL 문 수와 실행 시간을 출력한다.
+//
+// 실행 방법:
+//   Oracle: 테이블과 데이터(sample-oracle.sql)가 미리 있어야 한다.
+//     ./gradlew -q run -PmainClass=com.eomcs.advanced.jpa.exam26.App3 --args="100"
+//   h2 profile: 실행할 때 고객과 주문 데이터를 넣는다. SQL 출력은 끈다.
+//     SPRING_PROFILES_ACTIVE=h2 ./gradlew -q run -PmainClass=com.eomcs.advanced.jpa.exam26.App3 \
+//         --args="100 10000 5"
+//   (인자: batch fetch 크기(기본 100), h2 고객 수(기본 10000), h2 고객 당 주문 수(기본 5))
+//
+public class App3 {
+
+  public static void main(String[] args) throws Exception {
+    String batchFetchSize = args.length > 0 ? args[0] : "100";
+    int customerCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+    int ordersPerCustomer = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext()) {
+      // JpaConfig 가 jpa.batch-fetch-size 프로퍼티를 hibernate.default_batch_fetch_size 로 설정한다.
+      // h2 profile 에서는 수만 개의 SQL 이 출력되지 않도록 jpa.show-sql 을 끈다.
+      ctx.getEnvironment().getPropertySources().addFirst(
+          new MapPropertySource("app3", Map.of(
+              "jpa.batch-fetch-size", batchFetchSize,
+              "jpa.show-sql", "false")));
+      ctx.register(JpaConfig.class);
+      ctx.refresh();
+
+      // h2 profile 의 메모리 DB 는 비어 있다. => 데이터를 넣는다.
+      if (JpaProfiles.isH2(ctx.getEnvironment())) {
+        seed(ctx.getBean(DataSource.class), customerCount, ordersPerCustomer);
+        System.out.printf("h2: 고객 %,d명, 고객 당 주문 %d개를 넣었다.%n%n",
+            customerCount, ordersPerCustomer);
+      }
+
+      CustomerRepository repo = ctx.getBean(CustomerRepository.class);
+      TransactionTemplate txTemplate =
+          new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+
+      System.out.println("=== 해결법 3: Batch Fetch (default_batch_fetch_size = "
+          + batchFetchSize + ") ===");
+      System.out.println(">> findAll() 후 각 고객의 주문 수 출력 - App 과 같은 코드\n");
+
+      System.out.printf("%-28s %8s %8s %10s%n", "전략", "고객", "쿼리", "시간(ms)");
+      run("LAZY + Batch Fetch",              repo::findAll,                 txTemplate);
+      run("JOIN FETCH (DISTINCT)",           repo::findAllWithOrders,       txTemplate);
+      run("@EntityGraph",                    repo::findAllWithOrdersGraph,  txTemplate);
+
+      System.out.println("\n[정리]");
+      System.out.println("  JOIN FETCH / @EntityGraph : 쿼리 1번, 고객 행이 주문 수만큼 중복 전송");
+      System.out.println("  Batch Fetch               : 쿼리 1 + ceil(N / 크기)번, 조회 코드 변경 없음");
+    }
+  }
+
+  // 고객과 주문을 JDBC 배치로 넣는다. (QueryCountGuard 에 세지 않는다.)
+  static void seed(DataSource ds, int customerCount, int ordersPerCustomer) throws SQLException {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    String[] cities = {"서울", "부산", "대전", "인천"};
+    try (Connection conn = ds.getConnection();
+        PreparedStatement customerStmt = conn.prepareStatement(
+            "INSERT INTO shop_customer (id, name, email, city, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?)");
+        PreparedStatement orderStmt = conn.prepareStatement(
+            "INSERT INTO shop_orders (customer_id, order_status, order_date, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?)")) {
+      conn.setAutoCommit(false);
+      for (int i = 1; i <= customerCount; i++) {
+        customerStmt.setLong(1, i);
+        customerStmt.setString(2, "고객" + i);
+        customerStmt.setString(3, "user" + i + "@test.com");
+        customerStmt.setString(4, cities[i % cities.length]);
+        customerStmt.setTimestamp(5, now);
+        customerStmt.setTimestamp(6, now);
+        customerStmt.addBatch();
+        for (int j = 0; j < ordersPerCustomer; j++) {
+          orderStmt.setLong(1, i);
+          orderStmt.setString(2, j % 2 == 0 ? "ORDERED" : "DELIVERED");
+          orderStmt.setTimestamp(3, now);
+          orderStmt.setTimestamp(4, now);
+          orderStmt.setTimestamp(5, now);
+          orderStmt.addBatch();
+        }
+        if (i % 1000 == 0) {
+          customerStmt.executeBatch();
+          orderStmt.executeBatch();
+        }
+      }
+      customerStmt.executeBatch();
+      orderStmt.executeBatch();
+      conn.commit();
+    }
+  }
+
+  static void run(String strategy, Supplier<List<Customer>> finder,
+      TransactionTemplate txTemplate) {
+    int[] customers = new int[1];
+    long start = System.nanoTime();
+    int statements = QueryCountGuard.count(() -> txTemplate.executeWithoutResult(status -> {
+      List<Customer> list = finder.get();
+      for (Customer c : list) {
+        c.getOrders().size();
+      }
+      customers[0] = list.size();
+    }));
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    System.out.printf("%-28s %,8d %,8d %,10d%n", strategy, customers[0], statements, millis);
+  }
+}
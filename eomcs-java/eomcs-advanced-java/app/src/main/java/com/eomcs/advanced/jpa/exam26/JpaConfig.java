@@ -1,5 +1,7 @@
 package com.eomcs.advanced.jpa.exam26;
 
+import com.eomcs.advanced.jpa.JpaProfiles;
+import com.eomcs.advanced.jpa.QueryCountGuard;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
@@ -7,6 +9,7 @@ import java.util.Properties;
 import javax.sql.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -20,6 +23,13 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 //   각 엔티티의 연관 데이터를 로드하기 위해 N번의 추가 쿼리가 실행되는 현상
 //
 // showSql=true로 실행 시 콘솔에서 쿼리 횟수를 직접 확인할 수 있다.
+// QueryCountGuard 를 등록하여 코드 블록이 실행한 SQL 문 수를 셀 수 있다.
+//
+// jpa.batch-fetch-size 프로퍼티 (기본: 없음)
+//   값을 지정하면 hibernate.default_batch_fetch_size 로 설정한다. (해결법 3 - App3)
+//   LAZY 연관을 처음 접근할 때 영속성 컨텍스트에 있는 다른 고객의 주문도
+//   최대 이 개수만큼 IN 조건으로 한꺼번에 로드한다. => 쿼리 1 + ceil(N / 크기) 번
+//   예) -Djpa.batch-fetch-size=100
 //
 @Configuration
 @EnableJpaRepositories(basePackages = "com.eomcs.advanced.jpa.exam26")
@@ -27,7 +37,12 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class JpaConfig {
 
   @Bean
-  public DataSource dataSource() {
+  public DataSource dataSource(Environment env) {
+    // h2 profile: Oracle 없이 H2 메모리 DB 로 실행한다. (JpaProfiles 참고)
+    if (JpaProfiles.isH2(env)) {
+      return JpaProfiles.h2DataSource("exam26", 5);
+    }
+
     String host    = System.getenv("DB_HOSTNAME");
     String port    = System.getenv("DB_PORT");
     String service = System.getenv("DB_SERVICE_NAME");
@@ -41,7 +56,8 @@ public class JpaConfig {
   }
 
   @Bean
-  public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+  public LocalContainerEntityManagerFactoryBean entityManagerFactory(
+      DataSource dataSource, Environment env) {
     LocalContainerEntityManagerFactoryBean emfb = new LocalContainerEntityManagerFactoryBean();
     emfb.setDataSource(dataSource);
     emfb.setPackagesToScan("com.eomcs.advanced.jpa.exam26");
@@ -55,6 +71,13 @@ public class JpaConfig {
     props.setProperty("hibernate.use_sql_comments", "true");
     props.setProperty("hibernate.hbm2ddl.auto",     "none");
     props.setProperty("hibernate.dialect",          "org.hibernate.dialect.OracleDialect");
+    props.setProperty("hibernate.session_factory.statement_inspector",
+        QueryCountGuard.class.getName());
+    String batchFetchSize = env.getProperty("jpa.batch-fetch-size");
+    if (batchFetchSize != null) {
+      props.setProperty("hibernate.default_batch_fetch_size", batchFetchSize);
+    }
+    JpaProfiles.applyJpaProperties(env, props); // h2 profile 이면 H2 용 설정으로 바꾼다.
     emfb.setJpaProperties(props);
     return emfb;
   }
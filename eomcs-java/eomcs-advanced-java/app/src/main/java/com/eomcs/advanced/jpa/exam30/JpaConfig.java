@@ -1,5 +1,6 @@
 package com.eomcs.advanced.jpa.exam30;
 
+import com.eomcs.advanced.jpa.JpaProfiles;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
@@ -8,6 +9,7 @@ import javax.sql.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -34,7 +36,12 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class JpaConfig {
 
   @Bean
-  public DataSource dataSource() {
+  public DataSource dataSource(Environment env) {
+    // h2 profile: Oracle 없이 H2 메모리 DB 로 실행한다. (JpaProfiles 참고)
+    if (JpaProfiles.isH2(env)) {
+      return JpaProfiles.h2DataSource("exam30", 5);
+    }
+
     String host    = System.getenv("DB_HOSTNAME");
     String port    = System.getenv("DB_PORT");
     String service = System.getenv("DB_SERVICE_NAME");
@@ -48,7 +55,8 @@ public class JpaConfig {
   }
 
   @Bean
-  public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+  public LocalContainerEntityManagerFactoryBean entityManagerFactory(
+      DataSource dataSource, Environment env) {
     LocalContainerEntityManagerFactoryBean emfb = new LocalContainerEntityManagerFactoryBean();
     emfb.setDataSource(dataSource);
     emfb.setPackagesToScan("com.eomcs.advanced.jpa.exam30");
@@ -64,6 +72,7 @@ public class JpaConfig {
     props.setProperty("hibernate.dialect",             "org.hibernate.dialect.OracleDialect");
     // 통계 수집 활성화: readOnly vs 일반 트랜잭션 차이 측정
     props.setProperty("hibernate.generate_statistics", "true");
+    JpaProfiles.applyJpaProperties(env, props); // h2 profile 이면 H2 용 설정으로 바꾼다.
     emfb.setJpaProperties(props);
     return emfb;
   }
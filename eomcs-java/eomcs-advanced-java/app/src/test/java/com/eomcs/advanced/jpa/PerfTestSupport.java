@@ -0,0 +1,171 @@
+package com.eomcs.advanced.jpa;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+// JPA 성능 테스트(*PerfTest) 공통 도구
+//
+// - h2 profile(JpaProfiles)로 스프링 컨텍스트를 만든다. Oracle 이 필요 없다.
+// - 데이터는 JDBC 배치로 넣는다. Hibernate 통계에 섞이지 않게 하기 위해서다.
+// - 데이터 크기와 실행 시간 상한은 시스템 프로퍼티로 바꿀 수 있다. (build.gradle 의 test 설정)
+//     perf.customers          고객 수 (기본 200)
+//     perf.ordersPerCustomer  고객 당 주문 수 (기본 5)
+//     perf.maxMillis          전략 별 실행 시간 상한 (기본 10000)
+//
+public final class PerfTestSupport {
+
+  public static final String[] CITIES = {"서울", "부산", "대전", "인천"};
+
+  private PerfTestSupport() {}
+
+  public static int customers() {
+    return Integer.getInteger("perf.customers", 200);
+  }
+
+  public static int ordersPerCustomer() {
+    return Integer.getInteger("perf.ordersPerCustomer", 5);
+  }
+
+  public static long maxMillis() {
+    return Long.getLong("perf.maxMillis", 10_000);
+  }
+
+  // i 번째 고객(0부터)의 도시
+  public static String cityOf(int i) {
+    return CITIES[i % CITIES.length];
+  }
+
+  public static int countInCity(int customers, String city) {
+    int count = 0;
+    for (int i = 0; i < customers; i++) {
+      if (cityOf(i).equals(city)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public static AnnotationConfigApplicationContext h2Context(Class<?> config) {
+    return h2Context(config, Map.of());
+  }
+
+  // properties: 시스템 프로퍼티보다 우선하는 설정 값 (예: jpa.batch-fetch-size)
+  public static AnnotationConfigApplicationContext h2Context(Class<?> config,
+      Map<String, Object> properties) {
+    if (System.getProperty("jpa.show-sql") == null) {
+      System.setProperty("jpa.show-sql", "false");
+    }
+    AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+    ctx.getEnvironment().setActiveProfiles(JpaProfiles.H2);
+    ctx.getEnvironment().getPropertySources().addFirst(
+        new MapPropertySource("perf-test", properties));
+    ctx.register(config);
+    ctx.refresh();
+    return ctx;
+  }
+
+  public static Statistics statistics(ApplicationContext ctx) {
+    return ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+  }
+
+  // shop_customer 에 고객을 넣는다.
+  public static void seedCustomers(DataSource ds, int count) throws SQLException {
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    try (Connection conn = ds.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(
+            "INSERT INTO shop_customer (name, email, city, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?)")) {
+      conn.setAutoCommit(false);
+      for (int i = 0; i < count; i++) {
+        pstmt.setString(1, "고객" + i);
+        pstmt.setString(2, "perf" + i + "@test.com");
+        pstmt.setString(3, cityOf(i));
+        pstmt.setTimestamp(4, now);
+        pstmt.setTimestamp(5, now);
+        pstmt.addBatch();
+        if (i % 1000 == 999) {
+          pstmt.executeBatch();
+        }
+      }
+      pstmt.executeBatch();
+      conn.commit();
+    }
+  }
+
+  // 모든 고객에게 주문을 perCustomer 개씩 넣는다.
+  public static void seedOrders(DataSource ds, int perCustomer) throws SQLException {
+    List<Long> ids = customerIds(ds);
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    try (Connection conn = ds.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(
+            "INSERT INTO shop_orders (customer_id, order_status, order_date, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?)")) {
+      conn.setAutoCommit(false);
+      int n = 0;
+      for (long id : ids) {
+        for (int j = 0; j < perCustomer; j++) {
+          pstmt.setLong(1, id);
+          pstmt.setString(2, j % 2 == 0 ? "ORDERED" : "DELIVERED");
+          pstmt.setTimestamp(3, now);
+          pstmt.setTimestamp(4, now);
+          pstmt.setTimestamp(5, now);
+          pstmt.addBatch();
+          if (++n % 1000 == 0) {
+            pstmt.executeBatch();
+          }
+        }
+      }
+      pstmt.executeBatch();
+      conn.commit();
+    }
+  }
+
+  public static List<Long> customerIds(DataSource ds) throws SQLException {
+    List<Long> ids = new ArrayList<>();
+    try (Connection conn = ds.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT id FROM shop_customer ORDER BY id")) {
+      while (rs.next()) {
+        ids.add(rs.getLong(1));
+      }
+    }
+    return ids;
+  }
+
+  public static long queryForLong(DataSource ds, String sql) throws SQLException {
+    try (Connection conn = ds.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  public static long timeMillis(Runnable task) {
+    long start = System.nanoTime();
+    task.run();
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  public static void assertWithinBudget(String strategy, long millis) {
+    System.out.printf("[perf] %-40s %,6d ms%n", strategy, millis);
+    assertTrue(millis <= maxMillis(),
+        strategy + " 실행 시간 " + millis + "ms 가 상한 " + maxMillis() + "ms 를 넘었습니다.");
+  }
+}
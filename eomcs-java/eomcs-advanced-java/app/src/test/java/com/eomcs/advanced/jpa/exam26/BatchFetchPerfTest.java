@@ -0,0 +1,70 @@
+package com.eomcs.advanced.jpa.exam26;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.eomcs.advanced.jpa.PerfTestSupport;
+import com.eomcs.advanced.jpa.QueryCountGuard;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// exam26 - 해결법 3: Batch Fetch 의 쿼리 수/실행 시간 검사
+//
+// jpa.batch-fetch-size = B 로 설정한 컨텍스트에서 App 과 같은 LAZY 로딩 코드를 실행한다.
+//   고객 C 명 => 고객 조회 1번 + 주문 조회 ceil(C / B) 번
+//
+class BatchFetchPerfTest {
+
+  static final int BATCH_FETCH_SIZE = 100;
+
+  static AnnotationConfigApplicationContext ctx;
+  static CustomerRepository repo;
+  static TransactionTemplate tx;
+  static Statistics stats;
+
+  static final int CUSTOMERS = PerfTestSupport.customers();
+  static final int ORDERS = PerfTestSupport.ordersPerCustomer();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    ctx = PerfTestSupport.h2Context(JpaConfig.class,
+        Map.of("jpa.batch-fetch-size", String.valueOf(BATCH_FETCH_SIZE)));
+    repo = ctx.getBean(CustomerRepository.class);
+    tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+    stats = PerfTestSupport.statistics(ctx);
+
+    DataSource ds = ctx.getBean(DataSource.class);
+    PerfTestSupport.seedCustomers(ds, CUSTOMERS);
+    PerfTestSupport.seedOrders(ds, ORDERS);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ctx.close();
+  }
+
+  @Test
+  void lazyLoadingIsBatched() {
+    int maxStatements = 1 + (CUSTOMERS + BATCH_FETCH_SIZE - 1) / BATCH_FETCH_SIZE;
+    long[] total = new long[1];
+    stats.clear();
+
+    long millis = PerfTestSupport.timeMillis(() -> QueryCountGuard.expectAtMost(maxStatements,
+        () -> tx.executeWithoutResult(status -> {
+          List<Customer> customers = repo.findAll();
+          for (Customer c : customers) {
+            total[0] += c.getOrders().size();
+          }
+        })));
+
+    assertEquals((long) CUSTOMERS * ORDERS, total[0]);
+    PerfTestSupport.assertWithinBudget("exam26 Batch Fetch (" + BATCH_FETCH_SIZE + ")", millis);
+  }
+}
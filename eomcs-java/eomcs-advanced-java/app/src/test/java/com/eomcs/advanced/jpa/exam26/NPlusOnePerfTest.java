@@ -0,0 +1,113 @@
+package com.eomcs.advanced.jpa.exam26;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.eomcs.advanced.jpa.PerfTestSupport;
+import com.eomcs.advanced.jpa.QueryCountGuard;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// exam26 - N+1 문제와 해결법의 쿼리 수/실행 시간 검사
+//
+// 고객 C 명, 고객 당 주문 K 개일 때
+//   LAZY 로딩    : 고객 조회 1번 + 고객 마다 주문 조회 C 번 = 1 + C 번
+//   JOIN FETCH   : 1번
+//   @EntityGraph : 1번
+//
+// QueryCountGuard 로 쿼리 수의 상한을 건다. 전략이 바뀌어 쿼리가 늘어나면 테스트가 실패한다.
+// (Batch Fetch 는 설정이 다른 컨텍스트가 필요하므로 BatchFetchPerfTest 에서 검사한다)
+//
+class NPlusOnePerfTest {
+
+  static AnnotationConfigApplicationContext ctx;
+  static CustomerRepository repo;
+  static TransactionTemplate tx;
+  static Statistics stats;
+
+  static final int CUSTOMERS = PerfTestSupport.customers();
+  static final int ORDERS = PerfTestSupport.ordersPerCustomer();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    ctx = PerfTestSupport.h2Context(JpaConfig.class);
+    repo = ctx.getBean(CustomerRepository.class);
+    tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+    stats = PerfTestSupport.statistics(ctx);
+
+    DataSource ds = ctx.getBean(DataSource.class);
+    PerfTestSupport.seedCustomers(ds, CUSTOMERS);
+    PerfTestSupport.seedOrders(ds, ORDERS);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ctx.close();
+  }
+
+  @BeforeEach
+  void clearStatistics() {
+    stats.clear();
+  }
+
+  // 고객 목록을 가져와 모든 고객의 주문 수를 더한다. 트랜잭션 안에서 실행해야 LAZY 로딩이 가능하다.
+  // SQL 문을 maxStatements 번보다 많이 실행하면 실패한다.
+  long countOrders(int maxStatements, Supplier<List<Customer>> finder) {
+    long[] total = new long[1];
+    long millis = PerfTestSupport.timeMillis(() -> QueryCountGuard.expectAtMost(maxStatements,
+        () -> tx.executeWithoutResult(status -> {
+          List<Customer> customers = finder.get();
+          assertEquals(CUSTOMERS, customers.size());
+          for (Customer c : customers) {
+            total[0] += c.getOrders().size();
+          }
+        })));
+    assertEquals((long) CUSTOMERS * ORDERS, total[0]);
+    return millis;
+  }
+
+  @Test
+  void lazyLoadingRunsOnePlusNQueries() {
+    long millis = countOrders(1 + CUSTOMERS, repo::findAll);
+
+    assertEquals(1 + CUSTOMERS, stats.getPrepareStatementCount());
+    assertEquals(CUSTOMERS, stats.getCollectionFetchCount());
+    PerfTestSupport.assertWithinBudget("exam26 LAZY (N+1)", millis);
+  }
+
+  @Test
+  void joinFetchRunsOneQuery() {
+    long millis = countOrders(1, repo::findAllWithOrders);
+
+    assertEquals(1, stats.getPrepareStatementCount());
+    assertEquals(0, stats.getCollectionFetchCount());
+    PerfTestSupport.assertWithinBudget("exam26 JOIN FETCH", millis);
+  }
+
+  @Test
+  void entityGraphRunsOneQuery() {
+    long millis = countOrders(1, repo::findAllWithOrdersGraph);
+
+    assertEquals(1, stats.getPrepareStatementCount());
+    assertEquals(0, stats.getCollectionFetchCount());
+    PerfTestSupport.assertWithinBudget("exam26 @EntityGraph", millis);
+  }
+
+  @Test
+  void guardFailsOnNPlusOne() {
+    // LAZY 로딩 코드에 JOIN FETCH 수준의 상한(1번)을 걸면 실패해야 한다.
+    AssertionError error = assertThrows(AssertionError.class,
+        () -> countOrders(1, repo::findAll));
+    assertTrue(error.getMessage().contains("허용: 1번"), error.getMessage());
+  }
+}
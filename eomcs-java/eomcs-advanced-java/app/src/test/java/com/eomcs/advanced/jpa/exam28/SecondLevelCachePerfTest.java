@@ -0,0 +1,102 @@
+package com.eomcs.advanced.jpa.exam28;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.eomcs.advanced.jpa.PerfTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+// exam28 - 2차 캐시(L2C)와 쿼리 캐시의 적중률/쿼리 수/실행 시간 검사
+//
+// findById() 는 호출할 때마다 새 트랜잭션(새 영속성 컨텍스트)에서 실행된다.
+// 따라서 두 번째 조회에서 DB 를 거치지 않는다면 1차 캐시가 아니라 2차 캐시 덕분이다.
+//
+class SecondLevelCachePerfTest {
+
+  // ehcache.xml 의 Customer 캐시 최대 항목 수. 이보다 많이 조회하면 밀려나는 항목이 생긴다.
+  static final int CACHE_ENTRIES = 1000;
+
+  // 한 도시의 고객 수가 CACHE_ENTRIES 를 넘지 않도록 고객 수를 제한한다.
+  // => 쿼리 캐시는 id 목록만 가지고 있으므로, 결과 엔티티가 Customer 캐시에서 밀려나면
+  //    다시 DB 에서 읽는다. (perf.customers 가 4000 을 넘는 경우)
+  static final int CUSTOMERS =
+      Math.min(PerfTestSupport.customers(), CACHE_ENTRIES * PerfTestSupport.CITIES.length);
+
+  static AnnotationConfigApplicationContext ctx;
+  static CustomerRepository repo;
+  static EntityManagerFactory emf;
+  static Statistics stats;
+  static List<Long> ids;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    ctx = PerfTestSupport.h2Context(JpaConfig.class);
+    repo = ctx.getBean(CustomerRepository.class);
+    emf = ctx.getBean(EntityManagerFactory.class);
+    stats = PerfTestSupport.statistics(ctx);
+
+    DataSource ds = ctx.getBean(DataSource.class);
+    PerfTestSupport.seedCustomers(ds, CUSTOMERS);
+    ids = PerfTestSupport.customerIds(ds);
+    ids = ids.subList(0, Math.min(ids.size(), CACHE_ENTRIES));
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ctx.close();
+  }
+
+  @BeforeEach
+  void clearCache() {
+    emf.getCache().evictAll();
+    stats.clear();
+  }
+
+  @Test
+  void secondReadIsServedFromCache() {
+    int n = ids.size();
+
+    // 1) 캐시가 비어 있다. => 모두 DB 에서 읽고 캐시에 넣는다.
+    long cold = PerfTestSupport.timeMillis(() -> ids.forEach(id -> repo.findById(id).orElseThrow()));
+    assertEquals(n, stats.getPrepareStatementCount());
+    assertEquals(n, stats.getSecondLevelCacheMissCount());
+    assertEquals(n, stats.getSecondLevelCachePutCount());
+    PerfTestSupport.assertWithinBudget("exam28 findById (캐시 없음)", cold);
+
+    // 2) 같은 id 를 다시 읽는다. => DB 에 가지 않는다.
+    stats.clear();
+    long warm = PerfTestSupport.timeMillis(() -> ids.forEach(id -> repo.findById(id).orElseThrow()));
+    long hits = stats.getSecondLevelCacheHitCount();
+    long misses = stats.getSecondLevelCacheMissCount();
+    assertEquals(0, stats.getPrepareStatementCount());
+    assertEquals(n, hits);
+    assertEquals(1.0, (double) hits / (hits + misses));
+    PerfTestSupport.assertWithinBudget("exam28 findById (2차 캐시)", warm);
+  }
+
+  @Test
+  void queryCacheRunsQueryOnce() {
+    String city = PerfTestSupport.CITIES[0];
+    int expected = PerfTestSupport.countInCity(CUSTOMERS, city);
+
+    long millis = PerfTestSupport.timeMillis(() -> {
+      for (int i = 0; i < 10; i++) {
+        assertEquals(expected, repo.findByCityWithCache(city).size());
+      }
+    });
+
+    // 첫 호출만 SQL 을 실행한다. 쿼리 캐시에는 id 목록만 있고, 엔티티는 2차 캐시에서 꺼낸다.
+    assertEquals(1, stats.getQueryExecutionCount());
+    assertEquals(1, stats.getPrepareStatementCount());
+    assertEquals(1, stats.getQueryCacheMissCount());
+    assertEquals(9, stats.getQueryCacheHitCount());
+    PerfTestSupport.assertWithinBudget("exam28 쿼리 캐시", millis);
+  }
+}
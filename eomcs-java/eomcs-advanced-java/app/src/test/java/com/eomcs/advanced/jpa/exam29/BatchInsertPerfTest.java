@@ -0,0 +1,137 @@
+package com.eomcs.advanced.jpa.exam29;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.eomcs.advanced.jpa.PerfTestSupport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+// exam29 - 대량 INSERT / 벌크 연산의 flush 수/쿼리 수/실행 시간 검사
+//
+// 고객 C 명을 새로 INSERT 할 때
+//   EntityManager + 50건 마다 flush/clear : flush 약 C/50 번, 영속성 컨텍스트는 최대 50개
+//   StatelessSession                      : flush 0 번 (영속성 컨텍스트 자체가 없다)
+// 이미 있는 고객의 도시를 바꿀 때
+//   벌크 UPDATE                           : 엔티티를 읽지 않고 UPDATE 1번
+//
+// 참고: Customer 의 id 는 IDENTITY 전략이라 INSERT 는 JDBC 배치로 묶이지 않는다.
+//
+class BatchInsertPerfTest {
+
+  static final int FLUSH_SIZE = 50;
+
+  // 테스트에서 새로 넣는 고객의 이메일. 테스트가 끝나면 이 패턴으로 지운다.
+  static final String EMAIL_PATTERN = "%@batch.perf";
+
+  static AnnotationConfigApplicationContext ctx;
+  static CustomerRepository repo;
+  static EntityManagerFactory emf;
+  static Statistics stats;
+
+  static final int CUSTOMERS = PerfTestSupport.customers();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    ctx = PerfTestSupport.h2Context(JpaConfig.class);
+    repo = ctx.getBean(CustomerRepository.class);
+    emf = ctx.getBean(EntityManagerFactory.class);
+    stats = PerfTestSupport.statistics(ctx);
+
+    PerfTestSupport.seedCustomers(ctx.getBean(DataSource.class), CUSTOMERS);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ctx.close();
+  }
+
+  @BeforeEach
+  void clearStatistics() {
+    stats.clear();
+  }
+
+  @AfterEach
+  void deleteInserted() {
+    repo.bulkDeleteByEmailPattern(EMAIL_PATTERN);
+  }
+
+  static Customer newCustomer(int i) {
+    return new Customer("배치" + i, "batch" + i + "@batch.perf", PerfTestSupport.cityOf(i));
+  }
+
+  @Test
+  void persistWithPeriodicFlushAndClear() {
+    long millis = PerfTestSupport.timeMillis(() -> {
+      EntityManager em = emf.createEntityManager();
+      try {
+        em.getTransaction().begin();
+        for (int i = 0; i < CUSTOMERS; i++) {
+          em.persist(newCustomer(i));
+          if ((i + 1) % FLUSH_SIZE == 0) {
+            em.flush();
+            em.clear();
+          }
+        }
+        em.getTransaction().commit();
+      } finally {
+        em.close();
+      }
+    });
+
+    // 커밋할 때 영속성 컨텍스트가 비어 있으면 마지막 flush 는 생략된다.
+    long flushes = stats.getFlushCount();
+    assertTrue(flushes >= CUSTOMERS / FLUSH_SIZE && flushes <= CUSTOMERS / FLUSH_SIZE + 1,
+        "flush 횟수: " + flushes);
+    assertEquals(CUSTOMERS, stats.getEntityInsertCount());
+    assertEquals(CUSTOMERS, repo.countByEmailPattern(EMAIL_PATTERN));
+    PerfTestSupport.assertWithinBudget("exam29 persist + flush/clear", millis);
+  }
+
+  @Test
+  void statelessSessionNeverFlushes() {
+    SessionFactory sf = emf.unwrap(SessionFactory.class);
+
+    long millis = PerfTestSupport.timeMillis(() -> {
+      try (StatelessSession ss = sf.openStatelessSession()) {
+        Transaction tx = ss.beginTransaction();
+        for (int i = 0; i < CUSTOMERS; i++) {
+          ss.insert(newCustomer(i));
+        }
+        tx.commit();
+      }
+    });
+
+    assertEquals(0, stats.getFlushCount());
+    assertEquals(CUSTOMERS, repo.countByEmailPattern(EMAIL_PATTERN));
+    PerfTestSupport.assertWithinBudget("exam29 StatelessSession", millis);
+  }
+
+  @Test
+  void bulkUpdateRunsOneStatement() {
+    String city = PerfTestSupport.CITIES[1];
+    int expected = PerfTestSupport.countInCity(CUSTOMERS, city);
+
+    long[] updated = new long[1];
+    long millis = PerfTestSupport.timeMillis(
+        () -> updated[0] = repo.bulkUpdateCity(city, "수원"));
+
+    assertEquals(expected, updated[0]);
+    assertEquals(1, stats.getPrepareStatementCount());
+    assertEquals(0, stats.getEntityLoadCount());
+    PerfTestSupport.assertWithinBudget("exam29 벌크 UPDATE", millis);
+
+    repo.bulkUpdateCity("수원", city);
+  }
+}
@@ -0,0 +1,105 @@
+package com.eomcs.advanced.jpa.exam30;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.eomcs.advanced.jpa.PerfTestSupport;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// exam30 - 읽기 전용 트랜잭션의 flush 수/UPDATE 수/실행 시간 검사
+//
+//   readOnly = true  : 커밋할 때 flush 하지 않는다. 엔티티를 바꿔도 UPDATE 가 없다.
+//   readOnly = false : 커밋할 때 flush(Dirty Checking) 한다. 바꾼 엔티티는 UPDATE 한다.
+//
+class ReadOnlyPerfTest {
+
+  static AnnotationConfigApplicationContext ctx;
+  static CustomerService service;
+  static CustomerRepository repo;
+  static TransactionTemplate tx;
+  static DataSource ds;
+  static Statistics stats;
+  static Long firstId;
+
+  static final int CUSTOMERS = PerfTestSupport.customers();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    ctx = PerfTestSupport.h2Context(JpaConfig.class);
+    service = ctx.getBean(CustomerService.class);
+    repo = ctx.getBean(CustomerRepository.class);
+    tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+    ds = ctx.getBean(DataSource.class);
+    stats = PerfTestSupport.statistics(ctx);
+
+    PerfTestSupport.seedCustomers(ds, CUSTOMERS);
+    PerfTestSupport.seedOrders(ds, PerfTestSupport.ordersPerCustomer());
+    firstId = PerfTestSupport.customerIds(ds).get(0);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    ctx.close();
+  }
+
+  @BeforeEach
+  void clearStatistics() {
+    stats.clear();
+  }
+
+  @Test
+  void readOnlyFindAllDoesNotFlush() {
+    long millis = PerfTestSupport.timeMillis(
+        () -> assertEquals(CUSTOMERS, service.findAll().size()));
+
+    assertEquals(CUSTOMERS, stats.getEntityLoadCount());
+    assertEquals(0, stats.getFlushCount());
+    assertEquals(0, stats.getEntityUpdateCount());
+    PerfTestSupport.assertWithinBudget("exam30 findAll (readOnly)", millis);
+  }
+
+  @Test
+  void readWriteFindAllFlushesOnCommit() {
+    long millis = PerfTestSupport.timeMillis(() -> tx.executeWithoutResult(status -> {
+      List<Customer> customers = repo.findAll();
+      assertEquals(CUSTOMERS, customers.size());
+    }));
+
+    // 바꾼 것이 없어도 커밋할 때 모든 엔티티를 스냅샷과 비교한다.
+    assertEquals(CUSTOMERS, stats.getEntityLoadCount());
+    assertEquals(1, stats.getFlushCount());
+    assertEquals(0, stats.getEntityUpdateCount());
+    PerfTestSupport.assertWithinBudget("exam30 findAll (readOnly 아님)", millis);
+  }
+
+  @Test
+  void readOnlyModificationIsNotWritten() throws Exception {
+    service.findAndTryModify(firstId);
+
+    assertEquals(0, stats.getFlushCount());
+    assertEquals(0, stats.getEntityUpdateCount());
+    assertEquals(0, PerfTestSupport.queryForLong(ds,
+        "SELECT COUNT(*) FROM shop_customer WHERE city = '변경시도'"));
+  }
+
+  @Test
+  void readWriteModificationIsWritten() throws Exception {
+    String city = PerfTestSupport.cityOf(0);
+    service.findAndModify(firstId, "수원");
+
+    assertEquals(1, stats.getFlushCount());
+    assertEquals(1, stats.getEntityUpdateCount());
+    assertEquals(1, PerfTestSupport.queryForLong(ds,
+        "SELECT COUNT(*) FROM shop_customer WHERE city = '수원'"));
+
+    service.findAndModify(firstId, city);
+  }
+}
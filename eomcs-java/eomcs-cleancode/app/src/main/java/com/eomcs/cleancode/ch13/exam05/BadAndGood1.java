@@ -98,4 +98,18 @@ public class BadAndGood1 {
       new Thread(new Consumer(queue)).start();
     }
   }
+
+  // Better: 생산자가 많아 큐의 락이 병목이 될 때는 락 없는 큐로 교체한다
+  //   - LockFreeBlockingQueue도 BlockingQueue이므로 Producer/Consumer는 그대로 사용한다
+  //   - 용량은 2의 거듭제곱으로 올림된다 (10 → 16)
+  //   - 성능 비교: QueueThroughputBenchmark
+  static class LockFreeProducerConsumerExample {
+
+    public void run() {
+      BlockingQueue<Job> queue = new LockFreeBlockingQueue<>(10);
+
+      new Thread(new Producer(queue)).start();
+      new Thread(new Consumer(queue)).start();
+    }
+  }
 }
@@ -1,9 +1,11 @@
 package com.eomcs.cleancode.ch13.exam05;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 // 예제 2: Readers-Writers - 많은 스레드는 읽고, 일부 스레드는 쓴다
 public class BadAndGood2 {
@@ -90,4 +92,119 @@ public class BadAndGood2 {
       }
     }
   }
+
+  // Better 1: 락 분할(lock striping) - 상품 id로 나눈 N개의 구역마다 따로 락을 건다
+  //   - 하나의 ReadWriteLock은 모든 writer를 직렬화한다
+  //   - 또 모든 reader가 같은 락 상태 값을 수정하므로 CPU 캐시 라인이 코어 사이를 오간다
+  //   - 구역을 나누면 서로 다른 구역의 writer는 동시에 쓸 수 있고,
+  //     reader도 구역별 락 상태 값을 수정하므로 경쟁이 줄어든다
+  //   - 구역 수는 2의 거듭제곱으로 정해 비트 연산으로 구역을 고른다
+  static class StripedProductCatalog {
+
+    private final Map<Long, Product>[] stripes;
+    private final ReadWriteLock[] locks;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    StripedProductCatalog(int stripeCount) {
+      int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+      stripes = new Map[size];
+      locks = new ReadWriteLock[size];
+      for (int i = 0; i < size; i++) {
+        stripes[i] = new HashMap<>();
+        locks[i] = new ReentrantReadWriteLock();
+      }
+      mask = size - 1;
+    }
+
+    private int stripeOf(long id) {
+      int h = Long.hashCode(id);
+      return (h ^ (h >>> 16)) & mask;
+    }
+
+    public Product findById(long id) {
+      int stripe = stripeOf(id);
+      locks[stripe].readLock().lock();
+      try {
+        return stripes[stripe].get(id);
+      } finally {
+        locks[stripe].readLock().unlock();
+      }
+    }
+
+    public void update(Product product) {
+      int stripe = stripeOf(product.id());
+      locks[stripe].writeLock().lock();
+      try {
+        stripes[stripe].put(product.id(), product);
+      } finally {
+        locks[stripe].writeLock().unlock();
+      }
+    }
+  }
+
+  // Better 2: StampedLock의 낙관적 읽기(optimistic read) + 불변 스냅샷
+  //   - tryOptimisticRead()는 락을 잡지 않고 현재 버전(stamp)만 읽는다
+  //   - 읽기를 마친 후 validate(stamp)로 그 사이에 쓰기가 있었는지 확인한다
+  //   - 쓰기가 없었다면 락 상태를 한 번도 수정하지 않고 읽기를 끝낸다 → 캐시 라인 경쟁이 없다
+  //   - 쓰기가 있었다면 readLock()을 잡고 다시 읽는다
+  //   - 주의: 낙관적 읽기 구간에서는 필드 값을 지역 변수로 복사하는 것만 해야 한다
+  //     쓰기와 동시에 HashMap.get()처럼 변경 중인 자료 구조를 따라가면
+  //     무한 루프에 빠지거나 엉뚱한 값을 읽을 수 있다 (예외를 잡아도 안전해지지 않는다)
+  //   - 그래서 맵은 한 번 만들면 바꾸지 않는 스냅샷으로 두고, 스냅샷의 참조만 낙관적으로 읽는다
+  //     쓰기는 맵을 복사해서 바꾼 후 참조를 교체한다
+  //   - 복사 비용이 상품 수에 비례하므로 상품을 구역(stripe)으로 나누고 구역마다 스냅샷과 락을 둔다
+  //     → 쓰기는 자기 구역의 맵만 복사한다 (상품 10,000개, 구역 1,024개 → 약 10개)
+  static class StampedProductCatalog {
+
+    static final int STRIPES = 1024;
+
+    // 구역 별 불변 스냅샷. 해당 구역의 쓰기 락을 잡은 상태에서만 교체한다.
+    private final Map<Long, Product>[] snapshots;
+    private final StampedLock[] locks;
+
+    @SuppressWarnings("unchecked")
+    StampedProductCatalog() {
+      snapshots = new Map[STRIPES];
+      locks = new StampedLock[STRIPES];
+      for (int i = 0; i < STRIPES; i++) {
+        snapshots[i] = Map.of();
+        locks[i] = new StampedLock();
+      }
+    }
+
+    private static int stripeOf(long id) {
+      int h = Long.hashCode(id);
+      return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    public Product findById(long id) {
+      int stripe = stripeOf(id);
+      StampedLock lock = locks[stripe];
+      long stamp = lock.tryOptimisticRead();
+      Map<Long, Product> snapshot = snapshots[stripe]; // 필드 값을 지역 변수로 복사만 한다
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock(); // 쓰기가 있었다 → readLock으로 다시 읽는다
+        try {
+          snapshot = snapshots[stripe];
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return snapshot.get(id); // 바뀌지 않는 맵이므로 락 없이 찾아도 안전하다
+    }
+
+    public void update(Product product) {
+      int stripe = stripeOf(product.id());
+      StampedLock lock = locks[stripe];
+      long stamp = lock.writeLock();
+      try {
+        Map<Long, Product> copy = new HashMap<>(snapshots[stripe]);
+        copy.put(product.id(), product);
+        snapshots[stripe] = Collections.unmodifiableMap(copy);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+  }
 }
@@ -0,0 +1,143 @@
+package com.eomcs.cleancode.ch13.exam05;
+
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.Product;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.ProductCatalog;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.StampedProductCatalog;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.StripedProductCatalog;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.SynchronizedProductCatalog;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+// 예제 2 보충: Readers-Writers 구현체별 경쟁(contention) 비교
+//   - 읽기 95%, 쓰기 5%
+//   - 스레드 수: 1, 2, 4, 8, 16, 32
+//   - 정해진 시간 동안 처리한 연산 수로 처리량(ops/s)을 구한다
+//   - JIT 컴파일의 영향을 줄이기 위해 측정 전에 워밍업을 먼저 수행한다
+//
+// 실행:
+//   ./gradlew -q run -PmainClass=com.eomcs.cleancode.ch13.exam05.CatalogContentionBenchmark
+public class CatalogContentionBenchmark {
+
+  static final int PRODUCT_COUNT = 10_000;
+  static final int WRITE_PERCENT = 5;
+  static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+  static final long WARMUP_MILLIS = 2_000;
+  static final long MEASURE_MILLIS = 2_000;
+  static final int STRIPES = 16;
+
+  private CatalogContentionBenchmark() {}
+
+  // 각 구현체의 findById()/update()를 같은 방식으로 호출하기 위한 어댑터
+  interface Catalog {
+    Product findById(long id);
+
+    void update(Product product);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    Map<String, Supplier<Catalog>> factories = new LinkedHashMap<>();
+    factories.put("synchronized ", () -> {
+      SynchronizedProductCatalog c = new SynchronizedProductCatalog();
+      return adapt(c::findById, c::update);
+    });
+    factories.put("ReadWriteLock", () -> {
+      ProductCatalog c = new ProductCatalog();
+      return adapt(c::findById, c::update);
+    });
+    factories.put("Striped(" + STRIPES + ")  ", () -> {
+      StripedProductCatalog c = new StripedProductCatalog(STRIPES);
+      return adapt(c::findById, c::update);
+    });
+    factories.put("StampedLock  ", () -> {
+      StampedProductCatalog c = new StampedProductCatalog();
+      return adapt(c::findById, c::update);
+    });
+
+    // 모든 구현체를 먼저 워밍업한다
+    //   - 한 JVM에서 여러 구현체를 측정하므로, 먼저 측정한 구현체만 JIT 최적화의 이득을 보지 않게 한다
+    for (Supplier<Catalog> factory : factories.values()) {
+      run(newCatalog(factory), THREAD_COUNTS[THREAD_COUNTS.length - 1], WARMUP_MILLIS);
+    }
+
+    for (int threads : THREAD_COUNTS) {
+      System.out.printf("[스레드 %d, 읽기 %d%% / 쓰기 %d%%]%n",
+          threads, 100 - WRITE_PERCENT, WRITE_PERCENT);
+      for (Map.Entry<String, Supplier<Catalog>> entry : factories.entrySet()) {
+        long ops = run(newCatalog(entry.getValue()), threads, MEASURE_MILLIS);
+        System.out.printf("  %s: %,14.0f ops/s%n", entry.getKey(), ops / (MEASURE_MILLIS / 1000.0));
+      }
+    }
+  }
+
+  static Catalog adapt(LongFunction<Product> finder, Consumer<Product> updater) {
+    return new Catalog() {
+      @Override
+      public Product findById(long id) {
+        return finder.apply(id);
+      }
+
+      @Override
+      public void update(Product product) {
+        updater.accept(product);
+      }
+    };
+  }
+
+  static Catalog newCatalog(Supplier<Catalog> factory) {
+    Catalog catalog = factory.get();
+    for (long id = 0; id < PRODUCT_COUNT; id++) {
+      catalog.update(new Product(id, "product-" + id));
+    }
+    return catalog;
+  }
+
+  // 정해진 시간 동안 모든 스레드가 처리한 연산 수를 리턴한다
+  static long run(Catalog catalog, int threads, long millis) throws InterruptedException {
+    LongAdder ops = new LongAdder();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    long[] stopAt = new long[1];
+
+    for (int t = 0; t < threads; t++) {
+      new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0;
+        long found = 0;
+        try {
+          start.await();
+          while (System.nanoTime() < stopAt[0]) {
+            // 시간 확인 비용을 줄이기 위해 128번마다 한 번씩 확인한다
+            for (int i = 0; i < 128; i++) {
+              long id = random.nextInt(PRODUCT_COUNT);
+              if (random.nextInt(100) < WRITE_PERCENT) {
+                catalog.update(new Product(id, "product-" + id));
+              } else if (catalog.findById(id) != null) {
+                found++;
+              }
+            }
+            count += 128;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          ops.add(count);
+          if (found < 0) {
+            System.out.println(found); // 읽은 결과를 사용해 JIT가 읽기를 제거하지 못하게 한다
+          }
+          done.countDown();
+        }
+      }).start();
+    }
+
+    stopAt[0] = System.nanoTime() + millis * 1_000_000;
+    start.countDown();
+    done.await();
+    return ops.sum();
+  }
+}
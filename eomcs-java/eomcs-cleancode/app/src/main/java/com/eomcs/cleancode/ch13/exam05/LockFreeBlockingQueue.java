@@ -0,0 +1,356 @@
+package com.eomcs.cleancode.ch13.exam05;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 예제 1 보충: 락 없는(lock-free) 크기 제한 다중 생산자/다중 소비자(MPMC) 큐
+//
+// ArrayBlockingQueue는 put()/take() 모두 하나의 ReentrantLock을 사용한다
+//   - 생산자가 많아지면 모든 스레드가 같은 락을 두고 경쟁한다
+//
+// LockFreeBlockingQueue는 락 대신 CAS(compare-and-set)를 사용한다
+//   - 배열의 각 칸(slot)마다 순번(sequence)을 둔다
+//   - 생산자는 tail을 CAS로 한 칸 전진시켜 자기 칸을 확보한 뒤 값을 쓴다
+//   - 소비자는 head를 CAS로 한 칸 전진시켜 자기 칸을 확보한 뒤 값을 읽는다
+//   - 칸의 순번을 보고 그 칸이 "쓸 수 있는 상태"인지 "읽을 수 있는 상태"인지 판단한다
+//
+// 칸의 순번 규칙 (capacity = N, 위치 = pos)
+//   - sequence == pos      : 비어 있다. pos 위치의 생산자가 쓸 수 있다
+//   - sequence == pos + 1  : 값이 있다. pos 위치의 소비자가 읽을 수 있다
+//   - 소비자가 읽고 나면 sequence = pos + N 으로 바꿔 다음 바퀴의 생산자에게 넘긴다
+//
+// head와 tail은 서로 다른 캐시 라인에 두어 거짓 공유(false sharing)를 피한다
+//   - 생산자는 tail만, 소비자는 head만 수정한다
+//   - 두 값이 같은 캐시 라인에 있으면 서로의 캐시를 계속 무효화한다
+//
+// BlockingQueue를 구현하므로 Producer/Consumer 코드를 바꾸지 않고 교체할 수 있다
+//   - put()/take()는 먼저 잠깐 회전(spin)하며 다시 시도한다
+//   - 그래도 안 되면 락과 조건 변수(Condition)로 잠들고, 상대편이 깨워 줄 때까지 CPU를 쓰지 않는다
+//   - 락은 기다리는 스레드가 있을 때만 사용한다. 바쁠 때(기다리는 스레드가 없을 때)는 CAS만 사용한다
+public class LockFreeBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+  private static final int SPIN_TRIES = 100;
+
+  private final int capacity;
+  private final int mask;
+  private final Object[] buffer;
+  private final AtomicLongArray sequences;
+
+  private final PaddedAtomicLong head = new PaddedAtomicLong();
+  private final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+  // 기다리는 스레드를 재우고 깨울 때만 사용한다
+  //   - 기다리는 스레드 수는 락을 잡고 바꾸고, 락 없이 읽는다(volatile)
+  //   - 값을 넣은/꺼낸 스레드는 기다리는 스레드가 있을 때만 락을 잡고 깨운다
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private volatile int takeWaiters;
+  private volatile int putWaiters;
+
+  // 용량은 2의 거듭제곱으로 올림한다
+  //   - 나머지 연산(%) 대신 비트 연산(& mask)으로 칸 위치를 계산하기 위해서다
+  //   - 최소 용량은 2다. 칸이 하나면 "값이 있다(pos + 1)"와 "다음 바퀴에 비어 있다"를 구분할 수 없다
+  public LockFreeBlockingQueue(int capacity) {
+    if (capacity < 1 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("capacity: " + capacity);
+    }
+    this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = this.capacity - 1;
+    this.buffer = new Object[this.capacity];
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  @Override
+  public boolean offer(E e) {
+    Objects.requireNonNull(e);
+    if (!tryOffer(e)) {
+      return false;
+    }
+    if (takeWaiters > 0) {
+      signal(notEmpty);
+    }
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    E e = tryPoll();
+    if (e != null && putWaiters > 0) {
+      signal(notFull);
+    }
+    return e;
+  }
+
+  private boolean tryOffer(E e) {
+    while (true) {
+      long pos = tail.get();
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          buffer[index] = e;
+          sequences.set(index, pos + 1); // 소비자에게 칸을 넘긴다
+          return true;
+        }
+      } else if (diff < 0) {
+        return false; // 한 바퀴 전의 값이 아직 소비되지 않았다 → 가득 찼다
+      }
+      // diff > 0: 다른 생산자가 먼저 tail을 전진시켰다 → 다시 시도
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private E tryPoll() {
+    while (true) {
+      long pos = head.get();
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          E e = (E) buffer[index];
+          buffer[index] = null;
+          sequences.set(index, pos + capacity); // 다음 바퀴의 생산자에게 칸을 넘긴다
+          return e;
+        }
+      } else if (diff < 0) {
+        return null; // 아직 값이 쓰이지 않았다 → 비었다
+      }
+      // diff > 0: 다른 소비자가 먼저 head를 전진시켰다 → 다시 시도
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    while (true) {
+      long pos = head.get();
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff < 0) {
+        return null;
+      }
+      E e = (E) buffer[index];
+      if (diff == 0 && head.get() == pos && e != null) {
+        return e;
+      }
+    }
+  }
+
+  @Override
+  public void put(E e) throws InterruptedException {
+    offer(e, false, 0L);
+  }
+
+  @Override
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    return offer(e, true, unit.toNanos(timeout));
+  }
+
+  // timed가 false면 시간 제한 없이 기다린다
+  private boolean offer(E e, boolean timed, long nanos) throws InterruptedException {
+    Objects.requireNonNull(e);
+    long deadline = timed ? System.nanoTime() + nanos : 0L;
+    while (true) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      for (int tries = 0; tries < SPIN_TRIES; tries++) {
+        if (offer(e)) {
+          return true;
+        }
+        Thread.onSpinWait();
+      }
+      if (timed && (nanos = deadline - System.nanoTime()) <= 0L) {
+        return false;
+      }
+
+      // 회전해도 안 되면 잠든다. 락은 잠들 때만 잡고, 깨어나면 락 없이 다시 시도한다
+      lock.lockInterruptibly();
+      try {
+        putWaiters++;
+        try {
+          // 기다리는 스레드 수를 먼저 늘린 후 다시 시도한다
+          //   - 그 사이에 값을 꺼낸 소비자는 putWaiters를 보고 깨워 준다 → 깨움을 놓치지 않는다
+          if (offer(e)) {
+            return true;
+          }
+          if (timed) {
+            notFull.awaitNanos(nanos);
+          } else {
+            notFull.await();
+          }
+        } finally {
+          putWaiters--;
+          // 깨움을 받고도 인터럽트로 나가는 경우, 다른 생산자에게 깨움을 넘긴다
+          if (putWaiters > 0 && size() < capacity) {
+            notFull.signal();
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    return poll(false, 0L);
+  }
+
+  @Override
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return poll(true, unit.toNanos(timeout));
+  }
+
+  // timed가 false면 시간 제한 없이 기다린다
+  private E poll(boolean timed, long nanos) throws InterruptedException {
+    long deadline = timed ? System.nanoTime() + nanos : 0L;
+    E e;
+    while (true) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      for (int tries = 0; tries < SPIN_TRIES; tries++) {
+        if ((e = poll()) != null) {
+          return e;
+        }
+        Thread.onSpinWait();
+      }
+      if (timed && (nanos = deadline - System.nanoTime()) <= 0L) {
+        return null;
+      }
+
+      // 회전해도 안 되면 잠든다. 락은 잠들 때만 잡고, 깨어나면 락 없이 다시 시도한다
+      lock.lockInterruptibly();
+      try {
+        takeWaiters++;
+        try {
+          // 기다리는 스레드 수를 먼저 늘린 후 다시 시도한다
+          //   - 그 사이에 값을 넣은 생산자는 takeWaiters를 보고 깨워 준다 → 깨움을 놓치지 않는다
+          if ((e = poll()) != null) {
+            return e;
+          }
+          if (timed) {
+            notEmpty.awaitNanos(nanos);
+          } else {
+            notEmpty.await();
+          }
+        } finally {
+          takeWaiters--;
+          // 깨움을 받고도 인터럽트로 나가는 경우, 다른 소비자에게 깨움을 넘긴다
+          if (takeWaiters > 0 && !isEmpty()) {
+            notEmpty.signal();
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  // 잠들어 있는 스레드 하나를 깨운다
+  private void signal(Condition condition) {
+    lock.lock();
+    try {
+      condition.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    // head를 먼저 읽어야 size가 음수가 되지 않는다
+    while (true) {
+      long currentHead = head.get();
+      long currentTail = tail.get();
+      if (head.get() == currentHead) {
+        return (int) Math.max(0, Math.min(capacity, currentTail - currentHead));
+      }
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    Objects.requireNonNull(c);
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+    int count = 0;
+    E e;
+    while (count < maxElements && (e = poll()) != null) {
+      c.add(e);
+      count++;
+    }
+    return count;
+  }
+
+  // 락이 없으므로 반복자는 호출 시점의 내용을 복사한 스냅샷을 사용한다
+  //   - 반복하는 동안의 변경은 반영되지 않는다
+  //   - remove()는 지원하지 않는다
+  @Override
+  @SuppressWarnings("unchecked")
+  public Iterator<E> iterator() {
+    List<E> snapshot = new ArrayList<>();
+    long pos = head.get();
+    long end = tail.get();
+    for (; pos < end; pos++) {
+      int index = (int) (pos & mask);
+      if (sequences.get(index) == pos + 1) {
+        Object e = buffer[index];
+        if (e != null) {
+          snapshot.add((E) e);
+        }
+      }
+    }
+    Iterator<E> it = snapshot.iterator();
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public E next() {
+        return it.next();
+      }
+    };
+  }
+
+  // 캐시 라인(보통 64바이트)을 혼자 차지하도록 값 뒤에 사용하지 않는 필드를 채운다
+  @SuppressWarnings("unused")
+  static class PaddedAtomicLong extends AtomicLong {
+    private static final long serialVersionUID = 1L;
+    long p1, p2, p3, p4, p5, p6, p7;
+    long p8, p9, p10, p11, p12, p13, p14;
+  }
+}
@@ -0,0 +1,99 @@
+package com.eomcs.cleancode.ch13.exam05;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+// 예제 1 보충: BlockingQueue 구현체별 처리량 비교
+//   - 생산자 수: 1, 4, 16 / 소비자 수: 4
+//   - 큐 크기: 1024 (Bound Resource)
+//   - 생산자가 put()으로 넣은 작업을 소비자가 take()로 모두 꺼낼 때까지의 시간을 잰다
+//   - JIT 컴파일의 영향을 줄이기 위해 측정 전에 워밍업을 먼저 수행한다
+//
+// 실행:
+//   ./gradlew -q run -PmainClass=com.eomcs.cleancode.ch13.exam05.QueueThroughputBenchmark
+public class QueueThroughputBenchmark {
+
+  static final int CAPACITY = 1024;
+  static final int CONSUMERS = 4;
+  static final int TOTAL_JOBS = 4_000_000;
+  static final int[] PRODUCER_COUNTS = {1, 4, 16};
+  static final int WARMUP_ROUNDS = 2;
+  static final int MEASURE_ROUNDS = 3;
+
+  // 소비자에게 작업이 끝났음을 알리는 표식(poison pill)
+  static final Integer POISON = -1;
+
+  private QueueThroughputBenchmark() {}
+
+  public static void main(String[] args) throws InterruptedException {
+    for (int producers : PRODUCER_COUNTS) {
+      System.out.printf("[생산자 %d, 소비자 %d, 작업 %,d개]%n", producers, CONSUMERS, TOTAL_JOBS);
+      measure("ArrayBlockingQueue   ", () -> new ArrayBlockingQueue<>(CAPACITY), producers);
+      measure("LinkedBlockingQueue  ", () -> new LinkedBlockingQueue<>(CAPACITY), producers);
+      measure("LockFreeBlockingQueue", () -> new LockFreeBlockingQueue<>(CAPACITY), producers);
+    }
+  }
+
+  static void measure(String name, Supplier<BlockingQueue<Integer>> factory, int producers)
+      throws InterruptedException {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      run(factory.get(), producers);
+    }
+
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+      best = Math.min(best, run(factory.get(), producers));
+    }
+    System.out.printf("  %s: %,12.0f ops/s%n", name, TOTAL_JOBS / (best / 1_000_000_000.0));
+  }
+
+  // 모든 작업을 처리하는 데 걸린 시간(ns)을 리턴한다
+  static long run(BlockingQueue<Integer> queue, int producers) throws InterruptedException {
+    int jobsPerProducer = TOTAL_JOBS / producers;
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch producersDone = new CountDownLatch(producers);
+    CountDownLatch consumersDone = new CountDownLatch(CONSUMERS);
+
+    for (int p = 0; p < producers; p++) {
+      new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < jobsPerProducer; i++) {
+            queue.put(i);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          producersDone.countDown();
+        }
+      }).start();
+    }
+
+    for (int c = 0; c < CONSUMERS; c++) {
+      new Thread(() -> {
+        try {
+          start.await();
+          while (!POISON.equals(queue.take())) {
+            // 작업을 꺼내기만 한다
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          consumersDone.countDown();
+        }
+      }).start();
+    }
+
+    long begin = System.nanoTime();
+    start.countDown();
+    producersDone.await();
+    for (int c = 0; c < CONSUMERS; c++) {
+      queue.put(POISON);
+    }
+    consumersDone.await();
+    return System.nanoTime() - begin;
+  }
+}
@@ -0,0 +1,92 @@
+package com.eomcs.cleancode.ch13.exam05;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.Product;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.StampedProductCatalog;
+import com.eomcs.cleancode.ch13.exam05.BadAndGood2.StripedProductCatalog;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.Test;
+
+// 예제 2 보충: 락 분할 / StampedLock 카탈로그
+class BadAndGood2Test {
+
+  @Test
+  void stripedCatalogFindsUpdatedProducts() {
+    StripedProductCatalog catalog = new StripedProductCatalog(4);
+
+    assertNull(catalog.findById(1));
+    catalog.update(new Product(1, "pen"));
+    catalog.update(new Product(2, "book"));
+    catalog.update(new Product(1, "pencil"));
+
+    assertEquals("pencil", catalog.findById(1).name());
+    assertEquals("book", catalog.findById(2).name());
+  }
+
+  @Test
+  void stampedCatalogFindsUpdatedProducts() {
+    StampedProductCatalog catalog = new StampedProductCatalog();
+
+    assertNull(catalog.findById(1));
+    catalog.update(new Product(1, "pen"));
+    catalog.update(new Product(1, "pencil"));
+
+    assertEquals("pencil", catalog.findById(1).name());
+  }
+
+  @Test
+  void stripedCatalogUnderConcurrentWrites() throws InterruptedException {
+    StripedProductCatalog catalog = new StripedProductCatalog(16);
+    readWhileWriting(catalog::findById, catalog::update);
+  }
+
+  @Test
+  void stampedCatalogUnderConcurrentWrites() throws InterruptedException {
+    StampedProductCatalog catalog = new StampedProductCatalog();
+    readWhileWriting(catalog::findById, catalog::update);
+  }
+
+  // writer가 상품을 추가하는 동안 reader는 이미 추가된 상품을 항상 찾을 수 있어야 한다
+  private void readWhileWriting(LongFunction<Product> finder, Consumer<Product> updater)
+      throws InterruptedException {
+    int productCount = 20_000;
+    AtomicInteger written = new AtomicInteger();
+    AtomicInteger misses = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    executor.submit(() -> {
+      for (int id = 0; id < productCount; id++) {
+        updater.accept(new Product(id, "product-" + id));
+        written.set(id + 1);
+      }
+    });
+    for (int r = 0; r < 4; r++) {
+      executor.submit(() -> {
+        while (written.get() < productCount) {
+          int upTo = written.get();
+          for (int id = 0; id < upTo; id += 97) {
+            if (finder.apply(id) == null) {
+              misses.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(0, misses.get());
+    for (long id = 0; id < productCount; id++) {
+      assertNotNull(finder.apply(id));
+    }
+  }
+}
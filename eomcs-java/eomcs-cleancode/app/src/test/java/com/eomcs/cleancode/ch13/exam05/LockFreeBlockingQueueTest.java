@@ -0,0 +1,167 @@
+package com.eomcs.cleancode.ch13.exam05;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+// 예제 1 보충: 락 없는 MPMC 큐
+class LockFreeBlockingQueueTest {
+
+  // 용량이 가득 차면 offer()는 false를, 비어 있으면 poll()은 null을 리턴한다
+  @Test
+  void boundedFifo() {
+    LockFreeBlockingQueue<String> queue = new LockFreeBlockingQueue<>(3);
+
+    assertEquals(4, queue.remainingCapacity()); // 2의 거듭제곱으로 올림
+    assertTrue(queue.offer("a"));
+    assertTrue(queue.offer("b"));
+    assertTrue(queue.offer("c"));
+    assertTrue(queue.offer("d"));
+    assertFalse(queue.offer("e"));
+    assertEquals(4, queue.size());
+    assertEquals("a", queue.peek());
+    assertEquals(List.of("a", "b", "c", "d"), new ArrayList<>(queue));
+
+    assertEquals("a", queue.poll());
+    assertTrue(queue.offer("e"));
+    assertEquals("b", queue.poll());
+    assertEquals("c", queue.poll());
+    assertEquals("d", queue.poll());
+    assertEquals("e", queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  // 시간 제한이 있는 offer()/poll()은 기다리다가 포기한다
+  @Test
+  void timedOperationsGiveUp() throws InterruptedException {
+    LockFreeBlockingQueue<String> queue = new LockFreeBlockingQueue<>(2);
+
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    assertTrue(queue.offer("a", 10, TimeUnit.MILLISECONDS));
+    assertTrue(queue.offer("b", 10, TimeUnit.MILLISECONDS));
+    assertFalse(queue.offer("c", 10, TimeUnit.MILLISECONDS));
+  }
+
+  // 여러 생산자와 여러 소비자가 동시에 사용해도 모든 작업이 정확히 한 번씩 처리된다
+  @Test
+  void manyProducersAndConsumers() throws InterruptedException {
+    LockFreeBlockingQueue<Integer> queue = new LockFreeBlockingQueue<>(64);
+
+    int producers = 8;
+    int consumers = 8;
+    int jobsPerProducer = 50_000;
+    int totalJobs = producers * jobsPerProducer;
+
+    AtomicLong sum = new AtomicLong();
+    CountDownLatch consumed = new CountDownLatch(totalJobs);
+    ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+
+    for (int p = 0; p < producers; p++) {
+      executor.submit(() -> {
+        for (int i = 1; i <= jobsPerProducer; i++) {
+          queue.put(i);
+        }
+        return null;
+      });
+    }
+    for (int c = 0; c < consumers; c++) {
+      executor.submit(() -> {
+        while (true) {
+          sum.addAndGet(queue.take());
+          consumed.countDown();
+        }
+      });
+    }
+
+    assertTrue(consumed.await(30, TimeUnit.SECONDS));
+    executor.shutdownNow();
+
+    long expected = (long) producers * jobsPerProducer * (jobsPerProducer + 1) / 2;
+    assertEquals(expected, sum.get());
+    assertTrue(queue.isEmpty());
+  }
+
+  // 비어 있는 큐에서 take()로 기다리는 스레드는 잠들어 CPU를 쓰지 않고,
+  // 생산자가 값을 넣으면 바로 깨어난다
+  @Test
+  void idleTakeSleepsAndWakesUpOnPut() throws InterruptedException {
+    LockFreeBlockingQueue<String> queue = new LockFreeBlockingQueue<>(4);
+    AtomicReference<String> taken = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+
+    Thread consumer = new Thread(() -> {
+      try {
+        taken.set(queue.take());
+        done.countDown();
+      } catch (InterruptedException e) {
+        // 테스트 종료
+      }
+    });
+    consumer.setDaemon(true);
+    consumer.start();
+
+    // 회전(spin)이 끝나면 조건 변수에서 잠든다
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (consumer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(Thread.State.WAITING, consumer.getState());
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads.isThreadCpuTimeSupported()) {
+      long before = threads.getThreadCpuTime(consumer.getId());
+      Thread.sleep(300);
+      long used = threads.getThreadCpuTime(consumer.getId()) - before;
+      assertTrue(used < TimeUnit.MILLISECONDS.toNanos(30),
+          "기다리는 동안 사용한 CPU 시간: " + used + "ns");
+    }
+
+    long start = System.nanoTime();
+    queue.put("job");
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+    System.out.printf("put() 후 take()가 리턴할 때까지: %,d us%n",
+        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    assertEquals("job", taken.get());
+    consumer.join();
+  }
+
+  // 가득 찬 큐에서 put()으로 기다리는 스레드는 소비자가 값을 꺼내면 깨어난다
+  @Test
+  void blockedPutWakesUpOnTake() throws InterruptedException {
+    LockFreeBlockingQueue<String> queue = new LockFreeBlockingQueue<>(2);
+    queue.put("a");
+    queue.put("b");
+    CountDownLatch done = new CountDownLatch(1);
+
+    Thread producer = new Thread(() -> {
+      try {
+        queue.put("c");
+        done.countDown();
+      } catch (InterruptedException e) {
+        // 테스트 종료
+      }
+    });
+    producer.setDaemon(true);
+    producer.start();
+
+    assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+    assertEquals("a", queue.take());
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+    assertEquals(List.of("b", "c"), new ArrayList<>(queue));
+    producer.join();
+  }
+}
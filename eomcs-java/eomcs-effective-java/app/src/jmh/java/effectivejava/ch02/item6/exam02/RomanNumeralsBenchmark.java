@@ -0,0 +1,46 @@
+// # 아이템 6. 불필요한 객체 생성을 피하라
+// - Before/After/After2 의 측정을 JMH 로 다시 한다.
+// - System.nanoTime() 반복문은 워밍업, 포크(fork), 죽은 코드 제거(dead-code elimination)
+//   를 고려하지 않기 때문에 결과를 믿기 어렵다.
+//
+// 실행:
+//   ./gradlew jmh -Pjmh.includes=RomanNumeralsBenchmark
+
+package effectivejava.ch02.item6.exam02;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RomanNumeralsBenchmark {
+
+  // 로마 숫자인 문자열(짧은 것, 긴 것)과 로마 숫자가 아닌 문자열
+  @Param({"MCMLXXVI", "MMMDCCCLXXXVIII", "HELLO"})
+  String input;
+
+  // 매번 Pattern 객체를 생성한다. (Before)
+  @Benchmark
+  public boolean stringMatches() {
+    return RomanNumerals.isRomanNumeral(input);
+  }
+
+  // 미리 생성한 Pattern 객체를 재사용한다. (After)
+  @Benchmark
+  public boolean cachedPattern() {
+    return RomanNumerals2.isRomanNumeral(input);
+  }
+
+  // 처음 사용할 때 Pattern 객체를 생성한다. (After2)
+  @Benchmark
+  public boolean lazyPattern() {
+    return RomanNumerals3.isRomanNumeral(input);
+  }
+}
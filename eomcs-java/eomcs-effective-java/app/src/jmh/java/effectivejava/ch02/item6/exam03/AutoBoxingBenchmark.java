@@ -0,0 +1,43 @@
+// # 아이템 6. 불필요한 객체 생성을 피하라
+// - Test 의 Wrapper 타입 vs Primitive 타입 합계 측정을 JMH 로 다시 한다.
+//
+// 실행:
+//   ./gradlew jmh -Pjmh.includes=AutoBoxingBenchmark
+
+package effectivejava.ch02.item6.exam03;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutoBoxingBenchmark {
+
+  @Param({"1000", "1000000"})
+  long count;
+
+  @Benchmark
+  public long wrapperSum() {
+    Long sum = 0L;
+    for (long i = 0; i < count; i++) {
+      sum += i; // auto-boxing 이 일어난다.
+    }
+    return sum; // 결과를 리턴해야 JIT 가 반복문을 제거하지 못한다.
+  }
+
+  @Benchmark
+  public long primitiveSum() {
+    long sum = 0L;
+    for (long i = 0; i < count; i++) {
+      sum += i;
+    }
+    return sum;
+  }
+}
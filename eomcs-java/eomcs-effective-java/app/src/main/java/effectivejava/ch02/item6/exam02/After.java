@@ -1,5 +1,6 @@
 // # 아이템 6. 불필요한 객체 생성을 피하라
 // - 똑같은 기능의 객체를 매번 생성하기 보다는 하나의 객체를 재사용하는 편이 낫다.
+// - JMH 로 측정한 결과는 src/jmh/java/.../RomanNumeralsBenchmark 를 참고하라.
 
 package effectivejava.ch02.item6.exam02;
 
@@ -0,0 +1,136 @@
+package com.eomcs.algorithm.data_structure.array;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// MyArrayList<Integer> vs MyIntArrayList vs MyLongArrayList - 메모리 및 성능 비교
+//
+// 항목 수: 10,000,000
+// - 힙 사용량: 값을 모두 추가한 후 GC를 요청하고 사용 중인 힙 크기를 잰다.
+// - 처리량: add() 로 값을 추가하는 시간과, 값을 모두 꺼내 합계를 구하는 시간을 잰다.
+//
+// 주의!
+// - System.nanoTime() 으로 직접 재는 시간은 JIT 컴파일의 영향을 받는다.
+//   그래서 같은 측정을 여러 번 반복하여 워밍업 후의 값을 본다.
+// - 힙 크기는 GC 시점에 따라 오차가 있다. 대략적인 차이만 확인하라.
+//
+// 실행 예:
+//   java -Xmx2g com.eomcs.algorithm.data_structure.array.MyIntArrayListTest
+//
+public class MyIntArrayListTest {
+
+  static final int COUNT = 10_000_000;
+  static final int ROUNDS = 5;
+
+  public static void main(String[] args) {
+
+    // 1. 기능 확인
+    MyIntArrayList list = new MyIntArrayList();
+    list.add(100);
+    list.add(200);
+    list.addAll(new int[] {300, 400, 500, 600, 700});
+    list.add(0, 50);
+    list.remove(1);
+    list.set(0, 10);
+    list.forEach(value -> System.out.print(value + ","));
+    System.out.println();
+    System.out.println(Arrays.toString(list.toIntArray()));
+
+    System.out.println("------------------------");
+
+    // 2. 힙 사용량 비교
+    System.out.println("[힙 사용량 - 항목 수: " + COUNT + "]");
+    System.out.printf("MyArrayList<Integer>: %,d bytes%n", measureHeap(() -> {
+      MyArrayList<Integer> boxed = new MyArrayList<>();
+      for (int i = 0; i < COUNT; i++) {
+        boxed.add(i);
+      }
+      return boxed;
+    }));
+    System.out.printf("MyIntArrayList      : %,d bytes%n", measureHeap(() -> {
+      MyIntArrayList ints = new MyIntArrayList();
+      for (int i = 0; i < COUNT; i++) {
+        ints.add(i);
+      }
+      return ints;
+    }));
+    System.out.printf("MyLongArrayList     : %,d bytes%n", measureHeap(() -> {
+      MyLongArrayList longs = new MyLongArrayList();
+      for (int i = 0; i < COUNT; i++) {
+        longs.add(i);
+      }
+      return longs;
+    }));
+
+    System.out.println("------------------------");
+
+    // 3. 처리량 비교
+    System.out.println("[처리량 - 항목 수: " + COUNT + "]");
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf("%d 회차%n", round);
+
+      long start = System.nanoTime();
+      MyArrayList<Integer> boxed = new MyArrayList<>();
+      for (int i = 0; i < COUNT; i++) {
+        boxed.add(i); // auto-boxing
+      }
+      long addTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long sum = 0;
+      for (int i = 0; i < boxed.size(); i++) {
+        sum += boxed.get(i); // auto-unboxing
+      }
+      System.out.printf("  MyArrayList<Integer> add: %,d ns, get: %,d ns (합계: %d)%n",
+          addTime, System.nanoTime() - start, sum);
+      boxed = null;
+
+      start = System.nanoTime();
+      MyIntArrayList ints = new MyIntArrayList();
+      for (int i = 0; i < COUNT; i++) {
+        ints.add(i);
+      }
+      addTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      long[] total = new long[1];
+      ints.forEach(value -> total[0] += value);
+      System.out.printf("  MyIntArrayList       add: %,d ns, forEach: %,d ns (합계: %d)%n",
+          addTime, System.nanoTime() - start, total[0]);
+      ints = null;
+
+      start = System.nanoTime();
+      MyLongArrayList longs = new MyLongArrayList();
+      for (int i = 0; i < COUNT; i++) {
+        longs.add(i);
+      }
+      addTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      total[0] = 0;
+      longs.forEach(value -> total[0] += value);
+      System.out.printf("  MyLongArrayList      add: %,d ns, forEach: %,d ns (합계: %d)%n",
+          addTime, System.nanoTime() - start, total[0]);
+    }
+  }
+
+  // 목록을 만든 후 늘어난 힙 크기를 리턴한다.
+  static long measureHeap(Supplier<Object> factory) {
+    long before = usedHeap();
+    Object list = factory.get();
+    long after = usedHeap();
+    // 측정이 끝날 때까지 목록이 가비지가 되지 않도록 참조를 유지한다.
+    if (list.hashCode() == 0) {
+      System.out.println();
+    }
+    return after - before;
+  }
+
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,127 @@
+package com.eomcs.algorithm.data_structure.array;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// MyArrayList 의 long 전용 버전
+//
+// MyArrayList<Long> 은 Object[] 배열에 값을 보관하기 때문에
+// - add(long) 할 때마다 Long 객체를 만들고(auto-boxing),
+// - get() 할 때마다 Long 객체에서 값을 꺼낸다(auto-unboxing).
+// - 또한 배열에는 값이 아니라 Long 객체의 주소가 들어 있어
+//   항목 하나마다 객체 헤더 + 값 + 레퍼런스 만큼의 메모리를 사용한다.
+//
+// MyLongArrayList 는 long[] 배열에 값을 직접 보관한다.
+// - 박싱/언박싱이 없고, 항목 하나에 8바이트만 사용한다.
+// - 배열을 늘리는 방식(grow())은 MyArrayList 와 같다.
+//
+//테스트 - MyIntArrayListTest
+//1) long[] 배열에 값을 보관한다.
+//2) 여러 개의 값을 한 번에 추가하는 addAll(long[]) 메서드를 정의한다.
+//3) 보관된 값을 long[] 배열로 리턴하는 toLongArray() 메서드를 정의한다.
+//4) 객체를 생성하지 않고 값을 하나씩 꺼내 처리하는 forEach(LongConsumer) 메서드를 정의한다.
+//
+public class MyLongArrayList {
+
+  private static final int DEFAULT_CAPACITY = 5;
+  private long[] elementData;
+  private int size;
+
+  public MyLongArrayList() {
+    elementData = new long[DEFAULT_CAPACITY];
+  }
+
+  public MyLongArrayList(int initialCapacity) {
+    if (initialCapacity < DEFAULT_CAPACITY) {
+      elementData = new long[DEFAULT_CAPACITY];
+    } else {
+      elementData = new long[initialCapacity];
+    }
+  }
+
+  public boolean add(long value) {
+    if (size == elementData.length) {
+      grow(size + 1);
+    }
+    elementData[size++] = value;
+    return true;
+  }
+
+  public boolean addAll(long[] values) {
+    if (values.length == 0) {
+      return false;
+    }
+    if (size + values.length > elementData.length) {
+      grow(size + values.length);
+    }
+    System.arraycopy(values, 0, elementData, size, values.length);
+    size += values.length;
+    return true;
+  }
+
+  // 배열을 1.5배씩 늘린다.
+  // - addAll() 처럼 한 번에 많은 값을 추가할 때는 필요한 크기만큼 바로 늘린다.
+  private void grow(int minCapacity) {
+    int newCapacity = elementData.length + (elementData.length >> 1);
+    if (newCapacity < minCapacity) {
+      newCapacity = minCapacity;
+    }
+    elementData = Arrays.copyOf(elementData, newCapacity);
+  }
+
+  public void add(int index, long value) {
+    if (index < 0 || index > size) {
+      throw new ArrayIndexOutOfBoundsException("인덱스가 유효하지 않습니다.");
+    }
+    if (size == elementData.length) {
+      grow(size + 1);
+    }
+    System.arraycopy(elementData, index, elementData, index + 1, size - index);
+    elementData[index] = value;
+    size++;
+  }
+
+  public long get(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException("인덱스가 유효하지 않습니다.");
+    }
+    return elementData[index];
+  }
+
+  public long set(int index, long value) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException("인덱스가 유효하지 않습니다.");
+    }
+    long old = elementData[index];
+    elementData[index] = value;
+    return old;
+  }
+
+  public long remove(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException("인덱스가 유효하지 않습니다.");
+    }
+    long old = elementData[index];
+    System.arraycopy(elementData, index + 1, elementData, index, this.size - (index + 1));
+    size--;
+    // long 배열은 가비지를 만들지 않기 때문에 맨 끝 항목을 지울 필요가 없다.
+    return old;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public long[] toLongArray() {
+    return Arrays.copyOf(elementData, this.size);
+  }
+
+  // 값을 하나씩 꺼내 파라미터로 받은 작업을 수행한다.
+  // - Iterator 나 Long 객체를 만들지 않는다.
+  public void forEach(LongConsumer action) {
+    long[] data = this.elementData;
+    for (int i = 0, count = this.size; i < count; i++) {
+      action.accept(data[i]);
+    }
+  }
+}
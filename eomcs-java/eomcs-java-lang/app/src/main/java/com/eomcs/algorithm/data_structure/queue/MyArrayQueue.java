@@ -0,0 +1,124 @@
+package com.eomcs.algorithm.data_structure.queue;
+
+import java.util.Arrays;
+
+// 배열 기반 Queue - 원형 버퍼(circular buffer / ring buffer)
+//
+// MyQueue 는 MyLinkedList 를 상속 받기 때문에
+// - offer() 할 때마다 Node 객체를 생성하고,
+// - clone() 할 때 toArray() 로 값을 꺼낸 후 다시 offer() 해야 한다.
+//
+// MyArrayQueue 는 배열의 양 끝이 이어져 있는 것처럼 사용한다.
+// - head: 다음에 꺼낼(poll) 항목의 위치
+// - tail: 다음에 넣을(offer) 항목의 위치
+// - 인덱스가 배열 끝에 도달하면 다시 0 부터 사용한다.
+//
+// 1) 배열의 크기를 항상 2의 거듭제곱으로 유지한다.
+//    => 나머지 연산(%) 대신 비트 연산(& mask)으로 인덱스를 계산할 수 있다.
+//    예) 배열 크기 8, mask = 7(0b111) 일 때 (7 + 1) & 7 = 0
+// 2) 배열이 꽉 차면 두 배로 늘리고, head 부터 순서대로 새 배열의 앞쪽에 복사한다.
+// 3) poll() 한 자리는 null 로 설정하여 꺼낸 객체가 가비지가 될 수 있게 한다.
+// 4) clone() 은 배열을 통째로 복사한다. 노드를 다시 연결할 필요가 없다.
+//
+// 테스트: MyArrayQueueTest
+//
+public class MyArrayQueue<E> implements Cloneable {
+
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private Object[] elements;
+  private int head;
+  private int tail;
+  private int size;
+
+  public MyArrayQueue() {
+    elements = new Object[DEFAULT_CAPACITY];
+  }
+
+  public MyArrayQueue(int initialCapacity) {
+    elements = new Object[tableSizeFor(initialCapacity)];
+  }
+
+  // 파라미터 값 이상인 가장 작은 2의 거듭제곱을 리턴한다.
+  // 예) 5 → 8, 8 → 8, 9 → 16
+  private static int tableSizeFor(int capacity) {
+    if (capacity <= DEFAULT_CAPACITY) {
+      return DEFAULT_CAPACITY;
+    }
+    return Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  public boolean offer(E e) {
+    if (size == elements.length) {
+      grow();
+    }
+    elements[tail] = e;
+    tail = (tail + 1) & (elements.length - 1);
+    size++;
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    if (size == 0) {
+      return null;
+    }
+    E value = (E) elements[head];
+    elements[head] = null; // 꺼낸 객체가 가비지가 될 수 있게 한다.
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    if (size == 0) {
+      return null;
+    }
+    return (E) elements[head];
+  }
+
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("인덱스가 유효하지 않습니다.");
+    }
+    return (E) elements[(head + index) & (elements.length - 1)];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void grow() {
+    int oldCapacity = elements.length;
+    Object[] newElements = new Object[oldCapacity << 1];
+
+    // head 부터 배열 끝까지, 그리고 배열 앞부터 tail 까지 순서대로 복사한다.
+    int headToEnd = oldCapacity - head;
+    System.arraycopy(elements, head, newElements, 0, headToEnd);
+    System.arraycopy(elements, 0, newElements, headToEnd, head);
+
+    elements = newElements;
+    head = 0;
+    tail = oldCapacity;
+  }
+
+  public Object[] toArray() {
+    Object[] arr = new Object[size];
+    int headToEnd = Math.min(size, elements.length - head);
+    System.arraycopy(elements, head, arr, 0, headToEnd);
+    System.arraycopy(elements, 0, arr, headToEnd, size - headToEnd);
+    return arr;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public MyArrayQueue<E> clone() throws CloneNotSupportedException {
+    // => 필드 값을 그대로 복사(shallow copy)한 후,
+    //    배열만 따로 복사하면 원본과 복사본이 서로 영향을 주지 않는다.
+    MyArrayQueue<E> newQueue = (MyArrayQueue<E>) super.clone();
+    newQueue.elements = Arrays.copyOf(this.elements, this.elements.length);
+    return newQueue;
+  }
+}
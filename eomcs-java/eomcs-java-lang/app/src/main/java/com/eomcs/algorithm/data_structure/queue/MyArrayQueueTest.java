@@ -0,0 +1,98 @@
+package com.eomcs.algorithm.data_structure.queue;
+
+import java.util.ArrayDeque;
+
+// MyQueue vs MyArrayQueue vs java.util.ArrayDeque - 성능 비교
+//
+// 생산자가 값을 BATCH 개씩 넣으면(offer) 소비자가 그만큼 꺼내는(poll) 작업을
+// 반복하여 모두 COUNT 개의 값을 큐에 통과시킨다.
+//
+// 첫 회차는 워밍업이다. 뒤 회차의 값으로 비교하라.
+//
+public class MyArrayQueueTest {
+
+  static final int COUNT = 20_000_000;
+  static final int BATCH = 1_000;
+  static final int ROUNDS = 5;
+
+  public static void main(String[] args) throws Exception {
+
+    // 1. 기능 확인
+    MyArrayQueue<String> queue = new MyArrayQueue<>();
+    for (String value : new String[] {"aaa", "bbb", "ccc", "ddd", "eee", "fff", "ggg"}) {
+      queue.offer(value);
+    }
+    queue.poll();
+    queue.poll();
+    queue.offer("hhh");
+    queue.offer("iii");
+    queue.offer("jjj"); // 배열(기본 크기 8)이 꽉 찬다.
+    queue.offer("kkk"); // 빈 칸이 없으므로 배열이 늘어난다.
+    print(queue);
+    System.out.println("--------------------------");
+
+    MyArrayQueue<String> queue2 = queue.clone();
+    queue2.poll();
+    queue2.poll();
+    print(queue2);
+    print(queue);
+    System.out.println("peek: " + queue.peek());
+    System.out.println("--------------------------");
+
+    // 2. 처리량 비교
+    Integer[] values = new Integer[BATCH];
+    for (int i = 0; i < BATCH; i++) {
+      values[i] = i;
+    }
+
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf("%d 회차 (항목 수: %,d)%n", round, COUNT);
+
+      MyQueue<Integer> linkedQueue = new MyQueue<>();
+      long start = System.nanoTime();
+      long sum = 0;
+      for (int n = 0; n < COUNT; n += BATCH) {
+        for (Integer value : values) {
+          linkedQueue.offer(value);
+        }
+        for (int i = 0; i < BATCH; i++) {
+          sum += linkedQueue.poll();
+        }
+      }
+      System.out.printf("  MyQueue     : %,d ns (합계: %d)%n", System.nanoTime() - start, sum);
+
+      MyArrayQueue<Integer> arrayQueue = new MyArrayQueue<>();
+      start = System.nanoTime();
+      sum = 0;
+      for (int n = 0; n < COUNT; n += BATCH) {
+        for (Integer value : values) {
+          arrayQueue.offer(value);
+        }
+        for (int i = 0; i < BATCH; i++) {
+          sum += arrayQueue.poll();
+        }
+      }
+      System.out.printf("  MyArrayQueue: %,d ns (합계: %d)%n", System.nanoTime() - start, sum);
+
+      ArrayDeque<Integer> arrayDeque = new ArrayDeque<>();
+      start = System.nanoTime();
+      sum = 0;
+      for (int n = 0; n < COUNT; n += BATCH) {
+        for (Integer value : values) {
+          arrayDeque.offer(value);
+        }
+        for (int i = 0; i < BATCH; i++) {
+          sum += arrayDeque.poll();
+        }
+      }
+      System.out.printf("  ArrayDeque  : %,d ns (합계: %d)%n", System.nanoTime() - start, sum);
+    }
+  }
+
+  static void print(MyArrayQueue<String> queue) {
+    for (int i = 0; i < queue.size(); i++) {
+      System.out.print(queue.get(i) + ",");
+    }
+    System.out.println();
+  }
+}
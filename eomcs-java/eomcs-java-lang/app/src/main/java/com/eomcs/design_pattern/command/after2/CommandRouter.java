@@ -0,0 +1,267 @@
+package com.eomcs.design_pattern.command.after2;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import com.eomcs.design_pattern.command.after.Command;
+
+// 명령어 경로를 미리 컴파일해 두고 Command 를 찾아 실행하는 라우터
+//
+// after.Test01 의 HashMap 방식과 다른 점
+// - 경로 패턴을 지원한다.
+//   => "/board/*" 는 "/board/" 로 시작하는 모든 경로를 처리한다.
+//   => 정확히 일치하는 경로가 우선이고, 그 다음은 가장 긴 패턴이 우선이다.
+// - 생성자에서 경로를 컴파일한다. 그 후로는 변경하지 않으므로 여러 스레드가 함께 사용해도 된다.
+//   1) 정확한 경로: 충돌이 없는 해시 테이블(perfect hash)을 만든다.
+//      => 서로 다른 hashCode() 는 서로 다른 칸에 들어간다.
+//         hashCode() 가 같은 경로("Aa" 와 "BB" 처럼)는 어떤 seed 로도 나눌 수 없으므로 같은 칸에 함께 둔다.
+//      => 대부분의 칸에는 후보가 한 개만 있으므로 equals() 를 한 번만 호출한다.
+//   2) 패턴: 문자 단위 트라이(trie)를 만든 후 배열로 펼친다.
+//      => 경로를 한 번 읽으면서 가장 긴 패턴을 찾는다. 문자열을 자르거나 새로 만들지 않는다.
+// - Command 를 실행할 때 걸린 시간을 명령어 별로 LatencyHistogram 에 기록한다.
+//   => printStats() 로 언제든지 출력할 수 있다.
+//
+public class CommandRouter {
+
+  static final String WILDCARD = "*";
+
+  // 정확한 경로 해시 테이블의 최대 크기(2^MAX_TABLE_BITS 칸)
+  static final int MAX_TABLE_BITS = 20;
+  static final int SEEDS_PER_SIZE = 64;
+
+  // 경로 별 정보. 인덱스를 경로 번호로 사용한다.
+  final String[] paths;
+  final Command[] commands;
+  final LatencyHistogram[] histograms;
+
+  // 정확한 경로의 해시 테이블
+  // => 칸 i 의 후보는 exactKeys/exactRoutes 의 [slotStart[i], slotStart[i + 1]) 범위에 있다.
+  final int[] slotStart;
+  final String[] exactKeys;
+  final int[] exactRoutes;
+  final int exactSeed;
+  final int exactShift;
+
+  // 패턴 트라이
+  // => 상태 s 에서 나가는 간선은 edgeChars/edgeTargets 의 [firstEdge[s], firstEdge[s + 1]) 범위에 있다.
+  // => prefixRoutes[s] 는 상태 s 에서 끝나는 패턴의 경로 번호다. 없으면 -1 이다.
+  final int[] firstEdge;
+  final char[] edgeChars;
+  final int[] edgeTargets;
+  final int[] prefixRoutes;
+
+  public CommandRouter(Map<String, ? extends Command> commandMap) {
+    int size = commandMap.size();
+    paths = new String[size];
+    commands = new Command[size];
+    histograms = new LatencyHistogram[size];
+
+    List<Integer> exact = new ArrayList<>();
+    TrieNode root = new TrieNode();
+    int route = 0;
+    for (Map.Entry<String, ? extends Command> entry : commandMap.entrySet()) {
+      paths[route] = entry.getKey();
+      commands[route] = entry.getValue();
+      histograms[route] = new LatencyHistogram();
+      if (paths[route].endsWith(WILDCARD)) {
+        root.add(paths[route], paths[route].length() - WILDCARD.length(), route);
+      } else {
+        exact.add(route);
+      }
+      route++;
+    }
+
+    // 1) 정확한 경로: hashCode() 가 같은 경로끼리 묶는다.
+    Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+    for (int r : exact) {
+      groups.computeIfAbsent(paths[r].hashCode(), h -> new ArrayList<>()).add(r);
+    }
+    int[] hashes = new int[groups.size()];
+    int n = 0;
+    for (int hash : groups.keySet()) {
+      hashes[n++] = hash;
+    }
+
+    // 서로 다른 hashCode() 가 충돌하지 않는 seed 를 찾을 때까지 바꿔 본다. 못 찾으면 테이블을 늘린다.
+    int tableBits = 1;
+    while ((1 << tableBits) < hashes.length * 2) {
+      tableBits++;
+    }
+    int seed = 0;
+    int[] table;
+    while ((table = buildTable(hashes, seed, tableBits)) == null) {
+      if (++seed == SEEDS_PER_SIZE) {
+        seed = 0;
+        if (++tableBits > MAX_TABLE_BITS) {
+          throw new IllegalArgumentException(String.format(
+              "정확한 경로 %d 개에 대해 충돌이 없는 해시 테이블을 만들 수 없습니다. (최대 %d 칸)",
+              exact.size(), 1 << MAX_TABLE_BITS));
+        }
+      }
+    }
+    exactSeed = seed;
+    exactShift = 32 - tableBits;
+
+    // 칸 순서대로 후보를 펼친다.
+    slotStart = new int[table.length + 1];
+    exactKeys = new String[exact.size()];
+    exactRoutes = new int[exact.size()];
+    int next = 0;
+    for (int i = 0; i < table.length; i++) {
+      slotStart[i] = next;
+      if (table[i] >= 0) {
+        for (int r : groups.get(hashes[table[i]])) {
+          exactKeys[next] = paths[r];
+          exactRoutes[next] = r;
+          next++;
+        }
+      }
+    }
+    slotStart[table.length] = next;
+
+    // 2) 패턴: 트라이를 너비 우선으로 방문하면서 상태 번호를 매기고 배열에 담는다.
+    List<TrieNode> nodes = new ArrayList<>();
+    Queue<TrieNode> queue = new ArrayDeque<>();
+    queue.add(root);
+    int edgeCount = 0;
+    while (!queue.isEmpty()) {
+      TrieNode node = queue.remove();
+      node.state = nodes.size();
+      nodes.add(node);
+      edgeCount += node.children.size();
+      queue.addAll(node.children.values());
+    }
+    firstEdge = new int[nodes.size() + 1];
+    edgeChars = new char[edgeCount];
+    edgeTargets = new int[edgeCount];
+    prefixRoutes = new int[nodes.size()];
+    int edge = 0;
+    for (TrieNode node : nodes) {
+      firstEdge[node.state] = edge;
+      prefixRoutes[node.state] = node.route;
+      for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+        edgeChars[edge] = child.getKey();
+        edgeTargets[edge] = child.getValue().state;
+        edge++;
+      }
+    }
+    firstEdge[nodes.size()] = edge;
+  }
+
+  // 컴파일할 때만 사용하는 트라이 노드
+  static class TrieNode {
+    final TreeMap<Character, TrieNode> children = new TreeMap<>();
+    int route = -1;
+    int state;
+
+    void add(String path, int length, int route) {
+      TrieNode node = this;
+      for (int i = 0; i < length; i++) {
+        node = node.children.computeIfAbsent(path.charAt(i), c -> new TrieNode());
+      }
+      node.route = route;
+    }
+  }
+
+  // 칸 마다 hashes 의 인덱스를 담은 테이블을 리턴한다. 빈 칸은 -1 이다.
+  // => 충돌이 있으면 null 을 리턴한다. hashes 에는 같은 값이 없다.
+  static int[] buildTable(int[] hashes, int seed, int tableBits) {
+    int[] table = new int[1 << tableBits];
+    Arrays.fill(table, -1);
+    for (int i = 0; i < hashes.length; i++) {
+      int index = indexOf(hashes[i], seed, 32 - tableBits);
+      if (table[index] >= 0) {
+        return null;
+      }
+      table[index] = i;
+    }
+    return table;
+  }
+
+  static int indexOf(int hash, int seed, int shift) {
+    // 곱셈 해시: 곱한 값의 상위 비트를 사용한다.
+    return ((hash ^ seed) * 0x9E3779B9) >>> shift;
+  }
+
+  // 경로를 처리할 경로 번호를 리턴한다. 없으면 -1 을 리턴한다.
+  int routeOf(String path) {
+    int index = indexOf(path.hashCode(), exactSeed, exactShift);
+    for (int i = slotStart[index], end = slotStart[index + 1]; i < end; i++) {
+      if (exactKeys[i].equals(path)) {
+        return exactRoutes[i];
+      }
+    }
+
+    int state = 0;
+    int route = prefixRoutes[0];
+    for (int i = 0, length = path.length(); i < length; i++) {
+      char c = path.charAt(i);
+      int next = -1;
+      for (int e = firstEdge[state], end = firstEdge[state + 1]; e < end; e++) {
+        if (edgeChars[e] == c) {
+          next = edgeTargets[e];
+          break;
+        }
+      }
+      if (next < 0) {
+        break;
+      }
+      state = next;
+      if (prefixRoutes[state] >= 0) {
+        route = prefixRoutes[state];
+      }
+    }
+    return route;
+  }
+
+  // 경로를 처리할 Command 를 리턴한다. 없으면 null 을 리턴한다.
+  public Command find(String path) {
+    int route = routeOf(path);
+    return route < 0 ? null : commands[route];
+  }
+
+  // 경로를 처리할 Command 를 실행하고 걸린 시간을 기록한다.
+  // => 처리할 Command 가 없으면 false 를 리턴한다.
+  public boolean execute(String path) {
+    int route = routeOf(path);
+    if (route < 0) {
+      return false;
+    }
+    long start = System.nanoTime();
+    try {
+      commands[route].execute();
+    } finally {
+      histograms[route].record(System.nanoTime() - start);
+    }
+    return true;
+  }
+
+  public LatencyHistogram getHistogram(String path) {
+    for (int i = 0; i < paths.length; i++) {
+      if (paths[i].equals(path)) {
+        return histograms[i];
+      }
+    }
+    return null;
+  }
+
+  public void printStats(PrintStream out) {
+    out.printf("%-16s %10s %10s %10s %10s %10s %10s\n",
+        "경로", "횟수", "평균(ns)", "p50", "p90", "p99", "최대");
+    for (int i = 0; i < paths.length; i++) {
+      LatencyHistogram h = histograms[i];
+      if (h.getCount() == 0) {
+        continue;
+      }
+      out.printf("%-16s %,10d %,10.0f %,10d %,10d %,10d %,10d\n",
+          paths[i], h.getCount(), h.getMean(), h.getValueAtPercentile(50),
+          h.getValueAtPercentile(90), h.getValueAtPercentile(99), h.getMax());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+// CommandRouter 동작 확인
+// - 실행 후 "모든 테스트 통과!" 가 출력되어야 한다.
+package com.eomcs.design_pattern.command.after2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.eomcs.design_pattern.command.after.Command;
+
+public class CommandRouterTest {
+
+  public static void main(String[] args) {
+    // 1) hashCode() 가 같은 경로: "Aa" 와 "BB" 는 hashCode() 가 같다.
+    check("hashCode 충돌 준비", "/Aa".hashCode() == "/BB".hashCode()
+        && "/AaAa".hashCode() == "/BBBB".hashCode() && "/AaBB".hashCode() == "/BBAa".hashCode());
+
+    Map<String, Command> map = new LinkedHashMap<>();
+    for (String path : new String[] {"/Aa", "/BB", "/AaAa", "/BBBB", "/AaBB", "/BBAa", "/hello"}) {
+      map.put(path, new NamedCommand(path));
+    }
+    map.put("/Aa/*", new NamedCommand("/Aa/*"));
+    CommandRouter router = new CommandRouter(map);
+
+    boolean found = true;
+    for (String path : map.keySet()) {
+      if (!path.endsWith(CommandRouter.WILDCARD)) {
+        found &= ((NamedCommand) router.find(new String(path))).name.equals(path);
+      }
+    }
+    check("hashCode 가 같은 경로를 구분", found);
+    check("hashCode 만 같은 다른 경로는 없음", router.find("/Ab") == null);
+    check("패턴", ((NamedCommand) router.find("/Aa/list")).name.equals("/Aa/*"));
+
+    // 2) 많은 경로
+    map = new LinkedHashMap<>();
+    for (int i = 0; i < 300; i++) {
+      map.put("/cmd/" + i, new NamedCommand("/cmd/" + i));
+    }
+    router = new CommandRouter(map);
+    found = true;
+    for (int i = 0; i < 300; i++) {
+      found &= ((NamedCommand) router.find("/cmd/" + i)).name.equals("/cmd/" + i);
+    }
+    check("경로 300개", found && router.find("/cmd/300") == null);
+
+    System.out.println("모든 테스트 통과!");
+  }
+
+  static class NamedCommand implements Command {
+    final String name;
+
+    NamedCommand(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void execute() {}
+  }
+
+  static void check(String name, boolean ok) {
+    if (!ok) {
+      throw new AssertionError("실패: " + name);
+    }
+    System.out.println("성공: " + name);
+  }
+}
@@ -0,0 +1,93 @@
+package com.eomcs.design_pattern.command.after2;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 실행 시간(ns)의 분포를 기록하는 히스토그램 (HdrHistogram 과 같은 방식의 버킷)
+// - 값을 모두 저장하지 않고, 값이 속한 버킷의 개수만 증가시킨다.
+//   => 기록할 때 메모리를 할당하지 않는다.
+// - 버킷 나누기
+//   => 0 ~ 15 ns 는 1 ns 단위로 나눈다.
+//   => 그 이상은 2의 거듭제곱 구간(16~31, 32~63, ...)을 다시 8 등분한다.
+//   => 값이 커져도 오차는 구간 크기의 1/8(12.5%) 이하로 유지된다.
+// - 여러 스레드가 동시에 기록해도 된다. (AtomicLongArray)
+//
+public class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 3;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 8
+  static final int LINEAR_LIMIT = SUB_BUCKETS * 2; // 16
+  static final int LINEAR_BITS = 4; // LINEAR_LIMIT 의 비트 수
+
+  // long 최대값까지 담을 수 있는 버킷 개수
+  static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - LINEAR_BITS) * SUB_BUCKETS;
+
+  final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  final AtomicLong totalTime = new AtomicLong();
+  final AtomicLong maxTime = new AtomicLong();
+
+  static int bucketOf(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) Math.max(value, 0);
+    }
+    int msb = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR_LIMIT + (msb - LINEAR_BITS) * SUB_BUCKETS + sub;
+  }
+
+  // 버킷에 들어가는 가장 큰 값
+  static long upperBoundOf(int bucket) {
+    if (bucket < LINEAR_LIMIT) {
+      return bucket;
+    }
+    int msb = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+    int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+    long lowest = (1L << msb) + ((long) sub << (msb - SUB_BUCKET_BITS));
+    return lowest + (1L << (msb - SUB_BUCKET_BITS)) - 1;
+  }
+
+  public void record(long nanos) {
+    counts.incrementAndGet(bucketOf(nanos));
+    totalTime.addAndGet(nanos);
+    long max = maxTime.get();
+    while (nanos > max && !maxTime.compareAndSet(max, nanos)) {
+      max = maxTime.get();
+    }
+  }
+
+  // 기록할 때 원자적 연산을 줄이기 위해 개수는 따로 세지 않고 버킷을 더해서 구한다.
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  public long getMax() {
+    return maxTime.get();
+  }
+
+  public double getMean() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) totalTime.get() / count;
+  }
+
+  // percentile: 0 ~ 100
+  // => 해당 백분위 값이 들어 있는 버킷의 최대값을 리턴한다.
+  public long getValueAtPercentile(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(upperBoundOf(i), getMax());
+      }
+    }
+    return getMax();
+  }
+}
@@ -0,0 +1,173 @@
+// HashMap 방식(after.Test01)과 CommandRouter 의 명령 찾기 비용 비교
+// - 명령 경로 n 개(기본 1,000,000개)를 찾는 시간을 측정한다.
+//   => 실제 요청처럼 매번 새로 만든 String 을 사용한다. (String 의 해시 값이 아직 계산되지 않은 상태)
+//   => 입력 문자열은 측정 전에 만든다.
+// - 측정 항목
+//   1) 정확한 경로만 요청: HashMap.get() vs CommandRouter.find()
+//   2) 절반은 패턴("/board/*")으로 처리해야 하는 경로:
+//      HashMap 은 정확한 경로를 찾지 못하면 '/' 위치에서 잘라 "앞부분/*" 를 다시 찾는다.
+//   3) CommandRouter.execute(): 찾기 + 실행 시간 기록(LatencyHistogram) 비용
+// - 여러 번 반복하여 가장 빠른 결과를 출력한다. (처음 몇 번은 JIT 컴파일이 끝나지 않아 느리다)
+//
+// 실행:
+//   java com.eomcs.design_pattern.command.after2.RouterBenchmark [요청 수(기본 1000000)] [반복 횟수(기본 7)]
+//
+package com.eomcs.design_pattern.command.after2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import com.eomcs.design_pattern.command.after.Command;
+
+public class RouterBenchmark {
+
+  // 실행 시간이 아니라 찾는 비용을 재기 위해 아무 일도 하지 않는 명령
+  static class NoOpCommand implements Command {
+    int count;
+
+    @Override
+    public void execute() {
+      count++;
+    }
+  }
+
+  static final String[] RESOURCES = {"board", "member", "project", "task", "lesson", "room"};
+  static final String[] ACTIONS = {"add", "detail", "list", "update", "delete"};
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+    Map<String, Command> commandMap = new HashMap<>();
+    for (String resource : RESOURCES) {
+      for (String action : ACTIONS) {
+        commandMap.put("/" + resource + "/" + action, new NoOpCommand());
+      }
+      commandMap.put("/" + resource + "/*", new NoOpCommand());
+    }
+    commandMap.put("hello", new NoOpCommand());
+    CommandRouter router = new CommandRouter(commandMap);
+
+    System.out.printf("명령 수: %d, 요청 수: %,d, 반복 횟수: %d\n\n",
+        commandMap.size(), count, rounds);
+    System.out.printf("%-34s %10s %14s\n", "방법", "ns/요청", "요청/s");
+
+    long best;
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      String[] inputs = inputs(count, 0, r);
+      long start = System.nanoTime();
+      checkFound(count, findAll(commandMap, inputs));
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    print("HashMap.get() - 정확한 경로", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      String[] inputs = inputs(count, 0, r);
+      long start = System.nanoTime();
+      checkFound(count, findAll(router, inputs));
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    print("CommandRouter.find() - 정확한 경로", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      String[] inputs = inputs(count, 50, r);
+      long start = System.nanoTime();
+      checkFound(count, findAllWithPrefix(commandMap, inputs));
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    print("HashMap + 잘라서 다시 찾기 - 패턴 50%", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      String[] inputs = inputs(count, 50, r);
+      long start = System.nanoTime();
+      checkFound(count, findAll(router, inputs));
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    print("CommandRouter.find() - 패턴 50%", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      String[] inputs = inputs(count, 50, r);
+      long start = System.nanoTime();
+      int found = 0;
+      for (String input : inputs) {
+        if (router.execute(input)) {
+          found++;
+        }
+      }
+      checkFound(count, found);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    print("CommandRouter.execute() - 패턴 50%", best, count);
+
+    System.out.println();
+    router.printStats(System.out);
+  }
+
+  // prefixPercent: 패턴으로만 처리할 수 있는 경로의 비율(%)
+  // => 매번 새 String 객체를 만든다.
+  static String[] inputs(int count, int prefixPercent, long seed) {
+    Random random = new Random(seed);
+    String[] inputs = new String[count];
+    for (int i = 0; i < count; i++) {
+      String resource = RESOURCES[random.nextInt(RESOURCES.length)];
+      String action = random.nextInt(100) < prefixPercent
+          ? "search/" + random.nextInt(1000)
+          : ACTIONS[random.nextInt(ACTIONS.length)];
+      inputs[i] = new StringBuilder().append('/').append(resource).append('/').append(action)
+          .toString();
+    }
+    return inputs;
+  }
+
+  static int findAll(Map<String, Command> commandMap, String[] inputs) {
+    int found = 0;
+    for (String input : inputs) {
+      if (commandMap.get(input) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  static int findAll(CommandRouter router, String[] inputs) {
+    int found = 0;
+    for (String input : inputs) {
+      if (router.find(input) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  // HashMap 으로 패턴을 처리하는 방법: 뒤에서부터 '/' 를 찾아 잘라낸 후 "앞부분/*" 로 다시 찾는다.
+  static int findAllWithPrefix(Map<String, Command> commandMap, String[] inputs) {
+    int found = 0;
+    for (String input : inputs) {
+      Command command = commandMap.get(input);
+      int slash = input.length();
+      while (command == null && (slash = input.lastIndexOf('/', slash - 1)) >= 0) {
+        command = commandMap.get(input.substring(0, slash + 1) + CommandRouter.WILDCARD);
+      }
+      if (command != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  static void checkFound(int expected, int found) {
+    if (found != expected) {
+      throw new IllegalStateException("찾지 못한 명령이 있습니다: " + (expected - found));
+    }
+  }
+
+  static void print(String label, long nanos, int count) {
+    System.out.printf("%-34s %,10.1f %,14.0f\n", label, (double) nanos / count,
+        count / (nanos / 1e9));
+  }
+}
@@ -0,0 +1,69 @@
+package com.eomcs.design_pattern.command.after2;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+import com.eomcs.design_pattern.command.after.BoardAddCommand;
+import com.eomcs.design_pattern.command.after.BoardDeleteCommand;
+import com.eomcs.design_pattern.command.after.BoardDetailCommand;
+import com.eomcs.design_pattern.command.after.BoardListCommand;
+import com.eomcs.design_pattern.command.after.BoardUpdateCommand;
+import com.eomcs.design_pattern.command.after.Command;
+import com.eomcs.design_pattern.command.after.HelloCommand;
+import com.eomcs.design_pattern.command.after.MemberAddCommand;
+import com.eomcs.design_pattern.command.after.MemberDeleteCommand;
+import com.eomcs.design_pattern.command.after.MemberDetailCommand;
+import com.eomcs.design_pattern.command.after.MemberListCommand;
+import com.eomcs.design_pattern.command.after.MemberUpdateCommand;
+
+public class Test01 {
+
+  public static void main(String[] args) {
+    Scanner keyboard = new Scanner(System.in);
+
+    // Command 객체를 등록하는 방법은 after.Test01 과 같다.
+    // => 경로 끝에 * 를 붙이면 그 경로로 시작하는 모든 명령을 처리한다.
+    //
+    Map<String,Command> commandMap = new LinkedHashMap<>();
+    commandMap.put("/board/add", new BoardAddCommand());
+    commandMap.put("/board/detail", new BoardDetailCommand());
+    commandMap.put("/board/list", new BoardListCommand());
+    commandMap.put("/board/update", new BoardUpdateCommand());
+    commandMap.put("/board/delete", new BoardDeleteCommand());
+    commandMap.put("/board/*", () -> System.out.println("지원하지 않는 게시물 명령입니다."));
+
+    commandMap.put("/member/add", new MemberAddCommand());
+    commandMap.put("/member/detail", new MemberDetailCommand());
+    commandMap.put("/member/list", new MemberListCommand());
+    commandMap.put("/member/update", new MemberUpdateCommand());
+    commandMap.put("/member/delete", new MemberDeleteCommand());
+    commandMap.put("/member/*", () -> System.out.println("지원하지 않는 회원 명령입니다."));
+
+    commandMap.put("hello", new HelloCommand());
+
+    // 등록한 경로를 미리 컴파일해 둔다.
+    CommandRouter router = new CommandRouter(commandMap);
+
+    while (true) {
+      System.out.print("명령> ");
+      String input = keyboard.nextLine();
+
+      // 라우터가 명령을 처리할 객체를 찾아 실행하고, 실행 시간을 기록한다.
+      if (router.execute(input)) {
+        // 처리 완료
+
+      } else if ("stats".equals(input)) {
+        router.printStats(System.out);
+
+      } else if ("quit".equals(input)) {
+        break;
+
+      } else {
+        System.out.println("처리할 수 없는 명령입니다.");
+      }
+      System.out.println();
+    }
+    keyboard.close();
+  }
+
+}
@@ -1,30 +1,35 @@
 package com.eomcs.design_pattern.flyweight.after;
 
-import java.util.HashMap;
-import java.util.Map;
-
 // 생성한 객체를 보관해 두었다가
 // 필요할 때마다 꺼내주는 일을 한다.
 // 이렇게 생성된 객체를 재사용할 수 있도록
 // 보관해 두었다가 꺼내주는 방식의 설계 기법을 "Flyweight 디자인 패턴" 이라 한다.
 // => 메모리를 효율적으로 사용하는 방법이다.
 //
+// 보관은 FlyweightCache 에 맡긴다.
+// => 패턴의 종류가 아무리 많아도 maximumSize 개 까지만 보관한다.
+// => 여러 스레드가 동시에 같은 패턴을 요청해도 브러시는 한 개만 만든다.
+//
 public class BrushPool {
-  Map<String,Brush> brushMap = new HashMap<>();
+  FlyweightCache<String,Brush> brushCache;
 
-  // 브러시를 리턴하는 메서드
-  public Brush getBrush(String pattern) {
-    Brush brush = brushMap.get(pattern);
-    if (brush == null) {
-      System.out.printf("%s 브러시 생성\n", pattern);
-      brush = new Brush(pattern);
-      brushMap.put(pattern, brush);
-    }
-    return brush;
+  public BrushPool() {
+    this(100);
   }
-}
-
-
 
+  public BrushPool(int maximumSize) {
+    brushCache = new FlyweightCache<>(maximumSize, pattern -> {
+      System.out.printf("%s 브러시 생성\n", pattern);
+      return new Brush(pattern);
+    });
+  }
 
+  // 브러시를 리턴하는 메서드
+  public Brush getBrush(String pattern) {
+    return brushCache.get(pattern);
+  }
 
+  public FlyweightCache.Stats stats() {
+    return brushCache.stats();
+  }
+}
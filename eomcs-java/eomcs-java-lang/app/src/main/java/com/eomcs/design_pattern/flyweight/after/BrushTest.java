@@ -30,6 +30,8 @@ public class BrushTest {
       brush.draw(length);
     }
 
+    System.out.println(brushPool.stats());
+
     keyboard.close();
   }
 }
@@ -0,0 +1,260 @@
+package com.eomcs.design_pattern.flyweight.after;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+// 크기가 제한된, 여러 스레드가 함께 사용할 수 있는 Flyweight 객체 보관소
+//
+// HashMap 으로 만든 보관소의 문제점
+// - 키의 종류가 계속 늘어나면 객체도 계속 쌓인다. => 메모리 누수
+// - get() 후에 put() 하는 사이에 다른 스레드가 끼어들면 같은 키로 객체가 두 개 이상 만들어진다.
+//
+// FlyweightCache
+// - 객체 찾기: ConcurrentHashMap.computeIfAbsent() 를 사용한다.
+//   => 여러 스레드가 동시에 같은 키를 요청해도 객체는 한 개만 만든다.
+// - 크기 제한: 객체 마다 무게(weight)를 계산하여 합계가 maximumWeight 를 넘으면 객체를 버린다.
+//   => weigher 를 지정하지 않으면 모든 객체의 무게는 1 이다. 즉 객체 개수로 제한한다.
+// - 버릴 객체 선택: Segmented LRU
+//   => probation(시험) 구역과 protected(보호) 구역으로 나눈다.
+//   => 새 객체는 probation 구역에 들어가고, 한 번 더 사용되면 protected 구역으로 옮긴다.
+//   => protected 구역이 최대 무게의 80% 를 넘으면 가장 오래 사용하지 않은 객체를 probation 으로 내린다.
+//   => 버릴 때는 probation 구역에서 가장 오래 사용하지 않은 객체부터 버린다.
+//   => 한 번만 사용된 객체들이 많이 들어와도 자주 사용하는 객체는 쉽게 밀려나지 않는다.
+// - 순서 정보는 락을 잡고 변경한다.
+//   단, 객체를 찾았을 때(hit)는 tryLock() 으로 락을 얻은 경우에만 순서를 바꾼다.
+//   => 다른 스레드가 락을 갖고 있으면 기다리지 않고 순서 갱신을 건너뛴다.
+//   => 순서가 조금 부정확해지는 대신, 조회하는 스레드는 락 때문에 멈추지 않는다.
+// - 통계: hit/miss/eviction 개수를 LongAdder 로 센다. stats() 로 꺼내 외부로 내보낼 수 있다.
+//
+public class FlyweightCache<K, V> {
+
+  // 노드의 상태(어느 구역에 있는지)
+  static final int NEW = 0; // 맵에는 들어갔지만 아직 목록에 연결되지 않았다.
+  static final int PROBATION = 1;
+  static final int PROTECTED = 2;
+  static final int REMOVED = 3;
+
+  static final class Node<K, V> {
+    final K key;
+    final V value;
+    final int weight;
+
+    // 다음 필드는 lock 을 잡은 상태에서만 변경한다.
+    int segment = NEW;
+    Node<K, V> prev;
+    Node<K, V> next;
+
+    Node(K key, V value, int weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  // 양방향 연결 리스트. head 쪽이 가장 최근에 사용한 노드다.
+  static final class Segment<K, V> {
+    Node<K, V> head;
+    Node<K, V> tail;
+    long weight;
+
+    void addFirst(Node<K, V> node) {
+      node.prev = null;
+      node.next = head;
+      if (head != null) {
+        head.prev = node;
+      } else {
+        tail = node;
+      }
+      head = node;
+      weight += node.weight;
+    }
+
+    void remove(Node<K, V> node) {
+      if (node.prev != null) {
+        node.prev.next = node.next;
+      } else {
+        head = node.next;
+      }
+      if (node.next != null) {
+        node.next.prev = node.prev;
+      } else {
+        tail = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      weight -= node.weight;
+    }
+  }
+
+  // 통계 값을 꺼낼 때 사용하는 객체
+  public static class Stats {
+    final long hitCount;
+    final long missCount;
+    final long evictionCount;
+
+    Stats(long hitCount, long missCount, long evictionCount) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+    }
+
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    public long getMissCount() {
+      return missCount;
+    }
+
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    public double getHitRate() {
+      long requestCount = hitCount + missCount;
+      return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+      return "Stats [hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount="
+          + evictionCount + ", hitRate=" + String.format("%.3f", getHitRate()) + "]";
+    }
+  }
+
+  final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+  final Function<? super K, ? extends V> factory;
+  final ToIntBiFunction<? super K, ? super V> weigher;
+  final long maximumWeight;
+  final long maximumProtectedWeight;
+
+  final ReentrantLock lock = new ReentrantLock();
+  final Segment<K, V> probation = new Segment<>();
+  final Segment<K, V> protectedSegment = new Segment<>();
+
+  final LongAdder hitCount = new LongAdder();
+  final LongAdder missCount = new LongAdder();
+  final LongAdder evictionCount = new LongAdder();
+
+  // 객체 개수로 제한한다.
+  public FlyweightCache(long maximumSize, Function<? super K, ? extends V> factory) {
+    this(maximumSize, (key, value) -> 1, factory);
+  }
+
+  // 객체 무게의 합으로 제한한다.
+  public FlyweightCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher,
+      Function<? super K, ? extends V> factory) {
+    if (maximumWeight <= 0) {
+      throw new IllegalArgumentException("maximumWeight 는 0 보다 커야 합니다.");
+    }
+    this.maximumWeight = maximumWeight;
+    this.maximumProtectedWeight = maximumWeight * 8 / 10;
+    this.weigher = weigher;
+    this.factory = factory;
+  }
+
+  // 키에 해당하는 객체를 리턴한다. 없으면 factory 로 만들어 보관한 후 리턴한다.
+  public V get(K key) {
+    Node<K, V> node = map.get(key);
+    if (node != null) {
+      hitCount.increment();
+      if (lock.tryLock()) {
+        try {
+          onAccess(node);
+        } finally {
+          lock.unlock();
+        }
+      }
+      return node.value;
+    }
+
+    // 같은 키로 동시에 호출되더라도 다음 람다는 한 번만 실행된다.
+    // => 람다를 실행한 스레드만 miss 로 세고, 그 결과를 기다린 스레드는 hit 로 센다.
+    boolean[] created = new boolean[1];
+    node = map.computeIfAbsent(key, k -> {
+      created[0] = true;
+      V value = factory.apply(k);
+      int weight = weigher.applyAsInt(k, value);
+      if (weight < 0) {
+        throw new IllegalArgumentException("무게는 0 이상이어야 합니다: " + weight);
+      }
+      return new Node<>(k, value, weight);
+    });
+    if (created[0]) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+
+    lock.lock();
+    try {
+      if (node.segment == NEW) {
+        // 노드를 만든 스레드 또는 그 노드를 먼저 본 스레드가 목록에 연결한다.
+        node.segment = PROBATION;
+        probation.addFirst(node);
+        evict();
+      } else {
+        onAccess(node);
+      }
+    } finally {
+      lock.unlock();
+    }
+    return node.value;
+  }
+
+  // lock 을 잡은 상태에서 호출해야 한다.
+  void onAccess(Node<K, V> node) {
+    if (node.segment == PROBATION) {
+      probation.remove(node);
+      node.segment = PROTECTED;
+      protectedSegment.addFirst(node);
+
+      // protected 구역이 넘치면 오래된 노드를 probation 구역으로 내린다.
+      while (protectedSegment.weight > maximumProtectedWeight
+          && protectedSegment.tail != node) {
+        Node<K, V> demoted = protectedSegment.tail;
+        protectedSegment.remove(demoted);
+        demoted.segment = PROBATION;
+        probation.addFirst(demoted);
+      }
+    } else if (node.segment == PROTECTED) {
+      protectedSegment.remove(node);
+      protectedSegment.addFirst(node);
+    }
+    // NEW 는 아직 연결 전, REMOVED 는 이미 버린 노드이므로 무시한다.
+  }
+
+  // lock 을 잡은 상태에서 호출해야 한다.
+  void evict() {
+    while (probation.weight + protectedSegment.weight > maximumWeight) {
+      Segment<K, V> segment = probation.tail != null ? probation : protectedSegment;
+      Node<K, V> victim = segment.tail;
+      segment.remove(victim);
+      victim.segment = REMOVED;
+      map.remove(victim.key, victim);
+      evictionCount.increment();
+    }
+  }
+
+  // 보관 중인 객체의 개수
+  public int size() {
+    return map.size();
+  }
+
+  // 보관 중인 객체의 무게 합계
+  public long weightedSize() {
+    lock.lock();
+    try {
+      return probation.weight + protectedSegment.weight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Stats stats() {
+    return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+  }
+}
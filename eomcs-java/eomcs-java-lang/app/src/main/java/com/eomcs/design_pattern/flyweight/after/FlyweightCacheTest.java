@@ -0,0 +1,166 @@
+// FlyweightCache 테스트
+// - 다음 규칙을 확인한다.
+//   1) 같은 키로 여러 번 요청하면 같은 객체를 리턴하고, hit/miss 개수를 센다.
+//   2) 여러 스레드가 동시에 같은 키를 요청해도 객체는 한 개만 만든다.
+//   3) 최대 개수를 넘으면 버리고, 버린 개수를 센다.
+//   4) 한 번 더 사용한 객체(protected)는 한 번만 사용한 객체보다 늦게 버린다.
+//   5) weigher 를 지정하면 무게의 합계로 제한한다.
+//   6) 키의 종류가 계속 늘어나도 보관하는 객체의 개수는 제한된다.
+//
+// 실행:
+//   java com.eomcs.design_pattern.flyweight.after.FlyweightCacheTest
+//
+package com.eomcs.design_pattern.flyweight.after;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FlyweightCacheTest {
+
+  static int failures;
+
+  public static void main(String[] args) throws Exception {
+    testHitAndMiss();
+    testSingleInstanceUnderConcurrency();
+    testEviction();
+    testProtectedSurvivesScan();
+    testWeight();
+    testUnboundedKeys();
+
+    System.out.println();
+    System.out.println(failures == 0 ? "모든 테스트 통과!" : "실패한 검사: " + failures);
+    if (failures > 0) {
+      System.exit(1);
+    }
+  }
+
+  static void check(boolean condition, String message) {
+    System.out.printf("  [%s] %s\n", condition ? "OK" : "실패", message);
+    if (!condition) {
+      failures++;
+    }
+  }
+
+  static void testHitAndMiss() {
+    System.out.println("1) hit/miss");
+    FlyweightCache<String, Brush> cache = new FlyweightCache<>(10, Brush::new);
+    Brush brush = cache.get("*");
+    check(cache.get("*") == brush, "같은 키는 같은 객체를 리턴한다.");
+    cache.get("#");
+    FlyweightCache.Stats stats = cache.stats();
+    check(stats.getHitCount() == 1 && stats.getMissCount() == 2,
+        "hit 1, miss 2 => " + stats);
+  }
+
+  static void testSingleInstanceUnderConcurrency() throws Exception {
+    System.out.println("2) 동시 요청");
+    AtomicInteger created = new AtomicInteger();
+    FlyweightCache<String, Brush> cache = new FlyweightCache<>(10, pattern -> {
+      created.incrementAndGet();
+      try {
+        Thread.sleep(50); // 만드는 동안 다른 스레드가 요청하게 한다.
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new Brush(pattern);
+    });
+
+    int threadCount = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    CountDownLatch start = new CountDownLatch(1);
+    Brush[] results = new Brush[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      int index = i;
+      executor.execute(() -> {
+        try {
+          start.await();
+          results[index] = cache.get("@");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    boolean same = true;
+    for (Brush result : results) {
+      same &= result == results[0];
+    }
+    check(created.get() == 1, "객체는 한 개만 만든다. => " + created.get());
+    check(same, "모든 스레드가 같은 객체를 받는다.");
+    check(cache.stats().getMissCount() == 1 && cache.stats().getHitCount() == threadCount - 1,
+        "miss 는 한 번, 나머지는 hit 다. => " + cache.stats());
+  }
+
+  static void testEviction() {
+    System.out.println("3) 최대 개수");
+    FlyweightCache<Integer, String> cache = new FlyweightCache<>(3, String::valueOf);
+    for (int i = 0; i < 5; i++) {
+      cache.get(i);
+    }
+    check(cache.size() == 3, "3 개만 보관한다. => " + cache.size());
+    check(cache.stats().getEvictionCount() == 2, "2 개를 버렸다. => " + cache.stats());
+  }
+
+  static void testProtectedSurvivesScan() {
+    System.out.println("4) Segmented LRU");
+    AtomicInteger created = new AtomicInteger();
+    FlyweightCache<Integer, String> cache = new FlyweightCache<>(10, key -> {
+      created.incrementAndGet();
+      return String.valueOf(key);
+    });
+    // 0 ~ 4 는 두 번 사용하여 protected 구역으로 옮긴다.
+    for (int i = 0; i < 5; i++) {
+      cache.get(i);
+      cache.get(i);
+    }
+    // 한 번만 사용하는 키 100 개가 지나간다.
+    for (int i = 100; i < 200; i++) {
+      cache.get(i);
+    }
+    created.set(0);
+    for (int i = 0; i < 5; i++) {
+      cache.get(i);
+    }
+    check(created.get() == 0, "자주 사용한 객체는 남아 있다. => 다시 만든 개수: " + created.get());
+  }
+
+  static void testWeight() {
+    System.out.println("5) 무게 제한");
+    FlyweightCache<String, String> cache =
+        new FlyweightCache<>(10, (key, value) -> value.length(), key -> key);
+    cache.get("aaaa");
+    cache.get("bbbb");
+    check(cache.weightedSize() == 8, "무게 합계 8 => " + cache.weightedSize());
+    cache.get("cccc");
+    check(cache.weightedSize() <= 10, "무게 합계가 10 을 넘지 않는다. => " + cache.weightedSize());
+    check(cache.size() == 2, "2 개만 보관한다. => " + cache.size());
+  }
+
+  static void testUnboundedKeys() throws Exception {
+    System.out.println("6) 키 종류가 계속 늘어나는 경우");
+    FlyweightCache<String, Brush> cache = new FlyweightCache<>(1000, Brush::new);
+    int threadCount = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    for (int t = 0; t < threadCount; t++) {
+      int seed = t;
+      executor.execute(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          // 일부 키는 자주, 나머지는 한 번씩만 요청한다.
+          cache.get(i % 4 == 0 ? "hot" + (i % 100) : "cold" + seed + "-" + i);
+        }
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(60, TimeUnit.SECONDS);
+    check(cache.size() <= 1000, "1000 개 이하로 보관한다. => " + cache.size());
+    check(cache.weightedSize() == cache.size(), "목록과 맵의 개수가 같다. => "
+        + cache.weightedSize() + "/" + cache.size());
+    System.out.println("  " + cache.stats());
+  }
+}
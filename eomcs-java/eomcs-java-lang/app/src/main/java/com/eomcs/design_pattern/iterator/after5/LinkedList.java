@@ -1,11 +1,24 @@
 package com.eomcs.design_pattern.iterator.after5;
 
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
 public class LinkedList<E> {
 
   protected Node<E> head;
   protected Node<E> tail;
   protected int size;
 
+  // 목록의 구조가 바뀐 횟수(추가, 삽입, 삭제)
+  // => Iterator 는 생성할 때 이 값을 기억해 두었다가,
+  //    값이 바뀌었으면 목록이 중간에 변경된 것이므로 ConcurrentModificationException 을 던진다.
+  protected int modCount;
+
   public LinkedList() {
     head = new Node<>();
     tail = head;
@@ -29,6 +42,7 @@ public class LinkedList<E> {
 
     // 항목 개수를 증가시킨다.
     size++;
+    modCount++;
   }
 
   public int size() {
@@ -39,12 +53,8 @@ public class LinkedList<E> {
     if (index < 0 || index >= size)
       return null;
 
-    Node<E> cursor = head;
-
     // 해당 인덱스로 이동한다.
-    for (int i = 1; i <= index; i++) {
-      cursor = cursor.next;
-    }
+    Node<E> cursor = node(index);
 
     // cursor가 가리키는 노드의 주소를 리턴?
     // => 노드의 값을 리턴
@@ -69,12 +79,8 @@ public class LinkedList<E> {
     if (index < 0 || index >= size) 
       return null;
 
-    Node<E> cursor = head;
-
     // 교체할 값이 들어 있는 노드로 이동한다.
-    for (int i = 1; i <= index; i++) {
-      cursor = cursor.next;
-    }
+    Node<E> cursor = node(index);
 
     // 변경 전에 이전 값을 보관한다.
     E old = cursor.value;
@@ -91,15 +97,17 @@ public class LinkedList<E> {
     if (index < 0 || index >= size)
       return -1;
 
+    // 삽입할 위치에 있는 원래 노드를 찾아 그 앞에 새 노드를 연결한다.
+    linkBefore(value, node(index));
+
+    return 0;
+  }
+
+  // 새 노드를 만들어 값을 담고 cursor 노드 앞에 연결한다.
+  private void linkBefore(E value, Node<E> cursor) {
     // 새 노드를 만들어 값을 담는다.
     Node<E> node = new Node<>(value);
 
-    // 삽입할 위치에 있는 원래 노드를 찾는다.
-    Node<E> cursor = head;
-    for (int i = 1; i <= index; i++) {
-      cursor = cursor.next;
-    }
-
     // 새 노드가 찾은 노드를 가리키게 한다.
     node.next = cursor;
 
@@ -119,20 +127,19 @@ public class LinkedList<E> {
 
     // 크기를 늘린다.
     size++;
-
-    return 0;
+    modCount++;
   }
 
   public E remove(int index) {
     if (index < 0 || index >= size)
       return null;
 
-    // index 위치에 있는 노드를 찾는다.
-    Node<E> cursor = head;
-    for (int i = 1; i <= index; i++) {
-      cursor = cursor.next;
-    }
+    // index 위치에 있는 노드를 찾아 목록에서 떼어낸다.
+    return unlink(node(index));
+  }
 
+  // 노드를 목록에서 떼어내고 노드에 들어 있던 값을 리턴한다.
+  private E unlink(Node<E> cursor) {
     if (cursor.prev != null) {
       // 찾은 노드의 이전 노드가 다음 노드를 가리키게 한다.
       cursor.prev.next = cursor.next;
@@ -153,11 +160,31 @@ public class LinkedList<E> {
 
     // 크기를 줄인다.
     size--;
+    modCount++;
 
     // 호출한 쪽에서 필요하면 사용하라고 삭제된 값을 리턴해 준다.
     return old;
   }
 
+  // index 위치의 노드를 찾는다.
+  // => 앞쪽 절반은 head 에서 다음 노드로, 뒤쪽 절반은 tail 에서 이전 노드로 이동한다.
+  // => tail 은 값이 없는 빈 노드이고 size 위치에 있다.
+  private Node<E> node(int index) {
+    Node<E> cursor;
+    if (index < (size >> 1)) {
+      cursor = head;
+      for (int i = 0; i < index; i++) {
+        cursor = cursor.next;
+      }
+    } else {
+      cursor = tail;
+      for (int i = size; i > index; i--) {
+        cursor = cursor.prev;
+      }
+    }
+    return cursor;
+  }
+
   private static class Node<E> {
 
     E value;
@@ -173,33 +200,211 @@ public class LinkedList<E> {
   }
 
   // Iterator 구현체를 제공한다.
+  // => get(index)으로 꺼내면 매번 노드를 따라 이동해야 하므로 전체를 조회하는 데 O(n^2) 이 걸린다.
+  // => Iterator 는 현재 노드를 기억하고 있다가 다음 노드로 한 칸씩만 이동한다. (전체 O(n))
   public Iterator<E> iterator() {
-    return new Iterator<E>() {
-      int index = 0;
+    return new ListItr(0);
+  }
 
-      @Override
-      public boolean hasNext() {
-        return index < LinkedList.this.size();
-      }
+  // 앞뒤로 이동하면서 값을 조회/변경/삽입/삭제할 수 있는 java.util.ListIterator 구현체를 제공한다.
+  public ListIterator<E> listIterator() {
+    return new ListItr(0);
+  }
 
-      @Override
-      public E next() {
-        return LinkedList.this.get(index++);
-      }
-    };
+  public ListIterator<E> listIterator(int index) {
+    if (index < 0 || index > size)
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    return new ListItr(index);
   }
 
+  // 스트림 API 에서 사용할 Spliterator 구현체를 제공한다.
+  // => 예) StreamSupport.stream(list.spliterator(), false)
+  public Spliterator<E> spliterator() {
+    return new NodeSpliterator();
+  }
 
-}
+  // 우리가 만든 Iterator 와 java.util.ListIterator 의 hasNext()/next() 는 사용법이 같다.
+  // => 한 클래스로 두 인터페이스를 모두 구현한다.
+  private class ListItr implements Iterator<E>, ListIterator<E> {
+    Node<E> next; // next() 가 리턴할 노드. 목록의 끝이면 tail(빈 노드)이다.
+    int nextIndex;
+    Node<E> lastReturned; // next()/previous() 가 마지막으로 리턴한 노드
+    int expectedModCount = modCount;
+
+    ListItr(int index) {
+      next = node(index);
+      nextIndex = index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < size;
+    }
 
+    @Override
+    public E next() {
+      checkForComodification();
+      if (!hasNext())
+        throw new NoSuchElementException();
+
+      lastReturned = next;
+      next = next.next;
+      nextIndex++;
+      return lastReturned.value;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+      return nextIndex > 0;
+    }
 
+    @Override
+    public E previous() {
+      checkForComodification();
+      if (!hasPrevious())
+        throw new NoSuchElementException();
+
+      next = next.prev;
+      lastReturned = next;
+      nextIndex--;
+      return lastReturned.value;
+    }
+
+    @Override
+    public int nextIndex() {
+      return nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+      return nextIndex - 1;
+    }
+
+    @Override
+    public void remove() {
+      checkForComodification();
+      if (lastReturned == null)
+        throw new IllegalStateException();
+
+      Node<E> lastNext = lastReturned.next;
+      unlink(lastReturned);
+      if (next == lastReturned) {
+        // previous() 로 꺼낸 노드를 삭제했다.
+        next = lastNext;
+      } else {
+        // next() 로 꺼낸 노드를 삭제했다.
+        nextIndex--;
+      }
+      lastReturned = null;
+      expectedModCount = modCount;
+    }
 
+    @Override
+    public void set(E value) {
+      checkForComodification();
+      if (lastReturned == null)
+        throw new IllegalStateException();
 
+      lastReturned.value = value;
+    }
 
+    @Override
+    public void add(E value) {
+      checkForComodification();
+      lastReturned = null;
+      linkBefore(value, next);
+      nextIndex++;
+      expectedModCount = modCount;
+    }
 
+    final void checkForComodification() {
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+    }
+  }
 
+  // 노드를 따라가며 값을 꺼내는 Spliterator
+  // => 처음 사용할 때 head 와 size, modCount 를 읽는다.(late-binding)
+  //    그래서 spliterator() 를 호출한 후 스트림을 실행하기 전에 목록을 변경해도 된다.
+  // => 병렬 스트림에서 나눌 때는 앞에서부터 일정 개수를 배열로 복사해서 떼어 준다.
+  //    연결 리스트는 중간 위치로 바로 이동할 수 없기 때문이다.
+  private class NodeSpliterator implements Spliterator<E> {
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 25;
+
+    Node<E> current; // 다음에 꺼낼 노드
+    int est = -1; // 남은 개수. 처음 사용하기 전에는 -1 이다.
+    int expectedModCount;
+    int batch; // 다음에 떼어 줄 개수
+
+    int getEst() {
+      if (est < 0) {
+        current = head;
+        est = size;
+        expectedModCount = modCount;
+      }
+      return est;
+    }
 
+    @Override
+    public long estimateSize() {
+      return getEst();
+    }
 
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+      Objects.requireNonNull(action);
+      if (getEst() > 0 && current != tail) {
+        E value = current.value;
+        current = current.next;
+        est--;
+        action.accept(value);
+        if (modCount != expectedModCount)
+          throw new ConcurrentModificationException();
+        return true;
+      }
+      return false;
+    }
 
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+      Objects.requireNonNull(action);
+      int n = getEst();
+      Node<E> cursor = current;
+      current = tail;
+      est = 0;
+      for (int i = 0; i < n && cursor != tail; i++) {
+        E value = cursor.value;
+        cursor = cursor.next;
+        action.accept(value);
+      }
+      if (modCount != expectedModCount)
+        throw new ConcurrentModificationException();
+    }
 
+    @Override
+    public Spliterator<E> trySplit() {
+      int s = getEst();
+      if (s <= 1 || current == tail)
+        return null;
+
+      int n = Math.min(Math.min(batch + BATCH_UNIT, s), MAX_BATCH);
+      Object[] values = new Object[n];
+      Node<E> cursor = current;
+      int j = 0;
+      while (j < n && cursor != tail) {
+        values[j++] = cursor.value;
+        cursor = cursor.next;
+      }
+      current = cursor;
+      batch = j;
+      est = s - j;
+      return Spliterators.spliterator(values, 0, j, Spliterator.ORDERED);
+    }
 
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+// LinkedList 전체 조회 비용 비교
+// - 항목 n 개(기본 1,000,000개)를 처음부터 끝까지 조회하는 시간을 측정한다.
+// - 측정 항목
+//   1) for (i = 0; i < size(); i++) get(i)
+//      => 변경 전: get(i)는 항상 head 에서 출발한다. 전체 이동 횟수 n(n-1)/2
+//      => 변경 후: get(i)는 가까운 끝(head 또는 tail)에서 출발한다. 전체 이동 횟수 약 n^2/4
+//      => 1M 개를 실제로 모두 조회하면 몇 분이 걸리므로,
+//         일정한 간격의 인덱스 SAMPLES 개만 조회하여 한 칸 이동하는 비용(ns)을 구한 후 전체 시간을 추정한다.
+//   2) iterator(), listIterator() 역방향, spliterator().forEachRemaining(), stream 합계
+//      => 실제로 전체를 조회한다.
+//   3) 참고: java.util.LinkedList 의 iterator()
+// - 여러 번 반복하여 가장 빠른 결과를 출력한다. (처음 몇 번은 JIT 컴파일이 끝나지 않아 느리다)
+//
+// 실행:
+//   java com.eomcs.design_pattern.iterator.after5.LinkedListBenchmark [항목 수(기본 1000000)] [반복 횟수(기본 5)]
+//
+package com.eomcs.design_pattern.iterator.after5;
+
+import java.util.ListIterator;
+import java.util.stream.StreamSupport;
+
+public class LinkedListBenchmark {
+
+  static final int SAMPLES = 1000;
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+    LinkedList<Integer> list = new LinkedList<>();
+    java.util.LinkedList<Integer> jdkList = new java.util.LinkedList<>();
+    long expected = 0;
+    for (int i = 0; i < count; i++) {
+      list.add(i);
+      jdkList.add(i);
+      expected += i;
+    }
+
+    System.out.printf("항목 수: %,d, 반복 횟수: %d\n\n", count, rounds);
+    System.out.printf("%-44s %14s %10s\n", "방법", "전체(ms)", "ns/항목");
+
+    // 1) 인덱스로 조회: 샘플 인덱스의 이동 횟수와 시간으로 한 칸 이동 비용을 구한다.
+    int step = Math.max(1, count / SAMPLES);
+    long hops = 0;
+    for (int i = 0; i < count; i += step) {
+      hops += Math.min(i, count - i);
+    }
+    long best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = 0;
+      for (int i = 0; i < count; i += step) {
+        sum += list.get(i);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum >= 0);
+    }
+    double nanosPerHop = (double) best / Math.max(1, hops);
+    print("get(i) 반복 - 변경 전, head 에서 출발 (추정)",
+        nanosPerHop * count * (count - 1) / 2, count);
+    print("get(i) 반복 - 변경 후, 가까운 끝에서 출발 (추정)",
+        nanosPerHop * count * (count / 2.0) / 2, count);
+
+    // 2) 노드를 따라가며 조회
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = 0;
+      Iterator<Integer> iterator = list.iterator();
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum == expected);
+    }
+    print("iterator()", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = 0;
+      ListIterator<Integer> iterator = list.listIterator(list.size());
+      while (iterator.hasPrevious()) {
+        sum += iterator.previous();
+      }
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum == expected);
+    }
+    print("listIterator(size()) - 역방향", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long[] sum = new long[1];
+      list.spliterator().forEachRemaining(value -> sum[0] += value);
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum[0] == expected);
+    }
+    print("spliterator().forEachRemaining()", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = StreamSupport.stream(list.spliterator(), false).mapToLong(Integer::longValue).sum();
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum == expected);
+    }
+    print("stream().sum()", best, count);
+
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = StreamSupport.stream(list.spliterator(), true).mapToLong(Integer::longValue).sum();
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum == expected);
+    }
+    print("parallel stream().sum()", best, count);
+
+    // 3) 참고
+    best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      long start = System.nanoTime();
+      long sum = 0;
+      for (Integer value : jdkList) {
+        sum += value;
+      }
+      best = Math.min(best, System.nanoTime() - start);
+      check(sum == expected);
+    }
+    print("참고: java.util.LinkedList.iterator()", best, count);
+  }
+
+  static void check(boolean ok) {
+    if (!ok) {
+      throw new IllegalStateException("조회한 값의 합계가 틀립니다.");
+    }
+  }
+
+  static void print(String label, double nanos, int count) {
+    System.out.printf("%-44s %,14.1f %,10.1f\n", label, nanos / 1e6, nanos / count);
+  }
+}
@@ -0,0 +1,139 @@
+// LinkedList 의 get(), Iterator, ListIterator, Spliterator 동작 확인
+// - 실행 후 "모든 테스트 통과!" 가 출력되어야 한다.
+package com.eomcs.design_pattern.iterator.after5;
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class LinkedListTest {
+
+  public static void main(String[] args) {
+    LinkedList<String> list = new LinkedList<>();
+    for (int i = 0; i < 9; i++) {
+      list.add("v" + i);
+    }
+
+    // get(): 앞쪽 절반과 뒤쪽 절반 모두 올바른 값을 리턴해야 한다.
+    for (int i = 0; i < 9; i++) {
+      check("get(" + i + ")", ("v" + i).equals(list.get(i)));
+    }
+    check("get(범위 밖)", list.get(9) == null && list.get(-1) == null);
+
+    // insert()/remove() 후에도 양쪽 방향으로 찾아야 한다.
+    list.insert(7, "x");
+    check("insert 후 get", "x".equals(list.get(7)) && "v7".equals(list.get(8)));
+    check("remove", "x".equals(list.remove(7)) && "v7".equals(list.get(7)));
+
+    // Iterator
+    StringBuilder buf = new StringBuilder();
+    Iterator<String> iterator = list.iterator();
+    while (iterator.hasNext()) {
+      buf.append(iterator.next());
+    }
+    check("iterator 순서", "v0v1v2v3v4v5v6v7v8".equals(buf.toString()));
+
+    // ListIterator: 역방향, set, add, remove
+    ListIterator<String> li = list.listIterator(list.size());
+    buf.setLength(0);
+    while (li.hasPrevious()) {
+      buf.append(li.previous());
+    }
+    check("listIterator 역방향", "v8v7v6v5v4v3v2v1v0".equals(buf.toString()));
+
+    li = list.listIterator();
+    while (li.hasNext()) {
+      String value = li.next();
+      if (value.equals("v1")) {
+        li.remove();
+      } else if (value.equals("v3")) {
+        li.set("V3");
+      } else if (value.equals("v5")) {
+        li.add("v5.5");
+      }
+    }
+    li.previous();
+    li.remove(); // 마지막 항목 v8 삭제
+    check("listIterator 변경", "[v0, v2, V3, v4, v5, v5.5, v6, v7]".equals(toString(list)));
+    check("변경 후 size", list.size() == 8);
+
+    li = list.listIterator();
+    try {
+      li.remove();
+      check("next() 전에 remove()", false);
+    } catch (IllegalStateException e) {
+      // 정상
+    }
+
+    // fail-fast: 조회 중에 목록을 직접 변경하면 다음 조회에서 예외가 발생해야 한다.
+    iterator = list.iterator();
+    iterator.next();
+    list.add("z");
+    try {
+      iterator.next();
+      check("fail-fast", false);
+    } catch (ConcurrentModificationException e) {
+      // 정상
+    }
+
+    iterator = list.iterator();
+    while (iterator.hasNext()) {
+      iterator.next();
+    }
+    try {
+      iterator.next();
+      check("끝에서 next()", false);
+    } catch (NoSuchElementException e) {
+      // 정상
+    }
+
+    // Spliterator
+    Spliterator<String> spliterator = list.spliterator();
+    check("SIZED/ORDERED", spliterator.hasCharacteristics(Spliterator.SIZED)
+        && spliterator.hasCharacteristics(Spliterator.ORDERED));
+    check("estimateSize", spliterator.estimateSize() == list.size());
+    check("stream", toString(list).equals(
+        StreamSupport.stream(list.spliterator(), false).collect(Collectors.toList()).toString()));
+
+    LinkedList<Integer> numbers = new LinkedList<>();
+    long expected = 0;
+    for (int i = 0; i < 10_000; i++) {
+      numbers.add(i);
+      expected += i;
+    }
+    check("parallel stream", expected == StreamSupport.stream(numbers.spliterator(), true)
+        .mapToLong(Integer::longValue).sum());
+
+    // Queue 도 LinkedList 의 get()/listIterator() 를 그대로 사용한다.
+    Queue<String> queue = new Queue<>();
+    queue.offer("a");
+    queue.offer("b");
+    queue.offer("c");
+    check("Queue.get", "c".equals(queue.get(2)));
+    check("Queue.listIterator", "a".equals(queue.listIterator().next()) && queue.size() == 3);
+
+    System.out.println("모든 테스트 통과!");
+  }
+
+  static String toString(LinkedList<?> list) {
+    StringBuilder buf = new StringBuilder("[");
+    ListIterator<?> li = list.listIterator();
+    while (li.hasNext()) {
+      if (li.hasPrevious()) {
+        buf.append(", ");
+      }
+      buf.append(li.next());
+    }
+    return buf.append(']').toString();
+  }
+
+  static void check(String name, boolean ok) {
+    if (!ok) {
+      throw new AssertionError("실패: " + name);
+    }
+    System.out.println("성공: " + name);
+  }
+}
@@ -0,0 +1,8 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+public class BrakeOilCarObserver extends AbstractCarObserver {
+  @Override
+  public void carStarted() {
+    System.out.println("브레이크 오일 유무 검사");
+  }
+}
@@ -0,0 +1,52 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+public class Car {
+
+  // 관찰자를 보관하고 이벤트를 전달하는 일은 CarEventBus 에게 맡긴다.
+  final CarEventBus eventBus;
+
+  // 기본은 동기 방식이다. (h.Car 와 같다)
+  public Car() {
+    this(new CarEventBus());
+  }
+
+  public Car(CarEventBus eventBus) {
+    this.eventBus = eventBus;
+  }
+
+  // 자동차의 상태 변경을 보고 받을 관찰자(Observer)를 등록한다.
+  public void addCarObserver(CarObserver observer) {
+    eventBus.register(observer);
+  }
+
+  // 자동차의 상태 변경을 보고 받는 관찰자를 제거한다.
+  public void removeCarObserver(CarObserver observer) {
+    eventBus.unregister(observer);
+  }
+
+  private void notifyObserversOnStarted() {
+    eventBus.publish(CarEvent.STARTED);
+  }
+
+  private void notifyObserversOnStopped() {
+    eventBus.publish(CarEvent.STOPPED);
+  }
+
+  public void start() {
+    System.out.println("시동을 건다.");
+
+    notifyObserversOnStarted();
+  }
+
+
+  public void run() {
+    System.out.println("달린다.");
+  }
+
+  public void stop() {
+    System.out.println("시동을 끈다.");
+
+    notifyObserversOnStopped();
+  }
+
+}
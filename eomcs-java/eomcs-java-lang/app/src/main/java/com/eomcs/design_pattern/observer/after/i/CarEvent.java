@@ -0,0 +1,22 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+// 관찰자에게 통지할 자동차의 상태 변경
+// => 이벤트 마다 관찰자의 어떤 메서드를 호출할지 정의한다.
+public enum CarEvent {
+
+  STARTED {
+    @Override
+    void deliverTo(CarObserver observer) {
+      observer.carStarted();
+    }
+  },
+
+  STOPPED {
+    @Override
+    void deliverTo(CarObserver observer) {
+      observer.carStopped();
+    }
+  };
+
+  abstract void deliverTo(CarObserver observer);
+}
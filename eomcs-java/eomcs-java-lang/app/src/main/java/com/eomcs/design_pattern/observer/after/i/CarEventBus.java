@@ -0,0 +1,210 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 관찰자를 보관하고 이벤트를 전달하는 객체
+//
+// h.Car 의 ArrayList 방식과 다른 점
+// - 관찰자 목록을 변경할 때마다 배열을 새로 복사한다.(copy-on-write)
+//   => 통지할 때는 그 순간의 배열(snapshot)을 사용하므로 잠금이 필요 없다.
+//   => 통지하는 도중에 관찰자를 등록/제거해도 ConcurrentModificationException 이 발생하지 않는다.
+//   => 관찰자 목록은 자주 바뀌지 않고 통지는 자주 하는 경우에 적합하다.
+// - 동기 방식(기본)
+//   => 호출한 스레드가 관찰자의 메서드를 차례로 호출한다.
+//   => 한 관찰자가 예외를 던져도 나머지 관찰자에게는 통지한다.
+// - 비동기 방식: 생성자에 Executor 를 넘긴다.
+//   => 관찰자 마다 이벤트 대기열(mailbox)이 있고, 대기열의 이벤트는 Executor 의 스레드가 전달한다.
+//   => 한 관찰자의 대기열은 한 번에 한 스레드만 처리하므로 관찰자는 이벤트를 발생 순서대로 받는다.
+//   => 느린 관찰자가 있어도 start()/stop() 을 호출한 스레드는 기다리지 않는다.
+// - 비동기 방식의 과부하 처리(back-pressure)
+//   => 관찰자의 대기열이 꽉 차면 새 이벤트는 그 관찰자에게 전달하지 않고 버린다. (dropped)
+//   => Executor 가 작업을 거절하면 호출한 스레드가 직접 대기열을 처리한다. (callerRuns)
+//   => 개수는 stats() 로 확인한다.
+//
+public class CarEventBus {
+
+  // 관찰자 한 개와 그 관찰자의 대기열
+  static class Subscriber implements Runnable {
+    final CarObserver observer;
+    final CarEventBus bus;
+    final Queue<CarEvent> mailbox = new ConcurrentLinkedQueue<>();
+    final AtomicInteger pending = new AtomicInteger();
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    volatile boolean active = true;
+
+    Subscriber(CarObserver observer, CarEventBus bus) {
+      this.observer = observer;
+      this.bus = bus;
+    }
+
+    // 대기열의 이벤트를 모두 전달한다.
+    @Override
+    public void run() {
+      do {
+        CarEvent event;
+        while ((event = mailbox.poll()) != null) {
+          pending.decrementAndGet();
+          if (active) {
+            bus.deliver(event, observer);
+          }
+        }
+        scheduled.set(false);
+        // scheduled 를 false 로 바꾸기 직전에 들어온 이벤트가 있으면 이어서 처리한다.
+      } while (!mailbox.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+  }
+
+  public static class Stats {
+    public final long published;
+    public final long delivered;
+    public final long failed;
+    public final long dropped;
+    public final long callerRuns;
+    public final long pending;
+
+    Stats(long published, long delivered, long failed, long dropped, long callerRuns,
+        long pending) {
+      this.published = published;
+      this.delivered = delivered;
+      this.failed = failed;
+      this.dropped = dropped;
+      this.callerRuns = callerRuns;
+      this.pending = pending;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "published=%d, delivered=%d, failed=%d, dropped=%d, callerRuns=%d, pending=%d",
+          published, delivered, failed, dropped, callerRuns, pending);
+    }
+  }
+
+  static final Subscriber[] EMPTY = {};
+
+  final Executor executor; // null 이면 동기 방식
+  final int maxPending;
+
+  // 배열은 변경하지 않는다. 관찰자 목록이 바뀌면 새 배열로 교체한다.
+  volatile Subscriber[] subscribers = EMPTY;
+
+  final LongAdder published = new LongAdder();
+  final LongAdder delivered = new LongAdder();
+  final LongAdder failed = new LongAdder();
+  final LongAdder dropped = new LongAdder();
+  final LongAdder callerRuns = new LongAdder();
+
+  // 동기 방식
+  public CarEventBus() {
+    this.executor = null;
+    this.maxPending = 0;
+  }
+
+  // 비동기 방식
+  // => maxPending: 관찰자 한 개가 쌓아 둘 수 있는 이벤트의 최대 개수
+  public CarEventBus(Executor executor, int maxPending) {
+    if (executor == null) {
+      throw new IllegalArgumentException("executor 가 null 입니다.");
+    }
+    if (maxPending <= 0) {
+      throw new IllegalArgumentException("maxPending 은 0 보다 커야 합니다: " + maxPending);
+    }
+    this.executor = executor;
+    this.maxPending = maxPending;
+  }
+
+  // 스레드 개수와 작업 대기열 크기가 제한된 Executor 를 만든다.
+  // => 대기열이 꽉 차면 RejectedExecutionException 을 던진다. 이 경우 호출한 스레드가 처리한다.
+  public static ThreadPoolExecutor newBoundedExecutor(int threads, int queueSize) {
+    return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public synchronized void register(CarObserver observer) {
+    Subscriber[] current = subscribers;
+    Subscriber[] copy = new Subscriber[current.length + 1];
+    System.arraycopy(current, 0, copy, 0, current.length);
+    copy[current.length] = new Subscriber(observer, this);
+    subscribers = copy;
+  }
+
+  // 제거한 관찰자에게는 대기열에 남아 있는 이벤트도 전달하지 않는다.
+  public synchronized void unregister(CarObserver observer) {
+    Subscriber[] current = subscribers;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i].observer.equals(observer)) {
+        current[i].active = false;
+        Subscriber[] copy = new Subscriber[current.length - 1];
+        System.arraycopy(current, 0, copy, 0, i);
+        System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+        subscribers = copy;
+        return;
+      }
+    }
+  }
+
+  public int size() {
+    return subscribers.length;
+  }
+
+  public void publish(CarEvent event) {
+    published.increment();
+
+    // 이 순간의 관찰자 목록을 사용한다.
+    Subscriber[] snapshot = subscribers;
+
+    if (executor == null) {
+      for (Subscriber subscriber : snapshot) {
+        deliver(event, subscriber.observer);
+      }
+      return;
+    }
+
+    for (Subscriber subscriber : snapshot) {
+      if (subscriber.pending.incrementAndGet() > maxPending) {
+        subscriber.pending.decrementAndGet();
+        dropped.increment();
+        continue;
+      }
+      subscriber.mailbox.offer(event);
+
+      // 대기열을 처리하는 작업이 없을 때만 Executor 에 맡긴다.
+      if (subscriber.scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(subscriber);
+        } catch (RejectedExecutionException e) {
+          callerRuns.increment();
+          subscriber.run();
+        }
+      }
+    }
+  }
+
+  void deliver(CarEvent event, CarObserver observer) {
+    try {
+      event.deliverTo(observer);
+      delivered.increment();
+    } catch (RuntimeException e) {
+      failed.increment();
+      System.err.println("관찰자 오류: " + observer.getClass().getSimpleName() + " - " + e);
+    }
+  }
+
+  public Stats stats() {
+    long pending = 0;
+    for (Subscriber subscriber : subscribers) {
+      pending += subscriber.pending.get();
+    }
+    return new Stats(published.sum(), delivered.sum(), failed.sum(), dropped.sum(),
+        callerRuns.sum(), pending);
+  }
+}
@@ -0,0 +1,157 @@
+// CarEventBus 의 통지 비용 측정
+// - 관찰자 1개, 100개, 10,000개에 대해 publish() 한 번에 걸리는 시간(호출한 스레드 기준)을 측정한다.
+//   => 동기: 모든 관찰자의 메서드 호출이 끝날 때까지
+//   => 비동기: 모든 관찰자의 대기열에 이벤트를 넣을 때까지
+//      (비동기는 마지막 관찰자가 이벤트를 받을 때까지의 전체 시간도 출력한다)
+// - 관찰자는 받은 이벤트 개수만 센다.
+//   마지막 항목은 1 ms 가 걸리는 느린 관찰자 한 개를 추가한 경우이다.
+// - 관찰자 수에 상관없이 전달 횟수가 비슷하도록 publish() 횟수를 정한다.
+// - 여러 번 반복하여 가장 빠른 결과를 출력한다.
+//
+// 실행:
+//   java com.eomcs.design_pattern.observer.after.i.CarEventBusBenchmark [반복 횟수(기본 5)]
+//
+package com.eomcs.design_pattern.observer.after.i;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CarEventBusBenchmark {
+
+  static final int DELIVERIES = 1_000_000;
+  static final int QUEUE_SIZE = 16_384;
+
+  static class CountingObserver extends AbstractCarObserver {
+    final LongAdder counter;
+
+    CountingObserver(LongAdder counter) {
+      this.counter = counter;
+    }
+
+    @Override
+    public void carStarted() {
+      counter.increment();
+    }
+
+    @Override
+    public void carStopped() {
+      counter.increment();
+    }
+  }
+
+  static class SlowObserver extends CountingObserver {
+    SlowObserver(LongAdder counter) {
+      super(counter);
+    }
+
+    @Override
+    public void carStarted() {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      super.carStarted();
+    }
+  }
+
+  static class Result {
+    long[] latencies;
+    long total;
+    CarEventBus.Stats stats;
+  }
+
+  public static void main(String[] args) throws Exception {
+    int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    System.out.printf("반복 횟수: %d, 비동기 스레드: %d, 작업 대기열: %,d\n\n",
+        rounds, threads, QUEUE_SIZE);
+    System.out.printf("%-10s %-6s %8s %10s %10s %10s %12s %10s %10s\n",
+        "관찰자", "방식", "publish", "p50(ns)", "p99(ns)", "최대(ns)", "전체(ms)", "dropped",
+        "callerRuns");
+
+    for (int observers : new int[] {1, 100, 10_000}) {
+      run(observers, false, rounds, threads);
+    }
+    run(100, true, rounds, threads);
+  }
+
+  static void run(int observers, boolean withSlow, int rounds, int threads)
+      throws Exception {
+    int publishes = Math.max(50, DELIVERIES / observers);
+    if (withSlow) {
+      publishes = 200; // 느린 관찰자 때문에 동기 방식은 publish() 마다 1 ms 이상 걸린다.
+    }
+    String label = String.format("%,d%s", observers, withSlow ? "+느린1" : "");
+
+    Result best = null;
+    for (int r = 0; r < rounds; r++) {
+      Result result = measure(new CarEventBus(), observers, withSlow, publishes);
+      if (best == null || result.total < best.total) {
+        best = result;
+      }
+    }
+    print(label, "동기", publishes, best);
+
+    best = null;
+    for (int r = 0; r < rounds; r++) {
+      ThreadPoolExecutor executor = CarEventBus.newBoundedExecutor(threads, QUEUE_SIZE);
+      try {
+        Result result = measure(new CarEventBus(executor, publishes), observers, withSlow,
+            publishes);
+        if (best == null || result.total < best.total) {
+          best = result;
+        }
+      } finally {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+      }
+    }
+    print(label, "비동기", publishes, best);
+  }
+
+  static Result measure(CarEventBus eventBus, int observers, boolean withSlow, int publishes)
+      throws InterruptedException {
+    LongAdder counter = new LongAdder();
+    for (int i = 0; i < observers; i++) {
+      eventBus.register(new CountingObserver(counter));
+    }
+    if (withSlow) {
+      eventBus.register(new SlowObserver(counter));
+    }
+    long expected = (long) eventBus.size() * publishes;
+
+    Result result = new Result();
+    result.latencies = new long[publishes];
+    long start = System.nanoTime();
+    for (int i = 0; i < publishes; i++) {
+      long t = System.nanoTime();
+      eventBus.publish(i % 2 == 0 ? CarEvent.STARTED : CarEvent.STOPPED);
+      result.latencies[i] = System.nanoTime() - t;
+    }
+
+    // 모든 관찰자가 이벤트를 받을 때까지 기다린다. (버린 이벤트는 제외)
+    while (counter.sum() + eventBus.stats().dropped < expected) {
+      Thread.sleep(0, 100_000);
+    }
+    result.total = System.nanoTime() - start;
+    result.stats = eventBus.stats();
+    Arrays.sort(result.latencies);
+    return result;
+  }
+
+  static void print(String label, String mode, int publishes, Result result) {
+    long[] sorted = result.latencies;
+    System.out.printf("%-10s %-6s %,8d %,10d %,10d %,10d %,12.1f %,10d %,10d\n",
+        label, mode, publishes,
+        sorted[sorted.length / 2],
+        sorted[(int) Math.ceil(sorted.length * 0.99) - 1],
+        sorted[sorted.length - 1],
+        result.total / 1e6,
+        result.stats.dropped,
+        result.stats.callerRuns);
+  }
+}
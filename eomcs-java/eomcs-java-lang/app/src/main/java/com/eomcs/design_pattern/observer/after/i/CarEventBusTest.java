@@ -0,0 +1,130 @@
+// CarEventBus 동작 확인
+// - 실행 후 "모든 테스트 통과!" 가 출력되어야 한다.
+package com.eomcs.design_pattern.observer.after.i;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class CarEventBusTest {
+
+  // 받은 이벤트를 순서대로 기록하는 관찰자
+  static class RecordingObserver implements CarObserver {
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void carStarted() {
+      events.add("S");
+    }
+
+    @Override
+    public void carStopped() {
+      events.add("T");
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    // 1) 동기: 통지하는 도중에 관찰자를 등록/제거해도 예외가 발생하지 않는다.
+    CarEventBus syncBus = new CarEventBus();
+    RecordingObserver late = new RecordingObserver();
+    syncBus.register(new AbstractCarObserver() {
+      @Override
+      public void carStarted() {
+        syncBus.register(late);
+        syncBus.unregister(this);
+      }
+    });
+    syncBus.publish(CarEvent.STARTED);
+    check("통지 중 등록/제거", syncBus.size() == 1 && late.events.isEmpty());
+    syncBus.publish(CarEvent.STOPPED);
+    check("다음 통지부터 반영", late.events.equals(List.of("T")));
+
+    // 2) 동기: 한 관찰자의 예외가 다른 관찰자에게 영향을 주지 않는다.
+    CarEventBus bus = new CarEventBus();
+    RecordingObserver after = new RecordingObserver();
+    bus.register(new AbstractCarObserver() {
+      @Override
+      public void carStarted() {
+        throw new IllegalStateException("테스트용 예외");
+      }
+    });
+    bus.register(after);
+    bus.publish(CarEvent.STARTED);
+    check("예외 격리", after.events.equals(List.of("S")) && bus.stats().failed == 1);
+
+    // 3) 비동기: 관찰자 마다 이벤트를 발생 순서대로 받는다.
+    ThreadPoolExecutor executor = CarEventBus.newBoundedExecutor(4, 1000);
+    bus = new CarEventBus(executor, 10_000);
+    List<RecordingObserver> observers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      RecordingObserver observer = new RecordingObserver();
+      observers.add(observer);
+      bus.register(observer);
+    }
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      bus.publish(i % 2 == 0 ? CarEvent.STARTED : CarEvent.STOPPED);
+      expected.append(i % 2 == 0 ? "S" : "T");
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    boolean ordered = true;
+    for (RecordingObserver observer : observers) {
+      ordered &= String.join("", observer.events).equals(expected.toString());
+    }
+    check("비동기 순서 유지", ordered);
+    check("비동기 전달 개수", bus.stats().delivered == 8000 && bus.stats().pending == 0);
+
+    // 4) 비동기: 느린 관찰자가 있어도 publish() 는 기다리지 않고, 대기열이 차면 버린다.
+    executor = CarEventBus.newBoundedExecutor(1, 10);
+    bus = new CarEventBus(executor, 2);
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingObserver blocked = new RecordingObserver() {
+      @Override
+      public void carStarted() {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.carStarted();
+      }
+    };
+    bus.register(blocked);
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      bus.publish(CarEvent.STARTED);
+    }
+    check("publish() 가 기다리지 않음",
+        System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    // 첫 이벤트는 처리 중이고 2개는 대기열에 있다. 나머지는 버린다.
+    // (처리 중인 이벤트가 대기열에서 꺼내지기 전이면 대기열에 2개가 들어가고 3개를 버린다)
+    long dropped = bus.stats().dropped;
+    check("대기열이 차면 버림", dropped == 2 || dropped == 3);
+    release.countDown();
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    check("버리지 않은 이벤트는 전달", blocked.events.size() == 5 - dropped);
+
+    // 5) 비동기: Executor 가 거절하면 호출한 스레드가 직접 전달한다.
+    executor = CarEventBus.newBoundedExecutor(1, 1);
+    executor.shutdown(); // 종료된 Executor 는 모든 작업을 거절한다.
+    bus = new CarEventBus(executor, 10);
+    RecordingObserver direct = new RecordingObserver();
+    bus.register(direct);
+    bus.publish(CarEvent.STOPPED);
+    check("callerRuns", direct.events.equals(List.of("T")) && bus.stats().callerRuns == 1);
+
+    System.out.println("모든 테스트 통과!");
+  }
+
+  static void check(String name, boolean ok) {
+    if (!ok) {
+      throw new AssertionError("실패: " + name);
+    }
+    System.out.println("성공: " + name);
+  }
+}
@@ -0,0 +1,15 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+public class EngineOilCarObserver extends AbstractCarObserver {
+
+  @Override
+  public void carStarted() {
+    // 검사하는 데 시간이 걸린다고 가정하자!
+    try {
+      Thread.sleep(300);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    System.out.println("엔진 오일 유무 검사");
+  }
+}
@@ -0,0 +1,10 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+public class LightOffCarObserver extends AbstractCarObserver {
+
+  @Override
+  public void carStopped() {
+    System.out.println("전조등을 끈다.");
+  }
+
+}
@@ -0,0 +1,8 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+public class SunRoofCloseCarObserver extends AbstractCarObserver {
+  @Override
+  public void carStopped() {
+    System.out.println("썬루프를 닫는다.");
+  }
+}
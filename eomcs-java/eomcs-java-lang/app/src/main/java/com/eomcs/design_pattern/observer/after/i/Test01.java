@@ -0,0 +1,63 @@
+package com.eomcs.design_pattern.observer.after.i;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// h.Car 의 문제점
+// - 관찰자를 호출한 스레드에서 차례로 실행한다.
+//   => 시간이 오래 걸리는 관찰자(예: EngineOilCarObserver)가 있으면 start() 가 늦게 끝난다.
+// - 통지하는 도중에 다른 스레드가 관찰자를 등록/제거하면 ConcurrentModificationException 이 발생한다.
+//
+// 이번 실습,
+// - 관찰자 목록 관리와 통지를 CarEventBus 에게 맡긴다.
+//   => 관찰자 목록은 copy-on-write 방식으로 관리한다.
+//   => Executor 를 주면 관찰자에게 비동기로 통지한다.
+//      관찰자 마다 이벤트를 발생 순서대로 받는다.
+//
+public class Test01 {
+
+  public static void main(String[] args) throws Exception {
+    // 1) 동기 방식: h.Car 와 같다.
+    Car car = new Car();
+    addObservers(car);
+
+    long start = System.nanoTime();
+    car.start();
+    System.out.printf("=> start() 실행 시간: %d ms\n",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    car.run();
+
+    car.stop();
+
+    System.out.println("-------------------------");
+
+    // 2) 비동기 방식
+    ThreadPoolExecutor executor = CarEventBus.newBoundedExecutor(2, 100);
+    CarEventBus eventBus = new CarEventBus(executor, 16);
+    car = new Car(eventBus);
+    addObservers(car);
+
+    start = System.nanoTime();
+    car.start();
+    System.out.printf("=> start() 실행 시간: %d ms\n",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    car.run();
+
+    car.stop();
+
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    System.out.println(eventBus.stats());
+  }
+
+  static void addObservers(Car car) {
+    car.addCarObserver(new SafeBeltCarObserver());
+    car.addCarObserver(new EngineOilCarObserver());
+    car.addCarObserver(new BrakeOilCarObserver());
+    car.addCarObserver(new LightOffCarObserver());
+    car.addCarObserver(new SunRoofCloseCarObserver());
+  }
+
+}
@@ -0,0 +1,58 @@
+// 4단계 - 연결을 유지하는 프록시 사용하기
+// => 클라이언트 코드는 3단계와 거의 같다.
+//    프록시 객체 내부에서 서버와 통신하는 방법만 바뀌었다.
+// => 프록시 객체가 연결을 유지하므로 다 사용한 후에는 close() 를 호출해야 한다.
+//
+package com.eomcs.design_pattern.proxy.after2.client;
+
+import java.util.Scanner;
+import com.eomcs.design_pattern.proxy.after2.server.CalculatorStub;
+
+public class App {
+  public static void main(String[] args) throws Exception {
+    
+    Scanner keyboard = new Scanner(System.in);
+    
+    // 클라이언트 개발자가 원격에 있는 객체를 사용하기 위해서
+    // 원격 서버와 통신하는 코드를 프로토콜(데이터를 주고 받는 규칙)에 맞춰 직접 작성하였다.
+    // 
+    CalculatorStub calc = new CalculatorStub();
+    
+    while (true) {
+      System.out.print("계산식>(예: 100 + 200) ");
+      String input = keyboard.nextLine();
+      if (input.equalsIgnoreCase("quit"))
+        break;
+      
+      String[] values = input.split(" ");
+      try {
+        int a = Integer.parseInt(values[0]);
+        int b = Integer.parseInt(values[2]);
+        String op = values[1];
+        
+        switch (op) {
+          // 이렇게 Calculator를 로컬에서 사용하는 것처럼 
+          // CalculatorStub 이라는 프록시를 통해 작업을 수행할 수 있다.
+          // Calculator를 사용해야 하는 클라이언트 개발자는 
+          // Calculator를 사용하기 위해 서버와 통신하는 코드를 작성할 필요가 없다.
+          // 서버 개발자가 프록시 객체를 만들어 제공해 줄 것이다.
+          // 
+          case "+": System.out.println(calc.plus(a,b)); break;
+          case "-": System.out.println(calc.minus(a,b)); break;
+          default:
+            System.out.println("해당 연산자를 지원하지 않습니다.");
+        }
+
+      } catch (Exception e) {
+        System.out.println("식 또는 계산 오류: " + e.getMessage());
+      }
+    }
+    calc.close();
+    keyboard.close();
+  }
+}
+
+
+
+
+
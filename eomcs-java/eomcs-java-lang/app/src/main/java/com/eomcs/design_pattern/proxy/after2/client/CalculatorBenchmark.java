@@ -0,0 +1,98 @@
+// 3단계(after) 와 4단계(after2) 의 초당 호출 수 비교
+// - 같은 JVM 안에서 서버(스켈레톤)를 실행하고 localhost 로 호출한다.
+// - 방법 별로 정해진 시간(기본 3초) 동안 호출한 후 초당 호출 수를 출력한다.
+//   1) after  : 호출할 때마다 연결하는 스텁, 한 스레드가 차례대로 호출
+//   2) after2 : 연결을 유지하는 스텁, 한 스레드가 차례대로 호출 (한 번에 요청 한 개)
+//   3) after2 : 연결을 유지하는 스텁, 응답을 기다리지 않고 window 개의 요청을 동시에 보낸다.
+// - 결과 값이 맞는지도 확인한다.
+//
+// 실행:
+//   java com.eomcs.design_pattern.proxy.after2.client.CalculatorBenchmark [측정 시간(초, 기본 3)] [window(기본 1000)]
+//
+package com.eomcs.design_pattern.proxy.after2.client;
+
+import java.util.concurrent.CompletableFuture;
+import com.eomcs.design_pattern.proxy.after2.server.CalculatorImpl;
+import com.eomcs.design_pattern.proxy.after2.server.CalculatorSkel;
+import com.eomcs.design_pattern.proxy.after2.server.CalculatorStub;
+
+public class CalculatorBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+    int window = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    long duration = seconds * 1_000_000_000L;
+
+    // 3단계 서버는 main() 에서 8888 포트로 계속 실행된다.
+    Thread oldServer = new Thread(
+        () -> com.eomcs.design_pattern.proxy.after.server.CalculatorSkel.main(new String[0]));
+    oldServer.setDaemon(true);
+    oldServer.start();
+    Thread.sleep(500);
+
+    System.out.printf("측정 시간: %d 초, window: %,d\n", seconds, window);
+    System.out.printf("%-36s %,14.0f\n", "after (호출마다 연결)",
+        measureOld(duration));
+
+    try (CalculatorSkel skel = new CalculatorSkel(new CalculatorImpl(), 0,
+            Runtime.getRuntime().availableProcessors()).start();
+        CalculatorStub stub = new CalculatorStub("localhost", skel.getPort())) {
+      System.out.printf("%-36s %,14.0f\n", "after2 (연결 유지, 차례대로)",
+          measureSync(stub, duration));
+      System.out.printf("%-36s %,14.0f\n", "after2 (연결 유지, pipelining)",
+          measurePipelined(stub, duration, window));
+    }
+  }
+
+  static double measureOld(long duration) {
+    com.eomcs.design_pattern.proxy.after.server.CalculatorStub stub =
+        new com.eomcs.design_pattern.proxy.after.server.CalculatorStub();
+    long count = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      check(stub.plus((int) count, 1), (int) count + 1);
+      count++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < duration);
+    return count / (elapsed / 1e9);
+  }
+
+  static double measureSync(CalculatorStub stub, long duration) {
+    long count = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      check(stub.minus((int) count, 1), (int) count - 1);
+      count++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < duration);
+    return count / (elapsed / 1e9);
+  }
+
+  // window 개씩 보낸 후 모든 응답을 받으면 다음 window 를 보낸다.
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static double measurePipelined(CalculatorStub stub, long duration, int window) {
+    CompletableFuture<Integer>[] futures = new CompletableFuture[window];
+    long count = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      for (int i = 0; i < window; i++) {
+        futures[i] = stub.plusAsync((int) count + i, i);
+      }
+      for (int i = 0; i < window; i++) {
+        check(futures[i].join(), (int) count + i + i);
+      }
+      count += window;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < duration);
+    return count / (elapsed / 1e9);
+  }
+
+  static void check(int result, int expected) {
+    if (result != expected) {
+      throw new IllegalStateException("결과가 다릅니다: " + result + " != " + expected);
+    }
+  }
+}
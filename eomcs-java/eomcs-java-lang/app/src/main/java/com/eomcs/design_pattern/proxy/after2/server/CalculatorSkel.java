@@ -0,0 +1,198 @@
+package com.eomcs.design_pattern.proxy.after2.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 4단계 - 연결을 유지하고 여러 요청을 동시에 처리하는 스켈레톤
+//
+// after.server.CalculatorSkel 의 문제점
+// - 요청 한 개를 처리할 때마다 연결을 맺고 끊는다.
+//   => 계산 시간보다 연결하는 시간이 훨씬 길다.
+// - 한 스레드가 한 클라이언트씩 차례대로 처리한다.
+//
+// 개선
+// - 클라이언트 마다 연결을 한 번만 맺고, 연결된 동안 계속 요청을 받는다.
+//   => 클라이언트 마다 요청을 읽는 스레드를 한 개씩 둔다.
+// - 계산은 작업자 스레드 풀(workers)에게 맡긴다.
+//   => 대기열의 크기를 제한한다. 작업자가 따라가지 못하면 요청을 읽는 스레드가 직접 처리한다.
+//      그 동안은 요청을 읽지 않으므로 클라이언트도 더 보내지 못한다.(backpressure)
+// - 작은 요청을 모아서 처리한다.(batch)
+//   => 요청을 한 개 읽은 후, 이미 도착해 있는 요청이 있으면 MAX_BATCH 개까지 더 읽는다.
+//   => 모은 요청을 한 작업으로 스레드 풀에 맡긴다. 요청마다 작업을 맡기는 비용을 줄인다.
+//   => 응답도 모두 출력한 후 flush() 를 한 번만 호출한다.
+// - 응답에 요청번호를 붙이기 때문에 요청 순서와 다르게 응답해도 된다.
+// - close() 를 호출하면 연결된 클라이언트의 소켓도 모두 닫는다.
+//
+public class CalculatorSkel implements AutoCloseable {
+
+  // 한 번에 모아서 처리할 요청
+  static class Batch {
+    final int[] ids = new int[Protocol.MAX_BATCH];
+    final byte[] ops = new byte[Protocol.MAX_BATCH];
+    final int[] as = new int[Protocol.MAX_BATCH];
+    final int[] bs = new int[Protocol.MAX_BATCH];
+    int size;
+  }
+
+  // 작업자 한 명 당 대기열에 쌓아 둘 수 있는 작업(batch)의 개수
+  static final int QUEUED_BATCHES_PER_WORKER = 4;
+
+  final Calculator calc;
+  final ServerSocket serverSocket;
+  final ThreadPoolExecutor workers;
+  final Set<Socket> clients = ConcurrentHashMap.newKeySet(); // 연결된 클라이언트
+  volatile boolean closed;
+
+  public CalculatorSkel(Calculator calc, int port, int workerCount) throws IOException {
+    this.calc = calc;
+    this.serverSocket = new ServerSocket(port);
+    this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(workerCount * QUEUED_BATCHES_PER_WORKER), // 대기열 크기 제한
+        new ThreadPoolExecutor.CallerRunsPolicy()); // 꽉 차면 요청을 읽는 스레드가 직접 처리
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  // 연결 요청을 받는 스레드를 시작한다.
+  public CalculatorSkel start() {
+    Thread acceptor = new Thread(this::acceptLoop, "calculator-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return this;
+  }
+
+  void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true); // 모아서 보내기는 우리가 직접 한다.
+        clients.add(socket);
+        if (closed) {
+          // close() 가 클라이언트 소켓을 닫은 후에 연결되었다.
+          clients.remove(socket);
+          socket.close();
+          break;
+        }
+        Thread reader = new Thread(() -> service(socket), "calculator-reader");
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        if (!closed) {
+          System.out.println("연결 요청 처리 중에 오류 발생!");
+        }
+      }
+    }
+  }
+
+  // 한 클라이언트의 요청을 연결이 끊어질 때까지 읽는다.
+  void service(Socket socket) {
+    try (Socket s = socket;
+        DataInputStream in = new DataInputStream(
+            new BufferedInputStream(s.getInputStream(), Protocol.BUFFER_SIZE));
+        DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(s.getOutputStream(), Protocol.BUFFER_SIZE))) {
+
+      while (!closed) {
+        Batch batch = new Batch();
+        readRequest(in, batch); // 요청이 올 때까지 기다린다.
+
+        // 이미 도착한 요청은 기다리지 않고 읽을 수 있다.
+        while (batch.size < Protocol.MAX_BATCH && in.available() >= Protocol.REQUEST_SIZE) {
+          readRequest(in, batch);
+        }
+
+        workers.execute(() -> process(batch, out));
+      }
+
+    } catch (EOFException | SocketException e) {
+      // 클라이언트가 연결을 끊었거나 서버를 종료하는 중이다.
+    } catch (Exception e) {
+      System.out.println("클라이언트 요청 처리 중에 오류 발생!");
+    } finally {
+      clients.remove(socket);
+    }
+  }
+
+  static void readRequest(DataInputStream in, Batch batch) throws IOException {
+    int i = batch.size++;
+    batch.ids[i] = in.readInt();
+    batch.ops[i] = in.readByte();
+    batch.as[i] = in.readInt();
+    batch.bs[i] = in.readInt();
+  }
+
+  // 작업자 스레드가 실행한다.
+  void process(Batch batch, DataOutputStream out) {
+    // 여러 작업자가 같은 연결로 응답할 수 있으므로 출력할 때는 한 작업자만 사용하게 한다.
+    synchronized (out) {
+      try {
+        for (int i = 0; i < batch.size; i++) {
+          out.writeInt(batch.ids[i]);
+          switch (batch.ops[i]) {
+            case Protocol.PLUS:
+              // 클라이언트 요청을 처리하기 위해 실제 작업을 수행하는 객체를 사용한다.
+              out.writeByte(Protocol.OK);
+              out.writeInt(calc.plus(batch.as[i], batch.bs[i]));
+              break;
+            case Protocol.MINUS:
+              out.writeByte(Protocol.OK);
+              out.writeInt(calc.minus(batch.as[i], batch.bs[i]));
+              break;
+            default:
+              out.writeByte(Protocol.FAIL);
+              out.writeUTF("해당 연산자를 지원하지 않습니다.");
+          }
+        }
+        out.flush();
+      } catch (IOException e) {
+        // 응답하기 전에 클라이언트가 연결을 끊었다.
+      }
+    }
+  }
+
+  // 더 이상 연결을 받지 않고, 연결된 클라이언트의 소켓도 닫는다.
+  // => 요청을 읽던 스레드는 SocketException 이 발생하여 종료한다.
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+    for (Socket socket : clients) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // 무시한다.
+      }
+    }
+    clients.clear();
+    workers.shutdown();
+  }
+
+  public int getClientCount() {
+    return clients.size();
+  }
+
+  public static void main(String[] args) throws Exception {
+    // 실제 계산 작업을 수행할 객체
+    Calculator calc = new CalculatorImpl();
+
+    try (CalculatorSkel skel = new CalculatorSkel(calc, 8889,
+        Runtime.getRuntime().availableProcessors()).start()) {
+      System.out.printf("서버 실행 중...(%d 포트)\n", skel.getPort());
+      Thread.currentThread().join(); // 서버를 강제 종료할 때까지 기다린다.
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.eomcs.design_pattern.proxy.after2.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 4단계 - 연결을 유지하고 여러 요청을 동시에 보내는 스텁
+//
+// after.server.CalculatorStub 의 문제점
+// - plus()/minus() 를 호출할 때마다 서버와 연결을 맺고 끊는다.
+// - 응답을 받을 때까지 다음 요청을 보낼 수 없다.
+//
+// 개선
+// - 스텁을 만들 때 한 번만 연결하고, close() 할 때까지 계속 사용한다.
+// - 요청마다 요청번호를 붙인다.
+//   => 응답을 기다리지 않고 다음 요청을 보낼 수 있다.(pipelining)
+//   => 요청번호로 CompletableFuture 를 찾아서 응답이 도착하는 대로 완료시킨다.
+// - 요청은 큐에 넣고, 출력 스레드(writer)가 큐에 쌓인 요청을 모아서 보낸 후 flush() 를 한 번 한다.
+// - 응답은 입력 스레드(reader)가 읽는다.
+// - 응답을 받지 못한 요청은 MAX_IN_FLIGHT 개까지만 허용한다.(backpressure)
+//   => 꽉 차면 plusAsync()/minusAsync() 도 응답이 도착해 자리가 날 때까지 기다린다.
+//   => 요청 큐와 응답 대기 목록이 끝없이 커지지 않는다.
+// - reader 나 writer 가 실패하면 연결을 닫고, 다른 스레드를 멈추고,
+//   응답을 받지 못한 요청을 모두 실패로 처리한다.
+//
+// 사용법
+// - plus()/minus(): 결과가 올 때까지 기다린다. (Calculator 규칙을 따른다)
+// - plusAsync()/minusAsync(): 기다리지 않고 CompletableFuture 를 리턴한다.
+//   => 여러 스레드가 한 스텁을 동시에 사용해도 된다.
+//
+public class CalculatorStub implements Calculator, AutoCloseable {
+
+  static class Call {
+    final int id;
+    final byte op;
+    final int a;
+    final int b;
+
+    Call(int id, byte op, int a, int b) {
+      this.id = id;
+      this.op = op;
+      this.a = a;
+      this.b = b;
+    }
+  }
+
+  // 동시에 보낼 수 있는(응답을 받지 못한) 요청의 최대 개수
+  static final int MAX_IN_FLIGHT = 16 * Protocol.MAX_BATCH;
+
+  // writer 를 멈추게 하는 표시
+  static final Call STOP = new Call(-1, (byte) 0, 0, 0);
+
+  final Socket socket;
+  final DataInputStream in;
+  final DataOutputStream out;
+
+  final AtomicInteger nextId = new AtomicInteger();
+  final Map<Integer, CompletableFuture<Integer>> pending = new ConcurrentHashMap<>();
+  final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+  // 요청마다 inFlight 자리를 먼저 얻으므로 STOP 을 넣을 자리 한 칸만 더 있으면 된다.
+  final BlockingQueue<Call> outbound = new ArrayBlockingQueue<>(MAX_IN_FLIGHT + 1);
+  final Thread writer;
+  final Thread reader;
+  volatile boolean closed;
+
+  public CalculatorStub() throws IOException {
+    this("localhost", 8889);
+  }
+
+  public CalculatorStub(String host, int port) throws IOException {
+    socket = new Socket(host, port);
+    socket.setTcpNoDelay(true); // 모아서 보내기는 writer 가 직접 한다.
+    in = new DataInputStream(
+        new BufferedInputStream(socket.getInputStream(), Protocol.BUFFER_SIZE));
+    out = new DataOutputStream(
+        new BufferedOutputStream(socket.getOutputStream(), Protocol.BUFFER_SIZE));
+
+    writer = new Thread(this::writeLoop, "calculator-stub-writer");
+    writer.setDaemon(true);
+    writer.start();
+
+    reader = new Thread(this::readLoop, "calculator-stub-reader");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  public CompletableFuture<Integer> plusAsync(int a, int b) {
+    return send(Protocol.PLUS, a, b);
+  }
+
+  public CompletableFuture<Integer> minusAsync(int a, int b) {
+    return send(Protocol.MINUS, a, b);
+  }
+
+  @Override
+  public int plus(int a, int b) {
+    return await(plusAsync(a, b));
+  }
+
+  @Override
+  public int minus(int a, int b) {
+    return await(minusAsync(a, b));
+  }
+
+  CompletableFuture<Integer> send(byte op, int a, int b) {
+    CompletableFuture<Integer> future = new CompletableFuture<>();
+    try {
+      inFlight.acquire(); // 응답을 기다리는 요청이 너무 많으면 자리가 날 때까지 기다린다.
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(e);
+      return future;
+    }
+    future.whenComplete((result, error) -> inFlight.release());
+
+    int id = nextId.getAndIncrement();
+    pending.put(id, future);
+    if (closed) {
+      // close() 가 pending 을 정리한 후에 등록했을 수 있다.
+      pending.remove(id);
+      future.completeExceptionally(new IOException("연결이 종료되었습니다."));
+      return future;
+    }
+    outbound.add(new Call(id, op, a, b));
+    return future;
+  }
+
+  static int await(CompletableFuture<Integer> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  void writeLoop() {
+    List<Call> batch = new ArrayList<>(Protocol.MAX_BATCH);
+    try {
+      while (true) {
+        batch.add(outbound.take()); // 요청이 들어올 때까지 기다린다.
+        outbound.drainTo(batch, Protocol.MAX_BATCH - 1); // 그 동안 쌓인 요청도 함께 보낸다.
+        for (Call call : batch) {
+          if (call == STOP) {
+            return; // reader 가 실패했거나 close() 를 호출했다.
+          }
+          out.writeInt(call.id);
+          out.writeByte(call.op);
+          out.writeInt(call.a);
+          out.writeInt(call.b);
+        }
+        out.flush();
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      // 스레드를 멈추라는 요청이다.
+    } catch (IOException e) {
+      failAll(e);
+    }
+  }
+
+  void readLoop() {
+    try {
+      while (true) {
+        int id = in.readInt();
+        byte status = in.readByte();
+        CompletableFuture<Integer> future = pending.remove(id);
+        if (status == Protocol.OK) {
+          int result = in.readInt();
+          if (future != null) {
+            future.complete(result);
+          }
+        } else {
+          String message = in.readUTF();
+          if (future != null) {
+            future.completeExceptionally(new RuntimeException(message));
+          }
+        }
+      }
+    } catch (IOException e) {
+      failAll(e);
+    }
+  }
+
+  // 연결을 닫고 응답을 받지 못한 요청을 모두 실패로 처리한다.
+  // => reader, writer, close() 중 누가 호출하든 다른 스레드도 멈춘다.
+  //    writer 는 STOP 을 받고, reader 는 소켓이 닫혀 IOException 이 발생한다.
+  void failAll(IOException e) {
+    closed = true;
+    outbound.clear(); // 보내지 못한 요청은 아래에서 실패로 처리한다.
+    outbound.offer(STOP);
+    try {
+      socket.close();
+    } catch (IOException ignore) {
+      // 무시한다.
+    }
+    for (Integer id : pending.keySet()) {
+      CompletableFuture<Integer> future = pending.remove(id);
+      if (future != null) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    failAll(new IOException("연결이 종료되었습니다."));
+  }
+}
@@ -0,0 +1,28 @@
+package com.eomcs.design_pattern.proxy.after2.server;
+
+// 스텁과 스켈레톤이 주고 받는 데이터의 형식(프로토콜)
+// - 연결은 한 번만 맺고 계속 사용한다.
+// - 요청: [요청번호(int)][연산자(byte)][a(int)][b(int)]
+//   => 크기가 항상 같다. (REQUEST_SIZE)
+// - 응답: [요청번호(int)][상태(byte)][결과(int)]      - 상태가 OK 인 경우
+//         [요청번호(int)][상태(byte)][오류 메시지(UTF)] - 상태가 FAIL 인 경우
+// - 요청번호가 있기 때문에
+//   => 스텁은 응답을 기다리지 않고 여러 요청을 연속해서 보낼 수 있다.
+//   => 스켈레톤은 요청 순서와 다른 순서로 응답해도 된다.
+//
+final class Protocol {
+  static final byte PLUS = '+';
+  static final byte MINUS = '-';
+
+  static final byte OK = 0;
+  static final byte FAIL = 1;
+
+  static final int REQUEST_SIZE = 4 + 1 + 4 + 4;
+
+  // 한 번에 모아서 보내거나 처리할 최대 요청 개수
+  static final int MAX_BATCH = 256;
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private Protocol() {}
+}
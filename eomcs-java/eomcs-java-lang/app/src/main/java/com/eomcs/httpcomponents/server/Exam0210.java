@@ -30,7 +30,7 @@ public class Exam0210 {
         .setTcpNoDelay(true) //
         .build();
 
-    final ServerApp server = ServerBootstrap.bootstrap()//
+    final HttpServer server = ServerBootstrap.bootstrap()//
         .setListenerPort(9999) // 웹서버 포트 번호 설정
         .setSocketConfig(socketConfig) // 기본 소켓 동작 설정
         .setSslContext(null) // SSL 설정
@@ -73,6 +73,14 @@ public class Exam0210 {
     }
   }
 
+  // 응답 콘텐트
+  // => Exam0220(async)도 같은 콘텐트를 조각(CONTENT_PARTS) 단위로 나눠 출력한다.
+  static final String[] CONTENT_PARTS = {
+      "<html><body>",
+      "<h1>안녕하세요!</h1>",
+      "</body></html>"};
+  static final String CONTENT = String.join("", CONTENT_PARTS);
+
   static class MyRequestHandler implements HttpRequestHandler {
 
     @Override
@@ -83,7 +91,7 @@ public class Exam0210 {
 
       response.setCode(HttpStatus.SC_OK);
       final StringEntity body = new StringEntity(//
-          "<html><body><h1>안녕하세요!</h1></body></html>", //
+          CONTENT, //
           ContentType.create("text/html", Charset.forName("UTF-8")));
       response.setEntity(body);
     }
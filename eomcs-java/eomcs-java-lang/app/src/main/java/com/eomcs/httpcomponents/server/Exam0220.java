@@ -0,0 +1,267 @@
+// Apache HttpComponents 사용법 : 동적 콘텐트를 출력하는 웹서버 만들기 - 비동기(async) 방식
+//
+// Exam0210(classic 방식)과 다른 점
+// - classic 방식은 연결 마다 스레드를 한 개씩 사용한다.
+//   => 연결된 클라이언트가 1000 개면 스레드도 1000 개가 필요하다.
+//   => 클라이언트가 데이터를 보내지 않는 동안에도 스레드는 기다리며 자리를 차지한다.
+// - async 방식은 적은 수의 I/O 스레드(I/O reactor)가 모든 연결을 처리한다.
+//   => 읽을 데이터가 있거나 보낼 수 있는 연결만 골라서 처리한다. (java.nio Selector)
+//   => I/O 스레드 개수는 IOReactorConfig.setIoThreadCount() 로 지정한다.
+// - I/O 스레드가 오래 걸리는 작업을 하면 다른 연결이 모두 멈춘다.
+//   => 응답 콘텐트를 만드는 일은 크기가 제한된 스레드 풀(dispatcher)에게 맡긴다.
+//   => 대기열까지 꽉 차면 기다리게 하지 않고 바로 503(Service Unavailable)으로 응답한다.
+// - 응답 콘텐트는 한 번에 만들지 않고 조각(chunk) 단위로 출력한다.(streaming)
+//   => dispatcher 스레드가 응답을 제출한 후 콘텐트를 조각 단위로 만들어 넣는다.
+//   => 조각을 넣을 때마다 requestOutput() 으로 I/O 스레드에게 알리기만 한다.
+//   => I/O 스레드는 보낼 수 있을 때 이미 만들어진 조각을 출력만 한다.
+// - 콘텐트는 Exam0210 과 같다. (Exam0210.CONTENT_PARTS)
+//
+package com.eomcs.httpcomponents.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.AsyncServerBootstrap;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.entity.AsyncEntityProducers;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.hc.core5.util.TimeValue;
+
+public class Exam0220 {
+
+  public static void main(final String[] args) throws Exception {
+    int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    // 콘텐트를 만드는 스레드 풀: 스레드 개수와 대기열 크기를 제한한다.
+    final ThreadPoolExecutor dispatcher = createDispatcher(ioThreads * 2, 10_000);
+
+    final HttpAsyncServer server = createServer(ioThreads, dispatcher);
+
+    // 웹서버를 시작시킨다.
+    server.start();
+    ListenerEndpoint endpoint = server.listen(new InetSocketAddress(9999), URIScheme.HTTP).get();
+
+    // 웹서버를 종료시키는 스레드를 등록한다.
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        server.close(CloseMode.GRACEFUL);
+        dispatcher.shutdown();
+      }
+    });
+
+    System.out.println("서버 시작(" + endpoint.getAddress() + ")!");
+
+    server.awaitShutdown(TimeValue.MAX_VALUE);
+  }
+
+  static ThreadPoolExecutor createDispatcher(int threads, int queueSize) {
+    return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize), // 대기열 크기 제한
+        new ThreadPoolExecutor.AbortPolicy()); // 꽉 차면 RejectedExecutionException
+  }
+
+  static HttpAsyncServer createServer(int ioThreads, ThreadPoolExecutor dispatcher) {
+    final IOReactorConfig ioReactorConfig = IOReactorConfig.custom() //
+        .setIoThreadCount(ioThreads) // I/O 스레드 개수
+        .setSoTimeout(15, TimeUnit.SECONDS) //
+        .setTcpNoDelay(true) //
+        .build();
+
+    return AsyncServerBootstrap.bootstrap() //
+        .setIOReactorConfig(ioReactorConfig) // I/O reactor 설정
+        .setExceptionCallback(e -> e.printStackTrace()) // 예외 처리자 설정
+        .register("*", new MyAsyncRequestHandler(dispatcher)) // 요청 처리자 설정
+        .create(); // 웹서버 객체 생성
+  }
+
+  static class MyAsyncRequestHandler
+      implements AsyncServerRequestHandler<Message<HttpRequest, Void>> {
+
+    final ThreadPoolExecutor dispatcher;
+
+    MyAsyncRequestHandler(ThreadPoolExecutor dispatcher) {
+      this.dispatcher = dispatcher;
+    }
+
+    // 요청 데이터를 읽을 객체를 준비한다.
+    // => 이 예제는 요청 본문을 사용하지 않으므로 읽어서 버린다.
+    @Override
+    public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(
+        final HttpRequest request, //
+        final EntityDetails entityDetails, //
+        final HttpContext context) throws HttpException {
+      return new BasicRequestConsumer<>(
+          entityDetails != null ? new DiscardingEntityConsumer<>() : null);
+    }
+
+    // 요청을 모두 읽은 후 I/O 스레드가 호출한다.
+    // => 여기에서 오래 걸리는 일을 하면 안 된다. 콘텐트는 dispatcher 스레드에서 만든다.
+    @Override
+    public void handle(
+        final Message<HttpRequest, Void> requestMessage, // 클라이언트 요청 정보
+        final ResponseTrigger responseTrigger, // 응답을 보낼 때 사용하는 도구
+        final HttpContext context // HTTP 설정 도구
+    ) throws HttpException, IOException {
+      try {
+        dispatcher.execute(() -> {
+          try {
+            // 응답 헤더를 먼저 보낸다. 콘텐트는 아래에서 만드는 대로 보낸다.
+            StreamingHtmlProducer producer = new StreamingHtmlProducer();
+            responseTrigger.submitResponse(
+                new BasicResponseProducer(HttpStatus.SC_OK, producer), context);
+
+            // dispatcher 스레드에서 콘텐트를 조각 단위로 만든다.
+            for (String part : Exam0210.CONTENT_PARTS) {
+              producer.write(part);
+            }
+            producer.finish();
+          } catch (HttpException | IOException e) {
+            e.printStackTrace();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // 대기열이 꽉 찼다. 기다리게 하지 않고 바로 거절한다.
+        responseTrigger.submitResponse(
+            new BasicResponseProducer(HttpStatus.SC_SERVICE_UNAVAILABLE,
+                AsyncEntityProducers.create("서버가 바쁩니다. 잠시 후 다시 요청하세요.",
+                    ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8))),
+            context);
+      }
+    }
+  }
+
+  // dispatcher 스레드가 넣은 조각을 I/O 스레드가 출력한다.
+  // => 콘텐트 길이를 미리 알리지 않으므로 chunked 방식으로 전송된다.
+  // => I/O 스레드는 available() 이 0 보다 클 때만 produce() 를 호출한다.
+  //    보낼 조각이 없으면 0 을 리턴하여 I/O 스레드가 기다리지 않고 다른 연결을 처리하게 한다.
+  //    dispatcher 가 조각을 넣은 후 requestOutput() 을 호출하면 다시 available() 을 확인한다.
+  static class StreamingHtmlProducer implements AsyncEntityProducer {
+
+    final Queue<ByteBuffer> chunks = new ConcurrentLinkedQueue<>();
+    volatile boolean finished; // dispatcher 가 콘텐트를 모두 넣었다.
+    volatile DataStreamChannel channel; // 처음 produce() 를 호출할 때 받는다.
+    boolean ended; // I/O 스레드만 사용한다.
+
+    // dispatcher 스레드가 호출한다.
+    void write(String text) {
+      chunks.add(StandardCharsets.UTF_8.encode(text));
+      requestOutput();
+    }
+
+    // dispatcher 스레드가 호출한다.
+    void finish() {
+      finished = true;
+      requestOutput();
+    }
+
+    private void requestOutput() {
+      DataStreamChannel channel = this.channel;
+      if (channel != null) {
+        channel.requestOutput();
+      }
+      // channel 이 아직 없다면 I/O 스레드가 곧 produce() 를 호출하여 큐의 조각을 출력한다.
+    }
+
+    @Override
+    public int available() {
+      if (ended) {
+        return 0;
+      }
+      if (channel == null) {
+        return 1; // produce() 를 한 번은 호출해야 channel 을 받을 수 있다.
+      }
+      ByteBuffer chunk = chunks.peek();
+      if (chunk != null) {
+        return chunk.remaining();
+      }
+      return finished ? 1 : 0; // 끝났다면 endStream() 을 호출하기 위해 한 번 더 호출되어야 한다.
+    }
+
+    // I/O 스레드가 호출한다.
+    @Override
+    public void produce(final DataStreamChannel channel) throws IOException {
+      this.channel = channel;
+      boolean done = finished; // 큐를 비우기 전에 읽어야 마지막 조각을 놓치지 않는다.
+      ByteBuffer chunk;
+      while ((chunk = chunks.peek()) != null) {
+        channel.write(chunk);
+        if (chunk.hasRemaining()) {
+          return; // 출력 버퍼가 꽉 찼다. 보낼 수 있게 되면 다시 호출된다.
+        }
+        chunks.poll();
+      }
+      if (done && !ended) {
+        ended = true;
+        channel.endStream();
+      }
+    }
+
+    @Override
+    public long getContentLength() {
+      return -1;
+    }
+
+    @Override
+    public String getContentType() {
+      return TEXT_HTML.toString();
+    }
+
+    @Override
+    public String getContentEncoding() {
+      return null;
+    }
+
+    @Override
+    public boolean isChunked() {
+      return true;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+      return null;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+      return false;
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+      releaseResources();
+    }
+
+    @Override
+    public void releaseResources() {
+      chunks.clear();
+    }
+  }
+
+  static final ContentType TEXT_HTML = ContentType.create("text/html", StandardCharsets.UTF_8);
+}
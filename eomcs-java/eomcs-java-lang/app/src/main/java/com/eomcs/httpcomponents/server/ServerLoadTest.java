@@ -0,0 +1,206 @@
+// Exam0210(classic) 서버와 Exam0220(async) 서버의 처리량과 응답 시간 비교
+// - 같은 JVM 안에서 서버를 실행하고, HttpClient5 의 async 클라이언트로 요청한다.
+// - 동시에 connections 개(기본 1000개)의 요청을 계속 유지한다.
+//   => HTTP/1.1 은 한 연결에서 한 번에 한 요청만 처리하므로 연결도 connections 개가 된다.
+//   => 파일 디스크립터가 connections * 2 개 이상 필요하다. (예: ulimit -n 4096)
+// - 서버 마다 warm-up 후 정해진 시간(기본 10초) 동안 측정한다.
+// - 두 서버 모두 같은 콘텐트(Exam0210.CONTENT)를 보낸다. 콘텐트가 다르면 오류로 센다.
+// - 출력 항목
+//   처리량(요청/s), 응답 시간 p50/p99/p99.9/최대(ms), 오류 수,
+//   측정 중 JVM 의 최대 스레드 수 (classic 은 연결 마다 스레드를 사용한다)
+//
+// 실행:
+//   java com.eomcs.httpcomponents.server.ServerLoadTest [동시 연결 수(기본 1000)] [측정 시간(초, 기본 10)]
+//
+package com.eomcs.httpcomponents.server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.hc.core5.util.Timeout;
+
+public class ServerLoadTest {
+
+  static final int WARM_UP_SECONDS = 3;
+  static final int MAX_SAMPLES = 5_000_000;
+
+  // 응답 시간(ns)을 모아 두었다가 정렬해서 백분위 값을 구한다.
+  static class Recorder {
+    final long[] samples = new long[MAX_SAMPLES];
+    final AtomicInteger size = new AtomicInteger();
+    final LongAdder errors = new LongAdder();
+
+    void record(long nanos) {
+      int i = size.getAndIncrement();
+      if (i < samples.length) {
+        samples[i] = nanos;
+      }
+    }
+
+    void reset() {
+      size.set(0);
+      errors.reset();
+    }
+
+    int count() {
+      return Math.min(size.get(), samples.length);
+    }
+
+    // 정렬한 후에 호출해야 한다.
+    double percentileMillis(long[] sorted, double percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(sorted.length * percentile / 100) - 1;
+      return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    System.out.printf("동시 연결: %,d, 측정 시간: %d 초, I/O 스레드: %d\n\n",
+        connections, seconds, ioThreads);
+    System.out.printf("%-8s %12s %9s %9s %9s %9s %8s %8s\n",
+        "서버", "요청/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "최대(ms)", "오류", "스레드");
+
+    // 1) classic: Exam0210 과 같은 설정과 요청 처리자
+    HttpServer classic = ServerBootstrap.bootstrap() //
+        .setListenerPort(0) // 비어 있는 포트를 사용한다.
+        .setSocketConfig(SocketConfig.custom() //
+            .setSoTimeout(15, TimeUnit.SECONDS) //
+            .setTcpNoDelay(true) //
+            .setBacklogSize(connections) //
+            .build()) //
+        .register("*", new Exam0210.MyRequestHandler()) //
+        .create();
+    classic.start();
+    try {
+      run("classic", classic.getLocalPort(), connections, seconds);
+    } finally {
+      classic.close(CloseMode.IMMEDIATE);
+    }
+
+    // 2) async: Exam0220 과 같은 설정과 요청 처리자
+    ThreadPoolExecutor dispatcher = Exam0220.createDispatcher(ioThreads * 2, 10_000);
+    HttpAsyncServer async = Exam0220.createServer(ioThreads, dispatcher);
+    async.start();
+    try {
+      ListenerEndpoint endpoint =
+          async.listen(new InetSocketAddress(0), URIScheme.HTTP).get();
+      run("async", ((InetSocketAddress) endpoint.getAddress()).getPort(), connections, seconds);
+    } finally {
+      async.close(CloseMode.IMMEDIATE);
+      dispatcher.shutdownNow();
+    }
+  }
+
+  static void run(String label, int port, int connections, int seconds) throws Exception {
+    PoolingAsyncClientConnectionManager connectionManager =
+        PoolingAsyncClientConnectionManagerBuilder.create() //
+            .setMaxConnTotal(connections) //
+            .setMaxConnPerRoute(connections) //
+            .build();
+
+    try (CloseableHttpAsyncClient client = HttpAsyncClients.custom() //
+        .setConnectionManager(connectionManager) //
+        .setIOReactorConfig(IOReactorConfig.custom() //
+            .setIoThreadCount(Runtime.getRuntime().availableProcessors()) //
+            .setSoTimeout(Timeout.ofSeconds(30)) //
+            .build()) //
+        .build()) {
+      client.start();
+
+      String uri = "http://localhost:" + port + "/hello";
+      Recorder recorder = new Recorder();
+
+      load(client, uri, connections, WARM_UP_SECONDS, recorder);
+
+      recorder.reset();
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      threadBean.resetPeakThreadCount();
+      long elapsed = load(client, uri, connections, seconds, recorder);
+
+      int count = recorder.count();
+      long[] sorted = Arrays.copyOf(recorder.samples, count);
+      Arrays.sort(sorted);
+      System.out.printf("%-8s %,12.0f %9.2f %9.2f %9.2f %9.2f %,8d %,8d\n",
+          label, count / (elapsed / 1e9),
+          recorder.percentileMillis(sorted, 50),
+          recorder.percentileMillis(sorted, 99),
+          recorder.percentileMillis(sorted, 99.9),
+          count == 0 ? 0 : sorted[count - 1] / 1e6,
+          recorder.errors.sum(),
+          threadBean.getPeakThreadCount());
+    }
+  }
+
+  // connections 개의 요청이 항상 진행 중이도록 유지한다.
+  // => 응답을 받을 때마다 다음 요청을 보낸다. 걸린 시간(ns)을 리턴한다.
+  static long load(CloseableHttpAsyncClient client, String uri, int connections, int seconds,
+      Recorder recorder) throws InterruptedException {
+    Semaphore permits = new Semaphore(connections);
+    long start = System.nanoTime();
+    long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+    while (System.nanoTime() < end) {
+      permits.acquire();
+      SimpleHttpRequest request = SimpleRequestBuilder.get(uri).build();
+      long requestStart = System.nanoTime();
+      client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+        @Override
+        public void completed(SimpleHttpResponse response) {
+          // 두 서버가 같은 콘텐트를 보내는지도 확인한다.
+          if (response.getCode() == HttpStatus.SC_OK
+              && Exam0210.CONTENT.equals(response.getBodyText())) {
+            recorder.record(System.nanoTime() - requestStart);
+          } else {
+            recorder.errors.increment();
+          }
+          permits.release();
+        }
+
+        @Override
+        public void failed(Exception e) {
+          recorder.errors.increment();
+          permits.release();
+        }
+
+        @Override
+        public void cancelled() {
+          recorder.errors.increment();
+          permits.release();
+        }
+      });
+    }
+
+    // 진행 중인 요청이 모두 끝날 때까지 기다린다.
+    permits.acquire(connections);
+    return System.nanoTime() - start;
+  }
+}
@@ -2,6 +2,7 @@ package com.eomcs.io.ex08;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 public class BufferedInputStream {
   InputStream in;
@@ -14,28 +15,87 @@ public class BufferedInputStream {
     this.in = in;
   }
 
+  // 버퍼를 다시 채운다. 읽은 바이트 수를 리턴한다. 더 이상 읽을 데이터가 없으면 -1 을 리턴한다.
+  // => 파일 끝에 도달하더라도 size 를 -1 로 만들지 않는다.
+  //    그래야 다음에 read() 를 호출했을 때 버퍼에 남아 있는 예전 데이터를 읽지 않는다.
+  private int fill() throws IOException {
+    int count = in.read(buf);
+    cursor = 0;
+    size = count == -1 ? 0 : count;
+    return count;
+  }
+
   public int read() throws IOException {
     if (cursor == size) { // 버퍼에 저장되어 있는 데이터를 모두 읽었다는 의미
-      if ((size = in.read(buf)) == -1) { // 파일에서 데이터를 읽으려 했는데 데이터가 없다.
+      if (fill() == -1) { // 파일에서 데이터를 읽으려 했는데 데이터가 없다.
         return -1;
       }
-      cursor = 0;
     }
     return buf[cursor++] & 0x000000ff;
   }
 
   public int read(byte[] buf) throws IOException {
-    int i = 0;
-    for (; i < buf.length; i++) {
-      // 1바이트를 읽어서 파라미터로 받은 바이트 배열에 채운다.
-      int b = this.read();
-      if (b == -1) {
-        // 바이트 배열을 다 채우기도 전에 읽을 데이터가 없다면 읽기를 멈춘다.
-        break;
+    return read(buf, 0, buf.length);
+  }
+
+  // 1바이트씩 read() 를 호출하는 대신 버퍼의 데이터를 배열 단위로 복사한다.
+  // - 버퍼에 남아 있는 데이터는 System.arraycopy() 로 한 번에 복사한다.
+  // - 남은 요청량이 버퍼 크기보다 크다면 버퍼를 거치지 않고 파라미터로 받은 배열에 바로 읽는다.
+  //   => 버퍼로 읽은 후 다시 복사하는 일을 하지 않는다.
+  // - 데이터를 조금이라도 읽은 후에는, 당장 읽을 수 있는 데이터가 없으면 기다리지 않고 리턴한다.
+  public int read(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len == 0) {
+      return 0;
+    }
+
+    int n = 0;
+    while (n < len) {
+      int remain = size - cursor;
+      if (remain == 0) {
+        if (n > 0 && in.available() <= 0) {
+          break;
+        }
+        if (len - n >= buf.length) {
+          int count = in.read(b, off + n, len - n);
+          if (count == -1) {
+            break;
+          }
+          n += count;
+          continue;
+        }
+        if (fill() == -1) {
+          break;
+        }
+        remain = size;
       }
-      buf[i] = (byte) b;
+
+      int count = Math.min(remain, len - n);
+      System.arraycopy(buf, cursor, b, off + n, count);
+      cursor += count;
+      n += count;
     }
-    return i; // 지금까지 읽은 데이터의 수를 리턴한다.
+    return n == 0 ? -1 : n; // 읽은 데이터가 없다면 파일 끝에 도달한 것이다.
+  }
+
+  // 버퍼에 남아 있는 데이터를 먼저 건너뛰고, 나머지는 연결된 스트림에서 건너뛴다.
+  public long skip(long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long remain = size - cursor;
+    if (remain > 0) {
+      long skipped = Math.min(remain, n);
+      cursor += (int) skipped;
+      return skipped;
+    }
+    return in.skip(n);
+  }
+
+  // 버퍼에 남아 있는 바이트 수 + 연결된 스트림에서 바로 읽을 수 있는 바이트 수
+  public int available() throws IOException {
+    long total = (long) (size - cursor) + in.available();
+    return (int) Math.min(total, Integer.MAX_VALUE);
   }
 
   public void close() throws IOException {
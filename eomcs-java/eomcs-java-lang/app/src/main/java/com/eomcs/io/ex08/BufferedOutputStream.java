@@ -2,11 +2,12 @@ package com.eomcs.io.ex08;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Objects;
 
 public class BufferedOutputStream {
   OutputStream out;
 
-  byte[] buf = new byte[8196];
+  byte[] buf = new byte[8192];
   int cursor;
 
   public BufferedOutputStream(OutputStream out) {
@@ -25,9 +26,25 @@ public class BufferedOutputStream {
   }
 
   public void write(byte[] buf) throws IOException {
-    for (byte b : buf) {
-      this.write(b & 0x000000ff);
+    write(buf, 0, buf.length);
+  }
+
+  // 1바이트씩 write() 를 호출하는 대신 배열 단위로 복사한다.
+  // - 출력할 데이터가 버퍼 크기 이상이면 버퍼에 있던 데이터를 먼저 출력한 후
+  //   버퍼를 거치지 않고 바로 출력한다.
+  // - 버퍼의 남은 공간이 부족하면 버퍼를 비운 후 System.arraycopy() 로 복사한다.
+  public void write(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len >= buf.length) {
+      flush();
+      out.write(b, off, len);
+      return;
+    }
+    if (len > buf.length - cursor) {
+      flush();
     }
+    System.arraycopy(b, off, buf, cursor, len);
+    cursor += len;
   }
 
 
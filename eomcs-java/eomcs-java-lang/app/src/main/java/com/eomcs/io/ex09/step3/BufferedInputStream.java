@@ -3,10 +3,11 @@ package com.eomcs.io.ex09.step3;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 public class BufferedInputStream extends DecoratorInputStream {
 
-  byte[] buf = new byte[8196];
+  byte[] buf = new byte[8192];
   int size; // 배열에 저장되어 있는 바이트의 수
   int cursor; // 바이트 읽은 배열의 위치
 
@@ -14,16 +15,90 @@ public class BufferedInputStream extends DecoratorInputStream {
     super(in); // 이 객체와 연결될 부품을 파라미터로 받는다.
   }
 
+  // 버퍼를 다시 채운다. 읽은 바이트 수를 리턴한다. 더 이상 읽을 데이터가 없으면 -1 을 리턴한다.
+  // => 파일 끝에 도달하더라도 size 를 -1 로 만들지 않는다.
+  //    그래야 다음에 read() 를 호출했을 때 버퍼에 남아 있는 예전 데이터를 읽지 않는다.
+  private int fill() throws IOException {
+    int count = 연결된부품.read(buf);
+    cursor = 0;
+    size = count == -1 ? 0 : count;
+    return count;
+  }
+
   @Override
   public int read() throws IOException {
     if (cursor == size) { // 버퍼에 저장되어 있는 데이터를 모두 읽었다는 의미
-      if ((size = 연결된부품.read(buf)) == -1) { // 파일에서 데이터를 읽으려 했는데 데이터가 없다.
+      if (fill() == -1) { // 파일에서 데이터를 읽으려 했는데 데이터가 없다.
         return -1;
       }
-      cursor = 0;
     }
     return buf[cursor++] & 0x000000ff;
   }
+
+  // InputStream 의 read(byte[], int, int) 는 read() 를 바이트 수 만큼 반복 호출한다.
+  // => 버퍼의 데이터를 배열 단위로 복사하도록 재정의한다.
+  // - 버퍼에 남아 있는 데이터는 System.arraycopy() 로 한 번에 복사한다.
+  // - 남은 요청량이 버퍼 크기보다 크다면 버퍼를 거치지 않고 파라미터로 받은 배열에 바로 읽는다.
+  // - 데이터를 조금이라도 읽은 후에는, 당장 읽을 수 있는 데이터가 없으면 기다리지 않고 리턴한다.
+  //   => 소켓처럼 데이터가 조금씩 도착하는 스트림에서 불필요하게 멈추지 않는다.
+  // read(byte[]) 는 InputStream 에서 이 메서드를 호출한다.
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len == 0) {
+      return 0;
+    }
+
+    int n = 0;
+    while (n < len) {
+      int remain = size - cursor;
+      if (remain == 0) {
+        if (n > 0 && 연결된부품.available() <= 0) {
+          break;
+        }
+        if (len - n >= buf.length) {
+          int count = 연결된부품.read(b, off + n, len - n);
+          if (count == -1) {
+            break;
+          }
+          n += count;
+          continue;
+        }
+        if (fill() == -1) {
+          break;
+        }
+        remain = size;
+      }
+
+      int count = Math.min(remain, len - n);
+      System.arraycopy(buf, cursor, b, off + n, count);
+      cursor += count;
+      n += count;
+    }
+    return n == 0 ? -1 : n; // 읽은 데이터가 없다면 파일 끝에 도달한 것이다.
+  }
+
+  // 버퍼에 남아 있는 데이터를 먼저 건너뛰고, 나머지는 연결된 부품에서 건너뛴다.
+  @Override
+  public long skip(long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long remain = size - cursor;
+    if (remain > 0) {
+      long skipped = Math.min(remain, n);
+      cursor += (int) skipped;
+      return skipped;
+    }
+    return 연결된부품.skip(n);
+  }
+
+  // 버퍼에 남아 있는 바이트 수 + 연결된 부품에서 바로 읽을 수 있는 바이트 수
+  @Override
+  public int available() throws IOException {
+    long total = (long) (size - cursor) + 연결된부품.available();
+    return (int) Math.min(total, Integer.MAX_VALUE);
+  }
 }
 
 
@@ -3,10 +3,11 @@ package com.eomcs.io.ex09.step3;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Objects;
 
 public class BufferedOutputStream extends DecoratorOutputStream {
 
-  byte[] buf = new byte[8196];
+  byte[] buf = new byte[8192];
   int cursor;
 
   public BufferedOutputStream(OutputStream out) {
@@ -25,6 +26,27 @@ public class BufferedOutputStream extends DecoratorOutputStream {
     buf[cursor++] = (byte) b;
   }
 
+  // OutputStream 의 write(byte[], int, int) 는 write(int) 를 바이트 수 만큼 반복 호출한다.
+  // => 배열 단위로 복사하도록 재정의한다.
+  // - 출력할 데이터가 버퍼 크기 이상이면 버퍼에 있던 데이터를 먼저 출력한 후
+  //   버퍼를 거치지 않고 바로 출력한다.
+  // - 버퍼의 남은 공간이 부족하면 버퍼를 비운 후 System.arraycopy() 로 복사한다.
+  // write(byte[]) 는 OutputStream 에서 이 메서드를 호출한다.
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    if (len >= buf.length) {
+      flush();
+      연결된부품.write(b, off, len);
+      return;
+    }
+    if (len > buf.length - cursor) {
+      flush();
+    }
+    System.arraycopy(b, off, buf, cursor, len);
+    cursor += len;
+  }
+
   @Override
   public void close() throws IOException {
     this.flush();
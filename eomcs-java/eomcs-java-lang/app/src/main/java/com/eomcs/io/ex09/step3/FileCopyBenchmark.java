@@ -0,0 +1,113 @@
+// 우리가 만든 BufferedInputStream/BufferedOutputStream 과 자바의 java.io.Buffered* 의 파일 복사 속도 비교
+// - 원본 파일(기본 1GB)을 만든 후 방법 별로 복사하여 걸린 시간과 초당 처리량을 출력한다.
+//   1) read()/write(int)       : 1바이트씩 읽고 쓴다.
+//   2) read(byte[])/write(byte[]) : 4KB 배열 단위로 읽고 쓴다. (버퍼보다 작은 배열)
+//   3) read(byte[])/write(byte[]) : 64KB 배열 단위로 읽고 쓴다. (버퍼보다 큰 배열 => 버퍼를 거치지 않는다)
+// - 복사가 끝나면 원본과 사본의 내용이 같은지 확인한다.
+// - 원본과 사본은 임시 파일로 만들고, 끝나면(예외가 발생하더라도) 둘 다 삭제한다.
+//
+// 실행:
+//   java com.eomcs.io.ex09.step3.FileCopyBenchmark [파일 크기(MB, 기본 1024)]
+//
+package com.eomcs.io.ex09.step3;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class FileCopyBenchmark {
+
+  interface StreamFactory {
+    InputStream input(InputStream in);
+    OutputStream output(OutputStream out);
+  }
+
+  static final StreamFactory OURS = new StreamFactory() {
+    @Override
+    public InputStream input(InputStream in) {
+      return new BufferedInputStream(in);
+    }
+
+    @Override
+    public OutputStream output(OutputStream out) {
+      return new BufferedOutputStream(out);
+    }
+  };
+
+  static final StreamFactory JDK = new StreamFactory() {
+    @Override
+    public InputStream input(InputStream in) {
+      return new java.io.BufferedInputStream(in);
+    }
+
+    @Override
+    public OutputStream output(OutputStream out) {
+      return new java.io.BufferedOutputStream(out);
+    }
+  };
+
+  public static void main(String[] args) throws Exception {
+    int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+
+    Path source = Files.createTempFile("copy-bench", ".data");
+    Path target = Files.createTempFile("copy-bench", ".copy");
+    try {
+      createSourceFile(source, (long) sizeMb * 1024 * 1024);
+      System.out.printf("원본 파일: %s (%,dMB)\n\n", source, sizeMb);
+
+      System.out.printf("%-26s %10s %10s\n", "방법", "시간(ms)", "MB/s");
+      for (int chunkSize : new int[] {1, 4 * 1024, 64 * 1024}) {
+        for (String name : new String[] {"ours", "jdk"}) {
+          StreamFactory factory = name.equals("ours") ? OURS : JDK;
+          long elapsed = copy(factory, source, target, chunkSize);
+          if (Files.mismatch(source, target) != -1) {
+            throw new IllegalStateException("복사한 파일의 내용이 다릅니다!");
+          }
+          System.out.printf("%-26s %,10d %,10.1f\n",
+              String.format("%s (%s)", name, chunkSize == 1 ? "1바이트씩" : chunkSize / 1024 + "KB 배열"),
+              elapsed / 1_000_000, sizeMb / (elapsed / 1e9));
+        }
+      }
+    } finally {
+      // 1GB 파일을 남기지 않는다.
+      Files.deleteIfExists(target);
+      Files.deleteIfExists(source);
+    }
+  }
+
+  static long copy(StreamFactory factory, Path source, Path target, int chunkSize)
+      throws IOException {
+    long start = System.nanoTime();
+    try (InputStream in = factory.input(new FileInputStream(source.toFile()));
+        OutputStream out = factory.output(new FileOutputStream(target.toFile()))) {
+      if (chunkSize == 1) {
+        int b;
+        while ((b = in.read()) != -1) {
+          out.write(b);
+        }
+      } else {
+        byte[] chunk = new byte[chunkSize];
+        int len;
+        while ((len = in.read(chunk)) != -1) {
+          out.write(chunk, 0, len);
+        }
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  static void createSourceFile(Path path, long size) throws IOException {
+    byte[] block = new byte[1024 * 1024];
+    new Random(0).nextBytes(block);
+    try (OutputStream out = Files.newOutputStream(path)) {
+      for (long written = 0; written < size; written += block.length) {
+        out.write(block, 0, (int) Math.min(block.length, size - written));
+      }
+    }
+  }
+}
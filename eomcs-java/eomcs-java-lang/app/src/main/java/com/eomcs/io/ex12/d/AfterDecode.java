@@ -0,0 +1,15 @@
+// 객체를 읽은 후 호출할 메서드를 표시하는 애노테이션
+// - transient 필드처럼 저장하지 않은 값을 다시 계산할 때 사용한다.
+// - 파라미터가 없거나, int 파라미터 한 개를 받는 메서드에 붙인다.
+//   => int 파라미터에는 데이터를 저장할 때의 스키마 버전이 넘어온다.
+package com.eomcs.io.ex12.d;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AfterDecode {
+}
@@ -0,0 +1,544 @@
+// 스키마 기반 바이너리 코덱 - ObjectOutputStream 대신 사용하기
+//
+// ObjectOutputStream 의 문제점
+// - 클래스 이름, 필드 이름과 타입 등 클래스 정보(class descriptor)를 함께 출력한다.
+//   => 객체 한 개를 출력해도 출력 크기가 크다.
+// - 읽을 때 리플렉션으로 필드를 하나씩 찾아 값을 설정한다.
+// - serialVersionUID 가 다르면 읽을 수 없고, 같으면 필드가 바뀌어도 이름만 보고 맞춰 읽는다.
+//   => 저장한 데이터가 어떤 형식인지 알 수 없다.
+//
+// BinaryCodec
+// - 객체를 만들 때 클래스를 한 번만 분석하여 필드 별로 MethodHandle(getter/setter)을 준비한다.
+//   => 출력하고 읽을 때는 준비한 MethodHandle 을 호출하기만 한다.
+// - @Tag 를 붙인 필드만 출력한다.
+//   => transient 필드는 출력하지 않는다. @AfterDecode 메서드에서 다시 계산한다.
+//   => transient 가 아닌 인스턴스 필드에 @Tag 가 없으면 예외가 발생한다. (빠뜨린 필드를 막는다)
+//
+// 출력 형식
+// - [스키마 버전(varint)] [필드]... [0]
+// - 필드: [태그(varint)][값]
+//   => 태그 = (필드 번호 << 3) | 값의 형식
+//   => 값의 형식: 0 = varint, 1 = 8바이트, 2 = 길이(varint) + 바이트 배열, 5 = 4바이트
+//   => 값의 형식을 알면 모르는 필드를 만났을 때 건너뛸 수 있다.
+// - int, long 은 zigzag 인코딩 후 varint 로 출력한다. 작은 값(음수 포함)은 1~2 바이트면 된다.
+// - null 인 필드는 출력하지 않는다.
+//
+// 버전이 다른 데이터 읽기
+// - 데이터에는 있지만 클래스에 없는 필드 => 건너뛴다.
+// - 클래스에는 있지만 데이터에 없는 필드 => 생성자에서 설정한 값을 유지한다.
+// - 저장할 때의 스키마 버전은 @AfterDecode(int) 메서드에 전달한다.
+//
+package com.eomcs.io.ex12.d;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryCodec<T> {
+
+  static final int VARINT = 0;
+  static final int FIXED64 = 1;
+  static final int BYTES = 2;
+  static final int FIXED32 = 5;
+
+  final Class<T> type;
+  final int version;
+  final MethodHandle constructor; // () -> Object
+  final MethodHandle afterDecode; // (Object, int) -> void, 없으면 null
+  final FieldCodec[] fields; // 출력 순서
+  final FieldCodec[] fieldsByTag; // 필드 번호로 찾기
+
+  public BinaryCodec(Class<T> type) {
+    Schema schema = type.getAnnotation(Schema.class);
+    if (schema == null) {
+      throw new IllegalArgumentException(type.getName() + ": @Schema 가 없습니다.");
+    }
+    this.type = type;
+    this.version = schema.version();
+
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+
+      constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+          .asType(MethodType.methodType(Object.class));
+
+      List<FieldCodec> list = new ArrayList<>();
+      int maxTag = 0;
+      for (Field f : type.getDeclaredFields()) {
+        int modifiers = f.getModifiers();
+        Tag tag = f.getAnnotation(Tag.class);
+        if (Modifier.isStatic(modifiers)) {
+          continue;
+        }
+        if (Modifier.isTransient(modifiers)) {
+          if (tag != null) {
+            throw new IllegalArgumentException(f + ": transient 필드에는 @Tag 를 붙일 수 없습니다.");
+          }
+          continue;
+        }
+        if (tag == null) {
+          throw new IllegalArgumentException(f + ": @Tag 가 없습니다. 저장하지 않을 필드라면 transient 로 선언하세요.");
+        }
+        if (tag.value() < 1) {
+          throw new IllegalArgumentException(f + ": 필드 번호는 1 이상이어야 합니다.");
+        }
+        f.setAccessible(true); // final 필드에 값을 설정하려면 필요하다.
+        list.add(FieldCodec.of(f, tag.value(), lookup));
+        maxTag = Math.max(maxTag, tag.value());
+      }
+
+      fields = list.toArray(new FieldCodec[0]);
+      Arrays.sort(fields, (a, b) -> a.tag - b.tag);
+      fieldsByTag = new FieldCodec[maxTag + 1];
+      for (FieldCodec field : fields) {
+        if (fieldsByTag[field.tag] != null) {
+          throw new IllegalArgumentException(type.getName() + ": 필드 번호가 중복되었습니다. " + field.tag);
+        }
+        fieldsByTag[field.tag] = field;
+      }
+
+      afterDecode = findAfterDecode(type, lookup);
+
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException(type.getName() + ": 기본 생성자가 없습니다.", e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException(type.getName() + ": 필드나 메서드에 접근할 수 없습니다.", e);
+    }
+  }
+
+  private static MethodHandle findAfterDecode(Class<?> type, MethodHandles.Lookup lookup)
+      throws IllegalAccessException {
+    for (Method m : type.getDeclaredMethods()) {
+      if (!m.isAnnotationPresent(AfterDecode.class)) {
+        continue;
+      }
+      MethodHandle mh = lookup.unreflect(m);
+      if (m.getParameterCount() == 0) {
+        // 버전 파라미터를 받지 않는 메서드라면 버전 값을 버린다.
+        mh = MethodHandles.dropArguments(mh, 1, int.class);
+      } else if (m.getParameterCount() != 1 || m.getParameterTypes()[0] != int.class) {
+        throw new IllegalArgumentException(m + ": @AfterDecode 메서드는 파라미터가 없거나 int 한 개여야 합니다.");
+      }
+      return mh.asType(MethodType.methodType(void.class, Object.class, int.class));
+    }
+    return null;
+  }
+
+  public int version() {
+    return version;
+  }
+
+  public byte[] encode(T obj) {
+    Output out = new Output(64);
+    encodeTo(obj, out);
+    return out.toByteArray();
+  }
+
+  public T decode(byte[] bytes) {
+    return decode(bytes, 0, bytes.length);
+  }
+
+  public T decode(byte[] bytes, int offset, int length) {
+    return decodeFrom(new Input(bytes, offset, offset + length));
+  }
+
+  // 스트림에 여러 개의 객체를 출력할 수 있도록 앞에 길이를 붙인다.
+  // => [길이(varint)][객체]
+  public void write(T obj, OutputStream out) throws IOException {
+    Output body = new Output(64);
+    encodeTo(obj, body);
+    Output length = new Output(5);
+    length.writeVarint(body.size);
+    out.write(length.buf, 0, length.size);
+    out.write(body.buf, 0, body.size);
+  }
+
+  // 더 이상 읽을 객체가 없으면 null 을 리턴한다.
+  public T read(InputStream in) throws IOException {
+    int length = 0;
+    for (int shift = 0;; shift += 7) {
+      int b = in.read();
+      if (b == -1) {
+        if (shift == 0) {
+          return null;
+        }
+        throw new EOFException();
+      }
+      length |= (b & 0x7f) << shift;
+      if (b < 0x80) {
+        break;
+      }
+      if (shift == 28) {
+        throw new IOException("잘못된 길이 값입니다.");
+      }
+    }
+    byte[] body = in.readNBytes(length);
+    if (body.length != length) {
+      throw new EOFException();
+    }
+    return decode(body);
+  }
+
+  void encodeTo(T obj, Output out) {
+    out.writeVarint(version);
+    try {
+      for (FieldCodec field : fields) {
+        field.write(obj, out);
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+    out.writeVarint(0);
+  }
+
+  T decodeFrom(Input in) {
+    try {
+      Object obj = constructor.invokeExact();
+      int dataVersion = in.readVarint();
+
+      int tag;
+      while ((tag = in.readVarint()) != 0) {
+        int fieldNo = tag >>> 3;
+        int wireType = tag & 7;
+        FieldCodec field = fieldNo < fieldsByTag.length ? fieldsByTag[fieldNo] : null;
+        if (field == null || field.wireType != wireType) {
+          in.skip(wireType); // 모르는 필드이거나 타입이 바뀐 필드는 건너뛴다.
+          continue;
+        }
+        field.read(obj, in);
+      }
+
+      if (afterDecode != null) {
+        afterDecode.invokeExact(obj, dataVersion);
+      }
+      return type.cast(obj);
+
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 필드 한 개를 출력하고 읽는 일을 한다.
+  // - 필드 타입 별로 서브 클래스를 만든다.
+  //   => MethodHandle 을 (Object)int 처럼 정확한 타입으로 변환해 두면
+  //      invokeExact() 로 박싱 없이 호출할 수 있다.
+  abstract static class FieldCodec {
+    final int tag;
+    final int wireType;
+    final int key;
+    final MethodHandle getter;
+    final MethodHandle setter;
+
+    FieldCodec(int tag, int wireType, MethodHandle getter, MethodHandle setter, Class<?> valueType) {
+      this.tag = tag;
+      this.wireType = wireType;
+      this.key = tag << 3 | wireType;
+      this.getter = getter.asType(MethodType.methodType(valueType, Object.class));
+      this.setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+    }
+
+    abstract void write(Object obj, Output out) throws Throwable;
+
+    abstract void read(Object obj, Input in) throws Throwable;
+
+    static FieldCodec of(Field f, int tag, MethodHandles.Lookup lookup)
+        throws IllegalAccessException {
+      MethodHandle getter = lookup.unreflectGetter(f);
+      MethodHandle setter = lookup.unreflectSetter(f);
+      Class<?> t = f.getType();
+      if (t == int.class) {
+        return new IntField(tag, getter, setter);
+      } else if (t == long.class) {
+        return new LongField(tag, getter, setter);
+      } else if (t == boolean.class) {
+        return new BooleanField(tag, getter, setter);
+      } else if (t == float.class) {
+        return new FloatField(tag, getter, setter);
+      } else if (t == double.class) {
+        return new DoubleField(tag, getter, setter);
+      } else if (t == String.class) {
+        return new StringField(tag, getter, setter);
+      }
+      throw new IllegalArgumentException(f + ": 지원하지 않는 타입입니다.");
+    }
+  }
+
+  static class IntField extends FieldCodec {
+    IntField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, VARINT, getter, setter, int.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      int value = (int) getter.invokeExact(obj);
+      out.writeVarint(key);
+      out.writeVarint((value << 1) ^ (value >> 31)); // zigzag
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      int n = in.readVarint();
+      setter.invokeExact(obj, (n >>> 1) ^ -(n & 1));
+    }
+  }
+
+  static class LongField extends FieldCodec {
+    LongField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, VARINT, getter, setter, long.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      long value = (long) getter.invokeExact(obj);
+      out.writeVarint(key);
+      out.writeVarlong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      long n = in.readVarlong();
+      setter.invokeExact(obj, (n >>> 1) ^ -(n & 1));
+    }
+  }
+
+  static class BooleanField extends FieldCodec {
+    BooleanField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, VARINT, getter, setter, boolean.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      boolean value = (boolean) getter.invokeExact(obj);
+      out.writeVarint(key);
+      out.writeVarint(value ? 1 : 0);
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      setter.invokeExact(obj, in.readVarint() != 0);
+    }
+  }
+
+  static class FloatField extends FieldCodec {
+    FloatField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, FIXED32, getter, setter, float.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      float value = (float) getter.invokeExact(obj);
+      out.writeVarint(key);
+      out.writeInt(Float.floatToIntBits(value));
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      setter.invokeExact(obj, Float.intBitsToFloat(in.readInt()));
+    }
+  }
+
+  static class DoubleField extends FieldCodec {
+    DoubleField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, FIXED64, getter, setter, double.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      double value = (double) getter.invokeExact(obj);
+      out.writeVarint(key);
+      out.writeLong(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      setter.invokeExact(obj, Double.longBitsToDouble(in.readLong()));
+    }
+  }
+
+  static class StringField extends FieldCodec {
+    StringField(int tag, MethodHandle getter, MethodHandle setter) {
+      super(tag, BYTES, getter, setter, String.class);
+    }
+
+    @Override
+    void write(Object obj, Output out) throws Throwable {
+      String value = (String) getter.invokeExact(obj);
+      if (value == null) {
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeVarint(key);
+      out.writeVarint(bytes.length);
+      out.write(bytes);
+    }
+
+    @Override
+    void read(Object obj, Input in) throws Throwable {
+      int length = in.readVarint();
+      setter.invokeExact(obj, in.readString(length));
+    }
+  }
+
+  // 크기가 자동으로 늘어나는 출력 버퍼
+  static class Output {
+    byte[] buf;
+    int size;
+
+    Output(int capacity) {
+      buf = new byte[capacity];
+    }
+
+    private void ensure(int n) {
+      if (size + n > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+      }
+    }
+
+    void writeVarint(int value) {
+      ensure(5);
+      while ((value & ~0x7f) != 0) {
+        buf[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      buf[size++] = (byte) value;
+    }
+
+    void writeVarlong(long value) {
+      ensure(10);
+      while ((value & ~0x7fL) != 0) {
+        buf[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      buf[size++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+      ensure(4);
+      buf[size++] = (byte) (value >> 24);
+      buf[size++] = (byte) (value >> 16);
+      buf[size++] = (byte) (value >> 8);
+      buf[size++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >> 32));
+      writeInt((int) value);
+    }
+
+    void write(byte[] bytes) {
+      ensure(bytes.length);
+      System.arraycopy(bytes, 0, buf, size, bytes.length);
+      size += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buf, size);
+    }
+  }
+
+  // 바이트 배열에서 값을 읽는다.
+  static class Input {
+    final byte[] buf;
+    final int limit;
+    int pos;
+
+    Input(byte[] buf, int offset, int limit) {
+      this.buf = buf;
+      this.pos = offset;
+      this.limit = limit;
+    }
+
+    private void require(int n) {
+      if (n < 0 || pos + n > limit) {
+        throw new UncheckedIOException(new EOFException("데이터가 부족합니다."));
+      }
+    }
+
+    int readVarint() {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        require(1);
+        byte b = buf[pos++];
+        value |= (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalStateException("잘못된 varint 값입니다.");
+    }
+
+    long readVarlong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        require(1);
+        byte b = buf[pos++];
+        value |= (long) (b & 0x7f) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalStateException("잘못된 varint 값입니다.");
+    }
+
+    int readInt() {
+      require(4);
+      int value = (buf[pos] & 0xff) << 24
+          | (buf[pos + 1] & 0xff) << 16
+          | (buf[pos + 2] & 0xff) << 8
+          | (buf[pos + 3] & 0xff);
+      pos += 4;
+      return value;
+    }
+
+    long readLong() {
+      return (long) readInt() << 32 | (readInt() & 0xffffffffL);
+    }
+
+    String readString(int length) {
+      require(length);
+      String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+      pos += length;
+      return value;
+    }
+
+    // 값의 형식만 보고 필드를 건너뛴다.
+    void skip(int wireType) {
+      switch (wireType) {
+        case VARINT:
+          readVarlong();
+          break;
+        case FIXED64:
+          require(8);
+          pos += 8;
+          break;
+        case BYTES:
+          int length = readVarint();
+          require(length);
+          pos += length;
+          break;
+        case FIXED32:
+          require(4);
+          pos += 4;
+          break;
+        default:
+          throw new IllegalStateException("알 수 없는 값의 형식입니다: " + wireType);
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+// BinaryCodec 과 ObjectOutputStream, Gson, Jackson 의 출력 크기와 처리 속도 비교
+// - Score1 객체 n 개(기본 100,000개)를 하나씩 바이트 배열로 변환(encode)하고 다시 객체로 변환(decode)한다.
+//   => 네트워크로 메시지를 한 개씩 주고 받는 상황과 같다.
+// - 방법 별로 여러 번 반복하여 가장 빠른 결과를 출력한다. (처음 몇 번은 JIT 컴파일이 끝나지 않아 느리다)
+// - 읽은 후에는 모든 방법에서 sum/aver 를 다시 계산하고, 원본과 같은지 확인한다.
+//
+// 실행:
+//   java com.eomcs.io.ex12.d.CodecBenchmark [객체 개수(기본 100000)] [반복 횟수(기본 7)]
+//
+package com.eomcs.io.ex12.d;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+
+public class CodecBenchmark {
+
+  interface Codec {
+    byte[] encode(Score1 score) throws Exception;
+    Score1 decode(byte[] bytes) throws Exception;
+  }
+
+  static class Binary implements Codec {
+    BinaryCodec<Score1> codec = new BinaryCodec<>(Score1.class);
+
+    @Override
+    public byte[] encode(Score1 score) {
+      return codec.encode(score);
+    }
+
+    @Override
+    public Score1 decode(byte[] bytes) {
+      return codec.decode(bytes); // compute() 는 @AfterDecode 로 호출된다.
+    }
+  }
+
+  static class Java implements Codec {
+    @Override
+    public byte[] encode(Score1 score) throws Exception {
+      ByteArrayOutputStream buf = new ByteArrayOutputStream(256);
+      try (ObjectOutputStream out = new ObjectOutputStream(buf)) {
+        out.writeObject(score);
+      }
+      return buf.toByteArray();
+    }
+
+    @Override
+    public Score1 decode(byte[] bytes) throws Exception {
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+        Score1 score = (Score1) in.readObject();
+        score.compute();
+        return score;
+      }
+    }
+  }
+
+  static class GsonCodec implements Codec {
+    // Gson 객체는 한 번만 만들어 재사용한다. 기본적으로 transient 필드는 출력하지 않는다.
+    Gson gson = new Gson();
+
+    @Override
+    public byte[] encode(Score1 score) {
+      return gson.toJson(score).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Score1 decode(byte[] bytes) {
+      Score1 score = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), Score1.class);
+      score.compute();
+      return score;
+    }
+  }
+
+  static class JacksonCodec implements Codec {
+    // getter(sum, aver 포함) 대신 transient 가 아닌 필드를 직접 사용하도록 설정한다.
+    ObjectMapper mapper = new ObjectMapper()
+        .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+        .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    @Override
+    public byte[] encode(Score1 score) throws Exception {
+      return mapper.writeValueAsBytes(score);
+    }
+
+    @Override
+    public Score1 decode(byte[] bytes) throws Exception {
+      Score1 score = mapper.readValue(bytes, Score1.class);
+      score.compute();
+      return score;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+    String[] names = {"홍길동", "임꺽정", "유관순", "안중근", "윤봉길", "Kim", "Lee", "Park"};
+    Random random = new Random(0);
+    Score1[] scores = new Score1[count];
+    for (int i = 0; i < count; i++) {
+      scores[i] = new Score1(names[i % names.length] + i,
+          random.nextInt(101), random.nextInt(101), random.nextInt(101));
+    }
+
+    String[] labels = {"BinaryCodec", "ObjectOutputStream", "Gson", "Jackson"};
+    Codec[] codecs = {new Binary(), new Java(), new GsonCodec(), new JacksonCodec()};
+
+    System.out.printf("객체 개수: %,d, 반복 횟수: %d\n\n", count, rounds);
+    System.out.printf("%-20s %12s %10s %14s %14s\n",
+        "방법", "전체 크기", "객체 당", "encode(개/s)", "decode(개/s)");
+
+    for (int c = 0; c < codecs.length; c++) {
+      Codec codec = codecs[c];
+      byte[][] encoded = new byte[count][];
+      long bestEncode = Long.MAX_VALUE;
+      long bestDecode = Long.MAX_VALUE;
+
+      for (int r = 0; r < rounds; r++) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+          encoded[i] = codec.encode(scores[i]);
+        }
+        bestEncode = Math.min(bestEncode, System.nanoTime() - start);
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+          checksum += codec.decode(encoded[i]).getSum();
+        }
+        bestDecode = Math.min(bestDecode, System.nanoTime() - start);
+
+        verify(labels[c], codec, scores, encoded, checksum);
+      }
+
+      long totalSize = 0;
+      for (byte[] bytes : encoded) {
+        totalSize += bytes.length;
+      }
+      System.out.printf("%-20s %,12d %,10.1f %,14.0f %,14.0f\n",
+          labels[c], totalSize, (double) totalSize / count,
+          count / (bestEncode / 1e9), count / (bestDecode / 1e9));
+    }
+  }
+
+  static void verify(String label, Codec codec, Score1[] scores, byte[][] encoded, long checksum)
+      throws Exception {
+    long expected = 0;
+    for (Score1 score : scores) {
+      expected += score.getSum();
+    }
+    Score1 first = codec.decode(encoded[0]);
+    if (checksum != expected
+        || !first.getName().equals(scores[0].getName())
+        || first.getAver() != scores[0].getAver()) {
+      throw new IllegalStateException(label + ": 읽은 값이 원본과 다릅니다!");
+    }
+  }
+}
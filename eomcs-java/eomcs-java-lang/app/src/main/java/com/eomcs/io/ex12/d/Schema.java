@@ -0,0 +1,18 @@
+// 스키마 버전을 표시하는 애노테이션
+// - serialVersionUID 는 "같은 클래스인가?" 만 검사한다.
+//   => 값이 다르면 읽기를 거부하고, 같으면 필드가 바뀌어도 이름이 같은 필드만 맞춰 읽는다.
+// - 스키마 버전은 "어떤 형식으로 저장했는가?" 를 데이터와 함께 기록한다.
+//   => 읽는 쪽은 저장할 때의 버전을 보고 필요한 변환을 직접 수행할 수 있다. (@AfterDecode 참고)
+// - 필드를 추가하거나 제거할 때마다 버전을 올린다.
+package com.eomcs.io.ex12.d;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Schema {
+  int version();
+}
@@ -0,0 +1,69 @@
+package com.eomcs.io.ex12.d;
+
+import java.io.Serializable;
+
+// 스키마 버전 1
+// - 저장할 필드에 @Tag 로 번호를 붙인다.
+// - sum, aver 처럼 다른 필드로 계산하는 값은 transient 로 선언하여 저장하지 않는다.
+//   => 읽은 후에 @AfterDecode 메서드에서 다시 계산한다.
+// - Serializable 은 ObjectOutputStream 과 비교(CodecBenchmark)하기 위해 구현한다.
+//   BinaryCodec 을 사용할 때는 필요 없다.
+@Schema(version = 1)
+public class Score1 implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  @Tag(1) private String name;
+  @Tag(2) private int kor;
+  @Tag(3) private int eng;
+  @Tag(4) private int math;
+
+  transient private int sum;
+  transient private float aver;
+
+  public Score1() {
+  }
+
+  public Score1(String name, int kor, int eng, int math) {
+    this.name = name;
+    this.kor = kor;
+    this.eng = eng;
+    this.math = math;
+    compute();
+  }
+
+  @Override
+  public String toString() {
+    return "Score1 [name=" + name + ", kor=" + kor + ", eng=" + eng + ", math=" + math + ", sum="
+        + sum + ", aver=" + aver + "]";
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getKor() {
+    return kor;
+  }
+
+  public int getEng() {
+    return eng;
+  }
+
+  public int getMath() {
+    return math;
+  }
+
+  public int getSum() {
+    return sum;
+  }
+
+  public float getAver() {
+    return aver;
+  }
+
+  @AfterDecode
+  public void compute() {
+    this.sum = this.kor + this.eng + this.math;
+    this.aver = this.sum / 3f;
+  }
+}
@@ -0,0 +1,71 @@
+package com.eomcs.io.ex12.d;
+
+// 스키마 버전 2
+// - Score1 에 전화번호(tel) 필드를 추가했다.
+//   => 새 필드는 새 번호(5)를 사용한다. 기존 번호는 바꾸지 않는다.
+//   => 스키마 버전을 올린다.
+// - 클래스 이름이 달라도 필드 번호와 타입이 같으면 서로의 데이터를 읽을 수 있다.
+//   => ObjectOutputStream 은 클래스 이름과 serialVersionUID 가 같아야 읽을 수 있다.
+@Schema(version = 2)
+public class Score2 {
+
+  @Tag(1) private String name;
+  @Tag(2) private int kor;
+  @Tag(3) private int eng;
+  @Tag(4) private int math;
+  @Tag(5) private String tel;
+
+  transient private int sum;
+  transient private float aver;
+  transient private int dataVersion = 2; // 읽은 데이터의 스키마 버전
+
+  public Score2() {
+    // 버전 1 데이터에는 tel 이 없다. 이 값이 그대로 유지된다.
+    this.tel = "";
+  }
+
+  public Score2(String name, int kor, int eng, int math, String tel) {
+    this.name = name;
+    this.kor = kor;
+    this.eng = eng;
+    this.math = math;
+    this.tel = tel;
+    compute();
+  }
+
+  @Override
+  public String toString() {
+    return "Score2 [name=" + name + ", kor=" + kor + ", eng=" + eng + ", math=" + math + ", tel="
+        + tel + ", sum=" + sum + ", aver=" + aver + "]";
+  }
+
+  public String getTel() {
+    return tel;
+  }
+
+  public int getSum() {
+    return sum;
+  }
+
+  public float getAver() {
+    return aver;
+  }
+
+  public int getDataVersion() {
+    return dataVersion;
+  }
+
+  public void compute() {
+    this.sum = this.kor + this.eng + this.math;
+    this.aver = this.sum / 3f;
+  }
+
+  // 저장할 때의 스키마 버전을 받아 필요한 변환을 한다.
+  // => 객체를 읽을 때마다 호출된다. 출력처럼 느린 작업은 하지 않는다.
+  //    버전은 기록만 해 두고, 알릴 필요가 있으면 호출한 쪽에서 출력한다.
+  @AfterDecode
+  void upgrade(int version) {
+    this.dataVersion = version;
+    compute();
+  }
+}
@@ -0,0 +1,19 @@
+// 필드 번호를 지정하는 애노테이션
+// - 저장할 때 필드 이름 대신 이 번호를 출력한다.
+//   => 필드 이름을 바꿔도 번호가 같으면 그대로 읽을 수 있다.
+//   => 출력 크기가 작다.
+// - 번호는 1 부터 시작한다.
+// - 한 번 사용한 번호는 필드를 제거한 후에도 다른 필드에 다시 사용해서는 안된다.
+//   => 예전 버전으로 저장한 데이터를 엉뚱한 필드에 읽어 들이게 된다.
+package com.eomcs.io.ex12.d;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Tag {
+  int value();
+}
@@ -0,0 +1,37 @@
+// BinaryCodec - 객체 출력하기
+package com.eomcs.io.ex12.d;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+public class Test1_1 {
+
+  public static void main(String[] args) throws Exception {
+    BinaryCodec<Score1> codec = new BinaryCodec<>(Score1.class);
+
+    Score1 score = new Score1("홍길동", 100, 90, 80);
+    System.out.println(score);
+
+    // 객체 한 개를 출력한 크기를 ObjectOutputStream 과 비교해 보자!
+    byte[] bytes = codec.encode(score);
+    System.out.printf("BinaryCodec: %d 바이트\n", bytes.length);
+
+    ByteArrayOutputStream buf = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(buf)) {
+      out.writeObject(score);
+    }
+    System.out.printf("ObjectOutputStream: %d 바이트\n", buf.size());
+
+    // 여러 개의 객체를 파일로 출력하기
+    // => write() 는 객체 앞에 길이를 붙인다.
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream("temp/score.data"))) {
+      codec.write(score, out);
+      codec.write(new Score1("임꺽정", 90, 90, 90), out);
+      codec.write(new Score1("유관순", 80, 80, 80), out);
+    }
+    System.out.println("출력 완료!");
+  }
+}
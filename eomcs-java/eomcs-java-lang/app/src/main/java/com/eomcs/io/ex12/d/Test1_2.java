@@ -0,0 +1,22 @@
+// BinaryCodec - 객체 읽기
+package com.eomcs.io.ex12.d;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+public class Test1_2 {
+
+  public static void main(String[] args) throws Exception {
+    BinaryCodec<Score1> codec = new BinaryCodec<>(Score1.class);
+
+    try (InputStream in = new BufferedInputStream(new FileInputStream("temp/score.data"))) {
+      Score1 score;
+      while ((score = codec.read(in)) != null) {
+        // sum 과 aver 는 저장하지 않았지만
+        // @AfterDecode 가 붙은 compute() 가 호출되어 다시 계산되었다.
+        System.out.println(score);
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+// BinaryCodec - 이전 버전의 데이터 읽기
+// - Test1_1 을 실행하여 버전 1(Score1)로 저장한 후 실행하라!
+package com.eomcs.io.ex12.d;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+public class Test2_1 {
+
+  public static void main(String[] args) throws Exception {
+    BinaryCodec<Score2> codec = new BinaryCodec<>(Score2.class);
+
+    // 버전 1 데이터를 버전 2 클래스로 읽는다.
+    // => 데이터에 없는 tel 필드는 생성자에서 설정한 값("")을 유지한다.
+    // => @AfterDecode 메서드에 저장할 때의 버전(1)이 전달된다.
+    // => ObjectInputStream 이었다면 클래스가 다르기 때문에 읽을 수 없다.
+    try (InputStream in = new BufferedInputStream(new FileInputStream("temp/score.data"))) {
+      Score2 score;
+      while ((score = codec.read(in)) != null) {
+        if (score.getDataVersion() < 2) {
+          System.out.println("버전 " + score.getDataVersion()
+              + " 데이터를 읽었습니다. tel 은 기본 값을 사용합니다.");
+        }
+        System.out.println(score);
+      }
+    }
+  }
+}
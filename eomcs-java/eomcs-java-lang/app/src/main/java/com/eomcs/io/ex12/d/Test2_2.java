@@ -0,0 +1,20 @@
+// BinaryCodec - 다음 버전의 데이터 읽기
+package com.eomcs.io.ex12.d;
+
+public class Test2_2 {
+
+  public static void main(String[] args) throws Exception {
+    BinaryCodec<Score2> codec2 = new BinaryCodec<>(Score2.class);
+    BinaryCodec<Score1> codec1 = new BinaryCodec<>(Score1.class);
+
+    Score2 score2 = new Score2("홍길동", 100, 90, 80, "010-1111-2222");
+    byte[] bytes = codec2.encode(score2);
+    System.out.println(score2);
+
+    // 버전 2 데이터를 버전 1 클래스로 읽는다.
+    // => Score1 이 모르는 5번 필드(tel)는 값의 형식을 보고 건너뛴다.
+    // => 새 버전의 프로그램이 저장한 데이터를 이전 버전의 프로그램에서도 읽을 수 있다.
+    Score1 score1 = codec1.decode(bytes);
+    System.out.println(score1);
+  }
+}
@@ -0,0 +1,44 @@
+// 레코드 저장소 사용하기 - 쓰기와 레코드 번호로 읽기
+package com.eomcs.io.ex16;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class Exam0110 {
+
+  public static void main(String[] args) throws Exception {
+    Path dataFile = Paths.get("temp/members.rec");
+    Path indexFile = Paths.get("temp/members.idx");
+    Files.createDirectories(dataFile.getParent());
+    Files.deleteIfExists(dataFile);
+    Files.deleteIfExists(indexFile);
+
+    // 255 바이트가 넘는 이름
+    // => writeUTF() 방식으로 저장하면 길이가 1바이트로 잘려서 데이터가 깨진다.
+    String longName = "가".repeat(100); // UTF-8 로 300 바이트
+
+    try (MemberRecordWriter out = new MemberRecordWriter(dataFile, indexFile)) {
+      out.append(new Member("홍길동", 20, false));
+      out.append(new Member(longName, 30, true));
+      out.append(new Member("임꺽정", 40, false));
+    }
+
+    // 파일에 추가하기 (append-only)
+    try (MemberRecordWriter out = new MemberRecordWriter(dataFile, indexFile)) {
+      out.append(new Member("유관순", 17, true));
+      System.out.printf("저장된 레코드: %d개\n", out.size());
+    }
+
+    try (MemberRecordReader in = new MemberRecordReader(dataFile, indexFile)) {
+      // 레코드 번호로 바로 읽는다.
+      System.out.println(in.get(3));
+      System.out.println(in.get(0));
+      System.out.println(in.getName(1).equals(longName)); // true
+      System.out.println(in.getAge(2)); // 이름은 읽지 않는다.
+
+      // 처음부터 차례대로 읽는다.
+      in.forEach(member -> System.out.println(member.name.length() + ": " + member));
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.eomcs.io.ex16;
+
+public class Member {
+  String name;
+  int age;
+  boolean gender; // true(여자), false(남자)
+
+  public Member() {}
+
+  public Member(String name, int age, boolean gender) {
+    this.name = name;
+    this.age = age;
+    this.gender = gender;
+  }
+
+  @Override
+  public String toString() {
+    return "Member [name=" + name + ", age=" + age + ", gender=" + gender + "]";
+  }
+}
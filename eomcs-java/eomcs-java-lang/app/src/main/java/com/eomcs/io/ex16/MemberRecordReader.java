@@ -0,0 +1,123 @@
+// Member 레코드 저장소 - 읽기
+// - 데이터 파일과 인덱스 파일을 메모리에 매핑(FileChannel.map)한다.
+//   => 파일의 내용을 자바 힙으로 복사하지 않는다.
+//   => 운영체제가 필요한 부분만 페이지 단위로 메모리에 올린다.
+// - 레코드 번호로 인덱스에서 위치를 찾은 후, 매핑된 버퍼에서 필드 값을 바로 해석한다.
+//   => n 번째 레코드를 읽기 위해 앞의 레코드를 읽을 필요가 없다.
+//   => getAge() 처럼 필드 하나만 필요하면 Member 객체나 문자열을 만들지 않고 읽을 수 있다.
+// - 버퍼의 현재 위치(position)를 바꾸지 않는 절대 위치 get() 만 사용한다.
+//   => 여러 스레드가 같은 리더를 동시에 사용할 수 있다.
+//
+// 주의!
+// - ByteBuffer 는 int 로 위치를 표현하기 때문에 2GB 보다 큰 파일은 매핑할 수 없다.
+// - 매핑을 연 후에 추가된 레코드는 보이지 않는다. 다시 열어야 한다.
+// - 매핑된 메모리는 리더를 닫아도 가비지 컬렉터가 버퍼를 회수할 때 해제된다.
+package com.eomcs.io.ex16;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class MemberRecordReader implements AutoCloseable {
+
+  MappedByteBuffer data;
+  MappedByteBuffer index;
+  int count;
+
+  public MemberRecordReader(Path dataFile, Path indexFile) throws IOException {
+    try (FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+        FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+
+      MemberRecordWriter.checkHeader(dataChannel);
+      if (dataChannel.size() > Integer.MAX_VALUE || indexChannel.size() > Integer.MAX_VALUE) {
+        throw new IOException("2GB 보다 큰 파일은 매핑할 수 없습니다.");
+      }
+
+      // 채널을 닫아도 매핑은 유지된다.
+      data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+      index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+      count = (int) (indexChannel.size() / MemberRecordWriter.INDEX_ENTRY_SIZE);
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  // 레코드 본문(이름 길이)이 시작하는 위치
+  private int bodyOffset(int recordNo) {
+    if (recordNo < 0 || recordNo >= count) {
+      throw new IndexOutOfBoundsException("레코드 번호: " + recordNo + ", 레코드 개수: " + count);
+    }
+    int offset = (int) index.getLong(recordNo * MemberRecordWriter.INDEX_ENTRY_SIZE);
+    return offset + VarInts.size(VarInts.get(data, offset));
+  }
+
+  public Member get(int recordNo) {
+    return decode(bodyOffset(recordNo));
+  }
+
+  public String getName(int recordNo) {
+    int pos = bodyOffset(recordNo);
+    int length = VarInts.get(data, pos);
+    return decodeString(pos + VarInts.size(length), length);
+  }
+
+  // 이름을 건너뛰고 나이만 읽는다. 객체를 만들지 않는다.
+  public int getAge(int recordNo) {
+    int pos = bodyOffset(recordNo);
+    int length = VarInts.get(data, pos);
+    pos += VarInts.size(length) + length;
+    return VarInts.decodeZigZag(VarInts.get(data, pos));
+  }
+
+  public boolean getGender(int recordNo) {
+    int pos = bodyOffset(recordNo);
+    int length = VarInts.get(data, pos);
+    pos += VarInts.size(length) + length;
+    pos += VarInts.size(VarInts.get(data, pos));
+    return data.get(pos) == 1;
+  }
+
+  // 인덱스를 사용하지 않고 데이터 파일을 처음부터 끝까지 차례대로 읽는다.
+  // => 레코드 길이를 보고 다음 레코드로 이동한다.
+  public void forEach(Consumer<Member> action) {
+    int pos = MemberRecordWriter.HEADER_SIZE;
+    for (int i = 0; i < count; i++) {
+      int bodySize = VarInts.get(data, pos);
+      int body = pos + VarInts.size(bodySize);
+      action.accept(decode(body));
+      pos = body + bodySize;
+    }
+  }
+
+  private Member decode(int pos) {
+    Member member = new Member();
+    int length = VarInts.get(data, pos);
+    pos += VarInts.size(length);
+    member.name = decodeString(pos, length);
+    pos += length;
+    int age = VarInts.get(data, pos);
+    member.age = VarInts.decodeZigZag(age);
+    pos += VarInts.size(age);
+    member.gender = data.get(pos) == 1;
+    return member;
+  }
+
+  private String decodeString(int pos, int length) {
+    byte[] bytes = new byte[length];
+    data.get(pos, bytes); // 절대 위치에서 읽는다. 버퍼의 position 은 바뀌지 않는다.
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {
+    data = null;
+    index = null;
+    count = 0;
+  }
+}
@@ -0,0 +1,216 @@
+// Member 레코드 저장소 - 쓰기
+//
+// ex05 ~ ex09 의 writeUTF() 방식의 문제점
+// - 문자열의 길이를 1바이트로 출력한다.
+//   => 255 바이트가 넘는 이름은 길이가 잘려서 저장되고, 그 뒤의 데이터를 모두 잘못 읽게 된다.
+// - n 번째 레코드를 읽으려면 처음부터 n-1 개의 레코드를 모두 읽어야 한다.
+//
+// 레코드 저장소 파일 형식
+// 1) 데이터 파일
+//    - 헤더: MAGIC(4바이트) + VERSION(4바이트)
+//    - 레코드: [레코드 길이(varint)][이름 길이(varint)][이름(UTF-8)][나이(zigzag varint)][성별(1바이트)]
+//      => 레코드 앞에 길이를 두면 내용을 해석하지 않고도 다음 레코드로 건너뛸 수 있다.
+// 2) 인덱스 파일
+//    - 레코드마다 데이터 파일에서의 시작 위치(offset)를 8바이트(long)로 저장한다.
+//    - n 번째 레코드의 위치 = 인덱스 파일의 n * 8 위치에 저장된 값
+//      => 레코드 번호로 바로 찾아갈 수 있다. O(1)
+//
+// 쓰기 규칙
+// - 파일의 끝에 추가만 한다. (append-only)
+// - 레코드를 버퍼에 모았다가 버퍼가 차면 한 번에 출력한다.
+// - 데이터를 먼저 출력한 후 인덱스를 출력한다.
+// - force() 는 비용이 크다. 레코드마다 호출하지 않고 syncInterval 개 마다 한 번 호출한다.
+//   => 그 사이에 시스템이 멈추면 마지막 몇 개의 레코드를 잃을 수 있다.
+//   => 다시 열 때 인덱스와 데이터 파일을 비교하여 완전히 저장된 레코드까지만 남긴다.
+package com.eomcs.io.ex16;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MemberRecordWriter implements AutoCloseable {
+
+  public static final int MAGIC = 0x454d5253; // "EMRS"
+  public static final int VERSION = 1;
+  public static final int HEADER_SIZE = 8;
+  public static final int INDEX_ENTRY_SIZE = 8;
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  FileChannel dataChannel;
+  FileChannel indexChannel;
+
+  // 레코드를 모아 두는 버퍼
+  // => 다이렉트 버퍼는 채널에 출력할 때 한 번 더 복사하지 않는다.
+  ByteBuffer dataBuf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  ByteBuffer indexBuf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  long position; // 다음 레코드를 저장할 위치
+  long count; // 저장된 레코드의 개수
+  int syncInterval; // 몇 개의 레코드 마다 force() 를 호출할 지 (0 이면 close() 할 때만)
+  int unsynced;
+
+  public MemberRecordWriter(Path dataFile, Path indexFile) throws IOException {
+    this(dataFile, indexFile, 10_000);
+  }
+
+  public MemberRecordWriter(Path dataFile, Path indexFile, int syncInterval) throws IOException {
+    this.syncInterval = syncInterval;
+    dataChannel = FileChannel.open(dataFile,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    indexChannel = FileChannel.open(indexFile,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    if (dataChannel.size() == 0) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+      writeFully(dataChannel, header, 0);
+      indexChannel.truncate(0);
+      position = HEADER_SIZE;
+    } else {
+      checkHeader(dataChannel);
+      recover();
+    }
+  }
+
+  static void checkHeader(FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    if (channel.read(header, 0) != HEADER_SIZE
+        || header.getInt(0) != MAGIC
+        || header.getInt(4) != VERSION) {
+      throw new IOException("레코드 저장소 파일이 아닙니다.");
+    }
+  }
+
+  // 완전히 저장된 레코드까지만 남긴다.
+  // 1) 인덱스의 마지막 항목이 가리키는 레코드가 데이터 파일에 다 저장되지 않았다면 그 항목을 버린다.
+  // 2) 인덱스에 없는 완전한 레코드가 데이터 파일에 있다면 인덱스에 추가한다.
+  // 3) 데이터 파일 끝에 일부만 저장된 레코드가 있다면 잘라낸다.
+  private void recover() throws IOException {
+    long dataSize = dataChannel.size();
+    count = indexChannel.size() / INDEX_ENTRY_SIZE;
+    position = HEADER_SIZE;
+
+    ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+    while (count > 0) {
+      entry.clear();
+      indexChannel.read(entry, (count - 1) * INDEX_ENTRY_SIZE);
+      long offset = entry.getLong(0);
+      long end = recordEnd(offset, dataSize);
+      if (end != -1) {
+        position = end;
+        break;
+      }
+      count--;
+    }
+
+    long end;
+    while ((end = recordEnd(position, dataSize)) != -1) {
+      entry.clear();
+      entry.putLong(0, position);
+      writeFully(indexChannel, entry, count * INDEX_ENTRY_SIZE);
+      count++;
+      position = end;
+    }
+
+    indexChannel.truncate(count * INDEX_ENTRY_SIZE);
+    dataChannel.truncate(position);
+  }
+
+  // offset 위치의 레코드가 끝나는 위치. 레코드가 완전하지 않다면 -1
+  private long recordEnd(long offset, long dataSize) throws IOException {
+    if (offset < HEADER_SIZE || offset >= dataSize) {
+      return -1;
+    }
+    ByteBuffer lengthBuf = ByteBuffer.allocate(5);
+    dataChannel.read(lengthBuf, offset);
+    lengthBuf.flip();
+    try {
+      int length = VarInts.get(lengthBuf, 0);
+      long end = offset + VarInts.size(length) + length;
+      return end <= dataSize ? end : -1;
+    } catch (IndexOutOfBoundsException | IllegalStateException e) {
+      return -1;
+    }
+  }
+
+  // 레코드를 추가하고 레코드 번호를 리턴한다.
+  public long append(Member member) throws IOException {
+    byte[] name = member.name.getBytes(StandardCharsets.UTF_8);
+    int age = VarInts.encodeZigZag(member.age);
+    int bodySize = VarInts.size(name.length) + name.length + VarInts.size(age) + 1;
+    int recordSize = VarInts.size(bodySize) + bodySize;
+
+    if (recordSize > dataBuf.remaining() || indexBuf.remaining() < INDEX_ENTRY_SIZE) {
+      flushBuffers();
+    }
+    // 버퍼보다 큰 레코드는 그 레코드만 담을 버퍼를 따로 만든다.
+    ByteBuffer buf = recordSize <= dataBuf.remaining() ? dataBuf : ByteBuffer.allocate(recordSize);
+
+    VarInts.put(buf, bodySize);
+    VarInts.put(buf, name.length);
+    buf.put(name);
+    VarInts.put(buf, age);
+    buf.put((byte) (member.gender ? 1 : 0));
+
+    if (buf != dataBuf) {
+      writeFully(dataChannel, buf.flip(), position);
+    }
+
+    indexBuf.putLong(position);
+
+    position += recordSize;
+    long recordNo = count++;
+
+    if (syncInterval > 0 && ++unsynced >= syncInterval) {
+      sync();
+    }
+    return recordNo;
+  }
+
+  public long size() {
+    return count;
+  }
+
+  // 버퍼의 데이터를 파일로 출력한다. 데이터를 먼저 출력한 후 인덱스를 출력한다.
+  public void flushBuffers() throws IOException {
+    if (dataBuf.position() > 0) {
+      dataBuf.flip();
+      long start = position - dataBuf.remaining(); // 버퍼에 모아 둔 레코드의 시작 위치
+      writeFully(dataChannel, dataBuf, start);
+      dataBuf.clear();
+    }
+    if (indexBuf.position() > 0) {
+      indexBuf.flip();
+      long start = (count - indexBuf.remaining() / INDEX_ENTRY_SIZE) * INDEX_ENTRY_SIZE;
+      writeFully(indexChannel, indexBuf, start);
+      indexBuf.clear();
+    }
+  }
+
+  // 버퍼를 비우고 운영체제의 캐시에 있는 데이터를 디스크에 기록한다.
+  public void sync() throws IOException {
+    flushBuffers();
+    dataChannel.force(false);
+    indexChannel.force(false);
+    unsynced = 0;
+  }
+
+  static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      position += channel.write(buf, position);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      sync();
+    } finally {
+      dataChannel.close();
+      indexChannel.close();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+// 레코드 저장소 vs ex07 의 DataBufferedFileOutputStream/DataBufferedFileInputStream
+// - 같은 Member 레코드를 두 방식으로 저장한 후 다음 시간을 비교한다.
+//   1) 쓰기
+//   2) 처음부터 끝까지 차례대로 읽기(full scan)
+//   3) 임의의 레코드 번호로 읽기(random access)
+//      => ex07 방식은 앞의 레코드를 모두 읽어야 하므로 몇 번만 측정하여 평균을 구한다.
+//
+// 실행:
+//   java com.eomcs.io.ex16.RecordStoreBenchmark [레코드 수(기본 3000000)]
+//
+package com.eomcs.io.ex16;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import com.eomcs.io.ex07.DataBufferedFileInputStream;
+import com.eomcs.io.ex07.DataBufferedFileOutputStream;
+
+public class RecordStoreBenchmark {
+
+  static final int RANDOM_READS = 1_000_000;
+  static final int OLD_RANDOM_READS = 20;
+
+  public static void main(String[] args) throws Exception {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+
+    Path oldFile = Paths.get("temp/members-bench.data");
+    Path dataFile = Paths.get("temp/members-bench.rec");
+    Path indexFile = Paths.get("temp/members-bench.idx");
+    Files.createDirectories(dataFile.getParent());
+    Files.deleteIfExists(dataFile);
+    Files.deleteIfExists(indexFile);
+
+    Member[] samples = new Member[1024];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = new Member("회원" + i + "-AB가각간", 20 + i % 50, i % 2 == 0);
+    }
+    System.out.printf("레코드 수: %,d\n\n", count);
+
+    try {
+      // 1) 쓰기
+      long start = System.nanoTime();
+      try (DataBufferedFileOutputStream out = new DataBufferedFileOutputStream(oldFile.toString())) {
+        for (int i = 0; i < count; i++) {
+          Member m = samples[i & 1023];
+          out.writeUTF(m.name);
+          out.writeInt(m.age);
+          out.writeBoolean(m.gender);
+        }
+      }
+      long oldWrite = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      try (MemberRecordWriter out = new MemberRecordWriter(dataFile, indexFile, 100_000)) {
+        for (int i = 0; i < count; i++) {
+          out.append(samples[i & 1023]);
+        }
+      }
+      long newWrite = System.nanoTime() - start;
+
+      print("쓰기", oldWrite, newWrite, count);
+      System.out.printf("%-14s ex07: %,dKB, 레코드 저장소: %,dKB (인덱스 %,dKB)\n", "파일 크기",
+          Files.size(oldFile) / 1024, Files.size(dataFile) / 1024, Files.size(indexFile) / 1024);
+
+      // 2) 차례대로 읽기
+      long ageSum = 0;
+      start = System.nanoTime();
+      try (DataBufferedFileInputStream in = new DataBufferedFileInputStream(oldFile.toString())) {
+        for (int i = 0; i < count; i++) {
+          in.readUTF();
+          ageSum += in.readInt();
+          in.readBoolean();
+        }
+      }
+      long oldScan = System.nanoTime() - start;
+
+      long[] newSum = new long[1];
+      start = System.nanoTime();
+      try (MemberRecordReader in = new MemberRecordReader(dataFile, indexFile)) {
+        in.forEach(m -> newSum[0] += m.age);
+      }
+      long newScan = System.nanoTime() - start;
+      check(ageSum == newSum[0], "읽은 값이 다릅니다.");
+      print("전체 읽기", oldScan, newScan, count);
+
+      // 3) 임의의 레코드 읽기
+      Random random = new Random(0);
+      start = System.nanoTime();
+      for (int r = 0; r < OLD_RANDOM_READS; r++) {
+        int target = random.nextInt(count);
+        try (DataBufferedFileInputStream in = new DataBufferedFileInputStream(oldFile.toString())) {
+          for (int i = 0; i < target; i++) { // 앞의 레코드를 모두 읽어야 한다.
+            in.readUTF();
+            in.readInt();
+            in.readBoolean();
+          }
+          check(in.readUTF().equals(samples[target & 1023].name), "ex07 임의 읽기 오류");
+        }
+      }
+      long oldRandom = (System.nanoTime() - start) / OLD_RANDOM_READS;
+
+      start = System.nanoTime();
+      try (MemberRecordReader in = new MemberRecordReader(dataFile, indexFile)) {
+        for (int r = 0; r < RANDOM_READS; r++) {
+          int target = random.nextInt(count);
+          check(in.getAge(target) == samples[target & 1023].age, "임의 읽기 오류");
+        }
+        int target = random.nextInt(count);
+        check(in.get(target).name.equals(samples[target & 1023].name), "임의 읽기 오류");
+      }
+      long newRandom = (System.nanoTime() - start) / RANDOM_READS;
+
+      System.out.printf("%-14s ex07: %,12.1fus, 레코드 저장소: %,10.3fus (레코드 1개, 평균)\n",
+          "임의 읽기", oldRandom / 1e3, newRandom / 1e3);
+
+    } finally {
+      Files.deleteIfExists(oldFile);
+      Files.deleteIfExists(dataFile);
+      Files.deleteIfExists(indexFile);
+    }
+  }
+
+  static void print(String title, long oldNanos, long newNanos, int count) {
+    System.out.printf("%-14s ex07: %,8dms, 레코드 저장소: %,8dms (%.1f배, %,.0f 레코드/초)\n",
+        title, oldNanos / 1_000_000, newNanos / 1_000_000,
+        (double) oldNanos / newNanos, count / (newNanos / 1e9));
+  }
+
+  static void check(boolean condition, String message) {
+    if (!condition) {
+      throw new IllegalStateException(message);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+// 가변 길이 정수(varint) 인코딩
+// - 한 바이트에 7비트씩 값을 담는다.
+// - 바이트의 최상위 비트(0x80)가 1 이면 다음 바이트에 값이 이어진다는 뜻이다.
+//   예) 5     => 0x05                (1바이트)
+//       300   => 0xac 0x02           (2바이트)
+//       70000 => 0xf0 0xa2 0x04      (3바이트)
+// - 작은 값은 적은 바이트로 저장할 수 있다.
+//   => 문자열 길이는 대부분 127 이하이므로 1바이트면 충분하다.
+//   => 그러면서도 writeUTF() 처럼 길이가 255 를 넘을 때 값이 잘리는 문제가 없다.
+// - 음수는 zigzag 인코딩으로 작은 양수로 바꾼 후 저장한다.
+//   => 0, -1, 1, -2, 2 ... 를 0, 1, 2, 3, 4 ... 로 바꾼다.
+package com.eomcs.io.ex16;
+
+import java.nio.ByteBuffer;
+
+public class VarInts {
+
+  private VarInts() {}
+
+  // 값을 저장할 때 필요한 바이트 수 (1 ~ 5)
+  public static int size(int value) {
+    if ((value & (~0 << 7)) == 0) return 1;
+    if ((value & (~0 << 14)) == 0) return 2;
+    if ((value & (~0 << 21)) == 0) return 3;
+    if ((value & (~0 << 28)) == 0) return 4;
+    return 5;
+  }
+
+  // 버퍼의 현재 위치에 값을 쓴다.
+  public static void put(ByteBuffer buf, int value) {
+    while ((value & ~0x7f) != 0) {
+      buf.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buf.put((byte) value);
+  }
+
+  // 버퍼의 지정한 위치에서 값을 읽는다. 버퍼의 현재 위치(position)는 바꾸지 않는다.
+  // => 읽은 바이트 수는 size(리턴 값)으로 알 수 있다.
+  //    put() 은 항상 가장 짧은 형태로 저장하기 때문이다.
+  public static int get(ByteBuffer buf, int index) {
+    int b = buf.get(index);
+    if (b >= 0) {
+      return b; // 대부분의 값은 1바이트다.
+    }
+    int value = b & 0x7f;
+    for (int shift = 7; shift < 35; shift += 7) {
+      b = buf.get(++index);
+      value |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("잘못된 varint 값입니다.");
+  }
+
+  public static int encodeZigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  public static int decodeZigZag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,398 @@
+// 컴포넌트 인덱스, 생성자 캐시, 지연 생성(lazy singleton)을 적용한 IoC 컨테이너
+//
+// ApplicationContext10 의 문제점
+// - 시작할 때마다 패키지 폴더를 재귀적으로 뒤지고(File.listFiles),
+//   찾은 클래스를 모두 로딩(Class.forName)한 후 @Component 가 붙었는지 검사한다.
+// - 시작할 때 모든 컴포넌트의 객체를 만든다.
+// - 객체를 만들 때마다 Reflection API 로 생성자를 찾는다.
+// => 패키지에 클래스가 많을수록 시작 시간이 길어진다.
+//
+// 개선 방법
+// 1) 컴포넌트 인덱스
+//    - 컴파일할 때 ComponentIndexProcessor 가 META-INF/eomcs.components 파일을 만든다.
+//    - 인덱스 파일이 있으면 폴더를 뒤지지 않고 파일에서 "빈 이름=클래스 이름" 목록을 읽는다.
+//    - 클래스는 객체를 만들 때 로딩한다.
+//    - 인덱스에 기록된 상위 타입 목록으로 타입이 맞는 의존 객체를 찾는다. 다른 클래스를 로딩하지 않는다.
+//    - 인덱스 파일이 없거나 그 패키지의 컴포넌트가 인덱스에 없으면 예전처럼 폴더를 뒤진다.
+// 2) 지연 생성(lazy singleton)
+//    - 시작할 때는 컴포넌트 정보(BeanDefinition)만 등록한다.
+//    - getBean() 으로 처음 요청할 때 객체를 만들고, 그 후로는 만든 객체를 리턴한다.
+// 3) 생성자 캐시
+//    - 클래스마다 사용할 생성자를 한 번만 찾고, MethodHandle 로 바꿔 ClassValue 에 보관한다.
+//    - 같은 클래스를 사용하는 다른 컨테이너도 캐시된 MethodHandle 을 사용한다.
+package com.eomcs.ioc.ex10;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ApplicationContext11 {
+
+  // 컴포넌트를 찾는 방법
+  public enum Mode {
+    AUTO, // 인덱스 파일이 있으면 인덱스를 사용하고, 없으면 폴더를 뒤진다.
+    INDEX, // 인덱스 파일만 사용한다.
+    SCAN // 인덱스 파일을 무시하고 폴더를 뒤진다.
+  }
+
+  // 생성자 파라미터로 값을 정할 수 없는 타입
+  private static final Set<Class<?>> DEFAULT_TYPES = Set.of(
+      byte.class, short.class, int.class, long.class,
+      float.class, double.class, boolean.class, char.class,
+      Byte.class, Short.class, Integer.class, Long.class,
+      Float.class, Double.class, Boolean.class, Character.class,
+      String.class);
+
+  // 클래스마다 사용할 생성자를 한 번만 찾아서 보관한다.
+  // => ClassValue 는 클래스가 언로딩되면 캐시에서도 함께 사라진다.
+  private static final ClassValue<Creator> CREATORS = new ClassValue<>() {
+    @Override
+    protected Creator computeValue(Class<?> type) {
+      return Creator.of(type);
+    }
+  };
+
+  private final ClassLoader classLoader;
+
+  // 빈 이름 => 컴포넌트 정보. 등록 순서를 유지한다.
+  private final Map<String, BeanDefinition> definitions = new LinkedHashMap<>();
+
+  // 클래스 이름 => 컴포넌트 정보 (타입으로 의존 객체를 찾을 때 사용)
+  private final Map<String, BeanDefinition> definitionsByClassName = new LinkedHashMap<>();
+
+  // 빈 이름 => 생성된 객체
+  private final Map<String, Object> objPool = new ConcurrentHashMap<>();
+
+  // 현재 생성 중인 빈 이름 (순환 의존 검사용)
+  private final Set<String> creating = new HashSet<>();
+
+  private boolean indexUsed;
+
+  public ApplicationContext11(String packageName) throws Exception {
+    this(packageName, Mode.AUTO, Thread.currentThread().getContextClassLoader());
+  }
+
+  public ApplicationContext11(String packageName, Mode mode, ClassLoader classLoader)
+      throws Exception {
+    this.classLoader = classLoader;
+
+    if (mode != Mode.SCAN && loadIndex(packageName)) {
+      indexUsed = true;
+      return;
+    }
+    if (mode == Mode.INDEX) {
+      throw new IllegalStateException("컴포넌트 인덱스(" + ComponentIndexProcessor.INDEX_PATH
+          + ")에 " + packageName + " 패키지의 컴포넌트가 없습니다.");
+    }
+
+    // 인덱스 파일이 없거나, 있더라도 이 패키지의 컴포넌트가 없다면 폴더를 뒤진다.
+    // => 오래된 인덱스나 다른 jar 파일의 인덱스 때문에 빈 컨테이너가 되는 것을 막는다.
+    URL url = classLoader.getResource(packageName.replace(".", "/"));
+    if (url == null || !url.getProtocol().equals("file")) {
+      return;
+    }
+    File dir = new File(URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8));
+    if (!dir.isDirectory()) {
+      return;
+    }
+    scan(dir, packageName);
+  }
+
+  // 인덱스 파일에서 그 패키지(하위 패키지 포함)의 컴포넌트 목록을 읽는다.
+  // => 클래스 경로에 인덱스 파일이 여러 개 있을 수 있다. (예: 여러 개의 jar 파일)
+  // => 한 줄의 형식: 빈 이름=클래스 이름;상위 타입,상위 타입,...  (";" 이후는 없을 수 있다)
+  // => 그 패키지의 컴포넌트를 한 개 이상 등록했다면 true 를 리턴한다.
+  private boolean loadIndex(String packageName) throws IOException {
+    String prefix = packageName + ".";
+    int count = 0;
+    Enumeration<URL> indexes = classLoader.getResources(ComponentIndexProcessor.INDEX_PATH);
+    while (indexes.hasMoreElements()) {
+      try (BufferedReader in = new BufferedReader(new InputStreamReader(
+          indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = in.readLine()) != null) {
+          int semicolon = line.indexOf(';');
+          String entry = semicolon == -1 ? line : line.substring(0, semicolon);
+          int eq = entry.lastIndexOf('=');
+          if (eq == -1) {
+            continue;
+          }
+          String className = entry.substring(eq + 1).trim();
+          if (!className.startsWith(prefix)) {
+            continue;
+          }
+          Set<String> typeNames = new HashSet<>();
+          typeNames.add(className);
+          if (semicolon != -1) {
+            for (String supertype : line.substring(semicolon + 1).split(",")) {
+              if (!supertype.isBlank()) {
+                typeNames.add(supertype.trim());
+              }
+            }
+          }
+          register(new BeanDefinition(entry.substring(0, eq).trim(), className, typeNames));
+          count++;
+        }
+      }
+    }
+    return count > 0;
+  }
+
+  // 폴더를 뒤져서 @Component 가 붙은 클래스를 찾는다.
+  private void scan(File dir, String packageName) throws Exception {
+    File[] files = dir.listFiles(pathname -> pathname.isDirectory() || // 디렉토리 이거나
+        (pathname.getName().endsWith(".class") && // .class 파일인 경우
+            !pathname.getName().contains("$"))); // 단 중첩클래스는 제외
+    if (files == null) {
+      return;
+    }
+
+    for (File f : files) {
+      if (f.isDirectory()) {
+        scan(f, packageName + "." + f.getName());
+        continue;
+      }
+
+      String filename = f.getName();
+      // 클래스를 로딩만 하고 초기화(static 블록 실행)는 하지 않는다.
+      Class<?> clazz = Class.forName(
+          packageName + "." + filename.substring(0, filename.length() - 6),
+          false, classLoader);
+
+      Component anno = clazz.getAnnotation(Component.class);
+      if (anno == null
+          || clazz.isInterface()
+          || Modifier.isAbstract(clazz.getModifiers())) {
+        continue;
+      }
+      String name = anno.value().isEmpty() ? clazz.getName() : anno.value();
+      register(new BeanDefinition(name, clazz));
+    }
+  }
+
+  private void register(BeanDefinition definition) {
+    definitions.put(definition.name, definition);
+    definitionsByClassName.put(definition.className, definition);
+  }
+
+  public boolean isIndexUsed() {
+    return indexUsed;
+  }
+
+  public synchronized int getBeanDefinitionCount() {
+    return definitions.size();
+  }
+
+  public synchronized String[] getBeanDefinitionNames() {
+    return definitions.keySet().toArray(new String[0]);
+  }
+
+  // 생성된 객체의 개수
+  public int getSingletonCount() {
+    return objPool.size();
+  }
+
+  public Object getBean(String name) throws Exception {
+    Object obj = objPool.get(name);
+    if (obj != null) {
+      return obj;
+    }
+
+    return createBean(name);
+  }
+
+  private synchronized Object createBean(String name) throws Exception {
+    BeanDefinition definition = definitions.get(name);
+    if (definition == null) {
+      return null;
+    }
+    return getOrCreate(definition);
+  }
+
+  // 모든 컴포넌트의 객체를 미리 만든다. (ApplicationContext10 과 같은 동작)
+  // => 객체를 만드는 중에 컴포넌트가 아닌 의존 객체가 등록될 수 있으므로 목록을 복사해서 사용한다.
+  public synchronized void preInstantiateSingletons() throws Exception {
+    for (BeanDefinition definition : new ArrayList<>(definitions.values())) {
+      getOrCreate(definition);
+    }
+  }
+
+  // 여러 스레드가 동시에 같은 빈을 요청하더라도 객체는 한 번만 만든다.
+  private synchronized Object getOrCreate(BeanDefinition definition) throws Exception {
+    Object obj = objPool.get(definition.name);
+    if (obj != null) {
+      return obj;
+    }
+
+    if (!creating.add(definition.name)) {
+      throw new IllegalStateException("순환 의존 관계: " + creating);
+    }
+    try {
+      obj = createObject(definition.getType(classLoader));
+      objPool.put(definition.name, obj);
+      return obj;
+    } finally {
+      creating.remove(definition.name);
+    }
+  }
+
+  private Object createObject(Class<?> clazz) throws Exception {
+    Creator creator = CREATORS.get(clazz);
+    if (creator.handle == null) {
+      throw new IllegalStateException("객체를 만들 수 있는 생성자가 없습니다: " + clazz.getName());
+    }
+
+    // 생성자의 파라미터 타입에 해당하는 의존 객체를 준비한다.
+    Object[] args = new Object[creator.paramTypes.length];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = findObject(creator.paramTypes[i]);
+    }
+
+    try {
+      return creator.handle.invokeExact(args);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 파라미터 타입에 해당하는 의존 객체를 찾는다.
+  private Object findObject(Class<?> type) throws Exception {
+    // 1) 클래스 이름이 같은 컴포넌트
+    BeanDefinition definition = definitionsByClassName.get(type.getName());
+
+    // 2) 그 타입의 하위 클래스인 컴포넌트
+    //    => 인덱스로 등록한 컴포넌트는 인덱스의 상위 타입 목록과 비교한다. 클래스를 로딩하지 않는다.
+    if (definition == null) {
+      for (BeanDefinition candidate : definitions.values()) {
+        if (candidate.isAssignableTo(type)) {
+          definition = candidate;
+          break;
+        }
+      }
+    }
+
+    // 3) 컴포넌트가 아니라면 그 클래스의 객체를 만들어 클래스 이름으로 등록한다.
+    if (definition == null) {
+      definition = new BeanDefinition(type.getName(), type);
+      register(definition);
+    }
+    return getOrCreate(definition);
+  }
+
+  // 컴포넌트 정보
+  static class BeanDefinition {
+    final String name;
+    final String className;
+    final Set<String> typeNames; // 인덱스로 등록한 경우: 클래스와 상위 타입의 이름
+    volatile Class<?> type; // 인덱스를 사용하면 처음 필요할 때 로딩한다.
+
+    // 폴더를 뒤져서 찾은 컴포넌트 (클래스를 이미 로딩했다)
+    BeanDefinition(String name, Class<?> type) {
+      this.name = name;
+      this.className = type.getName();
+      this.typeNames = null;
+      this.type = type;
+    }
+
+    // 인덱스에서 읽은 컴포넌트 (클래스는 객체를 만들 때 로딩한다)
+    BeanDefinition(String name, String className, Set<String> typeNames) {
+      this.name = name;
+      this.className = className;
+      this.typeNames = typeNames;
+    }
+
+    Class<?> getType(ClassLoader classLoader) throws ClassNotFoundException {
+      Class<?> t = type;
+      if (t == null) {
+        t = Class.forName(className, false, classLoader);
+        type = t;
+      }
+      return t;
+    }
+
+    // 이 컴포넌트의 객체를 그 타입의 변수에 담을 수 있는지 검사한다.
+    boolean isAssignableTo(Class<?> target) {
+      if (typeNames != null) {
+        return typeNames.contains(target.getName());
+      }
+      return target.isAssignableFrom(type);
+    }
+  }
+
+  // 클래스의 객체를 만들 때 사용할 생성자 정보
+  static class Creator {
+    final Class<?>[] paramTypes;
+
+    // (Object[])Object 형태의 MethodHandle
+    // => 파라미터 개수에 상관없이 invokeExact(Object[]) 로 호출할 수 있다.
+    final MethodHandle handle;
+
+    Creator(Class<?>[] paramTypes, MethodHandle handle) {
+      this.paramTypes = paramTypes;
+      this.handle = handle;
+    }
+
+    static Creator of(Class<?> type) {
+      Constructor<?> constructor = selectConstructor(type);
+      if (constructor == null) {
+        return new Creator(new Class<?>[0], null);
+      }
+      try {
+        MethodHandle handle = MethodHandles.publicLookup()
+            .unreflectConstructor(constructor)
+            .asSpreader(Object[].class, constructor.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+        return new Creator(constructor.getParameterTypes(), handle);
+      } catch (IllegalAccessException e) {
+        return new Creator(new Class<?>[0], null);
+      }
+    }
+
+    // 1) 파라미터가 없는 기본 생성자가 있다면 그 생성자를 사용한다.
+    // 2) 없다면, 파라미터가 primitive 타입이나 Wrapper, String 이 아닌 첫 번째 생성자를 사용한다.
+    //    => 그런 타입의 값은 어떤 값을 줘야 하는지 컨테이너가 결정할 수 없다.
+    static Constructor<?> selectConstructor(Class<?> type) {
+      List<Constructor<?>> candidates = new ArrayList<>();
+      for (Constructor<?> constructor : type.getConstructors()) {
+        if (constructor.getParameterCount() == 0) {
+          return constructor;
+        }
+        candidates.add(constructor);
+      }
+      for (Constructor<?> constructor : candidates) {
+        if (!containsDefaultType(constructor)) {
+          return constructor;
+        }
+      }
+      return null;
+    }
+
+    static boolean containsDefaultType(Constructor<?> constructor) {
+      for (Class<?> paramType : constructor.getParameterTypes()) {
+        if (DEFAULT_TYPES.contains(paramType)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+// @Component 애노테이션이 붙은 클래스의 목록(인덱스)을 컴파일할 때 만드는 애노테이션 프로세서
+// - 컴파일러(javac)가 소스 파일을 컴파일하는 중에 이 프로세서를 호출한다.
+// - @Component 가 붙은 클래스를 찾아 "빈 이름=클래스 이름;상위 타입,..." 형식으로 인덱스 파일에 기록한다.
+//   예) car=com.eomcs.ioc.ex10.Car
+//       com.eomcs.ioc.ex10.Engine=com.eomcs.ioc.ex10.Engine
+//       myDao=com.example.MyDaoImpl;com.example.AbstractDao,com.example.MyDao
+//   => 상위 타입(Object 제외한 수퍼 클래스와 인터페이스)을 함께 기록하면
+//      컨테이너는 클래스를 로딩하지 않고도 타입으로 의존 객체를 찾을 수 있다.
+// - 인덱스 파일은 .class 파일과 같은 출력 폴더의 META-INF/eomcs.components 에 저장된다.
+// - ApplicationContext11 은 인덱스 파일이 있으면 폴더를 뒤지는(scan) 대신 이 파일을 읽는다.
+//   => 클래스 파일을 찾고 로딩하는 비용이 없어진다.
+//
+// 사용법:
+//   1) Gradle: build.gradle 의 processor 소스 세트가 이 프로세서를 먼저 컴파일하고,
+//      annotationProcessor 로 지정한다. => ./gradlew compileJava 를 하면 인덱스가 만들어진다.
+//      (src/processor/resources/META-INF/services/javax.annotation.processing.Processor 에 등록)
+//   2) 직접 컴파일할 때는 -processor 옵션으로 프로세서를 지정한다.
+//      > javac -cp <프로세서 경로> -processor com.eomcs.ioc.ex10.ComponentIndexProcessor ...
+//
+// 주의!
+// - 한 번에 컴파일하는 소스 파일만 인덱스에 들어간다.
+//   일부 파일만 다시 컴파일하면 인덱스에서 나머지 컴포넌트가 빠진다.
+//   => 이 프로세서는 증분 컴파일을 지원한다고 선언하지 않았으므로 Gradle 은 항상 전체를 다시 컴파일한다.
+//   => 다른 방법으로 빌드할 때는 전체를 다시 컴파일하거나, 인덱스를 사용하지 않아야 한다.
+package com.eomcs.ioc.ex10;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+@SupportedAnnotationTypes("com.eomcs.ioc.ex10.Component")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+  public static final String INDEX_PATH = "META-INF/eomcs.components";
+
+  // 빈 이름 => 클래스 이름
+  // 컴파일러는 process() 를 여러 번(round) 호출할 수 있다. 마지막 round 에서 한 번에 기록한다.
+  private final Map<String, String> components = new TreeMap<>();
+
+  // 클래스 이름 => ";상위 타입,..." 문자열
+  private final Map<String, String> supertypes = new HashMap<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Component.class)) {
+      if (element.getKind() != ElementKind.CLASS
+          || element.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue; // 객체를 만들 수 없는 타입은 제외한다.
+      }
+      TypeElement type = (TypeElement) element;
+      String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+      String name = type.getAnnotation(Component.class).value();
+      if (name.isEmpty()) {
+        name = className;
+      }
+
+      supertypes.put(className, supertypesOf(type));
+      String old = components.put(name, className);
+      if (old != null && !old.equals(className)) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "컴포넌트 이름 중복: " + name + " (" + old + ", " + className + ")", element);
+      }
+    }
+
+    if (roundEnv.processingOver() && !components.isEmpty()) {
+      writeIndex();
+    }
+    return false; // 다른 프로세서도 @Component 를 처리할 수 있게 한다.
+  }
+
+  // ";상위 타입,상위 타입,..." 형식의 문자열. 상위 타입이 없으면 빈 문자열이다.
+  private String supertypesOf(TypeElement type) {
+    Set<String> names = new LinkedHashSet<>();
+    collectSupertypes(type.asType(), names);
+    return names.isEmpty() ? "" : ";" + String.join(",", names);
+  }
+
+  private void collectSupertypes(TypeMirror type, Set<String> names) {
+    for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+      Element element = processingEnv.getTypeUtils().asElement(supertype);
+      if (!(element instanceof TypeElement)) {
+        continue;
+      }
+      String name = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+      if (!name.equals("java.lang.Object") && names.add(name)) {
+        collectSupertypes(supertype, names);
+      }
+    }
+  }
+
+  private void writeIndex() {
+    try {
+      FileObject file = processingEnv.getFiler().createResource(
+          StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+      try (Writer out = file.openWriter()) {
+        for (Map.Entry<String, String> entry : components.entrySet()) {
+          out.write(entry.getKey() + "=" + entry.getValue()
+              + supertypes.get(entry.getValue()) + "\n");
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "컴포넌트 인덱스 파일을 만들 수 없습니다: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,210 @@
+// IoC 컨테이너 시작 시간 비교 - 폴더 검색(scan) vs 컴포넌트 인덱스(index)
+// - 컴포넌트 클래스 5,000 개와 컴포넌트가 아닌 클래스 1,000 개의 소스 파일을 임시 폴더에 만든다.
+//   => 50 개의 패키지에 컴포넌트를 100 개씩 나눠 둔다.
+//   => 각 패키지에서 N 번째 컴포넌트는 N-1 번째 컴포넌트를 생성자로 주입 받는다.
+// - ComponentIndexProcessor 를 지정하여 컴파일한다. (인덱스 파일이 만들어진다.)
+// - 매번 새 클래스 로더로 컨테이너를 만들어 다음 시간을 잰다.
+//   1) 컨테이너 생성(시작) 시간
+//   2) 처음 getBean() 한 번의 시간 (의존 객체 100 개를 함께 만든다)
+//   3) 모든 컴포넌트의 객체를 만드는 시간 (preInstantiateSingletons)
+//   => 새 클래스 로더를 사용하기 때문에 클래스 로딩 시간도 포함된다.
+//
+// 실행:
+//   java com.eomcs.ioc.ex10.ContainerStartupBenchmark [컴포넌트 수(기본 5000)] [측정 횟수(기본 10)]
+//   => 컴파일러(javac)가 필요하기 때문에 JRE 가 아닌 JDK 로 실행해야 한다.
+//
+package com.eomcs.ioc.ex10;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public class ContainerStartupBenchmark {
+
+  static final String BASE_PACKAGE = "com.eomcs.ioc.ex10.bench";
+  static final int COMPONENTS_PER_PACKAGE = 100;
+  static final int HELPERS_PER_PACKAGE = 20;
+  static final int WARMUP = 3;
+
+  public static void main(String[] args) throws Exception {
+    int componentCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int packageCount = Math.max(1, componentCount / COMPONENTS_PER_PACKAGE);
+
+    Path workDir = Files.createTempDirectory("ioc-bench");
+    try {
+      Path srcDir = workDir.resolve("src");
+      Path classesDir = workDir.resolve("classes");
+
+      System.out.printf("소스 생성: 컴포넌트 %,d개, 일반 클래스 %,d개\n",
+          packageCount * COMPONENTS_PER_PACKAGE, packageCount * HELPERS_PER_PACKAGE);
+      List<File> sources = generateSources(srcDir, packageCount);
+
+      long start = System.nanoTime();
+      compile(sources, classesDir);
+      System.out.printf("컴파일 완료: %,dms (인덱스: %s)\n",
+          (System.nanoTime() - start) / 1_000_000,
+          Files.exists(classesDir.resolve(ComponentIndexProcessor.INDEX_PATH)));
+
+      // 마지막 패키지의 마지막 컴포넌트 => 같은 패키지의 컴포넌트 100 개에 의존한다.
+      String lastBean = componentClassName(packageCount - 1, COMPONENTS_PER_PACKAGE - 1);
+
+      System.out.printf("\n%-6s %12s %14s %16s\n", "방식", "시작(ms)", "첫 getBean(ms)", "전체 생성(ms)");
+      for (ApplicationContext11.Mode mode :
+          new ApplicationContext11.Mode[] {ApplicationContext11.Mode.SCAN,
+              ApplicationContext11.Mode.INDEX}) {
+        measure(mode, classesDir, lastBean, iterations);
+      }
+    } finally {
+      deleteAll(workDir);
+    }
+  }
+
+  static void measure(ApplicationContext11.Mode mode, Path classesDir, String lastBean,
+      int iterations) throws Exception {
+    long[] startup = new long[iterations];
+    long[] firstGet = new long[iterations];
+    long[] all = new long[iterations];
+
+    for (int i = -WARMUP; i < iterations; i++) {
+      try (URLClassLoader loader = new URLClassLoader(
+          new URL[] {classesDir.toUri().toURL()},
+          ApplicationContext11.class.getClassLoader())) {
+
+        long t0 = System.nanoTime();
+        ApplicationContext11 context = new ApplicationContext11(BASE_PACKAGE, mode, loader);
+        long t1 = System.nanoTime();
+        if (context.getBean(lastBean) == null) {
+          throw new IllegalStateException("빈을 찾을 수 없습니다: " + lastBean);
+        }
+        long t2 = System.nanoTime();
+        context.preInstantiateSingletons();
+        long t3 = System.nanoTime();
+
+        if (i >= 0) { // 워밍업 결과는 버린다.
+          startup[i] = t1 - t0;
+          firstGet[i] = t2 - t1;
+          all[i] = t3 - t2;
+        }
+      }
+    }
+
+    System.out.printf("%-6s %12.1f %14.1f %16.1f\n", mode,
+        median(startup) / 1e6, median(firstGet) / 1e6, median(all) / 1e6);
+  }
+
+  static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  static String packageName(int packageNo) {
+    return String.format("%s.p%02d", BASE_PACKAGE, packageNo);
+  }
+
+  static String componentClassName(int packageNo, int no) {
+    return packageName(packageNo) + "." + String.format("Component%03d", no);
+  }
+
+  static List<File> generateSources(Path srcDir, int packageCount) throws IOException {
+    List<File> sources = new ArrayList<>();
+    for (int p = 0; p < packageCount; p++) {
+      String packageName = packageName(p);
+      Path dir = srcDir.resolve(packageName.replace('.', File.separatorChar));
+      Files.createDirectories(dir);
+
+      for (int c = 0; c < COMPONENTS_PER_PACKAGE; c++) {
+        String simpleName = String.format("Component%03d", c);
+        String source;
+        if (c == 0) {
+          source = String.format("""
+              package %s;
+
+              @com.eomcs.ioc.ex10.Component
+              public class %s {
+                public %s() {}
+              }
+              """, packageName, simpleName, simpleName);
+        } else {
+          String dependency = String.format("Component%03d", c - 1);
+          source = String.format("""
+              package %s;
+
+              @com.eomcs.ioc.ex10.Component
+              public class %s {
+                final %s dependency;
+                public %s(%s dependency) {
+                  this.dependency = dependency;
+                }
+              }
+              """, packageName, simpleName, dependency, simpleName, dependency);
+        }
+        sources.add(write(dir, simpleName, source));
+      }
+
+      // 컴포넌트가 아닌 클래스 => 폴더 검색 방식은 이 클래스도 로딩해서 검사해야 한다.
+      for (int h = 0; h < HELPERS_PER_PACKAGE; h++) {
+        String simpleName = String.format("Helper%03d", h);
+        String source = String.format("""
+            package %s;
+
+            public class %s {
+              public int value() { return %d; }
+            }
+            """, packageName, simpleName, h);
+        sources.add(write(dir, simpleName, source));
+      }
+    }
+    return sources;
+  }
+
+  static File write(Path dir, String simpleName, String source) throws IOException {
+    Path file = dir.resolve(simpleName + ".java");
+    Files.writeString(file, source);
+    return file.toFile();
+  }
+
+  static void compile(List<File> sources, Path classesDir) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("JDK 로 실행해야 합니다. (컴파일러를 찾을 수 없습니다)");
+    }
+    Files.createDirectories(classesDir);
+
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(null, null, null)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+      List<String> options = List.of(
+          "-d", classesDir.toString(),
+          "-cp", System.getProperty("java.class.path"),
+          "-proc:full");
+      JavaCompiler.CompilationTask task =
+          compiler.getTask(null, fileManager, null, options, null, units);
+
+      // 애노테이션 프로세서를 지정한다. => META-INF/eomcs.components 파일이 만들어진다.
+      task.setProcessors(List.of(new ComponentIndexProcessor()));
+      if (!task.call()) {
+        throw new IllegalStateException("컴파일 실패!");
+      }
+    }
+  }
+
+  static void deleteAll(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
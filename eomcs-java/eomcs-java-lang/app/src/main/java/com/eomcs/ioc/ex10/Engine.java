@@ -0,0 +1,13 @@
+package com.eomcs.ioc.ex10;
+
+@Component
+public class Engine {
+
+  public Engine() {
+    System.out.println("===> Engine()");
+  }
+
+  public void run() {
+    System.out.println("엔진을 가동한다.");
+  }
+}
@@ -0,0 +1,24 @@
+// IoC 컨테이너 만들기 - 컴포넌트 인덱스와 지연 생성(lazy singleton)
+// - 컴포넌트 인덱스를 만들려면 ComponentIndexProcessor 를 지정하여 컴파일해야 한다.
+//   인덱스 파일이 없으면 ApplicationContext11 은 패키지 폴더를 뒤진다.
+// - 컨테이너를 만들 때는 객체를 생성하지 않는다.
+//   getBean() 으로 요청할 때 그 객체와 의존 객체를 만든다.
+//   => 실행해 보면 Tire() 생성자는 호출되지 않는다.
+package com.eomcs.ioc.ex10;
+
+public class Exam16 {
+
+  public static void main(String[] args) throws Exception {
+    ApplicationContext11 iocContainer = new ApplicationContext11("com.eomcs.ioc.ex10");
+    System.out.printf("컴포넌트 %d개 등록 (인덱스 사용: %b, 생성된 객체: %d개)\n",
+        iocContainer.getBeanDefinitionCount(),
+        iocContainer.isIndexUsed(),
+        iocContainer.getSingletonCount());
+
+    Car car = (Car) iocContainer.getBean("car");
+    car.move();
+
+    System.out.printf("생성된 객체: %d개\n", iocContainer.getSingletonCount());
+    System.out.println(car == iocContainer.getBean("car")); // 같은 객체를 리턴한다.
+  }
+}
@@ -0,0 +1,10 @@
+// getBean() 으로 요청하지 않으면 객체를 만들지 않는다. (lazy singleton)
+package com.eomcs.ioc.ex10;
+
+@Component
+public class Tire {
+
+  public Tire() {
+    System.out.println("===> Tire()");
+  }
+}
@@ -23,13 +23,30 @@ import java.util.concurrent.Executor;
 // proxy를 만든 이유?
 // => close()를 호출할 때 DB 연결을 끊는 대신,
 //    DataSource에 커넥션을 반납하기 위해!
+//
+// 커넥션 풀(DefaultDataSource)이 사용하는 정보도 함께 보관한다.
+// => 언제 빌려 갔는지, 어디에서 빌려 갔는지(누수 탐지용)
+// => 마지막으로 반납되었거나 유효성을 검사한 시각(백그라운드 검사용)
 public class ConnectionProxy implements Connection {
   DataSource dataSource;
   Connection con;
 
+  volatile long borrowedAt; // 빌려 간 시각 (System.nanoTime())
+  volatile Throwable borrowTrace; // 빌려 간 위치. 누수 탐지를 켰을 때만 기록한다.
+  volatile boolean leakReported; // 누수 경고를 이미 출력했는지 여부
+  volatile long lastCheckedAt; // 마지막으로 반납되었거나 유효성을 검사한 시각
+
   public ConnectionProxy(DataSource dataSource, Connection con) {
     this.dataSource = dataSource;
     this.con = con;
+    this.lastCheckedAt = System.nanoTime();
+  }
+
+  // 커넥션을 빌려줄 때 호출한다.
+  void borrowed(boolean recordTrace) {
+    borrowedAt = System.nanoTime();
+    borrowTrace = recordTrace ? new Throwable("커넥션을 빌려 간 위치") : null;
+    leakReported = false;
   }
 
   public <T> T unwrap(Class<T> iface) throws SQLException {
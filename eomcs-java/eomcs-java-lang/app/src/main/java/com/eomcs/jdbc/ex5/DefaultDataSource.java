@@ -1,79 +1,547 @@
 // DB 커넥션 객체를 관리하는 역할
 // => 빌려주는 역할을 수행한다.
+// => 여러 스레드가 동시에 사용해도 안전한 커넥션 풀(connection pool)이다.
+//
+// 커넥션 풀의 규칙
+// 1) 최대 개수(maxSize)
+//    - 커넥션을 maxSize 개 보다 많이 만들지 않는다.
+//    - 모두 빌려준 상태라면 반납될 때까지 기다린다.
+//    - 기다리는 순서대로 빌려준다(공정한 Semaphore).
+//    - 정해진 시간(connectionTimeout) 안에 빌리지 못하면 예외가 발생한다.
+// 2) 최소 개수(minSize)
+//    - 백그라운드 스레드가 커넥션 개수를 minSize 개 이상으로 유지한다.
+//    - 기본 값은 0 이다. 처음 빌려 달라고 할 때 커넥션을 만든다.
+// 3) 노는(idle) 커넥션 보관소
+//    - 락을 사용하지 않는 ConcurrentLinkedDeque 에 보관한다.
+//    - 가장 최근에 반납된 커넥션부터 빌려준다(LIFO).
+//      => 자주 사용하는 커넥션만 계속 사용하고, 오래 노는 커넥션은 백그라운드 검사 대상이 된다.
+// 4) 유효성 검사
+//    - 빌려줄 때는 검사하지 않는다.
+//      백그라운드 스레드가 validationInterval(기본 30초) 이상 놀고 있던 커넥션만 검사한다.
+//    - validationInterval 을 0 으로 지정하면 빌려줄 때마다 isValid() 로 검사한다.
+//      DBMS 에 매번 메시지를 보내야 하므로 빌리는 시간이 길어진다.
+// 5) 백그라운드 스레드
+//    - minSize, validationInterval, leakThreshold 중 하나라도 0 보다 크면 만든다.
+//      (기본 설정에서도 유효성 검사를 위해 만든다.)
+//    - 데몬 스레드이고, close() 를 호출하면 종료한다.
+// 6) 누수(leak) 탐지
+//    - 커넥션을 빌려 간 후 일정 시간(leakThreshold) 안에 반납하지 않으면
+//      빌려 간 위치(스택 정보)와 함께 경고를 출력한다.
+//    - 빌려줄 때마다 스택 정보를 만들어야 하므로 비용이 있다. 0 이면 사용하지 않는다.
+// 7) 상태 정보
+//    - 빌려준(active) 커넥션 개수, 노는(idle) 커넥션 개수, 기다리는 스레드 개수
+//    - 커넥션을 빌리는 데 걸린 시간(평균, 최대), 시간 초과 횟수, 누수 횟수
 package com.eomcs.jdbc.ex5;
 
 import java.io.FileInputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// final 클래스다.
+// => 생성자에서 커넥션을 미리 만들고 백그라운드 작업을 등록하면서 this 를 넘긴다.
+//    서브 클래스가 있다면 그 필드가 초기화되기 전에 this 가 사용될 수 있다.
+public final class DefaultDataSource implements DataSource, AutoCloseable {
+
+  public static final int DEFAULT_MIN_SIZE = 0; // 미리 만들지 않음
+  public static final int DEFAULT_MAX_SIZE = 10;
+  public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 30_000;
+  public static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = 30_000; // 백그라운드 검사
+  public static final long DEFAULT_LEAK_THRESHOLD_MILLIS = 0; // 누수 탐지 안 함
+
+  // 최소 개수 유지만 하는 경우의 백그라운드 작업 간격
+  static final long MIN_SIZE_CHECK_MILLIS = 30_000;
 
-public class DefaultDataSource implements DataSource {
   String driver;
   String jdbcUrl;
   String user;
   String password;
 
-  ArrayList<Connection> conPool = new ArrayList<>();
+  int minSize;
+  int maxSize;
+  long connectionTimeoutMillis;
+  long validationIntervalMillis;
+  long leakThresholdMillis;
+
+  // 노는 커넥션 보관소
+  ConcurrentLinkedDeque<ConnectionProxy> idleConnections = new ConcurrentLinkedDeque<>();
+
+  // 빌려준 커넥션 목록 (누수 탐지와 중복 반납 방지에 사용한다.)
+  Set<ConnectionProxy> activeConnections = ConcurrentHashMap.newKeySet();
+
+  // 만든 커넥션의 개수 (노는 커넥션 + 빌려준 커넥션)
+  AtomicInteger totalCount = new AtomicInteger();
+
+  // 동시에 빌려줄 수 있는 커넥션의 개수 = maxSize
+  // => 공정 모드(fair)로 만들어 먼저 기다린 스레드가 먼저 빌리게 한다.
+  Semaphore permits;
+
+  // 자리(permit)를 얻었지만 보관소가 비어 있고 더 만들 수도 없는 스레드가 기다리는 곳
+  // => 백그라운드 스레드가 검사하려고 꺼내 간 커넥션이 돌아오거나 제거될 때 깨운다.
+  // => 기다리는 스레드가 있을 때만 락을 잡고 깨운다.
+  ReentrantLock lock = new ReentrantLock();
+  Condition available = lock.newCondition();
+  volatile int availableWaiters;
+
+  // 커넥션을 만들거나 다시 사용할 때 메시지를 출력할지 여부
+  volatile boolean verbose = true;
+
+  // 유효성 검사, 최소 개수 유지, 누수 탐지를 수행하는 백그라운드 스레드
+  // => 필요한 경우에만 만든다. 없으면 null 이다.
+  ScheduledExecutorService housekeeper;
+
+  volatile boolean closed;
+
+  // 상태 정보
+  LongAdder acquireCount = new LongAdder();
+  LongAdder acquireNanos = new LongAdder();
+  AtomicLong maxAcquireNanos = new AtomicLong();
+  LongAdder timeoutCount = new LongAdder();
+  LongAdder leakCount = new LongAdder();
+  LongAdder createdCount = new LongAdder();
+  LongAdder destroyedCount = new LongAdder();
 
   // 생성자를 호출할 때 DB 관련 정보를 주지 않는다면,
-  // JVM 프로퍼티에서 찾는다.
+  // jdbc.properties 파일에서 찾는다.
   public DefaultDataSource() throws Exception {
-    Properties props = new Properties();
-    props.load(new FileInputStream("jdbc.properties"));
-    this.driver = props.getProperty("jdbc.driver");
-    this.jdbcUrl = props.getProperty("jdbc.url");
-    this.user = props.getProperty("jdbc.username");
-    this.password = props.getProperty("jdbc.password");
-
-    // JDBC 드라이버 로딩 및 DriverManager에 등록
-    Class.forName(driver); 
-    // Driver 클래스가 로딩될 때 스스로 객체를 자동 생성하여 DriverManager에 등록한다.
+    this(loadProperties("jdbc.properties"));
   }
 
+  private DefaultDataSource(Properties props) throws Exception {
+    this(props.getProperty("jdbc.driver"),
+        props.getProperty("jdbc.url"),
+        props.getProperty("jdbc.username"),
+        props.getProperty("jdbc.password"),
+        Integer.parseInt(props.getProperty("jdbc.pool.minSize",
+            String.valueOf(DEFAULT_MIN_SIZE))),
+        Integer.parseInt(props.getProperty("jdbc.pool.maxSize",
+            String.valueOf(DEFAULT_MAX_SIZE))),
+        Long.parseLong(props.getProperty("jdbc.pool.connectionTimeout",
+            String.valueOf(DEFAULT_CONNECTION_TIMEOUT_MILLIS))),
+        Long.parseLong(props.getProperty("jdbc.pool.validationInterval",
+            String.valueOf(DEFAULT_VALIDATION_INTERVAL_MILLIS))),
+        Long.parseLong(props.getProperty("jdbc.pool.leakThreshold",
+            String.valueOf(DEFAULT_LEAK_THRESHOLD_MILLIS))));
+  }
 
-  public DefaultDataSource(String driver, String jdbcUrl, 
+  public DefaultDataSource(String driver, String jdbcUrl,
       String user, String password) throws Exception {
+    this(driver, jdbcUrl, user, password,
+        DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_CONNECTION_TIMEOUT_MILLIS,
+        DEFAULT_VALIDATION_INTERVAL_MILLIS, DEFAULT_LEAK_THRESHOLD_MILLIS);
+  }
+
+  public DefaultDataSource(String driver, String jdbcUrl,
+      String user, String password,
+      int minSize, int maxSize, long connectionTimeoutMillis,
+      long validationIntervalMillis, long leakThresholdMillis) throws Exception {
+    if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+      throw new IllegalArgumentException(
+          String.format("minSize=%d, maxSize=%d", minSize, maxSize));
+    }
     this.driver = driver;
     this.jdbcUrl = jdbcUrl;
     this.user = user;
     this.password = password;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.connectionTimeoutMillis = connectionTimeoutMillis;
+    this.validationIntervalMillis = validationIntervalMillis;
+    this.leakThresholdMillis = leakThresholdMillis;
+    this.permits = new Semaphore(maxSize, true);
 
     // JDBC 드라이버 로딩 및 DriverManager에 등록
-    Class.forName(driver); 
-    // Driver 클래스가 로딩될 때 스스로 객체를 자동 생성하여 DriverManager에 등록한다. 
+    Class.forName(driver);
+    // Driver 클래스가 로딩될 때 스스로 객체를 자동 생성하여 DriverManager에 등록한다.
+
+    // 최소 개수만큼 미리 만들어 둔다.
+    fillToMinSize();
+
+    if (minSize == 0 && validationIntervalMillis <= 0 && leakThresholdMillis <= 0) {
+      return; // 백그라운드에서 할 일이 없다.
+    }
+    housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "DefaultDataSource-housekeeper");
+      t.setDaemon(true); // 이 스레드 때문에 JVM 이 종료되지 않는 일이 없도록 한다.
+      return t;
+    });
+    long period = housekeepingPeriodMillis();
+    housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
   }
 
+  static Properties loadProperties(String path) throws Exception {
+    Properties props = new Properties();
+    try (FileInputStream in = new FileInputStream(path)) {
+      props.load(in);
+    }
+    return props;
+  }
+
+  @Override
   public Connection getConnection() throws Exception {
-    if (conPool.size() == 0) {
-      // 저장된 커넥션 객체가 없다면, 새로 생성한다.
-      System.out.println("새 연결 객체를 만든다.");
-      return new ConnectionProxy(
-          this,
-          DriverManager.getConnection(jdbcUrl, user, password));
+    if (closed) {
+      throw new SQLException("커넥션 풀이 닫혔습니다.");
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMillis);
+
+    // 빌려줄 수 있는 자리가 날 때까지 기다린다.
+    if (!permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+      timeoutCount.increment();
+      throw new SQLTimeoutException(String.format(
+          "%dms 안에 커넥션을 얻지 못했습니다. (빌려준 커넥션: %d, 기다리는 스레드: %d)",
+          connectionTimeoutMillis, activeConnections.size(), permits.getQueueLength()));
     }
 
-    Connection con = conPool.remove(0);
-    if (con.isClosed() || // 보관소에서 꺼낸 커넥션 객체가 닫혀있거나,
-        !con.isValid(1)) { // 그 연결이 유효하지 않다면, 
-      System.out.println("새 연결 객체를 만든다.");
-      return new ConnectionProxy(
+    try {
+      ConnectionProxy con = takeOrCreate(deadline);
+      con.borrowed(leakThresholdMillis > 0);
+      activeConnections.add(con);
+
+      long elapsed = System.nanoTime() - start;
+      acquireCount.increment();
+      acquireNanos.add(elapsed);
+      maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+      return con;
+
+    } catch (Exception e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  // 노는 커넥션을 꺼낸다. 없으면 새로 만든다.
+  // => 자리(permit)를 얻은 스레드만 호출하기 때문에, 이미 maxSize 개를 만들었다면
+  //    백그라운드 스레드가 검사 중인 커넥션이 곧 보관소에 돌아오거나 제거된다.
+  //    그때까지 기다린다.
+  private ConnectionProxy takeOrCreate(long deadline) throws SQLException, InterruptedException {
+    while (true) {
+      ConnectionProxy con = idleConnections.pollFirst();
+      if (con != null) {
+        if (validationIntervalMillis <= 0 && !isValid(con)) {
+          // 백그라운드 검사를 하지 않는다면 빌려줄 때 검사한다.
+          log("유효하지 않은 연결 객체를 제거한다.");
+          destroy(con);
+          continue;
+        }
+        log("기존 연결 객체를 사용한다.");
+        return con;
+      }
+
+      int total = totalCount.get();
+      if (total < maxSize) {
+        if (totalCount.compareAndSet(total, total + 1)) {
+          return createConnection();
+        }
+        continue;
+      }
+
+      awaitAvailable(deadline);
+    }
+  }
+
+  // 보관소에 커넥션이 들어오거나 커넥션 개수가 줄어들 때까지 기다린다.
+  private void awaitAvailable(long deadline) throws SQLException, InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      availableWaiters++;
+      try {
+        // 기다리는 스레드 수를 먼저 늘린 후 다시 확인한다.
+        // => 그 사이에 상태를 바꾼 스레드는 availableWaiters 를 보고 깨워 준다.
+        if (!idleConnections.isEmpty() || totalCount.get() < maxSize) {
+          return;
+        }
+        long nanos = deadline - System.nanoTime();
+        if (nanos <= 0) {
+          timeoutCount.increment();
+          throw new SQLTimeoutException(String.format(
+              "%dms 안에 커넥션을 얻지 못했습니다. (백그라운드 검사 중인 커넥션을 기다림)",
+              connectionTimeoutMillis));
+        }
+        available.awaitNanos(nanos);
+      } finally {
+        availableWaiters--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // 보관소에 커넥션을 넣거나 커넥션 개수를 줄인 후 호출한다.
+  void signalAvailable() {
+    if (availableWaiters == 0) {
+      return;
+    }
+    lock.lock();
+    try {
+      available.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void log(String message) {
+    if (verbose) {
+      System.out.println(message);
+    }
+  }
+
+  // 커넥션을 만들거나 다시 사용할 때 메시지를 출력할지 정한다.
+  // => 부하 테스트처럼 많이 빌리는 경우에는 끈다.
+  public void setVerbose(boolean verbose) {
+    this.verbose = verbose;
+  }
+
+  // totalCount 를 먼저 증가시킨 후 호출해야 한다.
+  private ConnectionProxy createConnection() throws SQLException {
+    try {
+      log("새 연결 객체를 만든다.");
+      ConnectionProxy con = new ConnectionProxy(
           this,
           DriverManager.getConnection(jdbcUrl, user, password));
+      createdCount.increment();
+      return con;
+    } catch (SQLException | RuntimeException e) {
+      totalCount.decrementAndGet();
+      signalAvailable();
+      throw e;
+    }
+  }
+
+  @Override
+  public void returnConnection(Connection con) {
+    ConnectionProxy proxy = (ConnectionProxy) con;
+
+    // 같은 커넥션에 대해 close() 를 여러 번 호출하더라도 한 번만 반납한다.
+    if (!activeConnections.remove(proxy)) {
+      return;
+    }
+
+    if (closed || !resetState(proxy)) {
+      destroy(proxy);
+    } else {
+      proxy.lastCheckedAt = System.nanoTime();
+      idleConnections.offerFirst(proxy);
+      signalAvailable();
+    }
+    permits.release();
+  }
+
+  // 다음 사용자를 위해 커넥션의 상태를 원래대로 되돌린다.
+  // => 이미 닫힌 커넥션이라면 false 를 리턴한다.
+  private boolean resetState(ConnectionProxy proxy) {
+    try {
+      if (proxy.con.isClosed()) {
+        return false;
+      }
+      if (!proxy.con.getAutoCommit()) {
+        proxy.con.rollback(); // 커밋하지 않은 작업은 취소한다.
+        proxy.con.setAutoCommit(true);
+      }
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void destroy(ConnectionProxy proxy) {
+    totalCount.decrementAndGet();
+    destroyedCount.increment();
+    signalAvailable();
+    try {
+      proxy.con.close(); // 실제 DB 연결을 끊는다.
+    } catch (SQLException e) {
+      // 무시한다.
+    }
+  }
+
+  // 백그라운드 작업의 실행 간격
+  // => 유효성 검사 간격과 누수 탐지 기준 시간 중 짧은 쪽에 맞춘다.
+  // => 둘 다 지정하지 않았다면 최소 개수만 유지하면 된다.
+  private long housekeepingPeriodMillis() {
+    long period = validationIntervalMillis > 0 ? validationIntervalMillis : MIN_SIZE_CHECK_MILLIS;
+    if (leakThresholdMillis > 0) {
+      period = Math.min(period, leakThresholdMillis / 2);
+    }
+    return Math.max(period, 10);
+  }
+
+  void housekeep() {
+    try {
+      validateIdleConnections();
+      fillToMinSize();
+      detectLeaks();
+    } catch (Exception e) {
+      // 예외 때문에 다음 실행이 취소되지 않도록 한다.
+      System.out.println("커넥션 풀 관리 오류 - " + e.getMessage());
+    }
+  }
+
+  // validationInterval 이상 놀고 있던 커넥션의 유효성을 검사한다.
+  // => 가장 오래 놀고 있던 커넥션이 보관소의 끝에 있다.
+  private void validateIdleConnections() {
+    if (validationIntervalMillis <= 0) {
+      return; // 빌려줄 때 검사한다.
+    }
+    long now = System.nanoTime();
+    long interval = TimeUnit.MILLISECONDS.toNanos(validationIntervalMillis);
+    List<ConnectionProxy> checked = new ArrayList<>();
+
+    int count = idleConnections.size();
+    for (int i = 0; i < count && !closed; i++) {
+      ConnectionProxy con = idleConnections.pollLast();
+      if (con == null) {
+        break;
+      }
+      if (now - con.lastCheckedAt < interval) {
+        // 이 커넥션보다 앞에 있는 커넥션은 더 최근에 반납되었다.
+        idleConnections.offerLast(con);
+        signalAvailable();
+        break;
+      }
+
+      if (isValid(con)) {
+        con.lastCheckedAt = System.nanoTime();
+        checked.add(con);
+      } else {
+        log("유효하지 않은 연결 객체를 제거한다.");
+        destroy(con);
+      }
+    }
+
+    // 검사를 통과한 커넥션은 다시 보관소의 끝에 넣는다.
+    for (ConnectionProxy con : checked) {
+      idleConnections.offerLast(con);
+    }
+    signalAvailable();
+  }
+
+  private boolean isValid(ConnectionProxy con) {
+    try {
       // isValid(초)
       // 그 연결이 유효한지 검사하기 위해 DBMS에 간단한 메시지를 보낸다.
       // DBMS 서버에서 1초 이내에 응답이 온다면 유효한 것으로 판단한다.
+      return !con.con.isClosed() && con.con.isValid(1);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void fillToMinSize() throws SQLException {
+    while (!closed) {
+      int total = totalCount.get();
+      if (total >= minSize) {
+        return;
+      }
+      if (totalCount.compareAndSet(total, total + 1)) {
+        idleConnections.offerLast(createConnection());
+        signalAvailable();
+      }
     }
+  }
 
-    System.out.println("기존 연결 객체를 사용한다.");
-    return con;
+  private void detectLeaks() {
+    if (leakThresholdMillis <= 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    long threshold = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+    for (ConnectionProxy con : activeConnections) {
+      if (!con.leakReported && now - con.borrowedAt > threshold) {
+        con.leakReported = true;
+        leakCount.increment();
+        System.out.printf("커넥션 누수 의심: %dms 동안 반납하지 않았습니다.\n",
+            TimeUnit.NANOSECONDS.toMillis(now - con.borrowedAt));
+        if (con.borrowTrace != null) {
+          con.borrowTrace.printStackTrace(System.out);
+        }
+      }
+    }
   }
 
-  public void returnConnection(Connection con) {
-    conPool.add(con);
+  // 커넥션 풀을 닫는다.
+  // => 노는 커넥션은 바로 닫고, 빌려준 커넥션은 반납될 때 닫는다.
+  @Override
+  public void close() {
+    closed = true;
+    if (housekeeper != null) {
+      housekeeper.shutdownNow();
+    }
+    ConnectionProxy con;
+    while ((con = idleConnections.pollFirst()) != null) {
+      destroy(con);
+    }
   }
-}
 
+  public int getActiveCount() {
+    return activeConnections.size();
+  }
+
+  public int getIdleCount() {
+    return idleConnections.size();
+  }
 
+  public int getTotalCount() {
+    return totalCount.get();
+  }
 
+  public int getWaitingCount() {
+    return permits.getQueueLength();
+  }
+
+  public long getAcquireCount() {
+    return acquireCount.sum();
+  }
 
+  public double getAverageAcquireMicros() {
+    long count = acquireCount.sum();
+    return count == 0 ? 0 : acquireNanos.sum() / 1000.0 / count;
+  }
+
+  public double getMaxAcquireMicros() {
+    return maxAcquireNanos.get() / 1000.0;
+  }
+
+  public long getTimeoutCount() {
+    return timeoutCount.sum();
+  }
+
+  public long getLeakCount() {
+    return leakCount.sum();
+  }
+
+  public long getCreatedCount() {
+    return createdCount.sum();
+  }
+
+  public long getDestroyedCount() {
+    return destroyedCount.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "DefaultDataSource[active=%d, idle=%d, total=%d, waiting=%d, "
+            + "acquire=%d, avg=%.1fus, max=%.1fus, timeout=%d, leak=%d, created=%d, destroyed=%d]",
+        getActiveCount(), getIdleCount(), getTotalCount(), getWaitingCount(),
+        getAcquireCount(), getAverageAcquireMicros(), getMaxAcquireMicros(),
+        getTimeoutCount(), getLeakCount(), getCreatedCount(), getDestroyedCount());
+  }
+}
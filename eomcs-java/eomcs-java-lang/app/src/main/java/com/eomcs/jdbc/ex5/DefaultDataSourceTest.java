@@ -0,0 +1,290 @@
+// DefaultDataSource(커넥션 풀) 테스트
+// - 메모리 DB(H2)를 사용하기 때문에 DBMS 서버를 따로 실행할 필요가 없다.
+// - 다음 규칙을 확인한다.
+//   1) 여러 스레드가 동시에 빌리고 반납해도 maxSize 개 보다 많이 만들지 않는다.
+//   2) 모두 빌려준 상태에서는 connectionTimeout 동안 기다린 후 예외가 발생한다.
+//   3) close() 를 여러 번 호출해도 한 번만 반납된다.
+//   4) 끊어진 커넥션은 백그라운드 스레드가 제거하고 minSize 개를 다시 채운다.
+//   5) 오래 반납하지 않은 커넥션은 누수로 보고한다.
+//   6) 기다리는 스레드는 기다린 순서대로 커넥션을 얻는다.
+//   7) 기본 설정은 커넥션을 미리 만들지 않고, 놀고 있는 커넥션을 백그라운드에서 검사한다.
+//      validationInterval 이 0 이면 빌려줄 때 검사한다.
+//   8) 백그라운드 검사 중인 커넥션을 기다리는 스레드는 잠들어 있다가 돌아오면 깨어난다.
+//
+// 실행:
+//   java -cp ...:h2.jar com.eomcs.jdbc.ex5.DefaultDataSourceTest
+//
+package com.eomcs.jdbc.ex5;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultDataSourceTest {
+
+  static final String DRIVER = "org.h2.Driver";
+  static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+  static int failures;
+
+  public static void main(String[] args) throws Exception {
+    testMaxSizeUnderConcurrency();
+    testTimeout();
+    testDoubleClose();
+    testBackgroundValidation();
+    testLeakDetection();
+    testFairness();
+    testDefaultSettings();
+    testWaitForConnectionUnderValidation();
+
+    System.out.println();
+    System.out.println(failures == 0 ? "모든 테스트 통과!" : "실패한 검사: " + failures);
+    if (failures > 0) {
+      System.exit(1);
+    }
+  }
+
+  static DefaultDataSource newDataSource(int minSize, int maxSize, long timeoutMillis,
+      long validationMillis, long leakMillis) throws Exception {
+    return new DefaultDataSource(DRIVER, URL, "sa", "",
+        minSize, maxSize, timeoutMillis, validationMillis, leakMillis);
+  }
+
+  static void check(boolean condition, String message) {
+    System.out.printf("  [%s] %s\n", condition ? "OK" : "실패", message);
+    if (!condition) {
+      failures++;
+    }
+  }
+
+  static void testMaxSizeUnderConcurrency() throws Exception {
+    System.out.println("1) 동시 사용 - 최대 개수 유지");
+    int threads = 64;
+    int loops = 2_000;
+
+    try (DefaultDataSource ds = newDataSource(2, 8, 10_000, 60_000, 0)) {
+      ds.setVerbose(false);
+      AtomicInteger inUse = new AtomicInteger();
+      AtomicInteger peak = new AtomicInteger();
+      AtomicInteger errors = new AtomicInteger();
+
+      long start = System.nanoTime();
+      try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+        for (int t = 0; t < threads; t++) {
+          executor.execute(() -> {
+            for (int i = 0; i < loops; i++) {
+              try (Connection con = ds.getConnection();
+                  PreparedStatement stmt = con.prepareStatement("select 1");
+                  ResultSet rs = stmt.executeQuery()) {
+                peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                rs.next();
+                inUse.decrementAndGet();
+              } catch (Exception e) {
+                errors.incrementAndGet();
+              }
+            }
+          });
+        }
+      }
+      long elapsed = System.nanoTime() - start;
+
+      System.out.printf("  %,d 회 대여: %,dms, %s\n",
+          threads * loops, elapsed / 1_000_000, ds);
+      check(errors.get() == 0, "오류 없음 (" + errors.get() + ")");
+      check(peak.get() <= 8, "동시에 사용한 커넥션 수 <= 8 (" + peak.get() + ")");
+      check(ds.getCreatedCount() <= 8, "만든 커넥션 수 <= 8 (" + ds.getCreatedCount() + ")");
+      check(ds.getActiveCount() == 0, "빌려준 커넥션 없음");
+      check(ds.getIdleCount() == ds.getTotalCount(), "모든 커넥션이 보관소에 있음");
+      check(ds.getAcquireCount() == threads * loops, "대여 횟수 일치");
+    }
+  }
+
+  static void testTimeout() throws Exception {
+    System.out.println("2) 대기 시간 초과");
+    try (DefaultDataSource ds = newDataSource(0, 2, 200, 60_000, 0)) {
+      Connection c1 = ds.getConnection();
+      Connection c2 = ds.getConnection();
+
+      long start = System.nanoTime();
+      boolean timedOut = false;
+      try {
+        ds.getConnection().close();
+      } catch (SQLTimeoutException e) {
+        timedOut = true;
+      }
+      long waited = (System.nanoTime() - start) / 1_000_000;
+
+      check(timedOut, "SQLTimeoutException 발생");
+      check(waited >= 190, "약 200ms 동안 기다림 (" + waited + "ms)");
+      check(ds.getTimeoutCount() == 1, "시간 초과 횟수 1");
+
+      c1.close();
+      Connection c3 = ds.getConnection(); // 반납하면 다시 빌릴 수 있다.
+      check(c3 == c1, "반납된 커넥션을 다시 사용");
+      c2.close();
+      c3.close();
+    }
+  }
+
+  static void testDoubleClose() throws Exception {
+    System.out.println("3) 중복 반납");
+    try (DefaultDataSource ds = newDataSource(0, 4, 1_000, 60_000, 0)) {
+      Connection con = ds.getConnection();
+      con.close();
+      con.close();
+      check(ds.getIdleCount() == 1, "보관소에 한 번만 들어감 (" + ds.getIdleCount() + ")");
+
+      Connection a = ds.getConnection();
+      Connection b = ds.getConnection();
+      check(a != b, "두 사용자가 같은 커넥션을 받지 않음");
+      a.close();
+      b.close();
+    }
+  }
+
+  static void testBackgroundValidation() throws Exception {
+    System.out.println("4) 백그라운드 유효성 검사");
+    try (DefaultDataSource ds = newDataSource(3, 5, 1_000, 100, 0)) {
+      check(ds.getIdleCount() == 3, "최소 개수(3)만큼 미리 만듦");
+
+      // DBMS 쪽에서 연결이 끊긴 상황을 흉내낸다.
+      for (ConnectionProxy con : ds.idleConnections) {
+        con.con.close();
+      }
+
+      Thread.sleep(500);
+      check(ds.getDestroyedCount() == 3, "끊어진 커넥션 제거 (" + ds.getDestroyedCount() + ")");
+      check(ds.getTotalCount() == 3, "최소 개수 다시 채움 (" + ds.getTotalCount() + ")");
+
+      boolean allValid = true;
+      for (ConnectionProxy con : ds.idleConnections) {
+        allValid &= con.con.isValid(1);
+      }
+      check(allValid, "보관소의 커넥션은 모두 유효함");
+
+      // 빌려 간 동안 끊긴 커넥션은 반납할 때 제거한다.
+      Connection con = ds.getConnection();
+      ((ConnectionProxy) con).con.close();
+      con.close();
+      check(ds.getDestroyedCount() == 4, "반납할 때 끊어진 커넥션 제거");
+    }
+  }
+
+  static void testLeakDetection() throws Exception {
+    System.out.println("5) 누수 탐지");
+    try (DefaultDataSource ds = newDataSource(0, 2, 1_000, 60_000, 200)) {
+      Connection con = ds.getConnection();
+      Thread.sleep(600);
+      check(ds.getLeakCount() == 1, "누수 1건 보고 (" + ds.getLeakCount() + ")");
+      con.close();
+
+      con = ds.getConnection();
+      con.close();
+      Thread.sleep(300);
+      check(ds.getLeakCount() == 1, "제때 반납한 커넥션은 보고하지 않음");
+    }
+  }
+
+  static void testFairness() throws Exception {
+    System.out.println("6) 공정한 대기");
+    try (DefaultDataSource ds = newDataSource(0, 1, 5_000, 60_000, 0)) {
+      Connection holder = ds.getConnection();
+      List<Integer> order = new CopyOnWriteArrayList<>();
+      int waiters = 5;
+      CountDownLatch done = new CountDownLatch(waiters);
+
+      for (int i = 0; i < waiters; i++) {
+        int no = i;
+        new Thread(() -> {
+          try {
+            Connection con = ds.getConnection();
+            order.add(no);
+            con.close();
+          } catch (Exception e) {
+            e.printStackTrace();
+          } finally {
+            done.countDown();
+          }
+        }).start();
+
+        // 앞의 스레드가 대기열에 들어갈 때까지 기다린다.
+        while (ds.getWaitingCount() < i + 1) {
+          Thread.sleep(1);
+        }
+      }
+
+      holder.close();
+      done.await();
+      check(order.equals(List.of(0, 1, 2, 3, 4)), "기다린 순서대로 얻음 " + order);
+    }
+  }
+
+  static void testDefaultSettings() throws Exception {
+    System.out.println("7) 기본 설정");
+    try (DefaultDataSource ds = new DefaultDataSource(DRIVER, URL, "sa", "")) {
+      check(ds.getTotalCount() == 0, "커넥션을 미리 만들지 않음");
+      check(ds.validationIntervalMillis == DefaultDataSource.DEFAULT_VALIDATION_INTERVAL_MILLIS
+          && ds.validationIntervalMillis > 0, "유효성 검사 간격 > 0");
+      check(ds.housekeeper != null, "백그라운드에서 유효성 검사");
+
+      Connection con = ds.getConnection();
+      con.close();
+      Connection con2 = ds.getConnection(); // "기존 연결 객체를 사용한다." 출력
+      check(con2 == con, "반납된 커넥션을 다시 사용");
+      con2.close();
+    }
+
+    // validationInterval 이 0 이면 빌려줄 때 검사하므로 끊어진 커넥션은 빌려주지 않는다.
+    try (DefaultDataSource ds = newDataSource(0, DefaultDataSource.DEFAULT_MAX_SIZE,
+        DefaultDataSource.DEFAULT_CONNECTION_TIMEOUT_MILLIS, 0, 0)) {
+      check(ds.housekeeper == null, "검사 간격 0: 백그라운드 스레드를 만들지 않음");
+      ds.getConnection().close();
+      for (ConnectionProxy idle : ds.idleConnections) {
+        idle.con.close();
+      }
+      Connection con3 = ds.getConnection();
+      check(!((ConnectionProxy) con3).con.isClosed(), "끊어진 커넥션 대신 새 커넥션을 빌려줌");
+      con3.close();
+    }
+  }
+
+  static void testWaitForConnectionUnderValidation() throws Exception {
+    System.out.println("8) 검사 중인 커넥션 기다리기");
+    try (DefaultDataSource ds = newDataSource(0, 1, 5_000, 60_000, 0)) {
+      ds.getConnection().close();
+
+      // 백그라운드 스레드가 검사하려고 커넥션을 꺼내 간 상황을 흉내낸다.
+      ConnectionProxy underValidation = ds.idleConnections.pollLast();
+
+      AtomicInteger result = new AtomicInteger();
+      Thread borrower = new Thread(() -> {
+        try (Connection con = ds.getConnection()) {
+          result.set(con == underValidation ? 1 : 2);
+        } catch (Exception e) {
+          e.printStackTrace();
+        }
+      });
+      borrower.start();
+
+      long deadline = System.nanoTime() + 5_000_000_000L;
+      while (borrower.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+      check(borrower.getState() == Thread.State.TIMED_WAITING, "회전하지 않고 잠들어 기다림");
+
+      // 검사를 마치고 보관소에 돌려 놓는다.
+      ds.idleConnections.offerLast(underValidation);
+      ds.signalAvailable();
+      borrower.join(1_000);
+      check(result.get() == 1, "돌아온 커넥션을 빌려 감");
+      check(ds.getCreatedCount() == 1, "커넥션을 더 만들지 않음");
+    }
+  }
+}
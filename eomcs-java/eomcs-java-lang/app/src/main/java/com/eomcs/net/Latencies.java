@@ -0,0 +1,15 @@
+// 부하 테스트 클라이언트가 공통으로 사용하는 응답 시간(latency) 계산 도구
+// - ex11/step14/CalculatorLoadGenerator, ex12/ChatServerSoakTest
+package com.eomcs.net;
+
+public final class Latencies {
+
+  private Latencies() {}
+
+  // 정렬한 배열에서 p 백분위 값을 꺼낸다. (nearest-rank 방식)
+  // 예) p = 99 => 전체의 99% 가 이 값 이하이다.
+  public static long percentile(long[] sorted, double p) {
+    int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+}
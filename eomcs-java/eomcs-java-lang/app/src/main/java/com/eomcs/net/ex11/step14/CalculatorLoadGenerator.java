@@ -0,0 +1,209 @@
+// 계산기 서버 부하 테스트 클라이언트
+// - 여러 클라이언트가 동시에 접속하여 정해진 시간 동안 계속 요청을 보낸다.
+// - 요청마다 응답 시간(latency)을 기록한 후,
+//   초당 처리 요청 수(requests/s)와 응답 시간의 p50, p99 를 출력한다.
+// - 클라이언트 하나에 가상 스레드(virtual thread) 하나를 사용한다.
+//   => 수천 개의 클라이언트를 만들어도 부하 테스트 프로그램이 먼저 지치지 않는다.
+// - 서버 응답에 Content-Length 가 있고 "Connection: close" 가 없으면 연결을 유지하고(keep-alive),
+//   그렇지 않으면 응답을 끝까지 읽은 후 다시 접속한다.
+//   => 13단계 서버(요청마다 연결을 끊음)와 14단계 서버(keep-alive)를 같은 방법으로 측정할 수 있다.
+//
+// 실행:
+//   java com.eomcs.net.ex11.step14.CalculatorLoadGenerator [호스트] [포트] [클라이언트 수] [측정 시간(초)]
+// 예)
+//   13단계 서버: java ...CalculatorLoadGenerator localhost 80 1000 10
+//   14단계 서버: java ...CalculatorLoadGenerator localhost 8888 1000 10
+//
+package com.eomcs.net.ex11.step14;
+
+import static com.eomcs.net.Latencies.percentile;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CalculatorLoadGenerator {
+
+  // 워밍업 시간 동안의 요청은 통계에 넣지 않는다.
+  static final long WARMUP_NANOS = 2_000_000_000L;
+
+  // 클라이언트마다 응답 시간을 기록할 배열의 처음 크기 (부족하면 늘린다)
+  static final int INITIAL_SAMPLES = 1024;
+
+  public static void main(String[] args) throws Exception {
+    String host = args.length > 0 ? args[0] : "localhost";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 8888;
+    int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+    System.out.printf("부하 테스트: %s:%d, 클라이언트 %d개, %d초 (워밍업 %d초)\n",
+        host, port, clients, seconds, WARMUP_NANOS / 1_000_000_000L);
+
+    long[][] samples = new long[clients][];
+    AtomicLong errors = new AtomicLong();
+    AtomicLong connects = new AtomicLong();
+
+    long measureStart = System.nanoTime() + WARMUP_NANOS;
+    long measureEnd = measureStart + seconds * 1_000_000_000L;
+    CountDownLatch done = new CountDownLatch(clients);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < clients; c++) {
+        int clientNo = c;
+        executor.execute(() -> {
+          try {
+            samples[clientNo] = runClient(host, port, measureStart, measureEnd, errors, connects);
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+      done.await();
+    }
+
+    // 모든 클라이언트의 응답 시간을 모아 정렬한다.
+    int total = 0;
+    for (long[] clientSamples : samples) {
+      total += clientSamples.length;
+    }
+    long[] latencies = new long[total];
+    int pos = 0;
+    for (long[] clientSamples : samples) {
+      System.arraycopy(clientSamples, 0, latencies, pos, clientSamples.length);
+      pos += clientSamples.length;
+    }
+    Arrays.sort(latencies);
+
+    System.out.printf("요청 수    : %,d\n", total);
+    System.out.printf("초당 요청 수: %,.0f requests/s\n", total / (double) seconds);
+    if (total > 0) {
+      System.out.printf("p50        : %,.3f ms\n", percentile(latencies, 50) / 1_000_000.0);
+      System.out.printf("p99        : %,.3f ms\n", percentile(latencies, 99) / 1_000_000.0);
+      System.out.printf("최대        : %,.3f ms\n", latencies[total - 1] / 1_000_000.0);
+    }
+    System.out.printf("접속 수     : %,d\n", connects.get());
+    System.out.printf("오류 수     : %,d\n", errors.get());
+  }
+
+  // 측정 시간이 끝날 때까지 요청을 보내고, 측정 구간의 응답 시간 목록을 리턴한다.
+  static long[] runClient(String host, int port, long measureStart, long measureEnd,
+      AtomicLong errors, AtomicLong connects) {
+    long[] samples = new long[INITIAL_SAMPLES];
+    int count = 0;
+    Socket socket = null;
+    InputStream in = null;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    ByteArrayOutputStream lineBuf = new ByteArrayOutputStream();
+
+    while (System.nanoTime() < measureEnd) {
+      try {
+        if (socket == null) {
+          socket = new Socket(host, port);
+          socket.setTcpNoDelay(true);
+          in = new BufferedInputStream(socket.getInputStream());
+          connects.incrementAndGet();
+        }
+
+        byte[] request = String.format(
+            "GET /plus?a=%d&b=%d HTTP/1.1\r\nHost: %s\r\nConnection: keep-alive\r\n\r\n",
+            random.nextInt(1000), random.nextInt(1000), host).getBytes();
+
+        long start = System.nanoTime();
+        OutputStream out = socket.getOutputStream();
+        out.write(request);
+        out.flush();
+        boolean keepAlive = readResponse(in, lineBuf);
+        long end = System.nanoTime();
+
+        if (start >= measureStart && end <= measureEnd) {
+          if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+          }
+          samples[count++] = end - start;
+        }
+
+        if (!keepAlive) {
+          socket.close();
+          socket = null;
+        }
+      } catch (IOException e) {
+        errors.incrementAndGet();
+        closeQuietly(socket);
+        socket = null;
+      }
+    }
+    closeQuietly(socket);
+    return Arrays.copyOf(samples, count);
+  }
+
+  // 응답을 끝까지 읽는다. 연결을 계속 사용할 수 있으면 true 를 리턴한다.
+  static boolean readResponse(InputStream in, ByteArrayOutputStream lineBuf) throws IOException {
+    String statusLine = readLine(in, lineBuf);
+    if (statusLine == null) {
+      throw new IOException("서버가 연결을 끊었습니다.");
+    }
+
+    int contentLength = -1;
+    boolean close = false;
+    String line;
+    while ((line = readLine(in, lineBuf)) != null && !line.isEmpty()) {
+      int colon = line.indexOf(':');
+      if (colon == -1) {
+        continue;
+      }
+      String name = line.substring(0, colon).trim();
+      String value = line.substring(colon + 1).trim();
+      if (name.equalsIgnoreCase("Content-Length")) {
+        contentLength = Integer.parseInt(value);
+      } else if (name.equalsIgnoreCase("Connection") && value.equalsIgnoreCase("close")) {
+        close = true;
+      }
+    }
+
+    if (contentLength >= 0) {
+      in.readNBytes(contentLength);
+      return !close;
+    }
+
+    // Content-Length 가 없으면 서버가 연결을 끊을 때까지 읽어야 한다.
+    in.readAllBytes();
+    return false;
+  }
+
+  // '\n' 까지 읽어서 리턴한다. 끝의 "\r\n" 또는 "\n" 은 제거한다.
+  static String readLine(InputStream in, ByteArrayOutputStream lineBuf) throws IOException {
+    lineBuf.reset();
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == '\n') {
+        byte[] bytes = lineBuf.toByteArray();
+        int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r'
+            ? bytes.length - 1
+            : bytes.length;
+        return new String(bytes, 0, length);
+      }
+      lineBuf.write(b);
+    }
+    return lineBuf.size() > 0 ? lineBuf.toString() : null;
+  }
+
+  static void closeQuietly(Socket socket) {
+    if (socket == null) {
+      return;
+    }
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // 무시한다.
+    }
+  }
+}
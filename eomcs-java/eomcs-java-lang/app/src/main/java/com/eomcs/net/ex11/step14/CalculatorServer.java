@@ -0,0 +1,127 @@
+// 계산기 서버 만들기 - 14단계: NIO Selector 기반 논블로킹(non-blocking) 서버
+// - 13단계는 클라이언트가 접속할 때마다 스레드를 하나씩 만든다.
+//   => 접속 유지(keep-alive) 클라이언트가 수천 개가 되면
+//      스레드 생성 비용과 메모리, 컨텍스트 스위칭 비용 때문에 서버가 버티지 못한다.
+// - 14단계는 하나의 스레드(selector 스레드)가 Selector 를 이용해 모든 소켓을 감시한다.
+//   => 읽을 데이터가 있는 소켓, 쓸 수 있는 소켓만 골라서 처리한다.
+//   => 계산은 작은 크기의 작업자 스레드 풀(worker pool)에 맡긴다.
+// - 요청은 String.split() 대신 ByteBuffer 에서 직접 분석한다. (RequestParser)
+// - HTTP/1.1 keep-alive 를 지원한다.
+//   => 응답에 Content-Length 를 넣어 클라이언트가 응답의 끝을 알 수 있게 한다.
+//   => 하나의 연결로 여러 요청을 처리한다.
+//
+// 실행:
+//   java com.eomcs.net.ex11.step14.CalculatorServer [포트번호(기본 8888)] [작업자 스레드 수]
+// 요청:
+//   http://localhost:8888/plus?a=100&b=200
+//
+package com.eomcs.net.ex11.step14;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class CalculatorServer {
+
+  final Selector selector;
+  final ServerSocketChannel serverChannel;
+  final ExecutorService workers;
+
+  // 작업자 스레드가 응답을 만들면 이 큐에 넣고 selector 스레드를 깨운다.
+  // => 소켓에 쓰는 작업과 SelectionKey 변경은 selector 스레드만 한다.
+  final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+
+  public CalculatorServer(int port, int workerCount) throws IOException {
+    selector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(port), 1024);
+    serverChannel.configureBlocking(false);
+    serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    workers = Executors.newFixedThreadPool(workerCount);
+  }
+
+  public static void main(String[] args) throws Exception {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8888;
+    int workerCount = args.length > 1
+        ? Integer.parseInt(args[1])
+        : Runtime.getRuntime().availableProcessors();
+
+    CalculatorServer server = new CalculatorServer(port, workerCount);
+    System.out.printf("서버 실행 중... (포트: %d, 작업자 스레드: %d)\n", port, workerCount);
+    server.service();
+  }
+
+  public void service() throws IOException {
+    try {
+      while (serverChannel.isOpen()) {
+        selector.select();
+
+        // 작업자 스레드가 계산을 마친 연결의 응답을 보낸다.
+        Connection done;
+        while ((done = completed.poll()) != null) {
+          done.startWrite();
+        }
+
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+          SelectionKey key = it.next();
+          it.remove();
+
+          try {
+            if (!key.isValid()) {
+              continue;
+            }
+            if (key.isAcceptable()) {
+              accept();
+            } else {
+              Connection connection = (Connection) key.attachment();
+              if (key.isReadable()) {
+                connection.read();
+              } else if (key.isWritable()) {
+                connection.write();
+              }
+            }
+          } catch (IOException e) {
+            // 클라이언트가 연결을 끊은 경우 등
+            Connection connection = (Connection) key.attachment();
+            if (connection != null) {
+              connection.close();
+            }
+          }
+        }
+      }
+    } finally {
+      workers.shutdown();
+      selector.close();
+    }
+  }
+
+  public void stop() throws IOException {
+    serverChannel.close();
+    selector.wakeup();
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel;
+    while ((channel = serverChannel.accept()) != null) {
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+      key.attach(new Connection(this, channel, key));
+    }
+  }
+
+  // 작업자 스레드가 응답을 준비했음을 selector 스레드에 알린다.
+  void responseReady(Connection connection) {
+    completed.offer(connection);
+    selector.wakeup();
+  }
+}
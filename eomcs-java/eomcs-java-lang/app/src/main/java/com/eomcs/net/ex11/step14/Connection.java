@@ -0,0 +1,140 @@
+package com.eomcs.net.ex11.step14;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// 역할:
+// - 클라이언트 연결 하나의 상태를 보관한다.
+// - 읽기 버퍼와 쓰기 버퍼를 연결마다 하나씩 만들어 요청이 올 때마다 재사용한다.
+// - 한 연결에서는 한 번에 한 요청만 처리한다.
+//   => 작업자 스레드가 계산하는 동안에는 읽기를 멈추고(interestOps = 0),
+//      응답을 다 보낸 후에 다시 읽는다.
+//   => 그래서 응답 순서가 요청 순서와 같다.
+//
+public class Connection {
+
+  static final int BUFFER_SIZE = 8192;
+
+  private static final byte[] STATUS_OK = "HTTP/1.1 200 OK\r\n".getBytes();
+  private static final byte[] STATUS_BAD_REQUEST = "HTTP/1.1 400 Bad Request\r\n".getBytes();
+  private static final byte[] CONTENT_TYPE =
+      "Content-Type: text/plain;charset=UTF-8\r\n".getBytes();
+  private static final byte[] CONTENT_LENGTH = "Content-Length: ".getBytes();
+  private static final byte[] CONNECTION_CLOSE = "Connection: close\r\n".getBytes();
+  private static final byte[] CRLF = "\r\n".getBytes();
+
+  final CalculatorServer server;
+  final SocketChannel channel;
+  final SelectionKey key;
+
+  final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+  ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+  final Request request = new Request();
+  boolean closeAfterWrite;
+
+  Connection(CalculatorServer server, SocketChannel channel, SelectionKey key) {
+    this.server = server;
+    this.channel = channel;
+    this.key = key;
+  }
+
+  // selector 스레드에서 호출한다.
+  void read() throws IOException {
+    int count = channel.read(in);
+    if (count == -1) {
+      close();
+      return;
+    }
+    dispatch();
+  }
+
+  // 읽기 버퍼에 요청 하나가 다 들어왔으면 작업자 스레드에게 계산을 맡긴다.
+  private void dispatch() {
+    int consumed = RequestParser.parse(in.array(), in.position(), request);
+    if (consumed == -1) {
+      if (!in.hasRemaining()) {
+        // 헤더가 버퍼보다 크다.
+        key.interestOps(0);
+        writeResponse(STATUS_BAD_REQUEST, "요청이 너무 큽니다.", false);
+        startWrite();
+      }
+      return;
+    }
+
+    // 처리한 요청을 버퍼에서 제거한다.
+    // 뒤에 이어서 들어온 요청(pipelining)이 있다면 버퍼 앞으로 옮긴다.
+    in.flip();
+    in.position(consumed);
+    in.compact();
+
+    key.interestOps(0);
+    server.workers.execute(() -> {
+      writeResponse(STATUS_OK, request.compute(), request.keepAlive);
+      server.responseReady(this);
+    });
+  }
+
+  // 작업자 스레드에서 호출한다.
+  // 응답을 쓰기 버퍼에 준비한다. 실제로 소켓에 쓰는 것은 selector 스레드가 한다.
+  private void writeResponse(byte[] status, String message, boolean keepAlive) {
+    byte[] body = message.getBytes(StandardCharsets.UTF_8);
+    byte[] length = Integer.toString(body.length).getBytes();
+
+    int size = status.length + CONTENT_TYPE.length + CONTENT_LENGTH.length + length.length
+        + CRLF.length + CONNECTION_CLOSE.length + CRLF.length + body.length;
+    if (out.capacity() < size) {
+      out = ByteBuffer.allocate(size);
+    }
+
+    out.clear();
+    out.put(status).put(CONTENT_TYPE).put(CONTENT_LENGTH).put(length).put(CRLF);
+    if (!keepAlive) {
+      out.put(CONNECTION_CLOSE);
+    }
+    out.put(CRLF).put(body);
+    out.flip();
+    closeAfterWrite = !keepAlive;
+  }
+
+  // selector 스레드에서 호출한다.
+  void startWrite() {
+    try {
+      write();
+    } catch (IOException e) {
+      close();
+    }
+  }
+
+  // selector 스레드에서 호출한다.
+  void write() throws IOException {
+    channel.write(out);
+    if (out.hasRemaining()) {
+      // 소켓의 송신 버퍼가 꽉 찼다. 쓸 수 있게 되면 다시 알려달라고 한다.
+      key.interestOps(SelectionKey.OP_WRITE);
+      return;
+    }
+
+    if (closeAfterWrite) {
+      close();
+      return;
+    }
+
+    // 다음 요청을 기다린다. 이미 받아 둔 요청이 있다면 바로 처리한다.
+    key.interestOps(SelectionKey.OP_READ);
+    if (in.position() > 0) {
+      dispatch();
+    }
+  }
+
+  void close() {
+    key.cancel();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // 이미 닫힌 경우 무시한다.
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.eomcs.net.ex11.step14;
+
+// 역할:
+// - RequestParser 가 요청 데이터에서 추출한 값을 보관한다.
+// - 연결(Connection)마다 하나씩 만들어 요청이 올 때마다 재사용한다.
+//
+public class Request {
+  String op;       // "+", "-", "*", "/" 또는 "?"
+  int a;
+  int b;
+  boolean keepAlive;
+  String error;    // 요청 형식이 잘못되었을 때 오류 메시지
+
+  void reset() {
+    op = "?";
+    a = 0;
+    b = 0;
+    keepAlive = true;
+    error = null;
+  }
+
+  // 13단계의 compute() 와 같은 결과 메시지를 만든다.
+  String compute() {
+    if (error != null) {
+      return String.format("계산 중 오류 발생! - %s", error);
+    }
+
+    try {
+      int result = 0;
+      switch (op) {
+        case "+": result = a + b; break;
+        case "-": result = a - b; break;
+        case "*": result = a * b; break;
+        case "/": result = a / b; break;
+        default:
+          return "해당 연산자를 지원하지 않습니다.";
+      }
+      return String.format("결과는 %d %s %d = %d 입니다.", a, op, b, result);
+
+    } catch (Exception e) {
+      return String.format("계산 중 오류 발생! - %s", e.getMessage());
+    }
+  }
+}
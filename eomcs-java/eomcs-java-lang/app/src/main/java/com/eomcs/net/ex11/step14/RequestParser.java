@@ -0,0 +1,219 @@
+package com.eomcs.net.ex11.step14;
+
+// 역할:
+// - 소켓에서 읽은 바이트 배열에서 HTTP 요청을 직접 분석한다.
+// - 13단계처럼 요청을 String 으로 바꾼 후 split() 하지 않는다.
+//   => 요청마다 String 객체와 배열 객체를 여러 개 만들지 않는다.
+//
+// 요청 예:
+//   GET /plus?a=100&b=200 HTTP/1.1\r\n
+//   Host: localhost:8888\r\n
+//   Connection: keep-alive\r\n
+//   \r\n
+//
+public class RequestParser {
+
+  private static final byte[] CONNECTION = "connection:".getBytes();
+  private static final byte[] CLOSE = "close".getBytes();
+  private static final byte[] KEEP_ALIVE = "keep-alive".getBytes();
+  private static final byte[] HTTP_1_0 = "HTTP/1.0".getBytes();
+
+  private RequestParser() {}
+
+  // 헤더의 끝(빈 줄)을 찾으면 요청 분석 결과를 request 에 담고
+  // 요청이 차지하는 바이트 수를 리턴한다.
+  // 아직 요청을 다 받지 못했다면 -1 을 리턴한다.
+  public static int parse(byte[] buf, int length, Request request) {
+    int end = findHeaderEnd(buf, length);
+    if (end == -1) {
+      return -1;
+    }
+
+    request.reset();
+
+    int lineEnd = indexOf(buf, 0, end, (byte) '\n');
+    int methodEnd = indexOf(buf, 0, lineEnd, (byte) ' ');
+    if (methodEnd == -1) {
+      request.error = "요청 형식이 올바르지 않습니다.";
+      request.keepAlive = false;
+      return end;
+    }
+
+    // 요청 경로: "/plus"
+    int pathStart = methodEnd + 1;
+    int i = pathStart;
+    while (i < lineEnd && buf[i] != '?' && buf[i] != ' ') {
+      i++;
+    }
+    request.op = operatorOf(buf, pathStart, i);
+
+    // 쿼리 스트링: "a=100&b=200"
+    if (i < lineEnd && buf[i] == '?') {
+      i = parseQuery(buf, i + 1, lineEnd, request);
+    }
+
+    // 프로토콜 버전: HTTP/1.0 은 기본적으로 연결을 유지하지 않는다.
+    if (i < lineEnd && buf[i] == ' ') {
+      request.keepAlive = !startsWith(buf, i + 1, lineEnd, HTTP_1_0, false);
+    }
+
+    // 헤더 중에서 Connection 헤더만 확인한다.
+    for (int lineStart = lineEnd + 1; lineStart < end; ) {
+      int next = indexOf(buf, lineStart, end, (byte) '\n');
+      if (next == -1) {
+        break;
+      }
+      if (startsWith(buf, lineStart, next, CONNECTION, true)) {
+        int v = skipSpaces(buf, lineStart + CONNECTION.length, next);
+        if (startsWith(buf, v, next, CLOSE, true)) {
+          request.keepAlive = false;
+        } else if (startsWith(buf, v, next, KEEP_ALIVE, true)) {
+          request.keepAlive = true;
+        }
+      }
+      lineStart = next + 1;
+    }
+
+    return end;
+  }
+
+  // 빈 줄("\r\n\r\n" 또는 "\n\n") 다음 위치를 리턴한다.
+  static int findHeaderEnd(byte[] buf, int length) {
+    for (int i = 0; i < length; i++) {
+      if (buf[i] != '\n') {
+        continue;
+      }
+      if (i + 1 < length && buf[i + 1] == '\n') {
+        return i + 2;
+      }
+      if (i + 2 < length && buf[i + 1] == '\r' && buf[i + 2] == '\n') {
+        return i + 3;
+      }
+    }
+    return -1;
+  }
+
+  private static int parseQuery(byte[] buf, int start, int end, Request request) {
+    int i = start;
+    while (i < end && buf[i] != ' ') {
+      byte name = buf[i];
+      int nameEnd = i;
+      while (nameEnd < end && buf[nameEnd] != '=' && buf[nameEnd] != '&' && buf[nameEnd] != ' ') {
+        nameEnd++;
+      }
+
+      int valueStart = nameEnd < end && buf[nameEnd] == '=' ? nameEnd + 1 : nameEnd;
+      int valueEnd = valueStart;
+      while (valueEnd < end && buf[valueEnd] != '&' && buf[valueEnd] != ' ') {
+        valueEnd++;
+      }
+
+      if (nameEnd - i == 1 && (name == 'a' || name == 'b')) {
+        try {
+          int value = parseInt(buf, valueStart, valueEnd);
+          if (name == 'a') {
+            request.a = value;
+          } else {
+            request.b = value;
+          }
+        } catch (NumberFormatException e) {
+          request.error = e.getMessage();
+        }
+      }
+
+      i = valueEnd < end && buf[valueEnd] == '&' ? valueEnd + 1 : valueEnd;
+    }
+    return i;
+  }
+
+  // Integer.parseInt() 와 달리 String 객체를 만들지 않고 바이트에서 바로 숫자를 만든다.
+  static int parseInt(byte[] buf, int start, int end) {
+    if (start >= end) {
+      throw new NumberFormatException("For input string: \"\"");
+    }
+    boolean negative = buf[start] == '-';
+    int i = negative || buf[start] == '+' ? start + 1 : start;
+    if (i == end) {
+      throw new NumberFormatException(
+          "For input string: \"" + new String(buf, start, end - start) + "\"");
+    }
+
+    // 음수로 누적해야 Integer.MIN_VALUE 까지 표현할 수 있다.
+    long result = 0;
+    for (; i < end; i++) {
+      int digit = buf[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException(
+            "For input string: \"" + new String(buf, start, end - start) + "\"");
+      }
+      result = result * 10 - digit;
+      if (result < Integer.MIN_VALUE) {
+        throw new NumberFormatException(
+            "For input string: \"" + new String(buf, start, end - start) + "\"");
+      }
+    }
+    if (!negative && result == Integer.MIN_VALUE) {
+      throw new NumberFormatException(
+          "For input string: \"" + new String(buf, start, end - start) + "\"");
+    }
+    return (int) (negative ? result : -result);
+  }
+
+  private static String operatorOf(byte[] buf, int start, int end) {
+    if (equals(buf, start, end, "/plus")) {
+      return "+";
+    } else if (equals(buf, start, end, "/minus")) {
+      return "-";
+    } else if (equals(buf, start, end, "/multiple")) {
+      return "*";
+    } else if (equals(buf, start, end, "/devide")) {
+      return "/";
+    }
+    return "?";
+  }
+
+  private static boolean equals(byte[] buf, int start, int end, String name) {
+    if (end - start != name.length()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (buf[start + i] != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean startsWith(
+      byte[] buf, int start, int end, byte[] prefix, boolean ignoreCase) {
+    if (end - start < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      byte b = buf[start + i];
+      if (ignoreCase && b >= 'A' && b <= 'Z') {
+        b += 'a' - 'A';
+      }
+      if (b != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int skipSpaces(byte[] buf, int start, int end) {
+    while (start < end && (buf[start] == ' ' || buf[start] == '\t')) {
+      start++;
+    }
+    return start;
+  }
+
+  private static int indexOf(byte[] buf, int start, int end, byte value) {
+    for (int i = start; i < end; i++) {
+      if (buf[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
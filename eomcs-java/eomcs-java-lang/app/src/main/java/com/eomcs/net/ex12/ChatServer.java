@@ -1,91 +1,286 @@
+// 채팅 서버
+// - 클라이언트마다 요청 처리 스레드(reader)와 전송 스레드(writer)를 하나씩 둔다.
+// - 다른 클라이언트에게 메시지를 보낼 때 소켓에 직접 쓰지 않고
+//   그 클라이언트의 전송 대기열(outbound queue)에 넣기만 한다.
+//   => 느린 클라이언트가 있어도 다른 클라이언트에게 보내는 작업이 멈추지 않는다.
+//   => 전송 대기열은 크기가 정해져 있다. 가득 차면 정책(OverflowPolicy)에 따라
+//      메시지를 버리거나(DROP) 그 클라이언트의 연결을 끊는다(DISCONNECT).
+// - 클라이언트 목록은 여러 스레드가 동시에 추가/삭제하기 때문에 동시성을 지원하는 Set 을 사용한다.
+// - 가상 스레드(virtual thread) 모드를 지원한다.
+//   => 클라이언트가 수천~수만 개가 되어도 스레드 생성 비용과 메모리 부담이 적다.
+//
+// 실행:
+//   java com.eomcs.net.ex12.ChatServer [포트(기본 8888)] [virtual|platform] [대기열 크기] [drop|disconnect]
+//
 package com.eomcs.net.ex12;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-@SuppressWarnings("rawtypes")
 public class ChatServer {
 
+  // 전송 대기열이 가득 찼을 때의 처리 정책
+  public enum OverflowPolicy {
+    DROP, // 새 메시지를 버린다. 클라이언트는 메시지 일부를 받지 못한다.
+    DISCONNECT // 따라오지 못하는 클라이언트의 연결을 끊는다.
+  }
+
+  public static final String QUIT_MESSAGE = "<![QUIT[]]>";
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
   int port;
-  ArrayList clientOutputStreams = new ArrayList();
+  boolean virtualThreads;
+  int queueCapacity;
+  OverflowPolicy overflowPolicy;
+
+  Set<ClientSession> clients = ConcurrentHashMap.newKeySet();
+  volatile ServerSocket serverSocket;
+
+  // 통계
+  AtomicLong droppedMessages = new AtomicLong();
+  AtomicLong disconnectedClients = new AtomicLong();
 
   public ChatServer(int port) {
+    this(port, false, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP);
+  }
+
+  public ChatServer(int port, boolean virtualThreads, int queueCapacity,
+      OverflowPolicy overflowPolicy) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queueCapacity: " + queueCapacity);
+    }
     this.port = port;
+    this.virtualThreads = virtualThreads;
+    this.queueCapacity = queueCapacity;
+    this.overflowPolicy = overflowPolicy;
   }
 
   public void service() {
-    try (ServerSocket serverSocket = new ServerSocket(this.port)) {
-      System.out.println("서버 실행 중...");
+    // 동시에 많은 클라이언트가 접속할 수 있도록 대기열(backlog)을 넉넉하게 잡는다.
+    try (ServerSocket serverSocket = new ServerSocket(this.port, 1024)) {
+      this.serverSocket = serverSocket;
+      System.out.printf("서버 실행 중... (포트: %d, %s 스레드, 대기열: %d, 정책: %s)\n",
+          port, virtualThreads ? "가상" : "플랫폼", queueCapacity, overflowPolicy);
 
-      while (true) {
-        new RequestHandler(serverSocket.accept()).start();
+      while (!serverSocket.isClosed()) {
+        try {
+          Socket socket = serverSocket.accept();
+          newThread(new RequestHandler(socket));
+        } catch (IOException e) {
+          if (serverSocket.isClosed()) {
+            break; // stop() 이 호출되었다.
+          }
+          // 파일 디스크립터가 부족한 경우(Too many open files) 등
+          // => 서버를 멈추지 않고 잠깐 기다렸다가 다시 접속을 받는다.
+          System.out.println("연결 승인 오류 - " + e.getMessage());
+          Thread.sleep(100);
+        }
       }
 
     } catch (Exception e) {
-      System.out.println("서버 실행 오류 - " + e.getMessage());
+      if (serverSocket == null || !serverSocket.isClosed()) {
+        System.out.println("서버 실행 오류 - " + e.getMessage());
+      }
+    } finally {
+      for (ClientSession client : clients) {
+        client.close();
+      }
+    }
+  }
+
+  public void stop() throws IOException {
+    if (serverSocket != null) {
+      serverSocket.close();
     }
   }
 
-  @SuppressWarnings("unchecked")
+  Thread newThread(Runnable task) {
+    return virtualThreads
+        ? Thread.ofVirtual().start(task)
+        : Thread.ofPlatform().start(task);
+  }
+
+  // 모든 클라이언트의 전송 대기열에 메시지를 넣는다.
+  // - 소켓에 쓰는 일은 각 클라이언트의 전송 스레드가 한다.
+  // - 따라서 이 메서드는 클라이언트 수에 비례하는 시간만 걸리고, 느린 클라이언트 때문에 멈추지 않는다.
   public void sendMessage(String message) {
-    ArrayList deleteStreams = new ArrayList();
+    for (ClientSession client : clients) {
+      client.send(message);
+    }
+  }
+
+  public int getClientCount() {
+    return clients.size();
+  }
 
-    for (int i = 0; i < clientOutputStreams.size(); i++) {
-      DataOutputStream out = (DataOutputStream) clientOutputStreams.get(i);
+  public long getDroppedMessages() {
+    return droppedMessages.get();
+  }
+
+  public long getDisconnectedClients() {
+    return disconnectedClients.get();
+  }
+
+  // 클라이언트 한 개의 연결 정보와 전송 대기열
+  class ClientSession implements Runnable {
+    Socket socket;
+    DataOutputStream out;
+    BlockingQueue<String> outbox = new ArrayBlockingQueue<>(queueCapacity);
+    AtomicBoolean closed = new AtomicBoolean();
+    volatile Thread writer;
+
+    ClientSession(Socket socket) throws IOException {
+      this.socket = socket;
+      this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    void start() {
+      writer = newThread(this);
+      if (closed.get()) {
+        writer.interrupt(); // 전송 스레드를 시작하기 전에 연결이 끊긴 경우
+      }
+    }
+
+    // 전송 대기열에 메시지를 넣는다. 기다리지 않는다.
+    void send(String message) {
+      if (closed.get() || outbox.offer(message)) {
+        return;
+      }
+      if (overflowPolicy == OverflowPolicy.DROP) {
+        droppedMessages.incrementAndGet();
+      } else {
+        System.out.println("전송 대기열 초과로 연결을 끊음: " + socket.getRemoteSocketAddress());
+        disconnectedClients.incrementAndGet();
+        close();
+      }
+    }
+
+    // 종료 메시지는 정책과 상관없이 보낸다. 대기열에 넣을 자리가 없으면 바로 연결을 끊는다.
+    void sendQuit() {
+      if (!outbox.offer(QUIT_MESSAGE)) {
+        close();
+      }
+    }
+
+    // 전송 스레드
+    // - 대기열에 쌓인 메시지를 한꺼번에 꺼내 쓴 후 flush() 를 한 번만 호출한다.
+    //   => 메시지가 몰릴 때 시스템 콜 횟수가 줄어든다.
+    @Override
+    public void run() {
+      List<String> batch = new ArrayList<>();
       try {
-        out.writeUTF(message);
+        while (!closed.get()) {
+          batch.add(outbox.take());
+          outbox.drainTo(batch);
+          for (String message : batch) {
+            out.writeUTF(message);
+            if (message.equals(QUIT_MESSAGE)) {
+              out.flush();
+              return;
+            }
+          }
+          out.flush();
+          batch.clear();
+        }
+      } catch (InterruptedException e) {
+        // close() 가 호출되었다.
       } catch (Exception e) {
-        System.out.println("전송 오류: " + message);
-        deleteStreams.add(out); // 무효한 출력 스트림은 삭제 명단에 등록한다.
+        if (!closed.get()) {
+          System.out.println("전송 오류: " + e.getMessage());
+        }
+      } finally {
+        close();
       }
     }
 
-    for (Object deleteStream : deleteStreams) { // 삭제 명단에 등록된 출력 스트림을 클라이언트 목록에서 제거한다.
-      clientOutputStreams.remove(deleteStream);
+    void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      clients.remove(this); // 메시지 출력 목록에서 연결이 종료된 클라이언트를 제거한다.
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // 무시한다.
+      }
+      if (writer != null && writer != Thread.currentThread()) {
+        writer.interrupt();
+      }
     }
   }
 
-  class RequestHandler extends Thread {
+  class RequestHandler implements Runnable {
     Socket socket;
 
     public RequestHandler(Socket socket) {
       this.socket = socket;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void run() {
-      try (Socket socket2 = socket;
-          DataOutputStream out = new DataOutputStream(socket.getOutputStream());
-          DataInputStream in = new DataInputStream(socket.getInputStream())) {
+      // 소켓은 try-with-resources 로 닫지 않는다.
+      // => 종료 메시지를 보내기 전에 소켓이 닫히지 않도록 전송 스레드(ClientSession)가 닫는다.
+      ClientSession session = null;
+      try {
+        DataInputStream in = new DataInputStream(
+            new BufferedInputStream(socket.getInputStream()));
 
-        clientOutputStreams.add(out);
+        session = new ClientSession(socket);
+        clients.add(session);
+        session.start();
 
         String nickname = in.readUTF();
-
-        out.writeUTF(nickname + " 님 환영합니다!");
-        out.flush();
+        session.send(nickname + " 님 환영합니다!");
 
         while (true) {
           String message = in.readUTF();
           if (message.equals("\\quit")) {
-            out.writeUTF("<![QUIT[]]>"); // 연결을 끊겠다는 특별한 메시지를 클라이언트에게 보낸다.
-            out.flush();
-            clientOutputStreams.remove(out); // 메시지 출력 목록에서 연결이 종료된 클라이언트를 제거한다.
+            // 연결을 끊겠다는 특별한 메시지를 클라이언트에게 보낸다.
+            // 메시지 출력 목록에서 먼저 제거한 후, 전송 스레드가 종료 메시지를 보내고 연결을 닫는다.
+            clients.remove(session);
+            session.sendQuit();
             break;
           }
           sendMessage(String.format("[%s] %s", nickname, message));
         }
       } catch (Exception e) {
-        System.out.println("클라이언트와의 통신 오류! - " + e.getMessage());
+        if (session == null || !session.closed.get()) {
+          System.out.println("클라이언트와의 통신 오류! - " + e.getMessage());
+        }
+        if (session != null) {
+          session.close();
+        } else {
+          try {
+            socket.close();
+          } catch (IOException e2) {
+            // 무시한다.
+          }
+        }
       }
     }
   }
 
   public static void main(String[] args) {
-    new ChatServer(8888).service();
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8888;
+    boolean virtualThreads = args.length > 1 ? args[1].equalsIgnoreCase("virtual") : true;
+    int queueCapacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_QUEUE_CAPACITY;
+    OverflowPolicy policy = args.length > 3
+        ? OverflowPolicy.valueOf(args[3].toUpperCase())
+        : OverflowPolicy.DROP;
+
+    new ChatServer(port, virtualThreads, queueCapacity, policy).service();
   }
 }
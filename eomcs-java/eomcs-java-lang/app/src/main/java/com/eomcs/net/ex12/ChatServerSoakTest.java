@@ -0,0 +1,272 @@
+// 채팅 서버 부하(soak) 테스트
+// - 한 JVM 안에서 ChatServer 를 실행하고, 가상 스레드로 수많은 클라이언트를 접속시킨다.
+// - 보내는 클라이언트(sender) 하나가 일정한 간격으로 메시지를 보내면
+//   서버는 모든 클라이언트에게 그 메시지를 전달(broadcast)한다.
+// - 메시지에는 보낸 시각(System.nanoTime())이 들어 있다.
+//   클라이언트는 받은 시각과의 차이로 전달 지연 시간(latency)을 계산한다.
+//   => 같은 JVM 이라서 nanoTime() 값을 그대로 비교할 수 있다.
+// - 읽기만 하지 않는 느린 클라이언트(slow client)를 섞어서
+//   느린 클라이언트가 다른 클라이언트의 지연 시간에 영향을 주지 않는지 확인한다.
+//   => 대기열 크기를 작게, 메시지 크기를 크게 하면 정책(drop/disconnect)이 동작하는 것을 볼 수 있다.
+//
+// 실행:
+//   java com.eomcs.net.ex12.ChatServerSoakTest [클라이언트 수] [메시지 수] [간격(ms)]
+//        [느린 클라이언트 수] [대기열 크기] [drop|disconnect] [메시지 크기(바이트)] [virtual|platform]
+// 예)
+//   java -Xss256k com.eomcs.net.ex12.ChatServerSoakTest 10000 100 50 10 1024 drop 128 virtual
+//   java com.eomcs.net.ex12.ChatServerSoakTest 1000 500 1 10 16 disconnect 8192 virtual
+//
+// 주의!
+// - 클라이언트마다 소켓 두 개(클라이언트 쪽, 서버 쪽)를 사용한다.
+//   => 10,000 개의 클라이언트라면 파일 디스크립터가 20,000 개 넘게 필요하다. (ulimit -n 확인)
+//
+package com.eomcs.net.ex12;
+
+import static com.eomcs.net.Latencies.percentile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ChatServerSoakTest {
+
+  static final String HOST = "localhost";
+  static final int PORT = 18888;
+  static final String SENDER = "sender";
+
+  // 메시지를 더 이상 받지 못할 때 기다리는 최대 시간
+  static final int READ_TIMEOUT_MILLIS = 10_000;
+
+  public static void main(String[] args) throws Exception {
+    int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int messageCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    int intervalMillis = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+    int slowClientCount = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    int queueCapacity = args.length > 4
+        ? Integer.parseInt(args[4])
+        : ChatServer.DEFAULT_QUEUE_CAPACITY;
+    ChatServer.OverflowPolicy policy = args.length > 5
+        ? ChatServer.OverflowPolicy.valueOf(args[5].toUpperCase())
+        : ChatServer.OverflowPolicy.DROP;
+    int payloadBytes = args.length > 6 ? Integer.parseInt(args[6]) : 128;
+    boolean virtualThreads = args.length > 7 ? args[7].equalsIgnoreCase("virtual") : true;
+
+    System.out.printf("클라이언트 %,d개 (느린 클라이언트 %d개), 메시지 %d개 x %d바이트, 간격 %dms\n",
+        clientCount, slowClientCount, messageCount, payloadBytes, intervalMillis);
+
+    ChatServer server = new ChatServer(PORT, virtualThreads, queueCapacity, policy);
+    Thread serverThread = new Thread(server::service);
+    serverThread.start();
+    while (server.serverSocket == null) {
+      Thread.sleep(10);
+    }
+
+    long[][] latencies = new long[clientCount][];
+    AtomicLongArray lastArrivals = new AtomicLongArray(messageCount);
+    long[] sentTimes = new long[messageCount];
+    AtomicLong errors = new AtomicLong();
+    AtomicLong missing = new AtomicLong();
+    CountDownLatch ready = new CountDownLatch(clientCount + slowClientCount);
+    CountDownLatch done = new CountDownLatch(clientCount);
+    Socket[] slowSockets = new Socket[slowClientCount];
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      // 1) 클라이언트 접속
+      long connectStart = System.nanoTime();
+      for (int i = 0; i < clientCount; i++) {
+        int clientNo = i;
+        executor.execute(() -> {
+          try {
+            latencies[clientNo] = runClient(clientNo, messageCount, ready, lastArrivals, missing);
+          } catch (IOException e) {
+            errors.incrementAndGet();
+            latencies[clientNo] = new long[0];
+            ready.countDown();
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+
+      // 느린 클라이언트는 접속만 하고 메시지를 읽지 않는다.
+      for (int i = 0; i < slowClientCount; i++) {
+        int slowNo = i;
+        executor.execute(() -> {
+          try {
+            Socket socket = new Socket(HOST, PORT);
+            socket.setReceiveBufferSize(4096);
+            slowSockets[slowNo] = socket;
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeUTF("slow" + slowNo);
+            out.flush();
+          } catch (IOException e) {
+            errors.incrementAndGet();
+          } finally {
+            ready.countDown();
+          }
+        });
+      }
+
+      ready.await();
+      System.out.printf("접속 완료: %,dms (서버에 등록된 클라이언트: %,d)\n",
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart),
+          server.getClientCount());
+
+      // 2) 메시지 보내기
+      // - 보낸 클라이언트도 자기 메시지를 받는다. 따로 읽어서 버린다.
+      try (Socket socket = new Socket(HOST, PORT)) {
+        socket.setTcpNoDelay(true);
+        DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(socket.getOutputStream()));
+        DataInputStream in = new DataInputStream(
+            new BufferedInputStream(socket.getInputStream()));
+        out.writeUTF(SENDER);
+        out.flush();
+        executor.execute(() -> drain(in));
+
+        String payload = "x".repeat(payloadBytes);
+        for (int seq = 0; seq < messageCount; seq++) {
+          long now = System.nanoTime();
+          sentTimes[seq] = now;
+          out.writeUTF(seq + " " + now + " " + payload);
+          out.flush();
+          if (intervalMillis > 0) {
+            Thread.sleep(intervalMillis);
+          }
+        }
+
+        done.await();
+        out.writeUTF("\\quit");
+        out.flush();
+      }
+    }
+
+    for (Socket socket : slowSockets) {
+      if (socket != null) {
+        socket.close();
+      }
+    }
+    server.stop();
+    serverThread.join();
+
+    printReport(latencies, lastArrivals, sentTimes, missing.get(), errors.get(), server);
+  }
+
+  // 일반 클라이언트: 메시지를 모두 받을 때까지 읽고, 메시지마다 전달 지연 시간을 기록한다.
+  static long[] runClient(int clientNo, int messageCount, CountDownLatch ready,
+      AtomicLongArray lastArrivals, AtomicLong missing) throws IOException {
+    long[] samples = new long[messageCount];
+    int count = 0;
+    boolean readyNotified = false;
+
+    try (Socket socket = new Socket(HOST, PORT)) {
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+      out.writeUTF("user" + clientNo);
+      out.flush();
+      in.readUTF(); // 환영 메시지
+      ready.countDown();
+      readyNotified = true;
+
+      socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+      String prefix = "[" + SENDER + "] ";
+      while (count < messageCount) {
+        String message;
+        try {
+          message = in.readUTF();
+        } catch (SocketTimeoutException | EOFException e) {
+          break; // 메시지가 버려졌거나 연결이 끊겼다.
+        }
+        long now = System.nanoTime();
+        if (!message.startsWith(prefix)) {
+          continue;
+        }
+        int seqEnd = message.indexOf(' ', prefix.length());
+        int timeEnd = message.indexOf(' ', seqEnd + 1);
+        int seq = Integer.parseInt(message, prefix.length(), seqEnd, 10);
+        long sentTime = Long.parseLong(message, seqEnd + 1, timeEnd, 10);
+        samples[count++] = now - sentTime;
+        lastArrivals.accumulateAndGet(seq, now, Math::max);
+      }
+
+      // 종료를 요청하고 서버가 보내는 종료 메시지를 받은 후 연결을 닫는다.
+      try {
+        out.writeUTF("\\quit");
+        out.flush();
+        drain(in);
+      } catch (IOException e) {
+        // 서버가 이미 연결을 끊었다.
+      }
+    } finally {
+      if (!readyNotified) {
+        ready.countDown();
+      }
+      missing.addAndGet(messageCount - count);
+    }
+    return Arrays.copyOf(samples, count);
+  }
+
+  static void drain(DataInputStream in) {
+    try {
+      while (!in.readUTF().equals(ChatServer.QUIT_MESSAGE)) {
+        // 버린다.
+      }
+    } catch (IOException e) {
+      // 연결이 끊겼다.
+    }
+  }
+
+  static void printReport(long[][] latencies, AtomicLongArray lastArrivals, long[] sentTimes,
+      long missing, long errors, ChatServer server) {
+    int total = 0;
+    for (long[] clientSamples : latencies) {
+      total += clientSamples.length;
+    }
+    long[] all = new long[total];
+    int pos = 0;
+    for (long[] clientSamples : latencies) {
+      System.arraycopy(clientSamples, 0, all, pos, clientSamples.length);
+      pos += clientSamples.length;
+    }
+    Arrays.sort(all);
+
+    // 메시지 한 개가 모든 클라이언트에게 전달될 때까지 걸린 시간
+    long[] fanOut = new long[sentTimes.length];
+    int fanOutCount = 0;
+    for (int seq = 0; seq < sentTimes.length; seq++) {
+      long last = lastArrivals.get(seq);
+      if (last != 0) {
+        fanOut[fanOutCount++] = last - sentTimes[seq];
+      }
+    }
+    fanOut = Arrays.copyOf(fanOut, fanOutCount);
+    Arrays.sort(fanOut);
+
+    System.out.printf("받은 메시지 수       : %,d (못 받은 메시지: %,d)\n", total, missing);
+    if (total > 0) {
+      System.out.printf("전달 지연 p50        : %,.3f ms\n", percentile(all, 50) / 1_000_000.0);
+      System.out.printf("전달 지연 p99        : %,.3f ms\n", percentile(all, 99) / 1_000_000.0);
+      System.out.printf("전달 지연 최대        : %,.3f ms\n", all[total - 1] / 1_000_000.0);
+    }
+    if (fanOutCount > 0) {
+      System.out.printf("전체 전달 완료 p50   : %,.3f ms\n", percentile(fanOut, 50) / 1_000_000.0);
+      System.out.printf("전체 전달 완료 최대   : %,.3f ms\n", fanOut[fanOutCount - 1] / 1_000_000.0);
+    }
+    System.out.printf("버린 메시지 수(서버)  : %,d\n", server.getDroppedMessages());
+    System.out.printf("끊은 연결 수(서버)    : %,d\n", server.getDisconnectedClients());
+    System.out.printf("오류 수              : %,d\n", errors);
+  }
+}
@@ -0,0 +1,297 @@
+// JSON 문자열 방식 vs 스트리밍 방식(JsonStreams)의 메모리 사용량과 처리 속도 비교
+// - Board 객체 n 개(기본 1,000,000개)를 JSON 배열로 파일에 출력(write)하고 다시 읽는다(read).
+//   1) string: toJson()/writeValueAsString() 으로 문자열을 만든 후 파일로 출력한다.
+//              파일 전체를 문자열로 읽은 후 fromJson()/readValue() 로 Board[] 을 만든다.
+//   2) stream: JsonStreams.writeArray() 로 파일에 바로 출력한다.
+//              JsonStreams.streamArray() 로 한 개씩 읽어 처리한다.
+// - 출력할 때는 두 방식 모두 Board 목록을 메모리에 갖고 있다.
+//   => 차이는 JSON 문자열(과 그 바이트 배열)을 만드느냐 여부다.
+// - 최대 RSS(VmHWM)는 프로세스 전체의 최대값이라 되돌릴 수 없다.
+//   그래서 측정 항목마다 JVM 을 새로 띄워 실행한다.
+// - 측정 항목:
+//   할당량/할당 속도 - 측정하는 스레드가 힙에 할당한 바이트 수 (com.sun.management.ThreadMXBean)
+//   최대 힙          - 힙 메모리 풀의 최대 사용량의 합 (측정 전에 초기화한다)
+//   최대 RSS         - /proc/self/status 의 VmHWM (리눅스에서만 출력한다)
+//
+// 실행:
+//   java [-Xmx...] com.eomcs.openapi.json.JsonStreamBenchmark [객체 개수(기본 1000000)]
+//
+package com.eomcs.openapi.json;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class JsonStreamBenchmark {
+
+  static final int OUT_OF_MEMORY = 2; // 자식 JVM 의 종료 코드
+
+  static final String CONTENT =
+      "스트리밍 방식으로 JSON 을 출력하면 전체 문자열을 메모리에 만들 필요가 없다. "
+      + "Streaming JSON output does not need the whole document in memory.";
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 5) {
+      // 자식 JVM: 측정 항목 한 개를 실행한다.
+      run(args[0], args[1], args[2], Integer.parseInt(args[3]), Paths.get(args[4]));
+      return;
+    }
+
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    Files.createDirectories(Paths.get("temp"));
+
+    System.out.printf("객체 개수: %,d\n\n", count);
+    System.out.printf("%-8s %-7s %-6s %8s %12s %12s %10s %10s\n",
+        "라이브러리", "방식", "작업", "시간(ms)", "할당(MB)", "할당(MB/s)", "최대힙(MB)", "최대RSS(MB)");
+
+    for (String library : new String[] {"gson", "jackson"}) {
+      for (String method : new String[] {"string", "stream"}) {
+        Path file = Paths.get("temp/boards-" + library + "-" + method + ".json");
+        if (fork(library, method, "write", count, file)) {
+          fork(library, method, "read", count, file);
+        }
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  // 메모리가 부족해서 실패하면 false 를 리턴한다.
+  static boolean fork(String library, String method, String phase, int count, Path file)
+      throws Exception {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    // -Xmx 등 부모 JVM 의 메모리 옵션을 그대로 사용한다.
+    for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (option.startsWith("-X")) {
+        command.add(option);
+      }
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(JsonStreamBenchmark.class.getName());
+    command.add(library);
+    command.add(method);
+    command.add(phase);
+    command.add(String.valueOf(count));
+    command.add(file.toString());
+
+    Process process = new ProcessBuilder(command).inheritIO().start();
+    int exitCode = process.waitFor();
+    if (exitCode == OUT_OF_MEMORY) {
+      return false;
+    } else if (exitCode != 0) {
+      throw new IllegalStateException(library + "/" + method + "/" + phase + " 실행 실패!");
+    }
+    return true;
+  }
+
+  static void run(String library, String method, String phase, int count, Path file)
+      throws Exception {
+    boolean gson = library.equals("gson");
+    boolean stream = method.equals("stream");
+
+    // 출력할 목록은 측정 전에 만든다.
+    List<?> boards = null;
+    if (phase.equals("write")) {
+      boards = gson ? gsonBoards(count) : jacksonBoards(count);
+    }
+
+    com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        heapPools.add(pool);
+      }
+    }
+
+    System.gc();
+    for (MemoryPoolMXBean pool : heapPools) {
+      pool.resetPeakUsage();
+    }
+    long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+    long start = System.nanoTime();
+
+    try {
+      if (phase.equals("write")) {
+        if (gson) {
+          gsonWrite(boards, stream, file);
+        } else {
+          jacksonWrite(boards, stream, file);
+        }
+      } else {
+        long checksum = gson ? gsonRead(stream, file) : jacksonRead(stream, file);
+        if (checksum != (long) count * (count - 1) / 2) {
+          throw new IllegalStateException(library + "/" + method + ": 읽은 값이 원본과 다릅니다!");
+        }
+      }
+    } catch (OutOfMemoryError e) {
+      // 문자열 방식은 -Xmx 가 작으면 여기에서 실패한다. 그것도 측정 결과다.
+      System.out.printf("%-8s %-7s %-6s %s\n", library, method, phase, "OutOfMemoryError");
+      System.exit(OUT_OF_MEMORY);
+    }
+
+    long elapsed = System.nanoTime() - start;
+    long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    long peakHeap = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      peakHeap += pool.getPeakUsage().getUsed();
+    }
+    long peakRss = peakRss();
+
+    double mb = 1024 * 1024;
+    System.out.printf("%-8s %-7s %-6s %,8d %,12.1f %,12.1f %,10.1f %10s\n",
+        library, method, phase, elapsed / 1_000_000,
+        allocated / mb, allocated / mb / (elapsed / 1e9), peakHeap / mb,
+        peakRss < 0 ? "-" : String.format("%,.1f", peakRss / mb));
+  }
+
+  @SuppressWarnings("unchecked")
+  static void gsonWrite(List<?> boards, boolean stream, Path file) throws Exception {
+    List<com.eomcs.openapi.json.gson.Board> list =
+        (List<com.eomcs.openapi.json.gson.Board>) boards;
+    if (stream) {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+        com.eomcs.openapi.json.gson.JsonStreams.writeArray(
+            list, com.eomcs.openapi.json.gson.Board.class, out);
+      }
+    } else {
+      String json = com.eomcs.openapi.json.gson.JsonStreams.gson().toJson(list);
+      Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  static long gsonRead(boolean stream, Path file) throws Exception {
+    long checksum = 0;
+    if (stream) {
+      try (InputStream in = Files.newInputStream(file);
+          Stream<com.eomcs.openapi.json.gson.Board> boards =
+              com.eomcs.openapi.json.gson.JsonStreams.streamArray(
+                  in, com.eomcs.openapi.json.gson.Board.class)) {
+        checksum = boards.mapToLong(com.eomcs.openapi.json.gson.Board::getNo).sum();
+      }
+    } else {
+      String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      com.eomcs.openapi.json.gson.Board[] boards = com.eomcs.openapi.json.gson.JsonStreams.gson()
+          .fromJson(json, com.eomcs.openapi.json.gson.Board[].class);
+      for (com.eomcs.openapi.json.gson.Board board : boards) {
+        checksum += board.getNo();
+      }
+    }
+    return checksum;
+  }
+
+  @SuppressWarnings("unchecked")
+  static void jacksonWrite(List<?> boards, boolean stream, Path file) throws Exception {
+    List<com.eomcs.openapi.json.jackson.Board> list =
+        (List<com.eomcs.openapi.json.jackson.Board>) boards;
+    if (stream) {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+        com.eomcs.openapi.json.jackson.JsonStreams.writeArray(
+            list, com.eomcs.openapi.json.jackson.Board.class, out);
+      }
+    } else {
+      String json = com.eomcs.openapi.json.jackson.JsonStreams.mapper().writeValueAsString(list);
+      Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  static long jacksonRead(boolean stream, Path file) throws Exception {
+    long checksum = 0;
+    if (stream) {
+      try (InputStream in = Files.newInputStream(file);
+          Stream<com.eomcs.openapi.json.jackson.Board> boards =
+              com.eomcs.openapi.json.jackson.JsonStreams.streamArray(
+                  in, com.eomcs.openapi.json.jackson.Board.class)) {
+        checksum = boards.mapToLong(com.eomcs.openapi.json.jackson.Board::getNo).sum();
+      }
+    } else {
+      String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      com.eomcs.openapi.json.jackson.Board[] boards = com.eomcs.openapi.json.jackson.JsonStreams
+          .mapper().readValue(json, com.eomcs.openapi.json.jackson.Board[].class);
+      for (com.eomcs.openapi.json.jackson.Board board : boards) {
+        checksum += board.getNo();
+      }
+    }
+    return checksum;
+  }
+
+  // 작성자는 100명을 돌려 가며 사용한다.
+  static List<com.eomcs.openapi.json.gson.Board> gsonBoards(int count) {
+    com.eomcs.openapi.json.gson.Member[] writers = new com.eomcs.openapi.json.gson.Member[100];
+    for (int i = 0; i < writers.length; i++) {
+      writers[i] = new com.eomcs.openapi.json.gson.Member();
+      writers[i].setNo(i);
+      writers[i].setName("회원" + i);
+      writers[i].setEmail("user" + i + "@test.com");
+      writers[i].setRegisteredDate(Date.valueOf("2024-01-01"));
+    }
+
+    List<com.eomcs.openapi.json.gson.Board> boards = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      com.eomcs.openapi.json.gson.Board board = new com.eomcs.openapi.json.gson.Board();
+      board.setNo(i);
+      board.setTitle("제목" + i);
+      board.setContent(CONTENT);
+      board.setWriter(writers[i % writers.length]);
+      board.setRegisteredDate(Date.valueOf("2024-03-01"));
+      board.setViewCount(i % 1000);
+      board.setLike(i % 100);
+      boards.add(board);
+    }
+    return boards;
+  }
+
+  static List<com.eomcs.openapi.json.jackson.Board> jacksonBoards(int count) {
+    com.eomcs.openapi.json.jackson.Member[] writers =
+        new com.eomcs.openapi.json.jackson.Member[100];
+    for (int i = 0; i < writers.length; i++) {
+      writers[i] = new com.eomcs.openapi.json.jackson.Member();
+      writers[i].setNo(i);
+      writers[i].setName("회원" + i);
+      writers[i].setEmail("user" + i + "@test.com");
+      writers[i].setRegisteredDate(Date.valueOf("2024-01-01"));
+    }
+
+    List<com.eomcs.openapi.json.jackson.Board> boards = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      com.eomcs.openapi.json.jackson.Board board = new com.eomcs.openapi.json.jackson.Board();
+      board.setNo(i);
+      board.setTitle("제목" + i);
+      board.setContent(CONTENT);
+      board.setWriter(writers[i % writers.length]);
+      board.setRegisteredDate(Date.valueOf("2024-03-01"));
+      board.setViewCount(i % 1000);
+      board.setLike(i % 100);
+      boards.add(board);
+    }
+    return boards;
+  }
+
+  // 리눅스가 아니면 -1 을 리턴한다.
+  static long peakRss() throws Exception {
+    File status = new File("/proc/self/status");
+    if (!status.exists()) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status.toPath())) {
+      if (line.startsWith("VmHWM:")) {
+        // 예) "VmHWM:     123456 kB"
+        return Long.parseLong(line.substring(6).trim().split("\\s+")[0]) * 1024;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,144 @@
+// 스트리밍 방식으로 JSON 배열 출력하기/읽기 - Gson
+//
+// new Gson().toJson(list) 방식의 문제점
+// - 목록 전체를 JSON 문자열 한 개로 만든다.
+//   => 객체 목록과 같은 크기(또는 그 이상)의 문자열이 힙에 추가로 만들어진다.
+//   => 그 문자열을 다시 바이트 배열로 바꾸면서 한 번 더 복사한다.
+// - fromJson(문자열, Board[].class) 은 모든 객체를 만든 후에야 리턴한다.
+// - 호출할 때마다 Gson 객체를 새로 만들면 타입 어댑터를 매번 다시 준비한다.
+//
+// JsonStreams
+// - Gson 객체는 한 개만 만들어 재사용한다. (Gson 은 여러 스레드에서 동시에 사용해도 된다)
+// - 출력: JsonWriter 로 '[' 를 출력한 후, 객체를 한 개씩 바로 OutputStream 으로 출력한다.
+// - 읽기: JsonReader 로 '[' 를 읽은 후, 요청할 때마다 객체를 한 개씩 읽는다.
+//   => 한 번에 한 개의 객체만 메모리에 있으면 된다.
+//
+package com.eomcs.openapi.json.gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+public class JsonStreams {
+
+  private static final Gson GSON = new Gson();
+
+  public static Gson gson() {
+    return GSON;
+  }
+
+  // 목록의 객체를 JSON 배열 형식으로 출력한다.
+  // => OutputStream 은 닫지 않는다. 출력한 후 flush() 만 호출한다.
+  public static <T> void writeArray(Iterable<? extends T> items, Class<T> type, OutputStream out)
+      throws IOException {
+    // 타입 어댑터는 Gson 이 캐시하지만, 객체마다 찾지 않도록 한 번만 꺼내 둔다.
+    TypeAdapter<T> adapter = GSON.getAdapter(type);
+
+    JsonWriter writer = GSON.newJsonWriter(
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024));
+    writer.beginArray();
+    for (T item : items) {
+      adapter.write(writer, item);
+    }
+    writer.endArray();
+    writer.flush();
+  }
+
+  // JSON 배열의 항목을 한 개씩 읽는 Iterator 를 리턴한다.
+  // => 마지막 항목을 읽으면 InputStream 을 닫는다.
+  public static <T> ArrayIterator<T> readArray(InputStream in, Class<T> type) throws IOException {
+    return new ArrayIterator<>(in, GSON.getAdapter(type));
+  }
+
+  // JSON 배열의 항목을 한 개씩 읽는 Stream 을 리턴한다.
+  // => try-with-resources 로 Stream 을 닫으면 InputStream 도 닫힌다.
+  // => 배열에 null 항목([{...}, null])이 있으면 null 이 나온다. 그래서 NONNULL 특성은 지정하지 않는다.
+  public static <T> Stream<T> streamArray(InputStream in, Class<T> type) throws IOException {
+    ArrayIterator<T> iterator = readArray(in, type);
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+        false).onClose(iterator::close);
+  }
+
+  public static class ArrayIterator<T> implements Iterator<T>, AutoCloseable {
+    final JsonReader reader;
+    final TypeAdapter<T> adapter;
+    boolean closed;
+
+    ArrayIterator(InputStream in, TypeAdapter<T> adapter) throws IOException {
+      this.reader = GSON.newJsonReader(
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+      this.adapter = adapter;
+      try {
+        reader.beginArray();
+      } catch (IOException | RuntimeException e) {
+        reader.close();
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed) {
+        return false;
+      }
+      try {
+        if (reader.hasNext()) {
+          return true;
+        }
+        reader.endArray();
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+          throw new IOException("JSON 배열 뒤에 다른 데이터가 있습니다.");
+        }
+        close();
+        return false;
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        return adapter.read(reader);
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        reader.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+// 스트리밍 방식으로 JSON 배열 출력하기/읽기 - Jackson
+//
+// mapper.writeValueAsString(list) 방식의 문제점
+// - 목록 전체를 JSON 문자열 한 개로 만든다.
+//   => 객체 목록과 같은 크기(또는 그 이상)의 문자열이 힙에 추가로 만들어진다.
+// - readValue(문자열, Board[].class) 는 모든 객체를 만든 후에야 리턴한다.
+// - 호출할 때마다 ObjectMapper 를 새로 만들면 직렬화 정보(serializer/deserializer)를 매번 다시 준비한다.
+//   => ObjectMapper 는 만드는 비용이 크다. 한 번 만들어 재사용해야 한다.
+//
+// JsonStreams
+// - ObjectMapper 는 한 개만 만들고, 타입 별 ObjectWriter/ObjectReader 를 꺼내 사용한다.
+//   (모두 여러 스레드에서 동시에 사용해도 된다)
+// - 출력: JsonGenerator 로 '[' 를 출력한 후, 객체를 한 개씩 바로 OutputStream 으로 출력한다.
+// - 읽기: JsonParser 로 '[' 를 읽은 후, 요청할 때마다 객체를 한 개씩 읽는다.
+//   => 한 번에 한 개의 객체만 메모리에 있으면 된다.
+//
+package com.eomcs.openapi.json.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+public class JsonStreams {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public static ObjectMapper mapper() {
+    return MAPPER;
+  }
+
+  // 목록의 객체를 JSON 배열 형식으로 출력한다.
+  // => OutputStream 은 닫지 않는다. 출력한 후 flush() 만 호출한다.
+  public static <T> void writeArray(Iterable<? extends T> items, Class<T> type, OutputStream out)
+      throws IOException {
+    // 기본 설정은 객체를 한 개 출력할 때마다 flush() 를 호출한다. 마지막에 한 번만 호출하게 한다.
+    ObjectWriter writer = MAPPER.writerFor(type)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // out 을 닫지 않는다.
+      generator.writeStartArray();
+      for (T item : items) {
+        writer.writeValue(generator, item);
+      }
+      generator.writeEndArray();
+    }
+    out.flush();
+  }
+
+  // JSON 배열의 항목을 한 개씩 읽는 Iterator 를 리턴한다.
+  // => 마지막 항목을 읽으면 InputStream 을 닫는다.
+  public static <T> ArrayIterator<T> readArray(InputStream in, Class<T> type) throws IOException {
+    return new ArrayIterator<>(MAPPER.getFactory().createParser(in), MAPPER.readerFor(type));
+  }
+
+  // JSON 배열의 항목을 한 개씩 읽는 Stream 을 리턴한다.
+  // => try-with-resources 로 Stream 을 닫으면 InputStream 도 닫힌다.
+  // => 배열에 null 항목([{...}, null])이 있으면 null 이 나온다. 그래서 NONNULL 특성은 지정하지 않는다.
+  public static <T> Stream<T> streamArray(InputStream in, Class<T> type) throws IOException {
+    ArrayIterator<T> iterator = readArray(in, type);
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+        false).onClose(iterator::close);
+  }
+
+  public static class ArrayIterator<T> implements Iterator<T>, AutoCloseable {
+    final JsonParser parser;
+    final ObjectReader reader;
+    boolean ready; // 다음 항목의 첫 토큰을 이미 읽었는지 여부
+    boolean closed;
+
+    ArrayIterator(JsonParser parser, ObjectReader reader) throws IOException {
+      this.parser = parser;
+      this.reader = reader;
+      try {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          throw new IOException("JSON 배열이 아닙니다.");
+        }
+      } catch (IOException | RuntimeException e) {
+        parser.close();
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed) {
+        return false;
+      }
+      if (ready) {
+        return true;
+      }
+      try {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          throw new IOException("JSON 배열이 끝나지 않았습니다.");
+        }
+        if (token != JsonToken.END_ARRAY) {
+          ready = true;
+          return true;
+        }
+        if (parser.nextToken() != null) {
+          throw new IOException("JSON 배열 뒤에 다른 데이터가 있습니다.");
+        }
+        close();
+        return false;
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      ready = false;
+      try {
+        // 파서가 항목의 첫 토큰에 있으므로 그 항목만 읽는다.
+        return reader.readValue(parser);
+      } catch (IOException e) {
+        close();
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        parser.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
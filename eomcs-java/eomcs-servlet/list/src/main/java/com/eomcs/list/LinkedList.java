@@ -3,75 +3,119 @@
  */
 package com.eomcs.list;
 
-public class LinkedList {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class LinkedList implements Iterable<String> {
     private Node head;
+    private Node tail;
+    private int size;
 
     public void add(String element) {
         Node newNode = new Node(element);
 
-        Node it = tail(head);
-        if (it == null) {
+        if (tail == null) {
             head = newNode;
         } else {
-            it.next = newNode;
+            newNode.prev = tail;
+            tail.next = newNode;
         }
-    }
-
-    private static Node tail(Node head) {
-        Node it;
-
-        for (it = head; it != null && it.next != null; it = it.next) {}
-
-        return it;
+        tail = newNode;
+        size++;
     }
 
     public boolean remove(String element) {
-        boolean result = false;
-        Node previousIt = null;
-        Node it = null;
-        for (it = head; !result && it != null; previousIt = it, it = it.next) {
+        for (Node it = head; it != null; it = it.next) {
             if (0 == element.compareTo(it.data)) {
-                result = true;
-                unlink(previousIt, it);
-                break;
+                unlink(it);
+                return true;
             }
         }
 
-        return result;
+        return false;
     }
 
-    private void unlink(Node previousIt, Node currentIt) {
-        if (currentIt == head) {
-            head = currentIt.next;
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
         } else {
-            previousIt.next = currentIt.next;
+            node.prev.next = node.next;
         }
-    }
 
-    public int size() {
-        int size = 0;
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
 
-        for (Node it = head; it != null; ++size, it = it.next) {}
+        node.prev = null;
+        node.next = null;
+        size--;
+    }
 
+    public int size() {
         return size;
     }
 
     public String get(int index) {
-        Node it = head;
-        while (index > 0 && it != null) {
-            it = it.next;
-            index--;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index is out of range");
         }
 
-        if (it == null) {
-            throw new IndexOutOfBoundsException("Index is out of range");
+        // Walk from whichever end is closer.
+        Node it;
+        if (index < (size >> 1)) {
+            it = head;
+            for (int i = 0; i < index; i++) {
+                it = it.next;
+            }
+        } else {
+            it = tail;
+            for (int i = size - 1; i > index; i--) {
+                it = it.prev;
+            }
         }
 
         return it.data;
     }
 
+    @Override
+    public Iterator<String> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<String> {
+        private Node next = head;
+        private Node lastReturned;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.data;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+        }
+    }
+
     private static class Node {
         final String data;
+        Node prev;
         Node next;
 
         Node(String data) {
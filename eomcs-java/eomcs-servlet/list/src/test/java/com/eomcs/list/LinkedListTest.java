@@ -3,6 +3,8 @@
  */
 package com.eomcs.list;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,4 +49,50 @@ class LinkedListTest {
         assertFalse(list.remove("three"));
         assertEquals(2, list.size());
     }
+
+    @Test void testGet() {
+        LinkedList list = new LinkedList();
+
+        for (int i = 0; i < 5; i++) {
+            list.add("item" + i);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals("item" + i, list.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(5));
+    }
+
+    @Test void testAddAfterRemoveLast() {
+        LinkedList list = new LinkedList();
+
+        list.add("one");
+        list.add("two");
+        assertTrue(list.remove("two"));
+
+        list.add("three");
+        assertEquals(2, list.size());
+        assertEquals("one", list.get(0));
+        assertEquals("three", list.get(1));
+    }
+
+    @Test void testIterator() {
+        LinkedList list = new LinkedList();
+
+        list.add("one");
+        list.add("two");
+        list.add("three");
+
+        Iterator<String> it = list.iterator();
+        assertTrue(it.hasNext());
+        assertEquals("one", it.next());
+        assertEquals("two", it.next());
+        it.remove();
+        assertEquals("three", it.next());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+
+        assertEquals(2, list.size());
+        assertEquals("three", list.get(1));
+    }
 }
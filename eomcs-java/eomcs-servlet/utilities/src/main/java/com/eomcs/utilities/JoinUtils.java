@@ -8,11 +8,11 @@ import com.eomcs.list.LinkedList;
 class JoinUtils {
     public static String join(LinkedList source) {
         StringBuilder result = new StringBuilder();
-        for (int i = 0; i < source.size(); ++i) {
+        for (String token : source) {
             if (result.length() > 0) {
                 result.append(" ");
             }
-            result.append(source.get(i));
+            result.append(token);
         }
 
         return result.toString();
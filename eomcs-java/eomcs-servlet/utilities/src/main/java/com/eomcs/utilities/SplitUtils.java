@@ -12,11 +12,7 @@ class SplitUtils {
         LinkedList result = new LinkedList();
 
         while ((currentFind = source.indexOf(" ", lastFind)) != -1) {
-            String token = source.substring(lastFind);
-            if (currentFind != -1) {
-                token = token.substring(0, currentFind - lastFind);
-            }
-
+            String token = source.substring(lastFind, currentFind);
             addIfValid(token, result);
             lastFind = currentFind + 1;
         }
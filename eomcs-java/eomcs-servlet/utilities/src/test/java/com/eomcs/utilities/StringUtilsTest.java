@@ -0,0 +1,51 @@
+/*
+ * This Java source file was generated by the Gradle 'init' task.
+ */
+package com.eomcs.utilities;
+
+import com.eomcs.list.LinkedList;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringUtilsTest {
+    @Test void testSplit() {
+        LinkedList list = StringUtils.split(" one  two three ");
+
+        assertEquals(3, list.size());
+        assertEquals("one", list.get(0));
+        assertEquals("two", list.get(1));
+        assertEquals("three", list.get(2));
+    }
+
+    @Test void testJoin() {
+        LinkedList list = new LinkedList();
+        list.add("one");
+        list.add("two");
+        list.add("three");
+
+        assertEquals("one two three", StringUtils.join(list));
+    }
+
+    @Test void testSplitAndJoinLargeInput() {
+        int count = 1_000_000;
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                source.append(' ');
+            }
+            source.append("token").append(i);
+        }
+        String input = source.toString();
+
+        // split() followed by join() must stay linear in the number of tokens.
+        String result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            LinkedList list = StringUtils.split(input);
+            assertEquals(count, list.size());
+            return StringUtils.join(list);
+        });
+
+        assertEquals(input, result);
+    }
+}
@@ -1,10 +1,13 @@
 package com.eomcs.tdd.step20.green;
 
-import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 class Bank {
 
-  private Hashtable<Pair, Integer> rates = new Hashtable<>();
+  // Hashtable 은 모든 조회가 한 개의 락을 거친다.
+  // => 여러 스레드가 동시에 rate()를 호출해도 락 없이 조회할 수 있게 ConcurrentHashMap 을 사용한다.
+  private final Map<Pair, Integer> rates = new ConcurrentHashMap<>();
 
   Money reduce(Expression source, String to) {
     return source.reduce(this, to);
@@ -22,9 +25,9 @@ class Bank {
     rates.put(new Pair(from, to), rate);
   }
 
-  private class Pair {
-    private String from;
-    private String to;
+  private static class Pair {
+    private final String from;
+    private final String to;
 
     public Pair(String from, String to) {
       this.from = from;
@@ -37,9 +40,11 @@ class Bank {
       return from.equals(pair.from) && to.equals(pair.to);
     }
 
+    // 항상 0 을 리턴하면 모든 Pair 가 같은 버킷에 들어가서 조회할 때마다 전체를 비교하게 된다.
+    // => equals()에서 비교하는 필드로 해시 값을 만든다.
     @Override
     public int hashCode() {
-      return 0;
+      return 31 * from.hashCode() + to.hashCode();
     }
   }
 }
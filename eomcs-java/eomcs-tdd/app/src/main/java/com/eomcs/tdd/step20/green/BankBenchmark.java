@@ -0,0 +1,76 @@
+package com.eomcs.tdd.step20.green;
+
+// 항이 n 개(기본 1,000,000개)인 Sum 식을 USD 로 reduce 하는 시간 측정
+// - 여러 통화를 섞어서 rate() 조회가 Pair 의 hashCode()에 영향을 받게 한다.
+// - Sum 트리를 reduce 하는 경우와 CompiledExpression 으로 컴파일한 후 reduce 하는 경우를 비교한다.
+//   매 반복마다 환율을 바꿔서 컴파일한 식이 바뀐 환율로 계산하는지 확인한다.
+// - 여러 번 반복하여 가장 빠른 결과를 출력한다. (처음 몇 번은 JIT 컴파일이 끝나지 않아 느리다)
+//
+// 실행:
+//   java com.eomcs.tdd.step20.green.BankBenchmark [항의 개수(기본 1000000)] [반복 횟수(기본 7)]
+//
+public class BankBenchmark {
+
+  static final String[] CURRENCIES = {
+      "USD", "CHF", "EUR", "GBP", "JPY", "KRW", "CNY", "CAD", "AUD", "NZD",
+      "SEK", "NOK", "DKK", "HKD", "SGD", "INR", "BRL", "MXN", "ZAR", "TWD"};
+
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+    // 모든 통화 쌍의 환율을 등록한다. USD 로 바꿀 때의 환율은 i + 1 이다.
+    Bank bank = new Bank();
+    for (int i = 0; i < CURRENCIES.length; i++) {
+      for (int j = 0; j < CURRENCIES.length; j++) {
+        if (i != j) {
+          bank.addRate(CURRENCIES[i], CURRENCIES[j], j == 0 ? i + 1 : 1);
+        }
+      }
+    }
+
+    // plus()를 반복해서 augend 쪽으로 깊이가 n 인 식을 만든다.
+    // => 각 항은 (c + 1) CURRENCIES[c] 이므로 USD 로 바꾸면 모두 1 이다.
+    Expression sum = Money.dollar(1);
+    for (int i = 1; i < count; i++) {
+      int c = i % CURRENCIES.length;
+      sum = sum.plus(new Money(c + 1, CURRENCIES[c]));
+    }
+
+    System.out.printf("항의 개수: %,d, 통화 수: %d, 반복 횟수: %d\n",
+        count, CURRENCIES.length, rounds);
+
+    long start = System.nanoTime();
+    Expression compiled = CompiledExpression.compile(sum);
+    System.out.printf("compile: %,.1f ms\n", (System.nanoTime() - start) / 1e6);
+
+    long sumTime = measure(bank, sum, count, rounds);
+    long compiledTime = measure(bank, compiled, count, rounds);
+    System.out.printf("%-10s reduce: %,8.1f ms, %,14.0f 항/s\n",
+        "Sum", sumTime / 1e6, count / (sumTime / 1e9));
+    System.out.printf("%-10s reduce: %,8.1f ms, %,14.0f 항/s\n",
+        "Compiled", compiledTime / 1e6, count / (compiledTime / 1e9));
+  }
+
+  // 가장 빠른 시간(ns)을 리턴한다.
+  static long measure(Bank bank, Expression expression, int count, int rounds) {
+    long best = Long.MAX_VALUE;
+    for (int r = 0; r < rounds; r++) {
+      // 환율을 두 배로 바꾸면 USD 가 아닌 항은 (c + 1) / (2 * (c + 1)) = 0 이 된다.
+      int factor = r % 2 + 1;
+      for (int i = 1; i < CURRENCIES.length; i++) {
+        bank.addRate(CURRENCIES[i], "USD", (i + 1) * factor);
+      }
+      long expected = factor == 1 ? count : (count + CURRENCIES.length - 1) / CURRENCIES.length;
+
+      long start = System.nanoTime();
+      Money result = bank.reduce(expression, "USD");
+      best = Math.min(best, System.nanoTime() - start);
+
+      if (result.amount != expected) {
+        throw new IllegalStateException("reduce 결과가 다릅니다: " + result);
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,123 @@
+package com.eomcs.tdd.step20.green;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Expression 트리를 한 번만 순회하여 (금액, 통화) 항의 배열로 펼친 식
+// - Sum 트리는 덧셈만 있으므로 후위 표기로 펼치면 항을 차례대로 나열한 것과 같다.
+//   => 항 배열과, 항 마다 통화 번호를 저장한다.
+// - reduce() 는 객체 그래프를 다시 순회하지 않는다.
+//   => 통화 종류 별로 환율을 한 번씩만 조회한 후 int 변수에 합계를 누적한다.
+//   => 환율은 reduce() 할 때마다 조회하므로 Bank 의 환율이 바뀌어도 다시 컴파일할 필요가 없다.
+// - 각 항을 따로 환산한 후 더하므로 Sum.reduce() 와 결과(정수 나눗셈 포함)가 같다.
+//
+class CompiledExpression implements Expression {
+
+  private final String[] currencies; // 식에 등장하는 통화 (중복 없음)
+  private final int[] currencyIndexes; // 각 항의 통화 번호 (currencies 의 인덱스)
+  private final int[] amounts; // 각 항의 금액
+
+  private CompiledExpression(String[] currencies, int[] currencyIndexes, int[] amounts) {
+    this.currencies = currencies;
+    this.currencyIndexes = currencyIndexes;
+    this.amounts = amounts;
+  }
+
+  static CompiledExpression compile(Expression source) {
+    if (source instanceof CompiledExpression compiled) {
+      return compiled;
+    }
+
+    Map<String, Integer> indexes = new HashMap<>();
+    List<String> currencies = new ArrayList<>();
+    int[] currencyIndexes = new int[16];
+    int[] amounts = new int[16];
+    int size = 0;
+
+    Deque<Expression> stack = new ArrayDeque<>();
+    stack.push(source);
+    while (!stack.isEmpty()) {
+      Expression expression = stack.pop();
+      if (expression instanceof Sum sum) {
+        stack.push(sum.addend);
+        stack.push(sum.augend);
+        continue;
+      }
+
+      // 이미 컴파일된 식이 포함되어 있다면 그 항을 그대로 덧붙인다.
+      CompiledExpression other = expression instanceof CompiledExpression compiled
+          ? compiled : null;
+      int termCount = other != null ? other.amounts.length : 1;
+      if (size + termCount > amounts.length) {
+        int capacity = Math.max(amounts.length * 2, size + termCount);
+        currencyIndexes = Arrays.copyOf(currencyIndexes, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+      }
+
+      if (other != null) {
+        for (int i = 0; i < other.amounts.length; i++) {
+          currencyIndexes[size] = indexOf(other.currencies[other.currencyIndexes[i]],
+              indexes, currencies);
+          amounts[size++] = other.amounts[i];
+        }
+      } else if (expression instanceof Money money) {
+        currencyIndexes[size] = indexOf(money.currency, indexes, currencies);
+        amounts[size++] = money.amount;
+      } else {
+        throw new IllegalArgumentException("컴파일할 수 없는 식입니다: " + expression);
+      }
+    }
+
+    return new CompiledExpression(currencies.toArray(new String[0]),
+        Arrays.copyOf(currencyIndexes, size), Arrays.copyOf(amounts, size));
+  }
+
+  private static int indexOf(String currency, Map<String, Integer> indexes,
+      List<String> currencies) {
+    Integer index = indexes.get(currency);
+    if (index == null) {
+      index = currencies.size();
+      indexes.put(currency, index);
+      currencies.add(currency);
+    }
+    return index;
+  }
+
+  @Override
+  public Money reduce(Bank bank, String to) {
+    int[] rates = new int[currencies.length];
+    for (int i = 0; i < currencies.length; i++) {
+      rates[i] = bank.rate(currencies[i], to);
+    }
+
+    int amount = 0;
+    for (int i = 0; i < amounts.length; i++) {
+      amount += amounts[i] / rates[currencyIndexes[i]];
+    }
+    return new Money(amount, to);
+  }
+
+  @Override
+  public Expression plus(Expression addend) {
+    return new Sum(this, addend);
+  }
+
+  // 트리를 다시 만들지 않고 금액 배열만 새로 만든다.
+  @Override
+  public Expression times(int multiplier) {
+    int[] multiplied = new int[amounts.length];
+    for (int i = 0; i < amounts.length; i++) {
+      multiplied[i] = amounts[i] * multiplier;
+    }
+    return new CompiledExpression(currencies, currencyIndexes, multiplied);
+  }
+
+  int size() {
+    return amounts.length;
+  }
+}
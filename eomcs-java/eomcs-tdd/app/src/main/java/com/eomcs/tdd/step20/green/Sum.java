@@ -1,5 +1,8 @@
 package com.eomcs.tdd.step20.green;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 class Sum implements Expression {
 
   Expression augend; // 피가수
@@ -10,9 +13,23 @@ class Sum implements Expression {
     this.addend = addend;
   }
 
+  // plus()를 반복하면 augend 쪽으로 깊어지는 트리가 만들어진다.
+  // => 재귀 호출로 reduce 하면 항이 많을 때 StackOverflowError 가 발생한다.
+  // => 스택을 직접 관리하여 반복문으로 각 항을 더한다.
   @Override
   public Money reduce(Bank bank, String to) {
-    int amount = augend.reduce(bank, to).amount + addend.reduce(bank, to).amount;
+    int amount = 0;
+    Deque<Expression> stack = new ArrayDeque<>();
+    stack.push(this);
+    while (!stack.isEmpty()) {
+      Expression expression = stack.pop();
+      if (expression instanceof Sum sum) {
+        stack.push(sum.addend);
+        stack.push(sum.augend);
+      } else {
+        amount += expression.reduce(bank, to).amount;
+      }
+    }
     return new Money(amount, to);
   }
 
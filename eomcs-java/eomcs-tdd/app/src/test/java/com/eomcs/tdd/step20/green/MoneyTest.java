@@ -10,6 +10,84 @@ class MoneyTest {
 
   // testPlusSameCurrencyReturnsMoney()를 제거하여 원래의 테스트로 돌아간다.
 
+  @Test
+  void testReduceDeepSum() {
+    Bank bank = new Bank();
+    bank.addRate("CHF", "USD", 2);
+    Expression sum = Money.dollar(1);
+    for (int i = 1; i < 1_000_000; i++) {
+      sum = sum.plus(i % 2 == 0 ? Money.dollar(1) : Money.franc(2));
+    }
+    Money result = bank.reduce(sum, "USD");
+    assertEquals(Money.dollar(1_000_000), result);
+  }
+
+  @Test
+  void testCompiledReduce() {
+    Bank bank = new Bank();
+    bank.addRate("CHF", "USD", 2);
+    bank.addRate("USD", "CHF", 1);
+    Expression sum = Money.dollar(5).plus(Money.franc(10)).plus(Money.franc(3));
+    CompiledExpression compiled = CompiledExpression.compile(sum);
+    assertEquals(3, compiled.size());
+    assertEquals(bank.reduce(sum, "USD"), bank.reduce(compiled, "USD"));
+    assertEquals(bank.reduce(sum, "CHF"), bank.reduce(compiled, "CHF"));
+    assertEquals(Money.dollar(11), bank.reduce(compiled, "USD"));
+  }
+
+  @Test
+  void testCompiledReduceAfterRateChange() {
+    Bank bank = new Bank();
+    bank.addRate("CHF", "USD", 2);
+    Expression compiled = CompiledExpression.compile(Money.dollar(5).plus(Money.franc(10)));
+    assertEquals(Money.dollar(10), bank.reduce(compiled, "USD"));
+    bank.addRate("CHF", "USD", 5);
+    assertEquals(Money.dollar(7), bank.reduce(compiled, "USD"));
+  }
+
+  @Test
+  void testCompiledTimesAndPlus() {
+    Bank bank = new Bank();
+    bank.addRate("CHF", "USD", 2);
+    Expression compiled = CompiledExpression.compile(Money.dollar(5).plus(Money.franc(10)));
+    assertEquals(Money.dollar(20), bank.reduce(compiled.times(2), "USD"));
+    Expression sum = compiled.plus(Money.dollar(5));
+    assertEquals(Money.dollar(15), bank.reduce(sum, "USD"));
+    assertEquals(Money.dollar(15), bank.reduce(CompiledExpression.compile(sum), "USD"));
+  }
+
+  @Test
+  void testCompiledReduceDeepSum() {
+    Bank bank = new Bank();
+    bank.addRate("CHF", "USD", 2);
+    Expression sum = Money.dollar(1);
+    for (int i = 1; i < 1_000_000; i++) {
+      sum = sum.plus(i % 2 == 0 ? Money.dollar(1) : Money.franc(2));
+    }
+    CompiledExpression compiled = CompiledExpression.compile(sum);
+    assertEquals(1_000_000, compiled.size());
+    assertEquals(Money.dollar(1_000_000), bank.reduce(compiled, "USD"));
+  }
+
+  @Test
+  void testRateForManyCurrencies() {
+    String[] currencies = {"USD", "CHF", "EUR", "GBP", "JPY", "KRW"};
+    Bank bank = new Bank();
+    for (int i = 0; i < currencies.length; i++) {
+      for (int j = 0; j < currencies.length; j++) {
+        if (i != j) {
+          bank.addRate(currencies[i], currencies[j], i * 10 + j);
+        }
+      }
+    }
+    for (int i = 0; i < currencies.length; i++) {
+      for (int j = 0; j < currencies.length; j++) {
+        assertEquals(i == j ? 1 : i * 10 + j,
+            bank.rate(new String(currencies[i]), new String(currencies[j])));
+      }
+    }
+  }
+
   @Test
   void testSumTimes() {
     Money fiveBucks = Money.dollar(5);